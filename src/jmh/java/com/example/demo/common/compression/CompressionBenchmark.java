@@ -0,0 +1,123 @@
+package com.example.demo.common.compression;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the CPU cost of compressing product pages against the bytes saved. The
+ * {@code inputBytes} and {@code outputBytes} counters give the compression ratio of each
+ * coding and level at our typical page sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+	private static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing",
+			"elit", "sed", "do", "eiusmod", "tempor", "incididunt", "labore", "magna", "aliqua" };
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	@Param({ "ZSTD:1", "ZSTD:3", "GZIP:1", "GZIP:6" })
+	private String codingLevel;
+
+	private ContentCoding coding;
+
+	private int level;
+
+	private byte[] page;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		String[] parts = codingLevel.split(":");
+		coding = ContentCoding.valueOf(parts[0]);
+		level = Integer.parseInt(parts[1]);
+		page = page(pageSize).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public byte[] compress(Bytes bytes) {
+		byte[] compressed = coding.compress(page, level);
+		bytes.inputBytes += page.length;
+		bytes.outputBytes += compressed.length;
+		return compressed;
+	}
+
+	/**
+	 * Counts the bytes before and after compression per operation.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Bytes {
+
+		public long inputBytes;
+
+		public long outputBytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			inputBytes = 0;
+			outputBytes = 0;
+		}
+
+	}
+
+	/**
+	 * Builds a page shaped like the product list response, with descriptions of close to
+	 * the 1000 characters allowed.
+	 */
+	private static String page(int size) {
+		SplittableRandom random = new SplittableRandom(42);
+		StringBuilder json = new StringBuilder("{\"content\":[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			StringBuilder description = new StringBuilder();
+			while (description.length() < 950) {
+				description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			json.append("{\"id\":")
+				.append(i + 1)
+				.append(",\"name\":\"Product ")
+				.append(i)
+				.append("\",\"description\":\"")
+				.append(description.toString().trim())
+				.append("\",\"priceUSD\":")
+				.append(10 + random.nextInt(990))
+				.append(".99,\"priceEUR\":")
+				.append(9 + random.nextInt(900))
+				.append(".49,\"category\":\"Category ")
+				.append(i % 10)
+				.append("\",\"imageUrl\":\"https://example.com/")
+				.append(i)
+				.append(".jpg\",\"available\":true,\"createdAt\":[2025,1,15,10,30],\"updatedAt\":[2025,1,15,10,30]}");
+		}
+		return json.append("],\"page\":0,\"size\":")
+			.append(size)
+			.append(",\"totalElements\":")
+			.append(size)
+			.append(",\"totalPages\":1,\"first\":true,\"last\":true}")
+			.toString();
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.example.demo.common.error;
+
+import com.example.demo.product.domain.ProductNotFoundException;
+import jakarta.persistence.EntityNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the not-found path for a client probing random product IDs. The
+ * exception is thrown below {@code depth} frames, roughly what the servlet, filter and
+ * proxy layers put beneath a controller, since that is what stack trace capture costs
+ * scale with. {@code handler*} benchmarks add building the problem response, with the
+ * warning rate limited as in production.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+	@Param({ "20", "120" })
+	private int depth;
+
+	private final String problemBaseUrl = "https://api.product-catalog.com/problems";
+
+	private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler();
+
+	@Benchmark
+	public Object throwEntityNotFound() {
+		try {
+			return lookup(depth, false);
+		}
+		catch (EntityNotFoundException ex) {
+			return ex;
+		}
+	}
+
+	@Benchmark
+	public Object throwProductNotFound() {
+		try {
+			return lookup(depth, true);
+		}
+		catch (EntityNotFoundException ex) {
+			return ex;
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public ProblemDetail handlerPerRequestTemplate() {
+		try {
+			return (ProblemDetail) lookup(depth, false);
+		}
+		catch (EntityNotFoundException ex) {
+			// The problem response as it was built before the problem types were precomputed
+			ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
+			problemDetail.setTitle("Resource Not Found");
+			problemDetail.setType(URI.create(problemBaseUrl + "/not-found"));
+			problemDetail.setProperty("timestamp", Instant.now());
+			return problemDetail;
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	public ProblemDetail handlerPrecomputed() {
+		try {
+			return (ProblemDetail) lookup(depth, true);
+		}
+		catch (EntityNotFoundException ex) {
+			return exceptionHandler.handleEntityNotFoundException(ex);
+		}
+	}
+
+	private static Object lookup(int remainingFrames, boolean stackless) {
+		if (remainingFrames > 0) {
+			return lookup(remainingFrames - 1, stackless);
+		}
+		long id = ThreadLocalRandom.current().nextLong(1_000_000);
+		if (stackless) {
+			throw new ProductNotFoundException(id);
+		}
+		throw new EntityNotFoundException("Product not found with ID: " + id);
+	}
+
+}
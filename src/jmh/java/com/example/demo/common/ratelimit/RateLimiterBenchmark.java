@@ -0,0 +1,90 @@
+package com.example.demo.common.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of the rate limiter: path matching, bucket lookup and the
+ * CAS on the bucket. Limits are set high enough that no request is rejected, so the
+ * numbers reflect the permitted (hot) path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+	private static final int CLIENTS = 10_000;
+
+	private static final long UNLIMITED = 1_000_000_000L;
+
+	private RateLimiter rateLimiter;
+
+	private TokenBucket sharedBucket;
+
+	private String[] clientIds;
+
+	@Setup
+	public void setUp() {
+		Map<String, RateLimitProperties.Group> groups = new LinkedHashMap<>();
+		groups.put("search", new RateLimitProperties.Group(List.of("/api/v1/products/search"), List.of("GET"),
+				UNLIMITED, UNLIMITED));
+		groups.put("read", new RateLimitProperties.Group(List.of("/api/v1/products", "/api/v1/products/**"),
+				List.of("GET"), UNLIMITED, UNLIMITED));
+		rateLimiter = new RateLimiter(new RateLimitProperties(true, CLIENTS * 2L, Duration.ofMinutes(10), groups),
+				new SimpleMeterRegistry());
+		sharedBucket = new TokenBucket(UNLIMITED, UNLIMITED, System.nanoTime());
+		clientIds = new String[CLIENTS];
+		for (int i = 0; i < CLIENTS; i++) {
+			clientIds[i] = "client-" + i;
+		}
+	}
+
+	@Benchmark
+	public long tokenBucketUncontended() {
+		return sharedBucket.tryConsume(System.nanoTime());
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long tokenBucketContended() {
+		return sharedBucket.tryConsume(System.nanoTime());
+	}
+
+	@Benchmark
+	public void searchSingleClient() {
+		rateLimiter.acquire("GET", "/api/v1/products/search", "client-0");
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void searchManyClients() {
+		rateLimiter.acquire("GET", "/api/v1/products/search",
+				clientIds[ThreadLocalRandom.current().nextInt(CLIENTS)]);
+	}
+
+	@Benchmark
+	public void unlimitedPath() {
+		rateLimiter.acquire("POST", "/api/v1/products", "client-0");
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.api.proto.ProductProtos;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encodings offered to service-to-service callers: the time to encode and
+ * decode a page of products, and through the {@code bytes} counter the payload size per
+ * page. Run with {@code -PjmhProfilers=gc} to compare the allocation per page as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductFormatBenchmark {
+
+	private static final TypeReference<PageResponse<ProductResponse>> PAGE_TYPE = new TypeReference<>() {
+	};
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	@Param({ "json", "smile", "cbor", "protobuf" })
+	private String format;
+
+	private ObjectMapper mapper;
+
+	private PageResponse<ProductResponse> page;
+
+	private byte[] encoded;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		mapper = switch (format) {
+			case "smile" -> mapper(new SmileFactory());
+			case "cbor" -> mapper(new CBORFactory());
+			default -> mapper(new JsonFactory());
+		};
+		LocalDateTime now = LocalDateTime.now();
+		List<ProductResponse> products = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			Money price = new Money(1000 + i * 37L, 2);
+			String description = ("Description of product " + i + ". ").repeat(8);
+			products.add(new ProductResponse((long) i + 1, "Product " + i, description, price,
+					new Money(price.minorUnits() * 91 / 100, 2), null, null, "Category " + (i % 10),
+					"https://example.com/" + i + ".jpg", true, now, now, 0));
+		}
+		page = PageResponse.from(new PageImpl<>(products, PageRequest.of(0, pageSize), pageSize));
+		encoded = encodePage();
+	}
+
+	@Benchmark
+	public byte[] encode(Bytes bytes) throws IOException {
+		byte[] body = encodePage();
+		bytes.bytes += body.length;
+		return body;
+	}
+
+	@Benchmark
+	public Object decode() throws IOException {
+		if (format.equals("protobuf")) {
+			return ProductProtos.ProductPage.parseFrom(encoded);
+		}
+		return mapper.readValue(encoded, PAGE_TYPE);
+	}
+
+	/**
+	 * Counts the encoded bytes per operation.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Bytes {
+
+		public long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			bytes = 0;
+		}
+
+	}
+
+	private byte[] encodePage() throws IOException {
+		if (format.equals("protobuf")) {
+			ProductProtos.ProductPage.Builder builder = ProductProtos.ProductPage.newBuilder();
+			for (ProductResponse product : page.content()) {
+				builder.addContent(ProductProtobuf.toProto(product));
+			}
+			return builder.setPage(page.page())
+				.setSize(page.size())
+				.setTotalElements(page.totalElements())
+				.setTotalPages(page.totalPages())
+				.setFirst(page.first())
+				.setLast(page.last())
+				.build()
+				.toByteArray();
+		}
+		return mapper.writeValueAsBytes(page);
+	}
+
+	private static ObjectMapper mapper(JsonFactory factory) {
+		SimpleModule money = new SimpleModule();
+		money.addSerializer(Money.class, new MoneyJsonComponent.Serializer());
+		money.addDeserializer(Money.class, new MoneyJsonComponent.Deserializer());
+		return new ObjectMapper(factory).registerModule(new JavaTimeModule())
+			.registerModule(money)
+			.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	}
+
+}
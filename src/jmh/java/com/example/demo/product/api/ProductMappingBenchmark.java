@@ -0,0 +1,123 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.config.CurrencyExchangeProperties;
+import com.example.demo.product.domain.CurrencyExchangeService;
+import com.example.demo.product.domain.Money;
+import com.example.demo.product.domain.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of mapping a page of products the way {@code getAllProducts} used to
+ * (one exchange-rate lookup through the caching proxy per row) with the
+ * page-level conversion that resolves the rate once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private AnnotationConfigApplicationContext context;
+
+	private CurrencyExchangeService currencyExchangeService;
+
+	private Page<Product> page;
+
+	@Configuration
+	@EnableCaching
+	@Import(CurrencyExchangeService.class)
+	static class ProxiedCurrencyConfig {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new CaffeineCacheManager("currency");
+		}
+
+		@Bean
+		RestClient restClient() {
+			return RestClient.create();
+		}
+
+		@Bean
+		CurrencyExchangeProperties currencyExchangeProperties() {
+			return new CurrencyExchangeProperties("http://localhost/latest?", 3, "USD", Duration.ofMinutes(5),
+					Duration.ofHours(1),
+					new CurrencyExchangeProperties.Backoff(Duration.ofMillis(200), 2.0, Duration.ofSeconds(2)),
+					new CurrencyExchangeProperties.Breaker(5, Duration.ofSeconds(30)));
+		}
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(ProxiedCurrencyConfig.class);
+		currencyExchangeService = context.getBean(CurrencyExchangeService.class);
+		// Pre-populate the cache so every lookup is a cache hit and no HTTP call is made
+		context.getBean(CacheManager.class).getCache("currency").put("USD-EUR", new BigDecimal("0.91"));
+
+		List<Product> products = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			products.add(new Product("Product " + i, "Description of product " + i, new Money(1000 + i * 37L, 2),
+					"Category " + (i % 10), "https://example.com/" + i + ".jpg", true));
+		}
+		page = new PageImpl<>(products, PageRequest.of(0, pageSize), pageSize);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Page<ProductResponse> perRowRateLookup() {
+		return page.map(product -> ProductResponse.fromEntity(product, currencyExchangeService));
+	}
+
+	@Benchmark
+	public Page<ProductResponse> pageLevelRate() {
+		BigDecimal eurRate = currencyExchangeService.getExchangeRate("USD", "EUR");
+		return page.map(product -> ProductResponse.fromEntity(product, eurRate));
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.example.demo.product.api;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of Bean Validation on the {@link ProductRequest} of every create and update. A
+ * valid request only runs the constraints; an invalid one also interpolates a message
+ * per violation, which is what a client sending bad requests in a loop costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductRequestValidationBenchmark {
+
+	private ValidatorFactory validatorFactory;
+
+	private Validator validator;
+
+	private final ProductRequest validRequest = new ProductRequest("Wireless Keyboard",
+			"A compact wireless keyboard with a rechargeable battery", new BigDecimal("49.99"), "Electronics",
+			"https://example.com/keyboard.jpg", true);
+
+	private final ProductRequest invalidRequest = new ProductRequest("K", "Too short", new BigDecimal("-1"), null,
+			null, null);
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		validatorFactory = Validation.buildDefaultValidatorFactory();
+		validator = validatorFactory.getValidator();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		validatorFactory.close();
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<ProductRequest>> validRequest() {
+		return validator.validate(validRequest);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<ProductRequest>> invalidRequest() {
+		return validator.validate(invalidRequest);
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.domain.CurrencyRate;
+import com.example.demo.product.domain.Money;
+import com.example.demo.product.domain.PriceConverter;
+import com.example.demo.product.domain.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one page of product entities into the response: the
+ * {@link ProductResponse#fromEntity} overloads without conversion, with a resolved EUR
+ * rate and with a request-wide {@link PriceConverter}, and wrapping the mapped page in a
+ * {@link PageResponse}. The overload looking the rate up through the caching proxy is
+ * measured by {@link ProductMappingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductResponseBenchmark {
+
+	private static final BigDecimal EUR_RATE = new BigDecimal("0.91");
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private List<Product> products;
+
+	private PriceConverter priceConverter;
+
+	private Page<ProductResponse> mappedPage;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		products = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			products.add(new Product("Product " + i, "Description of product " + i, new Money(1000 + i * 37L, 2),
+					"Category " + (i % 10), "https://example.com/" + i + ".jpg", true));
+		}
+		priceConverter = new PriceConverter(CurrencyRate.of("EUR", EUR_RATE), "GBP",
+				CurrencyRate.of("GBP", new BigDecimal("0.78")));
+		mappedPage = new PageImpl<>(fromEntityWithConverter(), PageRequest.of(0, pageSize), 1000);
+	}
+
+	@Benchmark
+	public List<ProductResponse> fromEntity() {
+		List<ProductResponse> responses = new ArrayList<>(products.size());
+		for (Product product : products) {
+			responses.add(ProductResponse.fromEntity(product));
+		}
+		return responses;
+	}
+
+	@Benchmark
+	public List<ProductResponse> fromEntityWithRate() {
+		List<ProductResponse> responses = new ArrayList<>(products.size());
+		for (Product product : products) {
+			responses.add(ProductResponse.fromEntity(product, EUR_RATE));
+		}
+		return responses;
+	}
+
+	@Benchmark
+	public List<ProductResponse> fromEntityWithConverter() {
+		List<ProductResponse> responses = new ArrayList<>(products.size());
+		for (Product product : products) {
+			responses.add(ProductResponse.fromEntity(product, priceConverter));
+		}
+		return responses;
+	}
+
+	@Benchmark
+	public PageResponse<ProductResponse> pageResponseFrom() {
+		return PageResponse.from(mappedPage);
+	}
+
+}
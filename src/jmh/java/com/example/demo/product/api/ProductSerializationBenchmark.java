@@ -0,0 +1,107 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.cache.CacheRegistry;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a page of products field by field, with the Afterburner module
+ * generating accessors instead of reflection, and copying each product's cached JSON.
+ * Afterburner is on the classpath but not registered with the application's mapper;
+ * {@code afterburnerSerializer} against {@code beanSerializer} shows whether it would pay
+ * off. Run with {@code -PjmhProfilers=gc} to compare the allocation per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSerializationBenchmark {
+
+	@Param({ "20", "100" })
+	private int pageSize;
+
+	private ObjectMapper plainMapper;
+
+	private ObjectMapper afterburnerMapper;
+
+	private ObjectMapper cachingMapper;
+
+	private PageResponse<ProductResponse> page;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		ProductJsonCache cache = new ProductJsonCache(
+				new ProductJsonCacheProperties(true, DataSize.ofMegabytes(32), Duration.ofMinutes(10)),
+				new CacheRegistry(new SimpleMeterRegistry()), DataSize.ofKilobytes(1));
+		plainMapper = mapper();
+		afterburnerMapper = mapper().registerModule(new AfterburnerModule());
+		cachingMapper = mapper().registerModule(ProductJsonConfig.productJsonModule(cache));
+
+		LocalDateTime now = LocalDateTime.now();
+		List<ProductResponse> products = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			Money price = new Money(1000 + i * 37L, 2);
+			products.add(new ProductResponse((long) i + 1, "Product " + i, "Description of product " + i, price,
+					new Money(price.minorUnits() * 91 / 100, 2), null, null, "Category " + (i % 10),
+					"https://example.com/" + i + ".jpg", true, now, now, 0));
+		}
+		page = PageResponse.from(new PageImpl<>(products, PageRequest.of(0, pageSize), pageSize));
+		// Warm the cache so the measurement covers the steady state of repeated reads
+		cachingMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] beanSerializer() throws IOException {
+		return plainMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] afterburnerSerializer() throws IOException {
+		return afterburnerMapper.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] cachedFragments() throws IOException {
+		return cachingMapper.writeValueAsBytes(page);
+	}
+
+	private static ObjectMapper mapper() {
+		SimpleModule money = new SimpleModule();
+		money.addSerializer(Money.class, new MoneyJsonComponent.Serializer());
+		return new ObjectMapper().registerModule(new JavaTimeModule())
+			.registerModule(money)
+			.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	}
+
+}
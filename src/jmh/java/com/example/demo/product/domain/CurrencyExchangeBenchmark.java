@@ -0,0 +1,112 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.config.CurrencyExchangeProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an exchange-rate cache hit through the {@code @Cacheable} proxy of
+ * {@link CurrencyExchangeService}: key expression evaluation, cache interceptor and the
+ * Caffeine lookup, against reading the same Spring cache directly. The cache is
+ * pre-populated, so no HTTP call is made.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CurrencyExchangeBenchmark {
+
+	private AnnotationConfigApplicationContext context;
+
+	private CurrencyExchangeService currencyExchangeService;
+
+	private Cache cache;
+
+	@Configuration
+	@EnableCaching
+	@Import(CurrencyExchangeService.class)
+	static class ProxiedCurrencyConfig {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new CaffeineCacheManager("currency");
+		}
+
+		@Bean
+		RestClient restClient() {
+			return RestClient.create();
+		}
+
+		@Bean
+		CurrencyExchangeProperties currencyExchangeProperties() {
+			return new CurrencyExchangeProperties("http://localhost/latest?", 3, "USD", Duration.ofMinutes(5),
+					Duration.ofHours(1),
+					new CurrencyExchangeProperties.Backoff(Duration.ofMillis(200), 2.0, Duration.ofSeconds(2)),
+					new CurrencyExchangeProperties.Breaker(5, Duration.ofSeconds(30)));
+		}
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = new AnnotationConfigApplicationContext(ProxiedCurrencyConfig.class);
+		currencyExchangeService = context.getBean(CurrencyExchangeService.class);
+		cache = context.getBean(CacheManager.class).getCache("currency");
+		cache.put("USD-EUR", new BigDecimal("0.91"));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public BigDecimal proxiedCacheHit() {
+		return currencyExchangeService.getExchangeRate("USD", "EUR");
+	}
+
+	@Benchmark
+	@Threads(4)
+	public BigDecimal proxiedCacheHitContended() {
+		return currencyExchangeService.getExchangeRate("USD", "EUR");
+	}
+
+	@Benchmark
+	public BigDecimal directCacheHit() {
+		return cache.get("USD-EUR", BigDecimal.class);
+	}
+
+}
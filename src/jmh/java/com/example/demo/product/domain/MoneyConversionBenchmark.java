@@ -0,0 +1,86 @@
+package com.example.demo.product.domain;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares converting and rendering one page of prices with {@link BigDecimal} arithmetic
+ * against the fixed-point {@link Money} path. Run with the GC profiler to see the
+ * allocation per price ({@code gc.alloc.rate.norm}):
+ * {@code ./gradlew jmh -PjmhIncludes=MoneyConversionBenchmark -PjmhProfilers=gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyConversionBenchmark {
+
+	private static final int PAGE_SIZE = 100;
+
+	private static final BigDecimal EUR_RATE = new BigDecimal("0.91");
+
+	private final BigDecimal[] decimalPrices = new BigDecimal[PAGE_SIZE];
+
+	private final Money[] moneyPrices = new Money[PAGE_SIZE];
+
+	private CurrencyRate eur;
+
+	@Setup
+	public void setUp() {
+		eur = CurrencyRate.of("EUR", EUR_RATE);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			long minorUnits = 1000 + i * 3_737L;
+			decimalPrices[i] = BigDecimal.valueOf(minorUnits, 2);
+			moneyPrices[i] = new Money(minorUnits, 2);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAGE_SIZE)
+	public void bigDecimalConvert(Blackhole blackhole) {
+		for (BigDecimal price : decimalPrices) {
+			blackhole.consume(price.multiply(EUR_RATE).setScale(2, RoundingMode.HALF_UP));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAGE_SIZE)
+	public void moneyConvert(Blackhole blackhole) {
+		for (Money price : moneyPrices) {
+			blackhole.consume(eur.convert(price));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAGE_SIZE)
+	public void bigDecimalConvertAndRender(Blackhole blackhole) {
+		for (BigDecimal price : decimalPrices) {
+			blackhole.consume(price.multiply(EUR_RATE).setScale(2, RoundingMode.HALF_UP).toString());
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAGE_SIZE)
+	public void moneyConvertAndRender(Blackhole blackhole) {
+		for (Money price : moneyPrices) {
+			blackhole.consume(eur.convert(price).toString());
+		}
+	}
+
+}
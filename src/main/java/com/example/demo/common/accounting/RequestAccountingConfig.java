@@ -0,0 +1,32 @@
+package com.example.demo.common.accounting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration for per-request allocation and CPU time accounting. The thread counters
+ * it reads are not kept for virtual threads, so with {@code spring.threads.virtual.enabled}
+ * every request would be unaccounted and the filter is not registered at all. The
+ * {@code accounting} profile serves requests on platform threads to measure them, for
+ * example during a load test.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "request.accounting", name = "enabled", matchIfMissing = true)
+@ConditionalOnThreading(Threading.PLATFORM)
+class RequestAccountingConfig {
+
+	@Bean
+	FilterRegistrationBean<RequestAccountingFilter> requestAccountingFilter(MeterRegistry meterRegistry) {
+		var registration = new FilterRegistrationBean<>(new RequestAccountingFilter(meterRegistry));
+		// Inside the server span, outside compression, so encoding the body is counted too
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+		return registration;
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.example.demo.common.accounting;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap bytes allocated and the CPU time consumed by each request and records
+ * them per endpoint, to find the endpoints behind GC pressure and CPU load:
+ * <ul>
+ * <li>{@code http.server.requests.allocation}, the bytes allocated per request;</li>
+ * <li>{@code http.server.requests.cpu}, the CPU time per request;</li>
+ * <li>{@code http.server.requests.unaccounted}, requests that could not be measured
+ * because they ran on a thread without counters, such as a virtual thread.</li>
+ * </ul>
+ * Both values are also added to the current server span. Only work done on the request
+ * thread is counted; work handed to other threads is not. The meters of an endpoint are
+ * registered on its first request.
+ */
+class RequestAccountingFilter extends OncePerRequestFilter {
+
+	static final String ALLOCATION_METRIC = "http.server.requests.allocation";
+
+	static final String CPU_METRIC = "http.server.requests.cpu";
+
+	static final String UNACCOUNTED_METRIC = "http.server.requests.unaccounted";
+
+	static final AttributeKey<Long> ALLOCATED_BYTES_ATTRIBUTE = AttributeKey.longKey("app.request.allocated_bytes");
+
+	static final AttributeKey<Long> CPU_TIME_ATTRIBUTE = AttributeKey.longKey("app.request.cpu_time_ns");
+
+	private final MeterRegistry meterRegistry;
+
+	private final Counter unaccounted;
+
+	private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+	RequestAccountingFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.unaccounted = Counter.builder(UNACCOUNTED_METRIC)
+			.description("Requests whose allocation and CPU time could not be measured on their thread")
+			.register(meterRegistry);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long startBytes = ThreadResources.allocatedBytes();
+		long startCpu = ThreadResources.cpuNanos();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			long bytes = delta(startBytes, ThreadResources.allocatedBytes());
+			long cpu = delta(startCpu, ThreadResources.cpuNanos());
+			if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern) {
+				record(request.getMethod(), pattern, bytes, cpu);
+			}
+		}
+	}
+
+	private void record(String method, String pattern, long bytes, long cpuNanos) {
+		if (bytes == ThreadResources.UNSUPPORTED && cpuNanos == ThreadResources.UNSUPPORTED) {
+			unaccounted.increment();
+			return;
+		}
+		EndpointMeters meters = endpointMeters.computeIfAbsent(method + " " + pattern,
+				key -> EndpointMeters.register(meterRegistry, method, pattern));
+		Span span = Span.current();
+		if (bytes != ThreadResources.UNSUPPORTED) {
+			meters.allocation().record(bytes);
+			span.setAttribute(ALLOCATED_BYTES_ATTRIBUTE, bytes);
+		}
+		if (cpuNanos != ThreadResources.UNSUPPORTED) {
+			meters.cpu().record(cpuNanos, TimeUnit.NANOSECONDS);
+			span.setAttribute(CPU_TIME_ATTRIBUTE, cpuNanos);
+		}
+	}
+
+	private static long delta(long start, long end) {
+		if (start == ThreadResources.UNSUPPORTED || end == ThreadResources.UNSUPPORTED || end < start) {
+			return ThreadResources.UNSUPPORTED;
+		}
+		return end - start;
+	}
+
+	/**
+	 * The meters of one endpoint, registered on its first request.
+	 */
+	private record EndpointMeters(DistributionSummary allocation, Timer cpu) {
+
+		static EndpointMeters register(MeterRegistry meterRegistry, String method, String pattern) {
+			return new EndpointMeters(
+					DistributionSummary.builder(ALLOCATION_METRIC)
+						.description("Heap bytes allocated by the request thread")
+						.baseUnit("bytes")
+						.tag("method", method)
+						.tag("uri", pattern)
+						.register(meterRegistry),
+					Timer.builder(CPU_METRIC)
+						.description("CPU time consumed by the request thread")
+						.tag("method", method)
+						.tag("uri", pattern)
+						.register(meterRegistry));
+		}
+	}
+
+}
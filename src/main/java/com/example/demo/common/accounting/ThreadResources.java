@@ -0,0 +1,62 @@
+package com.example.demo.common.accounting;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the allocation and CPU time counters of the current thread from the HotSpot
+ * {@code ThreadMXBean}. Both counters are per thread and monotonic, so the difference of
+ * two readings on the same thread is what that thread allocated or consumed in between.
+ * <p>
+ * The counters are only kept for platform threads: on a virtual thread, or on a JVM
+ * without them, the readings are {@link #UNSUPPORTED}.
+ */
+public final class ThreadResources {
+
+	/**
+	 * Reading returned where the current thread has no counter.
+	 */
+	public static final long UNSUPPORTED = -1;
+
+	private static final com.sun.management.ThreadMXBean THREADS = hotSpotThreads();
+
+	private ThreadResources() {
+	}
+
+	/**
+	 * Returns the bytes allocated on the heap by the current thread since it started.
+	 * @return the allocated bytes, or {@link #UNSUPPORTED}
+	 */
+	public static long allocatedBytes() {
+		if (THREADS == null || Thread.currentThread().isVirtual()) {
+			return UNSUPPORTED;
+		}
+		long bytes = THREADS.getCurrentThreadAllocatedBytes();
+		return (bytes >= 0) ? bytes : UNSUPPORTED;
+	}
+
+	/**
+	 * Returns the CPU time consumed by the current thread since it started.
+	 * @return the CPU time in nanoseconds, or {@link #UNSUPPORTED}
+	 */
+	public static long cpuNanos() {
+		if (THREADS == null || Thread.currentThread().isVirtual()) {
+			return UNSUPPORTED;
+		}
+		long nanos = THREADS.getCurrentThreadCpuTime();
+		return (nanos >= 0) ? nanos : UNSUPPORTED;
+	}
+
+	private static com.sun.management.ThreadMXBean hotSpotThreads() {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)) {
+			return null;
+		}
+		if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+			threads.setThreadAllocatedMemoryEnabled(true);
+		}
+		if (threads.isCurrentThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+			threads.setThreadCpuTimeEnabled(true);
+		}
+		return threads;
+	}
+
+}
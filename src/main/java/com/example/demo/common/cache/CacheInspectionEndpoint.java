@@ -0,0 +1,183 @@
+package com.example.demo.common.cache;
+
+import com.example.demo.common.cache.CacheRegistry.RegisteredCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Actuator endpoint to look inside the caches of the {@link CacheRegistry}:
+ * <ul>
+ * <li>{@code GET /actuator/cacheinspector} lists the caches with their statistics</li>
+ * <li>{@code GET /actuator/cacheinspector/{name}?limit=20} shows the hottest entries of a
+ * cache with their age</li>
+ * <li>{@code DELETE /actuator/cacheinspector/{name}?key=...} or {@code ?prefix=...}
+ * evicts the entries whose key, as text, equals or starts with the value</li>
+ * </ul>
+ * Hotness follows the cache policy: access frequency for size-bounded caches, else the
+ * most recently accessed or written entries first. Spring Boot's {@code caches} endpoint
+ * remains the way to clear a whole cache.
+ */
+@Endpoint(id = "cacheinspector")
+public class CacheInspectionEndpoint {
+
+	private static final int DEFAULT_LIMIT = 20;
+
+	private static final int MAX_LIMIT = 1000;
+
+	private static final int MAX_KEY_LENGTH = 200;
+
+	private final CacheRegistry cacheRegistry;
+
+	CacheInspectionEndpoint(CacheRegistry cacheRegistry) {
+		this.cacheRegistry = cacheRegistry;
+	}
+
+	@ReadOperation
+	public Map<String, CacheSummary> caches() {
+		Map<String, CacheSummary> summaries = new LinkedHashMap<>();
+		cacheRegistry.caches().forEach((name, cache) -> summaries.put(name, CacheSummary.of(cache)));
+		return summaries;
+	}
+
+	@ReadOperation
+	public WebEndpointResponse<CacheContents> cache(@Selector String name, @OptionalParameter Integer limit) {
+		RegisteredCache registered = cacheRegistry.cache(name);
+		if (registered == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		int entryLimit = (limit != null) ? Math.clamp(limit, 1, MAX_LIMIT) : DEFAULT_LIMIT;
+		Policy<Object, Object> policy = registered.cache().policy();
+		HotEntries hot = hotEntries(registered.cache(), entryLimit);
+		List<EntryInfo> entries = new ArrayList<>(hot.entries().size());
+		for (Object key : hot.entries().keySet()) {
+			entries.add(new EntryInfo(abbreviate(String.valueOf(key)),
+					policy.expireAfterWrite().flatMap(expiration -> expiration.ageOf(key)).orElse(null),
+					policy.expireAfterAccess().flatMap(expiration -> expiration.ageOf(key)).orElse(null)));
+		}
+		return new WebEndpointResponse<>(new CacheContents(CacheSummary.of(registered), hot.order(), entries));
+	}
+
+	@DeleteOperation
+	public WebEndpointResponse<EvictionResult> evict(@Selector String name, @OptionalParameter String key,
+			@OptionalParameter String prefix) {
+		if ((key == null) == (prefix == null)) {
+			throw new InvalidEndpointRequestException("Exactly one of key and prefix is required",
+					"Exactly one of key and prefix is required");
+		}
+		RegisteredCache registered = cacheRegistry.cache(name);
+		if (registered == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		Predicate<String> matches = (key != null) ? key::equals : text -> text.startsWith(prefix);
+		AtomicInteger evicted = new AtomicInteger();
+		registered.cache().asMap().keySet().removeIf(candidate -> {
+			boolean match = matches.test(String.valueOf(candidate));
+			if (match) {
+				evicted.incrementAndGet();
+			}
+			return match;
+		});
+		return new WebEndpointResponse<>(new EvictionResult(evicted.get()));
+	}
+
+	private static HotEntries hotEntries(Cache<Object, Object> cache, int limit) {
+		Policy<Object, Object> policy = cache.policy();
+		Optional<Policy.Eviction<Object, Object>> eviction = policy.eviction();
+		if (eviction.isPresent()) {
+			return new HotEntries("frequency", eviction.get().hottest(limit));
+		}
+		Optional<Policy.FixedExpiration<Object, Object>> access = policy.expireAfterAccess();
+		if (access.isPresent()) {
+			return new HotEntries("recent-access", access.get().youngest(limit));
+		}
+		Optional<Policy.FixedExpiration<Object, Object>> write = policy.expireAfterWrite();
+		if (write.isPresent()) {
+			return new HotEntries("recent-write", write.get().youngest(limit));
+		}
+		Map<Object, Object> entries = new LinkedHashMap<>();
+		for (var entry : cache.asMap().entrySet()) {
+			if (entries.size() == limit) {
+				break;
+			}
+			entries.put(entry.getKey(), entry.getValue());
+		}
+		return new HotEntries("unordered", entries);
+	}
+
+	private static String abbreviate(String text) {
+		return (text.length() <= MAX_KEY_LENGTH) ? text : text.substring(0, MAX_KEY_LENGTH) + "...";
+	}
+
+	private record HotEntries(String order, Map<Object, Object> entries) {
+	}
+
+	/**
+	 * The statistics of a cache since it was created.
+	 * @param manager the bean name of the cache manager, or {@code none}
+	 * @param size the estimated number of entries
+	 * @param maximum the size or weight bound, or {@code null} if unbounded
+	 * @param hitRate the share of lookups that were hits
+	 * @param hits the lookups that found an entry
+	 * @param misses the lookups that found none
+	 * @param loads the values loaded on a miss
+	 * @param averageLoadTime the mean time spent loading a value
+	 * @param evictions the entries evicted by size or expiry
+	 */
+	public record CacheSummary(String manager, long size, Long maximum, double hitRate, long hits, long misses,
+			long loads, Duration averageLoadTime, long evictions) {
+
+		static CacheSummary of(RegisteredCache registered) {
+			Cache<Object, Object> cache = registered.cache();
+			CacheStats stats = cache.stats();
+			Long maximum = cache.policy().eviction().map(Policy.Eviction::getMaximum).orElse(null);
+			return new CacheSummary(registered.manager(), cache.estimatedSize(), maximum, stats.hitRate(),
+					stats.hitCount(), stats.missCount(), stats.loadCount(),
+					Duration.ofNanos(Math.round(stats.averageLoadPenalty())), stats.evictionCount());
+		}
+	}
+
+	/**
+	 * The hottest entries of a cache.
+	 * @param summary the statistics of the cache
+	 * @param order how the entries are ordered: {@code frequency}, {@code recent-access},
+	 * {@code recent-write} or {@code unordered}
+	 * @param entries the entries, hottest first
+	 */
+	public record CacheContents(CacheSummary summary, String order, List<EntryInfo> entries) {
+	}
+
+	/**
+	 * One cache entry.
+	 * @param key the key as text, cut short if long
+	 * @param age the time since the entry was written, if the cache expires after write
+	 * @param idle the time since the entry was last read, if the cache expires after
+	 * access
+	 */
+	public record EntryInfo(String key, Duration age, Duration idle) {
+	}
+
+	/**
+	 * The outcome of an eviction.
+	 * @param evicted the number of entries evicted
+	 */
+	public record EvictionResult(int evicted) {
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.example.demo.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for cache statistics, metrics and the {@code cacheinspector} endpoint.
+ * The caches of the Spring cache manager are built from {@code spring.cache.caffeine.spec}
+ * with statistics recording added, so the spec does not have to carry
+ * {@code recordStats}; they are registered once all singletons exist.
+ */
+@Configuration
+class CacheObservabilityConfig {
+
+	private static final String RECORD_STATS = "recordStats";
+
+	@Bean
+	CacheRegistry cacheRegistry(MeterRegistry meterRegistry) {
+		return new CacheRegistry(meterRegistry);
+	}
+
+	@Bean
+	CacheInspectionEndpoint cacheInspectionEndpoint(CacheRegistry cacheRegistry) {
+		return new CacheInspectionEndpoint(cacheRegistry);
+	}
+
+	@Bean
+	CacheManagerCustomizer<CaffeineCacheManager> statisticsRecordingCacheManagerCustomizer(
+			CacheProperties cacheProperties) {
+		return cacheManager -> {
+			String spec = cacheProperties.getCaffeine().getSpec();
+			if (spec != null && !spec.contains(RECORD_STATS)) {
+				cacheManager.setCaffeine(Caffeine.from(spec.isBlank() ? RECORD_STATS : spec + "," + RECORD_STATS));
+			}
+		};
+	}
+
+	@Bean
+	SmartInitializingSingleton cacheManagerRegistration(CacheRegistry cacheRegistry, ListableBeanFactory beanFactory) {
+		return () -> beanFactory.getBeansOfType(CacheManager.class).forEach(cacheRegistry::registerAll);
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.example.demo.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Caffeine caches of the application, whether built directly or managed by a Spring
+ * {@link CacheManager}. Every registered cache publishes, tagged with {@code cache} and
+ * {@code cache.manager}:
+ * <ul>
+ * <li>{@code cache.gets} by {@code result} hit or miss, {@code cache.evictions},
+ * {@code cache.eviction.weight} and {@code cache.size};</li>
+ * <li>{@code cache.load.time}, the number and total time of loads, including values
+ * computed on a miss through {@code get(key, mappingFunction)} and {@code @Cacheable}.</li>
+ * </ul>
+ * The caches of Spring cache managers get the first group from Spring Boot, and record
+ * statistics because {@code CacheObservabilityConfig} enables them.
+ */
+public class CacheRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(CacheRegistry.class);
+
+	static final String LOAD_TIME_METRIC = "cache.load.time";
+
+	/**
+	 * The {@code cache.manager} tag of caches built directly rather than by a cache
+	 * manager.
+	 */
+	static final String DIRECT = "none";
+
+	private final MeterRegistry meterRegistry;
+
+	private final ConcurrentMap<String, RegisteredCache> caches = new ConcurrentHashMap<>();
+
+	public CacheRegistry(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Registers a cache built directly with Caffeine and binds its metrics.
+	 * @param name the cache name, unique across the application
+	 * @param cache the cache, built with {@code recordStats()}
+	 * @throws IllegalArgumentException if the cache does not record statistics or the
+	 * name is taken
+	 */
+	public void register(String name, Cache<?, ?> cache) {
+		add(name, DIRECT, cache);
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, name, Tags.of("cache.manager", DIRECT));
+	}
+
+	/**
+	 * Registers the Caffeine caches of a Spring cache manager that exist now. Their
+	 * Micrometer cache metrics are already bound by Spring Boot. Caches that do not record
+	 * statistics are skipped with a warning.
+	 * @param managerName the bean name of the cache manager
+	 * @param cacheManager the cache manager
+	 */
+	void registerAll(String managerName, CacheManager cacheManager) {
+		for (String name : cacheManager.getCacheNames()) {
+			org.springframework.cache.Cache cache = cacheManager.getCache(name);
+			if (cache == null || !(cache.getNativeCache() instanceof Cache<?, ?> nativeCache)
+					|| caches.containsKey(name)) {
+				continue;
+			}
+			if (nativeCache.policy().isRecordingStats()) {
+				add(name, managerName, nativeCache);
+			}
+			else {
+				log.warn("Cache '{}' of {} does not record statistics and is not observed", name, managerName);
+			}
+		}
+	}
+
+	/**
+	 * Returns the registered caches by name.
+	 * @return the caches, sorted by name
+	 */
+	SortedMap<String, RegisteredCache> caches() {
+		return new TreeMap<>(caches);
+	}
+
+	/**
+	 * Returns a registered cache.
+	 * @param name the cache name
+	 * @return the cache, or {@code null} if none is registered under the name
+	 */
+	RegisteredCache cache(String name) {
+		return caches.get(name);
+	}
+
+	private void add(String name, String managerName, Cache<?, ?> cache) {
+		if (!cache.policy().isRecordingStats()) {
+			throw new IllegalArgumentException("Cache '" + name + "' must be built with recordStats()");
+		}
+		@SuppressWarnings("unchecked")
+		RegisteredCache registered = new RegisteredCache(name, managerName, (Cache<Object, Object>) cache);
+		if (caches.putIfAbsent(name, registered) != null) {
+			throw new IllegalArgumentException("Cache '" + name + "' is already registered");
+		}
+		FunctionTimer
+			.builder(LOAD_TIME_METRIC, cache, c -> c.stats().loadCount(), c -> c.stats().totalLoadTime(),
+					TimeUnit.NANOSECONDS)
+			.description("Values loaded into the cache on a miss and the time spent loading them")
+			.tags("cache", name, "cache.manager", managerName)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * A registered cache.
+	 * @param name the cache name
+	 * @param manager the bean name of its cache manager, or {@code none}
+	 * @param cache the Caffeine cache
+	 */
+	record RegisteredCache(String name, String manager, Cache<Object, Object> cache) {
+	}
+
+}
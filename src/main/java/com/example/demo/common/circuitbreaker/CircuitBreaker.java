@@ -0,0 +1,186 @@
+package com.example.demo.common.circuitbreaker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker around calls to a remote dependency.
+ * <p>
+ * While {@link State#CLOSED} every call goes through, and consecutive failures are
+ * counted. Reaching the failure threshold opens the breaker: calls then fail immediately
+ * with a {@link CircuitBreakerOpenException} instead of waiting on the dependency. Once
+ * the open duration has passed, a single caller is let through as a probe
+ * ({@link State#HALF_OPEN}); its success closes the breaker, its failure opens it again.
+ * <p>
+ * The state is one immutable value swapped with a CAS, so the closed-state fast path is a
+ * single volatile read and no lock is taken.
+ */
+public final class CircuitBreaker {
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	/**
+	 * States of a circuit breaker. The ordinal is exported as the state gauge.
+	 */
+	public enum State {
+
+		CLOSED, OPEN, HALF_OPEN
+
+	}
+
+	private record Status(State state, int failures, long openedAtNanos) {
+	}
+
+	private static final Status CLOSED = new Status(State.CLOSED, 0, 0);
+
+	private final String name;
+
+	private final int failureThreshold;
+
+	private final long openDurationNanos;
+
+	private final LongSupplier nanoClock;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Counter rejectedCalls;
+
+	private final AtomicReference<Status> status = new AtomicReference<>(CLOSED);
+
+	/**
+	 * Creates a closed circuit breaker.
+	 * @param name the name used in metrics and logs
+	 * @param failureThreshold the number of consecutive failures that opens the breaker
+	 * @param openDuration how long the breaker stays open before a probe call is allowed
+	 * @param meterRegistry the registry to publish state and transition metrics to
+	 */
+	public CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry) {
+		this(name, failureThreshold, openDuration, meterRegistry, System::nanoTime);
+	}
+
+	CircuitBreaker(String name, int failureThreshold, Duration openDuration, MeterRegistry meterRegistry,
+			LongSupplier nanoClock) {
+		if (failureThreshold <= 0) {
+			throw new IllegalArgumentException("failureThreshold must be positive");
+		}
+		this.name = name;
+		this.failureThreshold = failureThreshold;
+		this.openDurationNanos = openDuration.toNanos();
+		this.nanoClock = nanoClock;
+		this.meterRegistry = meterRegistry;
+		this.rejectedCalls = Counter.builder("circuitbreaker.calls.rejected")
+			.description("Calls rejected without reaching the dependency because the breaker was open")
+			.tag("name", name)
+			.register(meterRegistry);
+		Gauge.builder("circuitbreaker.state", this, breaker -> breaker.getState().ordinal())
+			.description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+			.tag("name", name)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Runs the call if the breaker permits it and records its outcome.
+	 * @param call the call to the dependency
+	 * @param <T> the result type
+	 * @return the result of the call
+	 * @throws CircuitBreakerOpenException if the breaker is open
+	 */
+	public <T> T call(Supplier<T> call) {
+		acquirePermission();
+		boolean succeeded = false;
+		try {
+			T result = call.get();
+			succeeded = true;
+			return result;
+		}
+		finally {
+			// Errors count as failures too, or a failed probe would leave the breaker half-open
+			if (succeeded) {
+				onSuccess();
+			}
+			else {
+				onFailure();
+			}
+		}
+	}
+
+	public State getState() {
+		return status.get().state();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	private void acquirePermission() {
+		while (true) {
+			Status current = status.get();
+			if (current.state() == State.CLOSED) {
+				return;
+			}
+			long openNanos = nanoClock.getAsLong() - current.openedAtNanos();
+			if (current.state() == State.HALF_OPEN || openNanos < openDurationNanos) {
+				rejectedCalls.increment();
+				throw new CircuitBreakerOpenException(name,
+						Duration.ofNanos(Math.max(0, openDurationNanos - openNanos)));
+			}
+			if (transition(current, new Status(State.HALF_OPEN, current.failures(), current.openedAtNanos()))) {
+				return;
+			}
+		}
+	}
+
+	private void onSuccess() {
+		while (true) {
+			Status current = status.get();
+			if (current == CLOSED || transition(current, CLOSED)) {
+				return;
+			}
+		}
+	}
+
+	private void onFailure() {
+		while (true) {
+			Status current = status.get();
+			Status next;
+			if (current.state() == State.CLOSED && current.failures() + 1 < failureThreshold) {
+				next = new Status(State.CLOSED, current.failures() + 1, 0);
+			}
+			else if (current.state() == State.OPEN) {
+				return;
+			}
+			else {
+				next = new Status(State.OPEN, current.failures() + 1, nanoClock.getAsLong());
+			}
+			if (transition(current, next)) {
+				return;
+			}
+		}
+	}
+
+	private boolean transition(Status current, Status next) {
+		if (!status.compareAndSet(current, next)) {
+			return false;
+		}
+		if (current.state() != next.state()) {
+			Counter.builder("circuitbreaker.transitions")
+				.description("Circuit breaker state transitions")
+				.tag("name", name)
+				.tag("from", current.state().name())
+				.tag("to", next.state().name())
+				.register(meterRegistry)
+				.increment();
+			log.warn("Circuit breaker {} changed from {} to {}", name, current.state(), next.state());
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.example.demo.common.circuitbreaker;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling a dependency whose circuit breaker is open. The exception is
+ * created on every rejected call, so it does not capture a stack trace.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	private final String name;
+
+	private final Duration retryAfter;
+
+	public CircuitBreakerOpenException(String name, Duration retryAfter) {
+		super("Circuit breaker " + name + " is open", null, false, false);
+		this.name = name;
+		this.retryAfter = retryAfter;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+}
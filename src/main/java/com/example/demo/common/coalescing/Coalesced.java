@@ -0,0 +1,20 @@
+package com.example.demo.common.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only method whose concurrent invocations with equal arguments can share a
+ * single in-flight computation. Callers that arrive while an identical call is running
+ * wait for it and receive the same result (or exception), so the return value must be
+ * safe to share between threads.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+}
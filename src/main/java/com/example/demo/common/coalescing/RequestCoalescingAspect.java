@@ -0,0 +1,107 @@
+package com.example.demo.common.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight coalescing for methods annotated with {@link Coalesced}. The first caller
+ * for a given method and argument list becomes the leader and runs the method; callers
+ * arriving while it is in flight join the leader's result instead of repeating the work.
+ * Runs before the transaction advice so followers never open a transaction of their own.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+class RequestCoalescingAspect {
+
+	private static final Logger log = LoggerFactory.getLogger(RequestCoalescingAspect.class);
+
+	static final String COLLAPSED_METRIC = "coalescing.calls.collapsed";
+
+	private final ConcurrentMap<CallKey, CompletableFuture<Object>> inFlightCalls = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Method, Counter> collapsedCounters = new ConcurrentHashMap<>();
+
+	private final MeterRegistry meterRegistry;
+
+	RequestCoalescingAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Identity of an invocation: the target method plus its arguments.
+	 */
+	record CallKey(Method method, List<Object> args) {
+	}
+
+	@Around("@annotation(com.example.demo.common.coalescing.Coalesced)")
+	Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		var key = new CallKey(method, Arrays.asList(joinPoint.getArgs()));
+		var call = new CompletableFuture<Object>();
+
+		CompletableFuture<Object> inFlight = inFlightCalls.putIfAbsent(key, call);
+		if (inFlight != null) {
+			collapsedCounter(method).increment();
+			if (log.isDebugEnabled()) {
+				log.debug("Joining in-flight call to {}", method.getName());
+			}
+			return await(inFlight);
+		}
+
+		try {
+			Object result = joinPoint.proceed();
+			call.complete(result);
+			return result;
+		}
+		catch (Throwable ex) {
+			call.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			inFlightCalls.remove(key, call);
+		}
+	}
+
+	/**
+	 * Returns the number of calls currently being computed by a leader.
+	 */
+	int inFlightCount() {
+		return inFlightCalls.size();
+	}
+
+	private Object await(CompletableFuture<Object> inFlight) throws Throwable {
+		try {
+			return inFlight.join();
+		}
+		catch (CompletionException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	private Counter collapsedCounter(Method method) {
+		return collapsedCounters.computeIfAbsent(method,
+				m -> Counter.builder(COLLAPSED_METRIC)
+					.description("Calls that joined an identical in-flight call instead of running it")
+					.tag("method", m.getDeclaringClass().getSimpleName() + "." + m.getName())
+					.register(meterRegistry));
+	}
+
+}
@@ -0,0 +1,301 @@
+package com.example.demo.common.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Response that holds back the first bytes of the body until it knows whether the body
+ * reaches the size threshold. Small bodies go out unchanged with a Content-Length; larger
+ * ones are compressed as they are written, so a streamed body is never held in memory.
+ * Only blocking writes are supported: the compressor writes to the container's stream
+ * in chunks of its own, which could not be held back while that stream is not ready.
+ * Registering a {@link WriteListener} is rejected with an {@link IllegalStateException},
+ * as the Servlet API does for a stream that cannot switch to non-blocking mode.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+	private final ContentCoding coding;
+
+	private final CompressionProperties properties;
+
+	private CompressingOutputStream outputStream;
+
+	private PrintWriter writer;
+
+	private long contentLength = -1;
+
+	CompressingResponseWrapper(HttpServletResponse response, ContentCoding coding, CompressionProperties properties) {
+		super(response);
+		this.coding = coding;
+		this.properties = properties;
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("getWriter() has already been called for this response");
+		}
+		return outputStream();
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			if (outputStream != null) {
+				throw new IllegalStateException("getOutputStream() has already been called for this response");
+			}
+			writer = new PrintWriter(new OutputStreamWriter(outputStream(), getCharacterEncoding()));
+		}
+		return writer;
+	}
+
+	@Override
+	public void setContentLength(int len) {
+		setContentLengthLong(len);
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+		// Only known to be right once we decide not to compress
+		contentLength = len;
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(Long.parseLong(value));
+		}
+		else {
+			super.setHeader(name, value);
+		}
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(Long.parseLong(value));
+		}
+		else {
+			super.addHeader(name, value);
+		}
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		// Committing while the body is still held back would fix the headers too early
+		if (outputStream == null || outputStream.target != null) {
+			super.flushBuffer();
+		}
+	}
+
+	@Override
+	public void resetBuffer() {
+		if (outputStream != null && outputStream.target == null) {
+			outputStream.count = 0;
+		}
+		super.resetBuffer();
+	}
+
+	@Override
+	public void reset() {
+		resetBuffer();
+		contentLength = -1;
+		super.reset();
+	}
+
+	/**
+	 * Writes out whatever is still held back and finishes the compressed stream.
+	 */
+	void finish() throws IOException {
+		if (writer != null) {
+			writer.flush();
+		}
+		if (outputStream != null) {
+			outputStream.finish();
+		}
+		else if (contentLength >= 0) {
+			super.setContentLengthLong(contentLength);
+		}
+	}
+
+	/**
+	 * Releases the compressor of a response whose body was cut short by a failure. The
+	 * compressed stream is not completed and bytes still held back are dropped, so an
+	 * uncommitted response can still be replaced by an error response.
+	 */
+	void abort() {
+		if (outputStream != null) {
+			outputStream.abort();
+		}
+	}
+
+	private CompressingOutputStream outputStream() {
+		if (outputStream == null) {
+			outputStream = new CompressingOutputStream((int) properties.minResponseSize().toBytes());
+		}
+		return outputStream;
+	}
+
+	private boolean shouldCompress() {
+		int status = getStatus();
+		return getHeader(HttpHeaders.CONTENT_ENCODING) == null && status != SC_NO_CONTENT
+				&& status != SC_PARTIAL_CONTENT && status != SC_NOT_MODIFIED
+				&& properties.isCompressible(getContentType());
+	}
+
+	private final class CompressingOutputStream extends ServletOutputStream {
+
+		private final byte[] buffer;
+
+		private int count;
+
+		private OutputStream target;
+
+		private DiscardableOutputStream sink;
+
+		private boolean compressing;
+
+		CompressingOutputStream(int threshold) {
+			this.buffer = new byte[threshold];
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (target == null && count < buffer.length) {
+				buffer[count++] = (byte) b;
+				return;
+			}
+			target(true).write(b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			if (target == null && count + length <= buffer.length) {
+				System.arraycopy(bytes, offset, buffer, count, length);
+				count += length;
+				return;
+			}
+			target(true).write(bytes, offset, length);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			// While held back a flush is only a hint; flushing would commit the headers
+			if (target != null) {
+				target.flush();
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			throw new IllegalStateException("Compressed responses are only written in blocking mode");
+		}
+
+		void finish() throws IOException {
+			OutputStream out = target(false);
+			if (compressing) {
+				out.close();
+			}
+			else {
+				out.flush();
+			}
+		}
+
+		void abort() {
+			if (compressing) {
+				sink.discarding = true;
+				try {
+					target.close();
+				}
+				catch (IOException _) {
+					// Nothing reaches the client any more; the compressor is released either way
+				}
+			}
+		}
+
+		private OutputStream target(boolean reachedThreshold) throws IOException {
+			if (target == null) {
+				HttpServletResponse response = (HttpServletResponse) getResponse();
+				if (reachedThreshold && shouldCompress()) {
+					response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+					sink = new DiscardableOutputStream(response.getOutputStream());
+					target = coding.compress(sink, properties.level(coding));
+					compressing = true;
+				}
+				else {
+					if (contentLength >= 0) {
+						response.setContentLengthLong(contentLength);
+					}
+					else if (!reachedThreshold) {
+						response.setContentLength(count);
+					}
+					target = response.getOutputStream();
+				}
+				target.write(buffer, 0, count);
+			}
+			return target;
+		}
+
+	}
+
+	/**
+	 * Passes compressed bytes to the response until told to discard them, so an aborted
+	 * compressor can be closed without writing the end of the compressed stream.
+	 */
+	private static final class DiscardableOutputStream extends OutputStream {
+
+		private final OutputStream target;
+
+		private boolean discarding;
+
+		DiscardableOutputStream(OutputStream target) {
+			this.target = target;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (!discarding) {
+				target.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			if (!discarding) {
+				target.write(bytes, offset, length);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (!discarding) {
+				target.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!discarding) {
+				target.close();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.example.demo.common.compression;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration for response compression.
+ */
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+class CompressionConfig {
+
+	@Bean
+	@ConditionalOnProperty(prefix = "compression", name = "enabled", matchIfMissing = true)
+	FilterRegistrationBean<CompressionFilter> compressionFilter(CompressionProperties properties) {
+		var registration = new FilterRegistrationBean<>(new CompressionFilter(properties));
+		// Wraps the response before the rate limiter and the application write to it
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+		return registration;
+	}
+
+}
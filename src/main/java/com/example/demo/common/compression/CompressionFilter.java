@@ -0,0 +1,67 @@
+package com.example.demo.common.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+
+/**
+ * Compresses response bodies with the coding the client prefers among those configured.
+ * Bodies below the size threshold, of other content types, or already carrying a
+ * Content-Encoding (precompressed by the application) pass through unchanged. When the
+ * application fails, the compressor is released without completing the body, so a client
+ * cannot mistake a truncated response for a whole one.
+ */
+class CompressionFilter extends OncePerRequestFilter {
+
+	private final CompressionProperties properties;
+
+	CompressionFilter(CompressionProperties properties) {
+		this.properties = properties;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		HttpServletResponse responseToUse = response;
+		if (!isAsyncDispatch(request) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			ContentCoding coding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING),
+					properties.codings());
+			if (coding != null) {
+				ContentCoding.setNegotiated(request, coding);
+				responseToUse = new CompressingResponseWrapper(response, coding, properties);
+			}
+		}
+		boolean completed = false;
+		try {
+			filterChain.doFilter(request, responseToUse);
+			completed = true;
+		}
+		finally {
+			// Async responses are finished on the dispatch that completes them
+			if (!isAsyncStarted(request)) {
+				CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(responseToUse,
+						CompressingResponseWrapper.class);
+				if (wrapper != null && completed) {
+					wrapper.finish();
+				}
+				else if (wrapper != null) {
+					wrapper.abort();
+				}
+			}
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+}
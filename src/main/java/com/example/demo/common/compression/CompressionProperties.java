@@ -0,0 +1,69 @@
+package com.example.demo.common.compression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Configuration properties for response compression.
+ */
+@ConfigurationProperties(prefix = "compression")
+public record CompressionProperties(@DefaultValue("true") boolean enabled,
+		@DefaultValue("1KB") DataSize minResponseSize, @DefaultValue({ "zstd", "gzip" }) List<ContentCoding> codings,
+		@DefaultValue({ "application/json", "application/problem+json", "text/plain", "text/html" })
+		List<MimeType> mimeTypes,
+		@DefaultValue("3") int zstdLevel, @DefaultValue("6") int gzipLevel) {
+
+	/**
+	 * Creates a new instance of CompressionProperties.
+	 * @param enabled whether responses are compressed
+	 * @param minResponseSize bodies smaller than this are sent uncompressed
+	 * @param codings the codings offered to clients, in order of preference
+	 * @param mimeTypes the content types that are compressed
+	 * @param zstdLevel the zstd compression level (1 to 22)
+	 * @param gzipLevel the gzip compression level (1 to 9)
+	 */
+	@ConstructorBinding
+	public CompressionProperties {
+		if (minResponseSize.toBytes() < 0) {
+			throw new IllegalArgumentException("minResponseSize must not be negative");
+		}
+		if (zstdLevel < 1 || zstdLevel > 22 || gzipLevel < 1 || gzipLevel > 9) {
+			throw new IllegalArgumentException("zstdLevel must be between 1 and 22 and gzipLevel between 1 and 9");
+		}
+	}
+
+	/**
+	 * Returns the configured level of a coding.
+	 * @param coding the coding
+	 * @return the compression level
+	 */
+	public int level(ContentCoding coding) {
+		return switch (coding) {
+			case ZSTD -> zstdLevel;
+			case GZIP -> gzipLevel;
+		};
+	}
+
+	/**
+	 * Returns whether responses of a content type are compressed.
+	 * @param contentType the response content type, or {@code null}
+	 * @return whether the content type is compressible
+	 */
+	public boolean isCompressible(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		MimeType mimeType = MimeType.valueOf(contentType);
+		for (MimeType compressible : mimeTypes) {
+			if (compressible.isCompatibleWith(mimeType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,151 @@
+package com.example.demo.common.compression;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content codings the server can apply to response bodies, in the order the server
+ * prefers them when a client accepts several equally.
+ */
+public enum ContentCoding {
+
+	ZSTD("zstd") {
+		@Override
+		public OutputStream compress(OutputStream target, int level) throws IOException {
+			return new ZstdOutputStream(target, RecyclingBufferPool.INSTANCE).setLevel(level);
+		}
+	},
+
+	GZIP("gzip") {
+		@Override
+		public OutputStream compress(OutputStream target, int level) throws IOException {
+			return new GZIPOutputStream(target, 8192, true) {
+				{
+					def.setLevel(level);
+				}
+			};
+		}
+	};
+
+	private static final String NEGOTIATED_ATTRIBUTE = ContentCoding.class.getName() + ".NEGOTIATED";
+
+	private final String token;
+
+	ContentCoding(String token) {
+		this.token = token;
+	}
+
+	/**
+	 * Returns the coding's token as used in the Accept-Encoding and Content-Encoding
+	 * headers.
+	 */
+	public String token() {
+		return token;
+	}
+
+	/**
+	 * Wraps a stream so that everything written to it is compressed with this coding.
+	 * Closing the returned stream finishes the compressed data and closes the target.
+	 * @param target the stream receiving the compressed bytes
+	 * @param level the compression level
+	 * @return the compressing stream
+	 * @throws IOException if the compressor cannot be created
+	 */
+	public abstract OutputStream compress(OutputStream target, int level) throws IOException;
+
+	/**
+	 * Compresses a complete body.
+	 * @param data the bytes to compress
+	 * @param level the compression level
+	 * @return the compressed bytes
+	 */
+	public byte[] compress(byte[] data, int level) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+		try (OutputStream out = compress(compressed, level)) {
+			out.write(data);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return compressed.toByteArray();
+	}
+
+	/**
+	 * Chooses the coding for a response from the client's Accept-Encoding header. The
+	 * highest quality value wins; ties go to the earlier coding in {@code available}.
+	 * @param acceptEncoding the Accept-Encoding header, or {@code null}
+	 * @param available the codings the server may use, in order of preference
+	 * @return the coding to use, or {@code null} if the client accepts none of them
+	 */
+	public static ContentCoding negotiate(String acceptEncoding, List<ContentCoding> available) {
+		if (acceptEncoding == null || acceptEncoding.isBlank()) {
+			return null;
+		}
+		ContentCoding best = null;
+		double bestQuality = 0;
+		for (ContentCoding coding : available) {
+			double quality = quality(acceptEncoding, coding.token);
+			if (quality > bestQuality) {
+				best = coding;
+				bestQuality = quality;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the coding negotiated for the current request by the compression filter.
+	 * Lets code that writes an already compressed body pick the same coding.
+	 * @param request the current request
+	 * @return the negotiated coding, or {@code null} if the response is not compressed
+	 */
+	public static ContentCoding negotiated(HttpServletRequest request) {
+		return (ContentCoding) request.getAttribute(NEGOTIATED_ATTRIBUTE);
+	}
+
+	/**
+	 * Records the coding negotiated for a request.
+	 * @param request the current request
+	 * @param coding the negotiated coding
+	 */
+	public static void setNegotiated(HttpServletRequest request, ContentCoding coding) {
+		request.setAttribute(NEGOTIATED_ATTRIBUTE, coding);
+	}
+
+	private static double quality(String acceptEncoding, String token) {
+		double wildcard = 0;
+		for (String entry : acceptEncoding.split(",")) {
+			String[] parts = entry.split(";");
+			String name = parts[0].trim().toLowerCase(Locale.ROOT);
+			double quality = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String parameter = parts[i].trim();
+				if (parameter.startsWith("q=")) {
+					try {
+						quality = Double.parseDouble(parameter.substring(2));
+					}
+					catch (NumberFormatException _) {
+						quality = 0;
+					}
+				}
+			}
+			if (name.equals(token)) {
+				return quality;
+			}
+			if (name.equals("*")) {
+				wildcard = quality;
+			}
+		}
+		return wildcard;
+	}
+
+}
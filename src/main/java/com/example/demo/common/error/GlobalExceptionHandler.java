@@ -1,12 +1,20 @@
 package com.example.demo.common.error;
 
+import com.example.demo.common.logging.LogSampler;
+import com.example.demo.common.ratelimit.RateLimitExceededException;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -16,11 +24,16 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.net.URI;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Global exception handler for REST controllers. Uses RFC 9457 ProblemDetails format for
  * error responses.
+ * <p>
+ * Client errors are cheap to trigger in bulk, so their handling stays light: the problem
+ * types are resolved once, and their warnings share a {@link LogSampler} instead of
+ * logging every request.
  */
 @RestControllerAdvice
 class GlobalExceptionHandler {
@@ -31,24 +44,47 @@ class GlobalExceptionHandler {
 
 	private static final String TIMESTAMP = "timestamp";
 
+	private static final ProblemType VALIDATION_ERROR = new ProblemType(HttpStatus.BAD_REQUEST, "Validation Error",
+			"/validation-error");
+
+	private static final ProblemType CONSTRAINT_VIOLATION = new ProblemType(HttpStatus.BAD_REQUEST,
+			"Constraint Violation", "/constraint-violation");
+
+	private static final ProblemType NOT_FOUND = new ProblemType(HttpStatus.NOT_FOUND, "Resource Not Found",
+			"/not-found");
+
+	private static final ProblemType INVALID_REQUEST = new ProblemType(HttpStatus.BAD_REQUEST, "Invalid Request",
+			"/invalid-request");
+
+	private static final ProblemType TYPE_MISMATCH = new ProblemType(HttpStatus.BAD_REQUEST, "Type Mismatch",
+			"/type-mismatch");
+
+	private static final ProblemType CONCURRENT_MODIFICATION = new ProblemType(HttpStatus.CONFLICT,
+			"Concurrent Modification", "/concurrent-modification");
+
+	private static final ProblemType RATE_LIMITED = new ProblemType(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+			"/rate-limited");
+
+	private static final ProblemType INTERNAL_ERROR = new ProblemType(HttpStatus.INTERNAL_SERVER_ERROR,
+			"Internal Server Error", "/internal-error");
+
+	private final LogSampler clientErrorLogSampler = new LogSampler(20, 2);
+
 	/**
 	 * Handles validation exceptions from @Valid annotations.
 	 */
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	ProblemDetail handleValidationExceptions(MethodArgumentNotValidException ex) {
-		Map<String, String> errors = new HashMap<>();
-		ex.getBindingResult().getAllErrors().forEach(error -> {
-			String fieldName = ((FieldError) error).getField();
-			String errorMessage = error.getDefaultMessage();
-			errors.put(fieldName, errorMessage);
-		});
-
-		log.warn("Validation error: {}", errors);
-
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Validation failed");
-		problemDetail.setTitle("Validation Error");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/validation-error"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
+		List<ObjectError> allErrors = ex.getBindingResult().getAllErrors();
+		Map<String, String> errors = HashMap.newHashMap(allErrors.size());
+		for (ObjectError error : allErrors) {
+			String name = (error instanceof FieldError fieldError) ? fieldError.getField() : error.getObjectName();
+			errors.put(name, error.getDefaultMessage());
+		}
+
+		warn("Validation error: {} ({} similar suppressed)", errors);
+
+		ProblemDetail problemDetail = VALIDATION_ERROR.create("Validation failed");
 		problemDetail.setProperty("errors", errors);
 
 		return problemDetail;
@@ -59,14 +95,9 @@ class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(ConstraintViolationException.class)
 	ProblemDetail handleConstraintViolationException(ConstraintViolationException ex) {
-		log.warn("Constraint violation: {}", ex.getMessage());
-
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
-		problemDetail.setTitle("Constraint Violation");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/constraint-violation"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
+		warn("Constraint violation: {} ({} similar suppressed)", ex.getMessage());
 
-		return problemDetail;
+		return CONSTRAINT_VIOLATION.create(ex.getMessage());
 	}
 
 	/**
@@ -74,14 +105,9 @@ class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(EntityNotFoundException.class)
 	ProblemDetail handleEntityNotFoundException(EntityNotFoundException ex) {
-		log.warn("Entity not found: {}", ex.getMessage());
+		warn("Entity not found: {} ({} similar suppressed)", ex.getMessage());
 
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
-		problemDetail.setTitle("Resource Not Found");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/not-found"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
-
-		return problemDetail;
+		return NOT_FOUND.create(ex.getMessage());
 	}
 
 	/**
@@ -89,14 +115,9 @@ class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(IllegalArgumentException.class)
 	ProblemDetail handleIllegalArgumentException(IllegalArgumentException ex) {
-		log.warn("Illegal argument: {}", ex.getMessage());
+		warn("Illegal argument: {} ({} similar suppressed)", ex.getMessage());
 
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
-		problemDetail.setTitle("Invalid Request");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/invalid-request"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
-
-		return problemDetail;
+		return INVALID_REQUEST.create(ex.getMessage());
 	}
 
 	/**
@@ -104,44 +125,100 @@ class GlobalExceptionHandler {
 	 */
 	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
 	ProblemDetail handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
-		String message = String.format("Parameter '%s' should be of type '%s'", ex.getName(),
-				ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : null);
-		log.warn("Type mismatch: {}", message);
+		String message = "Parameter '" + ex.getName() + "' should be of type '"
+				+ ((ex.getRequiredType() != null) ? ex.getRequiredType().getSimpleName() : null) + "'";
+		warn("Type mismatch: {} ({} similar suppressed)", message);
 
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, message);
-		problemDetail.setTitle("Type Mismatch");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/type-mismatch"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
+		return TYPE_MISMATCH.create(message);
+	}
 
-		return problemDetail;
+	/**
+	 * Handles updates that lost a race against another write of the same entity, detected
+	 * by its version. The client can reload the entity and retry.
+	 */
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+		warn("Concurrent modification: {} ({} similar suppressed)", ex.getMessage());
+
+		return CONCURRENT_MODIFICATION.create("The resource was modified concurrently, reload it and retry");
+	}
+
+	/**
+	 * Handles requests rejected by the rate limiter. Logged at debug only, since a client
+	 * hammering the API would otherwise flood the logs.
+	 */
+	@ExceptionHandler(RateLimitExceededException.class)
+	ResponseEntity<ProblemDetail> handleRateLimitExceeded(RateLimitExceededException ex) {
+		if (log.isDebugEnabled()) {
+			log.debug("Rate limit exceeded: {}", ex.getMessage());
+		}
+
+		ProblemDetail problemDetail = RATE_LIMITED.create(ex.getMessage());
+
+		// Retry-After is expressed in whole seconds, rounded up
+		long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+			.header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+			.body(problemDetail);
+	}
+
+	/**
+	 * Handles requests accepting none of the representations of the resource. The response
+	 * has no body, since the client would accept none of them either.
+	 */
+	@ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
+	ResponseEntity<Void> handleMediaTypeNotAcceptable(HttpMediaTypeNotAcceptableException ex) {
+		warn("Not acceptable: {} ({} similar suppressed)", ex.getMessage());
+
+		return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
 	}
 
 	@ExceptionHandler(NoResourceFoundException.class)
 	ProblemDetail handleNoResourceFoundException(NoResourceFoundException ex) {
-		log.warn("resource not found: {}", ex.getMessage());
-
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, ex.getMessage());
-		problemDetail.setTitle("Resource Not Found");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/not-found"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
+		warn("resource not found: {} ({} similar suppressed)", ex.getMessage());
 
-		return problemDetail;
+		return NOT_FOUND.create(ex.getMessage());
 	}
 
 	/**
-	 * Handles all other exceptions.
+	 * Handles all other exceptions. A streamed response may already be committed, and a
+	 * problem appended to its body would pass a truncated page off as complete; the
+	 * exception is rethrown instead, so the container logs it and aborts the response.
 	 */
 	@ExceptionHandler(Exception.class)
-	ProblemDetail handleGenericException(Exception ex) {
+	ProblemDetail handleGenericException(Exception ex, HttpServletResponse response) throws Exception {
+		if (response.isCommitted()) {
+			log.warn("Failed after the response was committed, aborting it: {}", ex.toString());
+			throw ex;
+		}
 		log.error("Unhandled exception", ex);
 
-		ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR,
-				"An unexpected error occurred");
-		problemDetail.setTitle("Internal Server Error");
-		problemDetail.setType(URI.create(PROBLEM_BASE_URL + "/internal-error"));
-		problemDetail.setProperty(TIMESTAMP, Instant.now());
+		return INTERNAL_ERROR.create("An unexpected error occurred");
+	}
 
-		return problemDetail;
+	private void warn(String format, Object argument) {
+		long suppressed = clientErrorLogSampler.tryAcquire();
+		if (suppressed != LogSampler.SUPPRESSED) {
+			log.warn(format, argument, suppressed);
+		}
+	}
+
+	/**
+	 * A problem type with its status, title and type URI resolved once.
+	 */
+	private record ProblemType(HttpStatus status, String title, URI type) {
+
+		ProblemType(HttpStatus status, String title, String path) {
+			this(status, title, URI.create(PROBLEM_BASE_URL + path));
+		}
+
+		ProblemDetail create(String detail) {
+			ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+			problemDetail.setTitle(title);
+			problemDetail.setType(type);
+			problemDetail.setProperty(TIMESTAMP, Instant.now());
+			return problemDetail;
+		}
 	}
 
 }
@@ -0,0 +1,44 @@
+package com.example.demo.common.http;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request factory that aborts every exchange still running after a deadline. The read
+ * timeout only bounds each single wait for data, so an upstream trickling its response a
+ * few bytes at a time could otherwise hold the calling thread far longer. An abort fails
+ * the blocked call with an I/O error; aborting an exchange that already completed does
+ * nothing.
+ */
+class DeadlineRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+	private final Executor aborter;
+
+	DeadlineRequestFactory(HttpClient httpClient, Duration deadline) {
+		this(httpClient, CompletableFuture.delayedExecutor(deadline.toMillis(), TimeUnit.MILLISECONDS));
+	}
+
+	DeadlineRequestFactory(HttpClient httpClient, Executor aborter) {
+		super(httpClient);
+		this.aborter = aborter;
+	}
+
+	@Override
+	protected ClassicHttpRequest createHttpUriRequest(HttpMethod httpMethod, URI uri) {
+		ClassicHttpRequest request = super.createHttpUriRequest(httpMethod, uri);
+		if (request instanceof HttpUriRequest abortable) {
+			aborter.execute(abortable::abort);
+		}
+		return request;
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.example.demo.common.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for the pooled HTTP client used for outbound calls.
+ */
+@ConfigurationProperties(prefix = "http.outbound")
+public record OutboundHttpProperties(@DefaultValue("2s") Duration connectTimeout,
+		@DefaultValue("5s") Duration readTimeout, @DefaultValue("1s") Duration connectionRequestTimeout,
+		@DefaultValue("100") int maxConnections, @DefaultValue("20") int maxConnectionsPerHost,
+		Map<String, Integer> hostMaxConnections, @DefaultValue("30s") Duration idleTimeout,
+		@DefaultValue("5m") Duration connectionTimeToLive, @DefaultValue("8s") Duration exchangeTimeout) {
+
+	/**
+	 * Creates a new instance of OutboundHttpProperties.
+	 * @param connectTimeout the maximum time to establish a connection
+	 * @param readTimeout the maximum time to wait for data on an established connection
+	 * @param connectionRequestTimeout the maximum time to wait for a free pooled
+	 * connection
+	 * @param maxConnections the maximum number of pooled connections across all hosts
+	 * @param maxConnectionsPerHost the default maximum number of connections to one host
+	 * @param hostMaxConnections per-host overrides of the connection limit, keyed by host
+	 * name
+	 * @param idleTimeout how long an unused connection is kept open for reuse
+	 * @param connectionTimeToLive the maximum lifetime of a connection
+	 * @param exchangeTimeout the maximum time for a whole exchange, from waiting for a
+	 * pooled connection to reading the last byte of the response
+	 */
+	@ConstructorBinding
+	public OutboundHttpProperties {
+		if (maxConnections <= 0 || maxConnectionsPerHost <= 0) {
+			throw new IllegalArgumentException("maxConnections and maxConnectionsPerHost must be positive");
+		}
+		if (exchangeTimeout.isNegative() || exchangeTimeout.isZero()) {
+			throw new IllegalArgumentException("exchangeTimeout must be positive");
+		}
+		if (hostMaxConnections == null) {
+			hostMaxConnections = Map.of();
+		}
+		hostMaxConnections.forEach((host, max) -> {
+			if (max == null || max <= 0) {
+				throw new IllegalArgumentException("connection limit for " + host + " must be positive");
+			}
+		});
+	}
+}
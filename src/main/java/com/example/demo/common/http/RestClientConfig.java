@@ -1,34 +1,111 @@
 package com.example.demo.common.http;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.web.client.RestClient;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 /**
- * Configuration for RestClient.
+ * Configuration for RestClient. Outbound calls share one pooled Apache HttpClient with
+ * bounded connect, read and pool-wait timeouts. The read timeout applies to each wait for
+ * data rather than the whole response, so every exchange is also aborted after an overall
+ * deadline; a slow upstream cannot hold a request thread longer than that.
  */
 @Configuration
+@EnableConfigurationProperties(OutboundHttpProperties.class)
 class RestClientConfig {
 
-	private static final Logger log = LoggerFactory.getLogger(RestClientConfig.class);
+	/**
+	 * Prefix of the per-host request loggers, e.g.
+	 * {@code com.example.demo.common.http.outbound.api.frankfurter.app}.
+	 */
+	static final String OUTBOUND_LOGGER_PREFIX = "com.example.demo.common.http.outbound.";
+
+	/**
+	 * Creates the connection pool shared by all outbound calls.
+	 * @param properties the outbound HTTP properties
+	 * @return the connection manager
+	 */
+	@Bean(destroyMethod = "close")
+	PoolingHttpClientConnectionManager outboundConnectionManager(OutboundHttpProperties properties) {
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+			.setMaxConnTotal(properties.maxConnections())
+			.setMaxConnPerRoute(properties.maxConnectionsPerHost())
+			.setDefaultConnectionConfig(ConnectionConfig.custom()
+				.setConnectTimeout(timeout(properties.connectTimeout()))
+				.setSocketTimeout(timeout(properties.readTimeout()))
+				.setTimeToLive(timeValue(properties.connectionTimeToLive()))
+				.setValidateAfterInactivity(TimeValue.ofSeconds(2))
+				.build())
+			.build();
+		properties.hostMaxConnections().forEach((host, max) -> {
+			connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost("https", host, 443)), max);
+			connectionManager.setMaxPerRoute(new HttpRoute(new HttpHost("http", host, 80)), max);
+		});
+		return connectionManager;
+	}
+
+	/**
+	 * Creates the pooled HTTP client. Idle and expired connections are evicted in the
+	 * background so reused connections are not half-closed by the server.
+	 * @param connectionManager the connection pool
+	 * @param properties the outbound HTTP properties
+	 * @return the HTTP client
+	 */
+	@Bean(destroyMethod = "close")
+	CloseableHttpClient outboundHttpClient(PoolingHttpClientConnectionManager connectionManager,
+			OutboundHttpProperties properties) {
+		return HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.setDefaultRequestConfig(RequestConfig.custom()
+				.setConnectionRequestTimeout(timeout(properties.connectionRequestTimeout()))
+				.setResponseTimeout(timeout(properties.readTimeout()))
+				.build())
+			.evictIdleConnections(timeValue(properties.idleTimeout()))
+			.evictExpiredConnections()
+			.build();
+	}
 
 	/**
-	 * Creates a RestClient bean with default configuration.
+	 * Publishes pool usage (leased, available and pending connections) as
+	 * {@code httpcomponents.httpclient.pool.*} metrics.
+	 * @param connectionManager the connection pool
+	 * @return the meter binder
+	 */
+	@Bean
+	MeterBinder outboundConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "outbound");
+	}
+
+	/**
+	 * Creates a RestClient bean backed by the pooled HTTP client.
+	 * @param httpClient the pooled HTTP client
+	 * @param properties the outbound HTTP properties
 	 * @return the RestClient
 	 */
 	@Bean
-	public RestClient restClient() {
-		return RestClient.builder().requestInterceptor((request, body, execution) -> {
-			if (log.isDebugEnabled()) {
-				log.debug("Outgoing Request: {} {} Headers: {} Body: {}", request.getMethod(), request.getURI(),
-						request.getHeaders(), new String(body, StandardCharsets.UTF_8));
-			}
-			return execution.execute(request, body);
-		})
+	public RestClient restClient(CloseableHttpClient httpClient, OutboundHttpProperties properties) {
+		return RestClient.builder()
+			.requestFactory(new DeadlineRequestFactory(httpClient, properties.exchangeTimeout()))
+			.requestInterceptor(debugLoggingInterceptor())
 			.defaultStatusHandler(status -> status.is4xxClientError() || status.is5xxServerError(),
 					(request, response) -> {
 						throw new RuntimeException("Error calling external API: " + response);
@@ -36,4 +113,27 @@ class RestClientConfig {
 			.build();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Logs outgoing requests at debug level on a logger per target host. The body is only
+	 * decoded into a String when that host's logger is enabled.
+	 */
+	static ClientHttpRequestInterceptor debugLoggingInterceptor() {
+		return (request, body, execution) -> {
+			Logger hostLog = LoggerFactory.getLogger(OUTBOUND_LOGGER_PREFIX + request.getURI().getHost());
+			if (hostLog.isDebugEnabled()) {
+				hostLog.debug("Outgoing Request: {} {} Headers: {} Body: {}", request.getMethod(), request.getURI(),
+						request.getHeaders(), new String(body, StandardCharsets.UTF_8));
+			}
+			return execution.execute(request, body);
+		};
+	}
+
+	private static Timeout timeout(Duration duration) {
+		return Timeout.ofMilliseconds(duration.toMillis());
+	}
+
+	private static TimeValue timeValue(Duration duration) {
+		return TimeValue.ofMilliseconds(duration.toMillis());
+	}
+
+}
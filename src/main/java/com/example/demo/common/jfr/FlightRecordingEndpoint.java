@@ -0,0 +1,76 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.FlightRecordings.RecordingInfo;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.PathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Actuator endpoint to profile the running JVM with JDK Flight Recorder:
+ * <ul>
+ * <li>{@code POST /actuator/jfr} with {@code {"duration": "2m", "maxSize": "100MB"}}
+ * starts a recording</li>
+ * <li>{@code GET /actuator/jfr} lists the recordings</li>
+ * <li>{@code GET /actuator/jfr/{id}} downloads a recording, up to now if it is still
+ * running; open it with JDK Mission Control or {@code jfr print}</li>
+ * <li>{@code POST /actuator/jfr/{id}} stops a recording</li>
+ * <li>{@code DELETE /actuator/jfr/{id}} discards a recording</li>
+ * </ul>
+ */
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+	private final FlightRecordings recordings;
+
+	FlightRecordingEndpoint(FlightRecordings recordings) {
+		this.recordings = recordings;
+	}
+
+	@ReadOperation
+	public List<RecordingInfo> recordings() {
+		return recordings.list();
+	}
+
+	@WriteOperation
+	public RecordingInfo start(@OptionalParameter String name, @OptionalParameter Duration duration,
+			@OptionalParameter DataSize maxSize) {
+		try {
+			return recordings.start(name, duration, maxSize);
+		}
+		catch (IllegalArgumentException | IllegalStateException ex) {
+			throw new InvalidEndpointRequestException(ex.getMessage(), ex.getMessage());
+		}
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<RecordingInfo> stop(@Selector long id) {
+		return recordings.stop(id)
+			.map(WebEndpointResponse::new)
+			.orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+	}
+
+	@ReadOperation
+	public WebEndpointResponse<Resource> download(@Selector long id) {
+		return recordings.dump(id)
+			.<WebEndpointResponse<Resource>>map(file -> new WebEndpointResponse<>(new PathResource(file)))
+			.orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+	}
+
+	@DeleteOperation
+	public WebEndpointResponse<Void> delete(@Selector long id) {
+		return new WebEndpointResponse<>(
+				recordings.delete(id) ? WebEndpointResponse.STATUS_NO_CONTENT : WebEndpointResponse.STATUS_NOT_FOUND);
+	}
+
+}
@@ -0,0 +1,198 @@
+package com.example.demo.common.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded set of JDK Flight Recorder recordings started on demand. Every recording has a
+ * duration after which it stops by itself and a size limit, so a forgotten recording
+ * cannot fill the disk. Stopped recordings are kept for download until they are deleted
+ * or displaced by a new recording.
+ */
+class FlightRecordings implements AutoCloseable {
+
+	private final JfrProperties properties;
+
+	private final Configuration configuration;
+
+	private final Path directory;
+
+	// Guarded by this, in start order
+	private final Map<Long, Recording> recordings = new LinkedHashMap<>();
+
+	FlightRecordings(JfrProperties properties) {
+		this.properties = properties;
+		try {
+			this.configuration = Configuration.getConfiguration(properties.settings());
+			this.directory = (properties.directory() != null)
+					? Files.createDirectories(properties.directory()) : Files.createTempDirectory("jfr");
+		}
+		catch (IOException | ParseException ex) {
+			throw new IllegalStateException("Could not prepare JFR recordings: " + ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Starts a recording.
+	 * @param name the name of the recording, or {@code null} for a generated one
+	 * @param duration how long to record, or {@code null} for the default duration
+	 * @param maxSize the most data to keep, or {@code null} for the configured limit
+	 * @return the started recording
+	 * @throws IllegalArgumentException if the duration exceeds the configured maximum
+	 * @throws IllegalStateException if the maximum number of recordings is running
+	 */
+	synchronized RecordingInfo start(String name, Duration duration, DataSize maxSize) {
+		Duration effectiveDuration = (duration != null) ? duration : properties.defaultDuration();
+		if (effectiveDuration.isNegative() || effectiveDuration.isZero()
+				|| effectiveDuration.compareTo(properties.maxDuration()) > 0) {
+			throw new IllegalArgumentException(
+					"Duration must be positive and at most " + properties.maxDuration() + ", was " + duration);
+		}
+		long sizeLimit = properties.maxSize().toBytes();
+		long effectiveSize = (maxSize != null && maxSize.toBytes() > 0) ? Math.min(maxSize.toBytes(), sizeLimit)
+				: sizeLimit;
+		if (recordings.size() >= properties.maxRecordings() && !discardOldestStopped()) {
+			throw new IllegalStateException(
+					"Already running " + recordings.size() + " recordings; stop or delete one first");
+		}
+		Recording recording = new Recording(configuration);
+		recording.setName((name != null && !name.isBlank()) ? name : "on-demand-" + recording.getId());
+		recording.setToDisk(true);
+		recording.setDuration(effectiveDuration);
+		recording.setMaxSize(effectiveSize);
+		recording.start();
+		recordings.put(recording.getId(), recording);
+		return RecordingInfo.of(recording);
+	}
+
+	/**
+	 * Stops a running recording. Its data stays available for download.
+	 * @param id the recording id
+	 * @return the stopped recording, or empty if there is no recording with this id
+	 */
+	synchronized Optional<RecordingInfo> stop(long id) {
+		Recording recording = recordings.get(id);
+		if (recording == null) {
+			return Optional.empty();
+		}
+		if (recording.getState() == RecordingState.RUNNING) {
+			recording.stop();
+		}
+		return Optional.of(RecordingInfo.of(recording));
+	}
+
+	/**
+	 * Writes the data of a recording to a file. A running recording is written up to now
+	 * and keeps running.
+	 * @param id the recording id
+	 * @return the file holding the recording, or empty if there is no recording with
+	 * this id
+	 */
+	synchronized Optional<Path> dump(long id) {
+		Recording recording = recordings.get(id);
+		if (recording == null) {
+			return Optional.empty();
+		}
+		Path file = file(id);
+		try {
+			// Replace atomically, so a download still reading the previous dump is not cut short
+			Path written = Files.createTempFile(directory, "recording-" + id, ".part");
+			recording.dump(written);
+			Files.move(written, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Could not write recording " + id, ex);
+		}
+		return Optional.of(file);
+	}
+
+	/**
+	 * Stops and discards a recording and its downloaded data.
+	 * @param id the recording id
+	 * @return whether there was a recording with this id
+	 */
+	synchronized boolean delete(long id) {
+		Recording recording = recordings.remove(id);
+		if (recording == null) {
+			return false;
+		}
+		discard(recording);
+		return true;
+	}
+
+	/**
+	 * Returns the recordings kept, oldest first.
+	 * @return the recordings
+	 */
+	synchronized List<RecordingInfo> list() {
+		return recordings.values().stream().map(RecordingInfo::of).toList();
+	}
+
+	@Override
+	public synchronized void close() {
+		recordings.values().forEach(this::discard);
+		recordings.clear();
+	}
+
+	private boolean discardOldestStopped() {
+		for (Iterator<Recording> iterator = recordings.values().iterator(); iterator.hasNext();) {
+			Recording recording = iterator.next();
+			if (recording.getState() != RecordingState.RUNNING && recording.getState() != RecordingState.DELAYED) {
+				iterator.remove();
+				discard(recording);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void discard(Recording recording) {
+		recording.close();
+		try {
+			Files.deleteIfExists(file(recording.getId()));
+		}
+		catch (IOException _) {
+			// Left for the temporary directory cleanup
+		}
+	}
+
+	private Path file(long id) {
+		return directory.resolve("recording-" + id + ".jfr");
+	}
+
+	/**
+	 * A recording as reported by the Actuator endpoint.
+	 * @param id the recording id, used to stop, download or delete it
+	 * @param name the recording name
+	 * @param state the recording state, {@code RUNNING} until it is stopped or its duration
+	 * has passed
+	 * @param startTime when recording started
+	 * @param duration how long the recording runs
+	 * @param size the bytes recorded so far
+	 */
+	public record RecordingInfo(long id, String name, String state, Instant startTime, Duration duration,
+			long size) {
+
+		static RecordingInfo of(Recording recording) {
+			return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+					recording.getStartTime(), recording.getDuration(), recording.getSize());
+		}
+	}
+
+}
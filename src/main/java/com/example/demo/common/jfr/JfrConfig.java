@@ -0,0 +1,46 @@
+package com.example.demo.common.jfr;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for on-demand JFR recordings, the metrics streamed from JFR events and the
+ * monitoring of pinned virtual threads.
+ */
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+@ConditionalOnProperty(prefix = "jfr", name = "enabled", matchIfMissing = true)
+class JfrConfig {
+
+	@Bean
+	FlightRecordings flightRecordings(JfrProperties properties) {
+		return new FlightRecordings(properties);
+	}
+
+	@Bean
+	FlightRecordingEndpoint flightRecordingEndpoint(FlightRecordings flightRecordings) {
+		return new FlightRecordingEndpoint(flightRecordings);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "jfr.metrics", name = "enabled", matchIfMissing = true)
+	JfrEventMetrics jfrEventMetrics(JfrProperties properties, MeterRegistry meterRegistry) {
+		return new JfrEventMetrics(properties.metrics(), meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "jfr.pinning", name = "enabled", matchIfMissing = true)
+	VirtualThreadPinningMonitor virtualThreadPinningMonitor(JfrProperties properties, MeterRegistry meterRegistry) {
+		return new VirtualThreadPinningMonitor(properties.pinning(), meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "jfr.pinning", name = "enabled", matchIfMissing = true)
+	PinningEndpoint pinningEndpoint(VirtualThreadPinningMonitor monitor) {
+		return new PinningEndpoint(monitor);
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.example.demo.common.jfr;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams selected JFR events into metrics, so their effect on latency shows on the
+ * dashboards without a recording being downloaded:
+ * <ul>
+ * <li>{@code jvm.jfr.gc.pause}: the pauses of each garbage collection, by collector</li>
+ * <li>{@code jvm.jfr.lock.contention}: contended monitor enters above the threshold, by
+ * monitor class</li>
+ * <li>{@code jvm.jfr.socket.read} and {@code jvm.jfr.socket.read.bytes}: socket reads
+ * above the threshold, by remote host</li>
+ * </ul>
+ * The stream runs next to any on-demand recordings and only enables these events. The
+ * meters of each collector, monitor class and host are registered on its first event and
+ * reused for the following ones.
+ */
+class JfrEventMetrics implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(JfrEventMetrics.class);
+
+	static final String GC_PAUSE_METRIC = "jvm.jfr.gc.pause";
+
+	static final String LOCK_CONTENTION_METRIC = "jvm.jfr.lock.contention";
+
+	static final String SOCKET_READ_METRIC = "jvm.jfr.socket.read";
+
+	static final String SOCKET_READ_BYTES_METRIC = "jvm.jfr.socket.read.bytes";
+
+	private final JfrProperties.Metrics properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, Timer> gcPauses = new ConcurrentHashMap<>();
+
+	private final Map<String, Timer> lockContentions = new ConcurrentHashMap<>();
+
+	private final Map<String, SocketReadMeters> socketReads = new ConcurrentHashMap<>();
+
+	private volatile RecordingStream stream;
+
+	JfrEventMetrics(JfrProperties.Metrics properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (stream != null) {
+			return;
+		}
+		RecordingStream recordingStream = new RecordingStream();
+		// Events are consumed as they are flushed; keep little on disk
+		recordingStream.setMaxAge(Duration.ofMinutes(1));
+		recordingStream.enable("jdk.GarbageCollection");
+		recordingStream.enable("jdk.JavaMonitorEnter").withThreshold(properties.lockThreshold()).withoutStackTrace();
+		recordingStream.enable("jdk.SocketRead").withThreshold(properties.socketReadThreshold()).withoutStackTrace();
+		recordingStream.onEvent("jdk.GarbageCollection", this::onGarbageCollection);
+		recordingStream.onEvent("jdk.JavaMonitorEnter", this::onMonitorEnter);
+		recordingStream.onEvent("jdk.SocketRead", this::onSocketRead);
+		recordingStream.onError(ex -> log.warn("JFR event stream failed: {}", ex.getMessage()));
+		recordingStream.startAsync();
+		stream = recordingStream;
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return stream != null;
+	}
+
+	private void onGarbageCollection(RecordedEvent event) {
+		gcPauses
+			.computeIfAbsent(event.getString("name"),
+					collector -> Timer.builder(GC_PAUSE_METRIC)
+						.description("Stop-the-world pauses of a garbage collection, from JFR")
+						.tag("collector", collector)
+						.register(meterRegistry))
+			.record(event.getDuration("sumOfPauses"));
+	}
+
+	private void onMonitorEnter(RecordedEvent event) {
+		RecordedClass monitorClass = event.getClass("monitorClass");
+		lockContentions
+			.computeIfAbsent((monitorClass != null) ? monitorClass.getName() : "unknown",
+					monitor -> Timer.builder(LOCK_CONTENTION_METRIC)
+						.description("Time blocked entering a contended monitor, from JFR")
+						.tag("monitor", monitor)
+						.register(meterRegistry))
+			.record(event.getDuration());
+	}
+
+	private void onSocketRead(RecordedEvent event) {
+		String host = event.getString("host");
+		if (host == null || host.isEmpty()) {
+			host = event.getString("address");
+		}
+		SocketReadMeters meters = socketReads.computeIfAbsent(host,
+				key -> SocketReadMeters.register(meterRegistry, key));
+		meters.time().record(event.getDuration());
+		meters.bytes().record(Math.max(0, event.getLong("bytesRead")));
+	}
+
+	/**
+	 * The meters of the slow socket reads from one host.
+	 */
+	private record SocketReadMeters(Timer time, DistributionSummary bytes) {
+
+		static SocketReadMeters register(MeterRegistry meterRegistry, String host) {
+			return new SocketReadMeters(
+					Timer.builder(SOCKET_READ_METRIC)
+						.description("Socket reads slower than the threshold, from JFR")
+						.tag("host", host)
+						.register(meterRegistry),
+					DistributionSummary.builder(SOCKET_READ_BYTES_METRIC)
+						.description("Bytes returned by socket reads slower than the threshold, from JFR")
+						.baseUnit("bytes")
+						.tag("host", host)
+						.register(meterRegistry));
+		}
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.example.demo.common.jfr;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration properties for on-demand JDK Flight Recorder recordings.
+ */
+@ConfigurationProperties(prefix = "jfr")
+public record JfrProperties(@DefaultValue("true") boolean enabled, @DefaultValue("profile") String settings,
+		@DefaultValue("60s") Duration defaultDuration, @DefaultValue("10m") Duration maxDuration,
+		@DefaultValue("200MB") DataSize maxSize, @DefaultValue("3") int maxRecordings, Path directory,
+		@DefaultValue Metrics metrics, @DefaultValue Pinning pinning) {
+
+	/**
+	 * Creates a new instance of JfrProperties.
+	 * @param enabled whether recordings can be started through the {@code jfr} Actuator
+	 * endpoint and JFR events are streamed into metrics
+	 * @param settings the JFR configuration to record with, {@code default} or
+	 * {@code profile}
+	 * @param defaultDuration how long a recording runs when no duration is requested
+	 * @param maxDuration the longest duration a recording may be started with
+	 * @param maxSize the most data a recording keeps; older data is dropped first
+	 * @param maxRecordings the number of recordings kept, running or stopped; the oldest
+	 * stopped recording is discarded to make room for a new one
+	 * @param directory where recordings are written for download, or {@code null} for a
+	 * temporary directory
+	 * @param metrics the JFR events turned into metrics
+	 * @param pinning the monitoring of virtual threads pinned to their carrier
+	 */
+	@ConstructorBinding
+	public JfrProperties {
+		if (defaultDuration.isNegative() || defaultDuration.isZero() || defaultDuration.compareTo(maxDuration) > 0) {
+			throw new IllegalArgumentException("defaultDuration must be positive and not above maxDuration");
+		}
+		if (maxSize.toBytes() <= 0 || maxRecordings <= 0) {
+			throw new IllegalArgumentException("maxSize and maxRecordings must be positive");
+		}
+	}
+
+	/**
+	 * Metrics streamed from JFR events while the application runs. Only events above a
+	 * threshold are recorded, so the stream stays cheap enough to keep on.
+	 * @param enabled whether JFR events are streamed into metrics
+	 * @param lockThreshold the shortest contended monitor enter that is recorded
+	 * @param socketReadThreshold the shortest socket read that is recorded
+	 */
+	public record Metrics(@DefaultValue("true") boolean enabled, @DefaultValue("10ms") Duration lockThreshold,
+			@DefaultValue("10ms") Duration socketReadThreshold) {
+	}
+
+	/**
+	 * Monitoring of virtual threads that block while pinned to their carrier thread, and
+	 * of virtual threads that could not be scheduled at all.
+	 * @param enabled whether pinned virtual threads are streamed from JFR
+	 * @param threshold the shortest pinned block that is recorded
+	 * @param maxSites the number of distinct pinning sites tracked; further sites are
+	 * counted as {@code other}
+	 * @param stackDepth the number of frames, from the first frame outside the JDK, that
+	 * identify a pinning site
+	 */
+	public record Pinning(@DefaultValue("true") boolean enabled, @DefaultValue("20ms") Duration threshold,
+			@DefaultValue("50") int maxSites, @DefaultValue("8") int stackDepth) {
+
+		public Pinning {
+			if (maxSites <= 0 || stackDepth <= 0) {
+				throw new IllegalArgumentException("maxSites and stackDepth must be positive");
+			}
+		}
+	}
+}
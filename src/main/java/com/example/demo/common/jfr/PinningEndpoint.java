@@ -0,0 +1,42 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.VirtualThreadPinningMonitor.PinningReport;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint reporting where virtual threads are pinned to their carrier thread:
+ * <ul>
+ * <li>{@code GET /actuator/pinning?limit=10} lists the sites that pinned carriers the
+ * longest, with their stack traces</li>
+ * <li>{@code DELETE /actuator/pinning} forgets the sites, to measure from now on</li>
+ * </ul>
+ */
+@Endpoint(id = "pinning")
+public class PinningEndpoint {
+
+	private static final int DEFAULT_LIMIT = 20;
+
+	private final VirtualThreadPinningMonitor monitor;
+
+	PinningEndpoint(VirtualThreadPinningMonitor monitor) {
+		this.monitor = monitor;
+	}
+
+	@ReadOperation
+	public PinningReport report(@OptionalParameter Integer limit) {
+		if (limit != null && limit <= 0) {
+			throw new InvalidEndpointRequestException("limit must be positive", "limit must be positive");
+		}
+		return monitor.report((limit != null) ? limit : DEFAULT_LIMIT);
+	}
+
+	@DeleteOperation
+	public void reset() {
+		monitor.reset();
+	}
+
+}
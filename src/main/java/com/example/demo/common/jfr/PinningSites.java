@@ -0,0 +1,159 @@
+package com.example.demo.common.jfr;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates pinned virtual threads by the code that pinned them. A site is identified by
+ * a fingerprint of its stack trace: the first frames outside the JDK, where the pinning
+ * library or application code sits, and the frames below them. The JDK frames above them
+ * are the same park path for every site and are left out.
+ * <p>
+ * The number of sites is bounded; once full, pinning at a new site is counted as
+ * {@value #OTHER}.
+ */
+class PinningSites {
+
+	static final String OTHER = "other";
+
+	private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+	private final int maxSites;
+
+	private final int stackDepth;
+
+	private final Map<String, Site> sites = new HashMap<>();
+
+	private final Site other = new Site(OTHER, OTHER, List.of());
+
+	PinningSites(int maxSites, int stackDepth) {
+		this.maxSites = maxSites;
+		this.stackDepth = stackDepth;
+	}
+
+	/**
+	 * Records a pinned virtual thread.
+	 * @param frames the stack trace of the pinned thread, top frame first, as
+	 * {@code class.method:line}
+	 * @param duration how long the carrier was pinned
+	 * @return the site the pinning was counted for, as {@code class.method} of the first
+	 * frame outside the JDK, or {@value #OTHER}
+	 */
+	synchronized String record(List<String> frames, Duration duration) {
+		int start = firstNonJdkFrame(frames);
+		List<String> fingerprint = frames.subList(start, Math.min(frames.size(), start + stackDepth));
+		String key = String.join("\n", fingerprint);
+		Site site = sites.get(key);
+		if (site == null) {
+			if (sites.size() >= maxSites || fingerprint.isEmpty()) {
+				site = other;
+			}
+			else {
+				site = new Site(siteName(fingerprint.getFirst()), Integer.toHexString(key.hashCode()),
+						List.copyOf(frames.subList(0, start + fingerprint.size())));
+				sites.put(key, site);
+			}
+		}
+		site.record(duration.toNanos());
+		return site.name;
+	}
+
+	/**
+	 * Returns the sites that pinned carriers the longest in total, longest first.
+	 * @param limit the most sites to return
+	 * @return the pinning sites, including {@value #OTHER} if anything was counted there
+	 */
+	synchronized List<PinnedSite> top(int limit) {
+		List<Site> all = new ArrayList<>(sites.values());
+		if (other.count > 0) {
+			all.add(other);
+		}
+		return all.stream()
+			.sorted(Comparator.comparingLong((Site site) -> site.totalNanos).reversed())
+			.limit(limit)
+			.map(Site::toPinnedSite)
+			.toList();
+	}
+
+	synchronized long count() {
+		return sites.values().stream().mapToLong(site -> site.count).sum() + other.count;
+	}
+
+	synchronized Duration totalTime() {
+		return Duration.ofNanos(sites.values().stream().mapToLong(site -> site.totalNanos).sum() + other.totalNanos);
+	}
+
+	synchronized void clear() {
+		sites.clear();
+		other.count = 0;
+		other.totalNanos = 0;
+		other.maxNanos = 0;
+	}
+
+	private static int firstNonJdkFrame(List<String> frames) {
+		for (int i = 0; i < frames.size(); i++) {
+			String frame = frames.get(i);
+			if (JDK_PACKAGES.stream().noneMatch(frame::startsWith)) {
+				return i;
+			}
+		}
+		// Pinned inside the JDK only, e.g. by a native frame of a JDK class
+		return 0;
+	}
+
+	private static String siteName(String frame) {
+		int line = frame.lastIndexOf(':');
+		return (line < 0) ? frame : frame.substring(0, line);
+	}
+
+	/**
+	 * A site where virtual threads were pinned to their carrier.
+	 * @param site the first frame outside the JDK, as {@code class.method}
+	 * @param fingerprint identifies the stack trace of the site
+	 * @param count the number of times a carrier was pinned
+	 * @param totalTime the time carriers were pinned in total
+	 * @param maxTime the longest a carrier was pinned at once
+	 * @param stackTrace the stack trace of the site, top frame first
+	 */
+	public record PinnedSite(String site, String fingerprint, long count, Duration totalTime, Duration maxTime,
+			List<String> stackTrace) {
+	}
+
+	private static final class Site {
+
+		private final String name;
+
+		private final String fingerprint;
+
+		private final List<String> stackTrace;
+
+		private long count;
+
+		private long totalNanos;
+
+		private long maxNanos;
+
+		private Site(String name, String fingerprint, List<String> stackTrace) {
+			this.name = name;
+			this.fingerprint = fingerprint;
+			this.stackTrace = stackTrace;
+		}
+
+		private void record(long nanos) {
+			count++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+
+		private PinnedSite toPinnedSite() {
+			return new PinnedSite(name, fingerprint, count, Duration.ofNanos(totalNanos), Duration.ofNanos(maxNanos),
+					stackTrace);
+		}
+
+	}
+
+}
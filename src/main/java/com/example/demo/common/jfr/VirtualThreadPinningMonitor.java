@@ -0,0 +1,187 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.PinningSites.PinnedSite;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the JFR events of virtual threads that block while pinned to their carrier
+ * thread. A pinned virtual thread holds on to one of the few carriers for as long as it
+ * blocks, so pinning inside the JDBC driver, the connection pool or a logging appender
+ * silently shrinks the parallelism of every request handled on virtual threads.
+ * <ul>
+ * <li>{@code jvm.jfr.virtual.pinned}: blocks longer than the threshold while pinned, by
+ * pinning site; the sites are bounded like the report's and removed on reset</li>
+ * <li>{@code jvm.jfr.virtual.submit.failed}: virtual threads that could not be scheduled
+ * on a carrier at all</li>
+ * <li>{@code jvm.jfr.virtual.carriers}: the number of carriers; the rate of pinned
+ * time over it is the share of carrier capacity lost to pinning</li>
+ * </ul>
+ * The pinning sites are aggregated by stack trace, see {@link PinningSites}, and reported
+ * through the {@code pinning} Actuator endpoint.
+ */
+class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	static final String PINNED_METRIC = "jvm.jfr.virtual.pinned";
+
+	static final String SUBMIT_FAILED_METRIC = "jvm.jfr.virtual.submit.failed";
+
+	static final String CARRIERS_METRIC = "jvm.jfr.virtual.carriers";
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+
+	private final JfrProperties.Pinning properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final PinningSites sites;
+
+	private final Counter submitFailures;
+
+	private final Map<String, Timer> pinnedTimers = new ConcurrentHashMap<>();
+
+	private final int carriers;
+
+	private volatile RecordingStream stream;
+
+	VirtualThreadPinningMonitor(JfrProperties.Pinning properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.sites = new PinningSites(properties.maxSites(), properties.stackDepth());
+		this.submitFailures = Counter.builder(SUBMIT_FAILED_METRIC)
+			.description("Virtual threads that could not be scheduled on a carrier thread, from JFR")
+			.register(meterRegistry);
+		// The default scheduler runs one carrier per processor unless configured otherwise
+		this.carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+				Runtime.getRuntime().availableProcessors());
+		Gauge.builder(CARRIERS_METRIC, () -> carriers)
+			.description("The number of carrier threads virtual threads are scheduled on")
+			.register(meterRegistry);
+	}
+
+	@Override
+	public synchronized void start() {
+		if (stream != null) {
+			return;
+		}
+		RecordingStream recordingStream = new RecordingStream();
+		// Events are consumed as they are flushed; keep little on disk
+		recordingStream.setMaxAge(Duration.ofMinutes(1));
+		recordingStream.enable(PINNED_EVENT).withThreshold(properties.threshold()).withStackTrace();
+		recordingStream.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+		recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+		recordingStream.onEvent(SUBMIT_FAILED_EVENT, this::onSubmitFailed);
+		recordingStream.onError(ex -> log.warn("JFR virtual thread stream failed: {}", ex.getMessage()));
+		recordingStream.startAsync();
+		stream = recordingStream;
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return stream != null;
+	}
+
+	/**
+	 * Returns what was pinned since the start or the last {@link #reset()}.
+	 * @param limit the most pinning sites to report, longest total pinned time first
+	 * @return the pinning report
+	 */
+	PinningReport report(int limit) {
+		return new PinningReport(sites.count(), sites.totalTime(), (long) submitFailures.count(), carriers,
+				sites.top(limit));
+	}
+
+	/**
+	 * Forgets the pinning sites, for example to measure a single load test run. Their
+	 * timers are removed too, so sites seen before a reset do not stay registered as tags
+	 * next to the new ones. The submit failure counter keeps counting.
+	 */
+	void reset() {
+		sites.clear();
+		for (String site : pinnedTimers.keySet()) {
+			Timer timer = pinnedTimers.remove(site);
+			if (timer != null) {
+				meterRegistry.remove(timer);
+			}
+		}
+	}
+
+	/**
+	 * Records a block while pinned.
+	 * @param frames the stack trace of the pinned thread, top frame first
+	 * @param duration how long the carrier was pinned
+	 */
+	void recordPinned(List<String> frames, Duration duration) {
+		String site = sites.record(frames, duration);
+		pinnedTimers.computeIfAbsent(site, this::pinnedTimer).record(duration);
+	}
+
+	private Timer pinnedTimer(String site) {
+		return Timer.builder(PINNED_METRIC)
+			.description("Time virtual threads blocked while pinned to their carrier thread, from JFR")
+			.tag("site", site)
+			.register(meterRegistry);
+	}
+
+	private void onPinned(RecordedEvent event) {
+		recordPinned(frames(event.getStackTrace()), event.getDuration());
+	}
+
+	private void onSubmitFailed(RecordedEvent event) {
+		submitFailures.increment();
+		log.warn("Virtual thread {} could not be scheduled: {}", event.getLong("javaThreadId"),
+				event.getString("exceptionMessage"));
+	}
+
+	private static List<String> frames(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return List.of();
+		}
+		return stackTrace.getFrames()
+			.stream()
+			.filter(RecordedFrame::isJavaFrame)
+			.map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+					+ frame.getLineNumber())
+			.toList();
+	}
+
+	/**
+	 * The virtual threads pinned to their carrier since the start or the last reset.
+	 * @param pinnedCount the number of blocks longer than the threshold while pinned
+	 * @param pinnedTime the time carriers were pinned in total
+	 * @param submitFailures the number of virtual threads that could not be scheduled,
+	 * since the start
+	 * @param carriers the number of carrier threads
+	 * @param sites the sites that pinned carriers the longest
+	 */
+	public record PinningReport(long pinnedCount, Duration pinnedTime, long submitFailures, int carriers,
+			List<PinnedSite> sites) {
+	}
+
+}
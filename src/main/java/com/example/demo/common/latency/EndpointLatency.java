@@ -0,0 +1,94 @@
+package com.example.demo.common.latency;
+
+import io.micrometer.core.instrument.Counter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histogram of one endpoint. Requests record into an HdrHistogram
+ * {@link Recorder}, which is wait-free for writers; once per interval the recorded values
+ * are swapped out and reduced to a {@link Snapshot} of the percentiles that are
+ * published. Values are kept in microseconds with three significant digits, so every
+ * percentile is exact to within 0.1%.
+ */
+final class EndpointLatency {
+
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Recorder recorder;
+
+	private final long maxMicros;
+
+	private final long sloMicros;
+
+	private final Counter sloBreaches;
+
+	private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+	/**
+	 * Creates an endpoint histogram.
+	 * @param maxMicros the highest latency tracked, in microseconds
+	 * @param sloMicros the latency objective in microseconds, or {@code 0} for none
+	 * @param sloBreaches counts requests slower than the objective, or {@code null}
+	 */
+	EndpointLatency(long maxMicros, long sloMicros, Counter sloBreaches) {
+		this.recorder = new Recorder(1, maxMicros, SIGNIFICANT_DIGITS);
+		this.maxMicros = maxMicros;
+		this.sloMicros = sloMicros;
+		this.sloBreaches = sloBreaches;
+	}
+
+	/**
+	 * Records one request.
+	 * @param nanos the request latency in nanoseconds
+	 */
+	void record(long nanos) {
+		long micros = Math.clamp(nanos / 1000, 1, maxMicros);
+		recorder.recordValue(micros);
+		if (sloBreaches != null && micros > sloMicros) {
+			sloBreaches.increment();
+		}
+	}
+
+	/**
+	 * Ends the current interval and publishes its percentiles.
+	 */
+	void rotate() {
+		snapshot = Snapshot.of(recorder.getIntervalHistogram());
+	}
+
+	Snapshot snapshot() {
+		return snapshot;
+	}
+
+	long sloMicros() {
+		return sloMicros;
+	}
+
+	/**
+	 * Percentiles of one interval, in seconds.
+	 * @param count the number of requests in the interval
+	 * @param p50 the median
+	 * @param p99 the 99th percentile
+	 * @param p999 the 99.9th percentile
+	 * @param max the slowest request
+	 */
+	record Snapshot(long count, double p50, double p99, double p999, double max) {
+
+		static final Snapshot EMPTY = new Snapshot(0, 0, 0, 0, 0);
+
+		static Snapshot of(Histogram histogram) {
+			if (histogram.getTotalCount() == 0) {
+				return EMPTY;
+			}
+			return new Snapshot(histogram.getTotalCount(), seconds(histogram.getValueAtPercentile(50.0)),
+					seconds(histogram.getValueAtPercentile(99.0)), seconds(histogram.getValueAtPercentile(99.9)),
+					seconds(histogram.getMaxValue()));
+		}
+
+		private static double seconds(long micros) {
+			return micros / 1_000_000.0;
+		}
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.example.demo.common.latency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedRateTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Configuration for per-endpoint latency histograms. The histograms are rotated at a
+ * fixed rate, so every Prometheus scrape sees the percentiles of one complete interval.
+ */
+@Configuration
+@EnableConfigurationProperties(LatencyProperties.class)
+@ConditionalOnProperty(prefix = "latency", name = "enabled", matchIfMissing = true)
+class LatencyConfig implements SchedulingConfigurer {
+
+	private final LatencyProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	LatencyConfig(LatencyProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Bean
+	LatencyRecorder latencyRecorder() {
+		return new LatencyRecorder(properties, meterRegistry);
+	}
+
+	@Bean
+	FilterRegistrationBean<LatencyRecordingFilter> latencyRecordingFilter(LatencyRecorder latencyRecorder) {
+		var registration = new FilterRegistrationBean<>(new LatencyRecordingFilter(latencyRecorder));
+		// Outside compression and the rate limiter, so the recorded time covers the full response
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+		return registration;
+	}
+
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+		taskRegistrar.addFixedRateTask(new FixedRateTask(latencyRecorder()::rotate, properties.interval(),
+				properties.interval()));
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.common.latency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for per-endpoint latency histograms.
+ */
+@ConfigurationProperties(prefix = "latency")
+public record LatencyProperties(@DefaultValue("true") boolean enabled, @DefaultValue("15s") Duration interval,
+		@DefaultValue("60s") Duration maxLatency, Map<String, Duration> slo) {
+
+	/**
+	 * Creates a new instance of LatencyProperties.
+	 * @param enabled whether request latencies are recorded
+	 * @param interval how often the published percentiles are replaced by those of the
+	 * last interval; match the Prometheus scrape interval
+	 * @param maxLatency the highest latency tracked precisely; slower requests are
+	 * recorded as this value
+	 * @param slo latency objectives per endpoint, keyed like
+	 * {@code GET /api/v1/products/{id}}
+	 */
+	@ConstructorBinding
+	public LatencyProperties {
+		if (interval.isZero() || interval.isNegative()) {
+			throw new IllegalArgumentException("interval must be positive");
+		}
+		if (maxLatency.toNanos() / 1000 < 2) {
+			throw new IllegalArgumentException("maxLatency must be at least 2 microseconds");
+		}
+		if (slo == null) {
+			slo = Map.of();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.demo.common.latency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Records request latencies per endpoint into HdrHistograms and publishes, for each
+ * endpoint, the percentiles of the last completed interval:
+ * <ul>
+ * <li>{@code http.server.latency} with {@code quantile} 0.5, 0.99, 0.999 and 1.0 (max),
+ * in seconds;</li>
+ * <li>{@code http.server.latency.count}, the requests in that interval;</li>
+ * <li>{@code http.server.latency.slo} and {@code http.server.latency.slo.breaches}, the
+ * objective and the requests slower than it, for endpoints that have one.</li>
+ * </ul>
+ * Unlike the client-side percentiles of a Micrometer timer, these are exact to three
+ * significant digits up to the configured maximum latency and cost no extra time series
+ * per bucket. Endpoints are the matched handler patterns, so their number is bounded by
+ * the mappings of the application.
+ */
+class LatencyRecorder {
+
+	static final String LATENCY_METRIC = "http.server.latency";
+
+	private final MeterRegistry meterRegistry;
+
+	private final long maxMicros;
+
+	private final Map<String, Duration> slo;
+
+	private final Map<EndpointKey, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+
+	LatencyRecorder(LatencyProperties properties, MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+		this.maxMicros = properties.maxLatency().toNanos() / 1000;
+		this.slo = properties.slo();
+	}
+
+	/**
+	 * Records one request.
+	 * @param method the HTTP method
+	 * @param pattern the matched handler pattern, such as {@code /api/v1/products/{id}}
+	 * @param nanos the request latency in nanoseconds
+	 */
+	void record(String method, String pattern, long nanos) {
+		EndpointKey key = new EndpointKey(method, pattern);
+		EndpointLatency latency = endpoints.get(key);
+		if (latency == null) {
+			latency = endpoints.computeIfAbsent(key, this::register);
+		}
+		latency.record(nanos);
+	}
+
+	/**
+	 * Ends the current interval of every endpoint.
+	 */
+	void rotate() {
+		endpoints.values().forEach(EndpointLatency::rotate);
+	}
+
+	EndpointLatency endpoint(String method, String pattern) {
+		return endpoints.get(new EndpointKey(method, pattern));
+	}
+
+	private EndpointLatency register(EndpointKey key) {
+		String endpoint = key.method() + " " + key.pattern();
+		Tags tags = Tags.of("method", key.method(), "uri", key.pattern());
+		Duration objective = slo.get(endpoint);
+		Counter breaches = null;
+		long sloMicros = 0;
+		if (objective != null) {
+			sloMicros = objective.toNanos() / 1000;
+			breaches = Counter.builder(LATENCY_METRIC + ".slo.breaches")
+				.description("Requests slower than the latency objective")
+				.tags(tags)
+				.register(meterRegistry);
+		}
+		EndpointLatency latency = new EndpointLatency(maxMicros, sloMicros, breaches);
+		quantile(latency, tags, "0.5", EndpointLatency.Snapshot::p50);
+		quantile(latency, tags, "0.99", EndpointLatency.Snapshot::p99);
+		quantile(latency, tags, "0.999", EndpointLatency.Snapshot::p999);
+		quantile(latency, tags, "1.0", EndpointLatency.Snapshot::max);
+		Gauge.builder(LATENCY_METRIC + ".count", latency, l -> l.snapshot().count())
+			.description("Requests recorded in the last latency interval")
+			.tags(tags)
+			.register(meterRegistry);
+		if (objective != null) {
+			Gauge.builder(LATENCY_METRIC + ".slo", latency, l -> l.sloMicros() / 1_000_000.0)
+				.description("Latency objective of the endpoint")
+				.tags(tags)
+				.baseUnit("seconds")
+				.register(meterRegistry);
+		}
+		return latency;
+	}
+
+	private void quantile(EndpointLatency latency, Tags tags, String quantile,
+			ToDoubleFunction<EndpointLatency.Snapshot> value) {
+		Gauge.builder(LATENCY_METRIC, latency, l -> value.applyAsDouble(l.snapshot()))
+			.description("Request latency percentile over the last interval")
+			.tags(tags)
+			.tag("quantile", quantile)
+			.baseUnit("seconds")
+			.register(meterRegistry);
+	}
+
+	private record EndpointKey(String method, String pattern) {
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.common.latency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every request that reaches a handler and records it under the matched handler
+ * pattern. Requests that match no handler (unknown paths, rejected before dispatch) are
+ * not recorded, which keeps the endpoints bounded.
+ */
+class LatencyRecordingFilter extends OncePerRequestFilter {
+
+	private final LatencyRecorder latencyRecorder;
+
+	LatencyRecordingFilter(LatencyRecorder latencyRecorder) {
+		this.latencyRecorder = latencyRecorder;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long start = System.nanoTime();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern) {
+				latencyRecorder.record(request.getMethod(), pattern, System.nanoTime() - start);
+			}
+		}
+	}
+
+}
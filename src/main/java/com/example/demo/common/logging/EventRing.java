@@ -0,0 +1,101 @@
+package com.example.demo.common.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring for many producers and a single consumer. Each slot carries a
+ * sequence number telling producers whether it is free for their lap and the consumer
+ * whether it has been published, so offering an element is one CAS on the tail and
+ * never blocks: a full ring rejects the element instead.
+ *
+ * @param <E> the element type
+ */
+final class EventRing<E> {
+
+	private final int mask;
+
+	private final AtomicReferenceArray<E> slots;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	// Written by the consumer only; volatile so size() can be read from any thread
+	private volatile long head;
+
+	/**
+	 * Creates an empty ring.
+	 * @param capacity the number of slots, a power of two
+	 */
+	EventRing(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of two, but was " + capacity);
+		}
+		this.mask = capacity - 1;
+		this.slots = new AtomicReferenceArray<>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Adds an element if a slot is free. Safe to call from any thread.
+	 * @param element the element to add
+	 * @return {@code false} if the ring is full
+	 */
+	boolean offer(E element) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) (position & mask);
+			long lag = sequences.get(index) - position;
+			if (lag == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					slots.lazySet(index, element);
+					sequences.set(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			}
+			else if (lag < 0) {
+				// The consumer has not freed this slot since the previous lap
+				return false;
+			}
+			else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * Removes the oldest published element. Must only be called by the consumer thread.
+	 * @return the element, or {@code null} if none is published yet
+	 */
+	E poll() {
+		long position = head;
+		int index = (int) (position & mask);
+		if (sequences.get(index) != position + 1) {
+			return null;
+		}
+		E element = slots.get(index);
+		slots.lazySet(index, null);
+		sequences.set(index, position + mask + 1);
+		head = position + 1;
+		return element;
+	}
+
+	/**
+	 * Returns the number of claimed slots, including ones still being published.
+	 * @return the approximate number of queued elements
+	 */
+	int size() {
+		return (int) Math.max(0, Math.min(capacity(), tail.get() - head));
+	}
+
+	int capacity() {
+		return mask + 1;
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.example.demo.common.logging;
+
+import com.example.demo.common.ratelimit.TokenBucket;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limit for a log statement that can be triggered by clients, such as a warning per
+ * rejected request. Permits come from a {@link TokenBucket}, so a short burst is logged
+ * in full while a sustained flood is reduced to a few lines per second. Suppressed events
+ * are counted and reported with the next line that is logged, so the volume stays
+ * visible.
+ */
+public final class LogSampler {
+
+	/**
+	 * Returned by {@link #tryAcquire()} when the event must not be logged.
+	 */
+	public static final long SUPPRESSED = -1;
+
+	private final TokenBucket bucket;
+
+	private final AtomicLong suppressed = new AtomicLong();
+
+	/**
+	 * Creates a sampler.
+	 * @param burst the number of lines that may be logged at once
+	 * @param perSecond the sustained number of lines logged per second
+	 */
+	public LogSampler(long burst, double perSecond) {
+		this.bucket = new TokenBucket(burst, perSecond, System.nanoTime());
+	}
+
+	/**
+	 * Decides whether the current event is logged.
+	 * @return {@link #SUPPRESSED} if the event must not be logged, otherwise the number of
+	 * events suppressed since the last logged one
+	 */
+	public long tryAcquire() {
+		return tryAcquire(System.nanoTime());
+	}
+
+	long tryAcquire(long nowNanos) {
+		if (bucket.tryConsume(nowNanos) != 0) {
+			suppressed.incrementAndGet();
+			return SUPPRESSED;
+		}
+		// Cheap read first, so the common case with nothing suppressed does not write
+		return (suppressed.get() == 0) ? 0 : suppressed.getAndSet(0);
+	}
+
+}
@@ -0,0 +1,19 @@
+package com.example.demo.common.logging;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the logging pipeline. The appenders and filters themselves are
+ * declared in {@code logback-spring.xml}; levels can be changed at runtime through the
+ * Actuator {@code loggers} endpoint.
+ */
+@Configuration
+class LoggingConfig {
+
+	@Bean
+	LoggingMetrics loggingMetrics() {
+		return new LoggingMetrics();
+	}
+
+}
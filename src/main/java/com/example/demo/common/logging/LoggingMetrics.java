@@ -0,0 +1,61 @@
+package com.example.demo.common.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+
+/**
+ * Publishes the state of the logging pipeline:
+ * <ul>
+ * <li>{@code logging.ring.queued} and {@code logging.ring.capacity} per
+ * {@link RingBufferAppender};</li>
+ * <li>{@code logging.ring.dropped}, tagged with {@code reason=discarded} for events shed
+ * past the watermark and {@code reason=overflow} for events lost to a full ring.</li>
+ * </ul>
+ * Without these, a pipeline shedding load would look the same as a quiet one.
+ */
+class LoggingMetrics implements MeterBinder {
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+			return;
+		}
+		for (Logger logger : context.getLoggerList()) {
+			for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext();) {
+				if (it.next() instanceof RingBufferAppender appender) {
+					bindAppender(appender, registry);
+				}
+			}
+		}
+	}
+
+	private static void bindAppender(RingBufferAppender appender, MeterRegistry registry) {
+		String name = appender.getName();
+		Gauge.builder("logging.ring.queued", appender, RingBufferAppender::getQueueSize)
+			.tag("appender", name)
+			.description("Log events waiting to be written")
+			.register(registry);
+		Gauge.builder("logging.ring.capacity", appender, RingBufferAppender::getCapacity)
+			.tag("appender", name)
+			.description("Log events the ring can hold")
+			.register(registry);
+		FunctionCounter.builder("logging.ring.dropped", appender, RingBufferAppender::getDiscardedCount)
+			.tags("appender", name, "reason", "discarded")
+			.description("Log events dropped by the ring appender")
+			.register(registry);
+		FunctionCounter.builder("logging.ring.dropped", appender, RingBufferAppender::getOverflowedCount)
+			.tags("appender", name, "reason", "overflow")
+			.description("Log events dropped by the ring appender")
+			.register(registry);
+	}
+
+}
@@ -0,0 +1,239 @@
+package com.example.demo.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous appender that hands events to its attached appenders through a lock-free
+ * {@link EventRing}, so a logging call costs one CAS instead of the formatting and I/O
+ * of the delegates. Unlike Logback's {@code AsyncAppender} it never blocks the caller:
+ * <ul>
+ * <li>once the ring is filled past {@code discardingWatermark}, events at or below
+ * {@code discardingThreshold} are dropped to keep room for warnings and errors;</li>
+ * <li>when the ring is full, any event is dropped.</li>
+ * </ul>
+ * Dropped events are counted per reason and published as metrics by
+ * {@link LoggingMetrics}.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+		implements AppenderAttachable<ILoggingEvent> {
+
+	private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+	private final LongAdder discarded = new LongAdder();
+
+	private final LongAdder overflowed = new LongAdder();
+
+	private int capacity = 8192;
+
+	private double discardingWatermark = 0.8;
+
+	private Level discardingThreshold = Level.INFO;
+
+	private boolean includeCallerData;
+
+	private int shutdownTimeoutMillis = 1000;
+
+	private EventRing<ILoggingEvent> ring;
+
+	private int discardingSize;
+
+	private Thread worker;
+
+	private volatile boolean draining;
+
+	// Set by the worker before it parks on an empty ring; appending then wakes it up
+	private volatile boolean idle;
+
+	@Override
+	public void start() {
+		if (isStarted()) {
+			return;
+		}
+		if (!appenders.iteratorForAppenders().hasNext()) {
+			addError("No appender attached to [" + getName() + "]");
+			return;
+		}
+		try {
+			ring = new EventRing<>(capacity);
+		}
+		catch (IllegalArgumentException ex) {
+			addError("Invalid capacity for [" + getName() + "]: " + ex.getMessage());
+			return;
+		}
+		discardingSize = (int) (capacity * discardingWatermark);
+		draining = true;
+		worker = Thread.ofPlatform().daemon().name("logback-ring-" + getName()).start(this::drain);
+		super.start();
+	}
+
+	@Override
+	public void stop() {
+		if (!isStarted()) {
+			return;
+		}
+		super.stop();
+		draining = false;
+		LockSupport.unpark(worker);
+		try {
+			worker.join(shutdownTimeoutMillis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (worker.isAlive()) {
+			addWarn("[" + getName() + "] did not flush within " + shutdownTimeoutMillis + " ms; " + ring.size()
+					+ " queued events are lost");
+		}
+		appenders.detachAndStopAllAppenders();
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		if (ring.size() >= discardingSize && event.getLevel().toInt() <= discardingThreshold.toInt()) {
+			discarded.increment();
+			return;
+		}
+		// Capture thread name, MDC and formatted message before the caller moves on
+		event.prepareForDeferredProcessing();
+		if (includeCallerData) {
+			event.getCallerData();
+		}
+		if (!ring.offer(event)) {
+			overflowed.increment();
+		}
+		else if (idle) {
+			LockSupport.unpark(worker);
+		}
+	}
+
+	/**
+	 * Writes events until stopped, parking while the ring is empty. The worker announces
+	 * that it is idle before polling a last time, and producers check the flag after
+	 * publishing, so an event offered in between either is polled or unparks the worker.
+	 */
+	private void drain() {
+		while (draining) {
+			ILoggingEvent event = ring.poll();
+			if (event == null) {
+				idle = true;
+				event = ring.poll();
+				if (event == null && draining) {
+					LockSupport.park(this);
+				}
+				idle = false;
+			}
+			if (event != null) {
+				appenders.appendLoopOnAppenders(event);
+			}
+		}
+		for (ILoggingEvent event = ring.poll(); event != null; event = ring.poll()) {
+			appenders.appendLoopOnAppenders(event);
+		}
+	}
+
+	/**
+	 * Returns the number of events waiting to be written.
+	 * @return the queued event count
+	 */
+	public int getQueueSize() {
+		return (ring != null) ? ring.size() : 0;
+	}
+
+	/**
+	 * Returns the number of events dropped because the ring was past its watermark.
+	 * @return the discarded event count
+	 */
+	public long getDiscardedCount() {
+		return discarded.sum();
+	}
+
+	/**
+	 * Returns the number of events dropped because the ring was full.
+	 * @return the overflowed event count
+	 */
+	public long getOverflowedCount() {
+		return overflowed.sum();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Sets the number of events the ring holds, a power of two.
+	 * @param capacity the ring capacity
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Sets the fill ratio above which events at or below the discarding threshold are
+	 * dropped.
+	 * @param discardingWatermark the fill ratio, between 0 and 1
+	 */
+	public void setDiscardingWatermark(double discardingWatermark) {
+		this.discardingWatermark = discardingWatermark;
+	}
+
+	/**
+	 * Sets the most severe level that may be dropped past the watermark.
+	 * @param discardingThreshold the level, {@code INFO} by default
+	 */
+	public void setDiscardingThreshold(Level discardingThreshold) {
+		this.discardingThreshold = discardingThreshold;
+	}
+
+	public void setIncludeCallerData(boolean includeCallerData) {
+		this.includeCallerData = includeCallerData;
+	}
+
+	public void setShutdownTimeoutMillis(int shutdownTimeoutMillis) {
+		this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+	}
+
+	@Override
+	public void addAppender(Appender<ILoggingEvent> appender) {
+		appenders.addAppender(appender);
+	}
+
+	@Override
+	public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+		return appenders.iteratorForAppenders();
+	}
+
+	@Override
+	public Appender<ILoggingEvent> getAppender(String name) {
+		return appenders.getAppender(name);
+	}
+
+	@Override
+	public boolean isAttached(Appender<ILoggingEvent> appender) {
+		return appenders.isAttached(appender);
+	}
+
+	@Override
+	public void detachAndStopAllAppenders() {
+		appenders.detachAndStopAllAppenders();
+	}
+
+	@Override
+	public boolean detachAppender(Appender<ILoggingEvent> appender) {
+		return appenders.detachAppender(appender);
+	}
+
+	@Override
+	public boolean detachAppender(String name) {
+		return appenders.detachAppender(name);
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.common.ratelimit;
+
+import com.example.demo.common.cache.CacheRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Configuration for per-client rate limiting.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", matchIfMissing = true)
+class RateLimitConfig {
+
+	@Bean
+	RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry,
+			CacheRegistry cacheRegistry) {
+		RateLimiter rateLimiter = new RateLimiter(properties, meterRegistry);
+		cacheRegistry.register("ratelimit.buckets", rateLimiter.buckets());
+		return rateLimiter;
+	}
+
+	@Bean
+	FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter,
+			@Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+		var registration = new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, exceptionResolver));
+		// After the observation filter so rejected requests still show up in metrics
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+		return registration;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.example.demo.common.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has exhausted the token bucket of an endpoint group. The
+ * exception is created on every rejected request, so it does not capture a stack trace.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+	private final String group;
+
+	private final Duration retryAfter;
+
+	public RateLimitExceededException(String group, Duration retryAfter) {
+		super("Rate limit exceeded for " + group + " endpoints", null, false, false);
+		this.group = group;
+		this.retryAfter = retryAfter;
+	}
+
+	public String getGroup() {
+		return group;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+}
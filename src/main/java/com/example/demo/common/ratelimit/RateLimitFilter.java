@@ -0,0 +1,45 @@
+package com.example.demo.common.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Enforces the rate limits before a request reaches the controllers. Rejections are
+ * handed to the MVC exception resolvers so they are rendered by the global exception
+ * handler like any other error.
+ * <p>
+ * Clients are identified by their remote address. Nothing here authenticates API keys, so
+ * keying on a header would let a client escape its limit, or churn the bucket map, just
+ * by sending a different value with every request.
+ */
+class RateLimitFilter extends OncePerRequestFilter {
+
+	private final RateLimiter rateLimiter;
+
+	private final HandlerExceptionResolver exceptionResolver;
+
+	RateLimitFilter(RateLimiter rateLimiter, HandlerExceptionResolver exceptionResolver) {
+		this.rateLimiter = rateLimiter;
+		this.exceptionResolver = exceptionResolver;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try {
+			rateLimiter.acquire(request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+		}
+		catch (RateLimitExceededException ex) {
+			exceptionResolver.resolveException(request, response, null, ex);
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+
+}
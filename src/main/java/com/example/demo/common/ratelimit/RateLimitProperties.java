@@ -0,0 +1,57 @@
+package com.example.demo.common.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for per-client rate limiting.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+		@DefaultValue("100000") long maxClients, @DefaultValue("10m") Duration idleTimeout,
+		Map<String, Group> groups) {
+
+	/**
+	 * Creates a new instance of RateLimitProperties.
+	 * @param enabled whether rate limiting is enforced
+	 * @param maxClients the maximum number of client buckets kept in memory
+	 * @param idleTimeout how long an unused client bucket is kept
+	 * @param groups the endpoint groups, checked in declaration order
+	 */
+	@ConstructorBinding
+	public RateLimitProperties {
+		if (maxClients <= 0) {
+			throw new IllegalArgumentException("maxClients must be positive");
+		}
+		if (groups == null) {
+			groups = Map.of();
+		}
+	}
+
+	/**
+	 * Limit applied to every client of one endpoint group.
+	 * @param paths the path patterns belonging to the group
+	 * @param methods the HTTP methods belonging to the group, empty for all methods
+	 * @param capacity the burst size
+	 * @param refillPerSecond the sustained number of requests per second
+	 */
+	public record Group(List<String> paths, List<String> methods, long capacity, double refillPerSecond) {
+
+		public Group {
+			if (paths == null || paths.isEmpty()) {
+				throw new IllegalArgumentException("paths must not be empty");
+			}
+			if (methods == null) {
+				methods = List.of();
+			}
+			if (capacity <= 0 || refillPerSecond <= 0) {
+				throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+			}
+		}
+	}
+}
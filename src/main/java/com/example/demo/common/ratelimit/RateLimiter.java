@@ -0,0 +1,134 @@
+package com.example.demo.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Decides whether a client may call an endpoint. Each (group, client) pair owns a
+ * {@link TokenBucket}; buckets live in a size-bounded Caffeine map and expire once the
+ * client goes idle, so a flood of distinct clients cannot grow memory without limit.
+ */
+class RateLimiter {
+
+	static final String REJECTED_METRIC = "ratelimit.requests.rejected";
+
+	private final List<LimitedGroup> groups;
+
+	private final Cache<BucketKey, TokenBucket> buckets;
+
+	RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+		this.groups = properties.groups()
+			.entrySet()
+			.stream()
+			.map(entry -> LimitedGroup.of(entry.getKey(), entry.getValue(), meterRegistry))
+			.toList();
+		this.buckets = Caffeine.newBuilder()
+			.maximumSize(properties.maxClients())
+			.expireAfterAccess(properties.idleTimeout())
+			.recordStats()
+			.build();
+	}
+
+	/**
+	 * Identifies the bucket of a client in a group. The text form, which is what the cache
+	 * inspection endpoint lists and evicts by, shows a hash of the client instead of the
+	 * client itself, so inspecting the buckets does not reveal client addresses.
+	 */
+	record BucketKey(String group, String clientId) {
+
+		@Override
+		public String toString() {
+			return "BucketKey[group=" + group + ", client=" + fingerprint(clientId) + "]";
+		}
+
+		private static String fingerprint(String clientId) {
+			try {
+				byte[] hash = MessageDigest.getInstance("SHA-256").digest(clientId.getBytes(StandardCharsets.UTF_8));
+				return HexFormat.of().formatHex(hash, 0, 8);
+			}
+			catch (NoSuchAlgorithmException ex) {
+				throw new IllegalStateException("SHA-256 is not available", ex);
+			}
+		}
+	}
+
+	private record LimitedGroup(String name, List<PathPattern> patterns, RateLimitProperties.Group limit,
+			Counter rejected) {
+
+		static LimitedGroup of(String name, RateLimitProperties.Group limit, MeterRegistry meterRegistry) {
+			List<PathPattern> patterns = limit.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+			Counter rejected = Counter.builder(REJECTED_METRIC)
+				.description("Requests rejected by the rate limiter")
+				.tag("group", name)
+				.register(meterRegistry);
+			return new LimitedGroup(name, patterns, limit, rejected);
+		}
+
+		boolean matches(String method, PathContainer path) {
+			if (!limit.methods().isEmpty() && !limit.methods().contains(method)) {
+				return false;
+			}
+			for (PathPattern pattern : patterns) {
+				if (pattern.matches(path)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Takes a permit for the given request and client.
+	 * @param method the HTTP method
+	 * @param path the request path
+	 * @param clientId the address identifying the client
+	 * @throws RateLimitExceededException if the client's bucket is empty
+	 */
+	void acquire(String method, String path, String clientId) {
+		if (groups.isEmpty()) {
+			return;
+		}
+		PathContainer pathContainer = PathContainer.parsePath(path);
+		for (LimitedGroup group : groups) {
+			if (group.matches(method, pathContainer)) {
+				acquire(group, clientId);
+				return;
+			}
+		}
+	}
+
+	private void acquire(LimitedGroup group, String clientId) {
+		long now = System.nanoTime();
+		TokenBucket bucket = buckets.get(new BucketKey(group.name(), clientId),
+				key -> new TokenBucket(group.limit().capacity(), group.limit().refillPerSecond(), now));
+		long waitNanos = bucket.tryConsume(now);
+		if (waitNanos > 0) {
+			group.rejected().increment();
+			throw new RateLimitExceededException(group.name(), Duration.ofNanos(waitNanos));
+		}
+	}
+
+	/**
+	 * Returns the approximate number of client buckets held in memory.
+	 */
+	long bucketCount() {
+		return buckets.estimatedSize();
+	}
+
+	Cache<BucketKey, TokenBucket> buckets() {
+		return buckets;
+	}
+
+}
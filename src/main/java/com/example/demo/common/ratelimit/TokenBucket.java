@@ -0,0 +1,55 @@
+package com.example.demo.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The bucket state is encoded as a single "theoretical arrival
+ * time" (the generic cell rate algorithm): every permit pushes it forward by one emission
+ * interval and a request is rejected when it would run further ahead of the clock than
+ * the bucket capacity allows. Acquiring a permit is therefore one read and one CAS, with
+ * no refill thread and no lock.
+ */
+public final class TokenBucket {
+
+	private final long emissionIntervalNanos;
+
+	private final long burstNanos;
+
+	private final AtomicLong theoreticalArrivalNanos;
+
+	/**
+	 * Creates a full bucket.
+	 * @param capacity the maximum number of permits available at once
+	 * @param refillPerSecond the number of permits added per second
+	 * @param nowNanos the current {@link System#nanoTime()} value
+	 */
+	public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+		if (capacity <= 0 || refillPerSecond <= 0) {
+			throw new IllegalArgumentException("capacity and refillPerSecond must be positive");
+		}
+		this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+		this.burstNanos = capacity * emissionIntervalNanos;
+		this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * Tries to take one permit.
+	 * @param nowNanos the current {@link System#nanoTime()} value
+	 * @return {@code 0} if a permit was taken, otherwise the nanoseconds until one becomes
+	 * available
+	 */
+	public long tryConsume(long nowNanos) {
+		while (true) {
+			long theoreticalArrival = theoreticalArrivalNanos.get();
+			long next = Math.max(theoreticalArrival, nowNanos) + emissionIntervalNanos;
+			long waitNanos = next - nowNanos - burstNanos;
+			if (waitNanos > 0) {
+				return waitNanos;
+			}
+			if (theoreticalArrivalNanos.compareAndSet(theoreticalArrival, next)) {
+				return 0;
+			}
+		}
+	}
+
+}
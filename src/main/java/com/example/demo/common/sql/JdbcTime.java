@@ -0,0 +1,71 @@
+package com.example.demo.common.sql;
+
+/**
+ * The JDBC time of one thread, split into waiting for a pooled connection and executing
+ * statements, including reading their rows. Unlike {@link QueryStats} it is always
+ * collected, so repository calls can be timed without an open measurement.
+ * <p>
+ * Connection wait is kept until a repository call claims it: a transaction acquires its
+ * connection before its first repository call, which is charged the wait.
+ */
+final class JdbcTime {
+
+	private static final ThreadLocal<JdbcTime> CURRENT = ThreadLocal.withInitial(JdbcTime::new);
+
+	private long unclaimedAcquireNanos;
+
+	private long executionNanos;
+
+	private String caller;
+
+	private JdbcTime() {
+	}
+
+	static JdbcTime current() {
+		return CURRENT.get();
+	}
+
+	void recordAcquire(long nanos) {
+		unclaimedAcquireNanos += nanos;
+	}
+
+	void recordExecution(long nanos) {
+		executionNanos += nanos;
+	}
+
+	/**
+	 * Returns the connection wait not yet charged to a repository call, and resets it.
+	 * @return the wait in nanoseconds
+	 */
+	long claimAcquireNanos() {
+		long nanos = unclaimedAcquireNanos;
+		unclaimedAcquireNanos = 0;
+		return nanos;
+	}
+
+	/**
+	 * Returns the execution time of this thread so far; the difference of two readings is
+	 * the time spent in between.
+	 * @return the execution time in nanoseconds
+	 */
+	long executionNanos() {
+		return executionNanos;
+	}
+
+	/**
+	 * Returns the repository method running on this thread.
+	 * @return the method as {@code Repository.method}, or {@code null} outside one
+	 */
+	String caller() {
+		return caller;
+	}
+
+	void enter(String caller) {
+		this.caller = caller;
+	}
+
+	void exit() {
+		caller = null;
+	}
+
+}
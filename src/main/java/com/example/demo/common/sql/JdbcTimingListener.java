@@ -0,0 +1,188 @@
+package com.example.demo.common.sql;
+
+import com.example.demo.common.sql.SlowQueryLog.SlowQuery;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Times the JDBC calls of the proxied data source into the {@link JdbcTime} of the
+ * current thread: {@link DataSource#getConnection()} as connection wait, statements and
+ * {@link ResultSet#next()} as execution. A query is timed until its result set is closed,
+ * so the rows it read count towards it; statements slower than the threshold are kept in
+ * the {@link SlowQueryLog}.
+ */
+class JdbcTimingListener implements QueryExecutionListener, MethodExecutionListener {
+
+	/**
+	 * Result sets a thread may have open at once before the oldest are forgotten, in case
+	 * a driver closes them without a call through the proxy.
+	 */
+	private static final int MAX_OPEN_RESULT_SETS = 64;
+
+	private static final ThreadLocal<long[]> STARTED = ThreadLocal.withInitial(() -> new long[1]);
+
+	private static final ThreadLocal<Map<ResultSet, OpenQuery>> OPEN_QUERIES = ThreadLocal
+		.withInitial(IdentityHashMap::new);
+
+	private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+
+	private volatile SlowQueryLog slowQueryLog;
+
+	private volatile boolean slowQueryLogResolved;
+
+	JdbcTimingListener(ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+		this.slowQueryLogProvider = slowQueryLogProvider;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		STARTED.get()[0] = System.nanoTime();
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		long nanos = System.nanoTime() - STARTED.get()[0];
+		JdbcTime.current().recordExecution(nanos);
+		if (execInfo.getResult() instanceof ResultSet resultSet) {
+			Map<ResultSet, OpenQuery> openQueries = OPEN_QUERIES.get();
+			if (openQueries.size() >= MAX_OPEN_RESULT_SETS) {
+				openQueries.clear();
+			}
+			openQueries.put(resultSet, new OpenQuery(queryInfoList, execInfo.isBatch(), nanos));
+		}
+		else {
+			recordIfSlow(queryInfoList, execInfo.isBatch(), nanos, updateCount(execInfo.getResult()));
+		}
+	}
+
+	@Override
+	public void beforeMethod(MethodExecutionContext executionContext) {
+		if (isTimed(executionContext)) {
+			STARTED.get()[0] = System.nanoTime();
+		}
+	}
+
+	@Override
+	public void afterMethod(MethodExecutionContext executionContext) {
+		Object target = executionContext.getTarget();
+		String method = executionContext.getMethod().getName();
+		if (target instanceof DataSource && "getConnection".equals(method)) {
+			JdbcTime.current().recordAcquire(System.nanoTime() - STARTED.get()[0]);
+		}
+		else if (target instanceof ResultSet resultSet && "next".equals(method)) {
+			long nanos = System.nanoTime() - STARTED.get()[0];
+			JdbcTime.current().recordExecution(nanos);
+			OpenQuery query = OPEN_QUERIES.get().get(resultSet);
+			if (query != null) {
+				query.nanos += nanos;
+				if (Boolean.TRUE.equals(executionContext.getResult())) {
+					query.rows++;
+				}
+			}
+		}
+		else if (target instanceof ResultSet resultSet && "close".equals(method)) {
+			OpenQuery query = OPEN_QUERIES.get().remove(resultSet);
+			if (query != null) {
+				recordIfSlow(query.queries, query.batch, query.nanos, query.rows);
+			}
+		}
+	}
+
+	private static boolean isTimed(MethodExecutionContext executionContext) {
+		Object target = executionContext.getTarget();
+		String method = executionContext.getMethod().getName();
+		return (target instanceof ResultSet && "next".equals(method))
+				|| (target instanceof DataSource && "getConnection".equals(method));
+	}
+
+	private void recordIfSlow(List<QueryInfo> queries, boolean batch, long nanos, Long rows) {
+		SlowQueryLog log = slowQueryLog();
+		if (log == null || !log.isSlow(nanos) || queries.isEmpty()) {
+			return;
+		}
+		String sql = queries.stream()
+			.map(query -> SlowQueryLog.normalize(query.getQuery()))
+			.collect(Collectors.joining("; "));
+		List<List<ParameterSetOperation>> parameterSets = queries.getFirst().getParametersList();
+		List<String> parameters = parameterSets.isEmpty() ? List.of() : parameterTypes(parameterSets.getFirst());
+		int batchSize = batch ? Math.max(1, parameterSets.size()) : 1;
+		log.record(new SlowQuery(Instant.now(), sql, parameters, batchSize, Duration.ofNanos(nanos), rows,
+				JdbcTime.current().caller()));
+	}
+
+	/**
+	 * Looks the log up on first use: the data source is created before the beans the log
+	 * depends on.
+	 */
+	private SlowQueryLog slowQueryLog() {
+		if (!slowQueryLogResolved) {
+			slowQueryLog = slowQueryLogProvider.getIfAvailable();
+			slowQueryLogResolved = true;
+		}
+		return slowQueryLog;
+	}
+
+	/**
+	 * Describes bind parameters by type: {@code setLong} becomes {@code Long},
+	 * {@code setObject} the class of the value.
+	 */
+	private static List<String> parameterTypes(List<ParameterSetOperation> operations) {
+		List<String> types = new ArrayList<>(operations.size());
+		for (ParameterSetOperation operation : operations) {
+			String method = operation.getMethod().getName();
+			Object[] args = operation.getArgs();
+			if ("setObject".equals(method) && args.length > 1 && args[1] != null) {
+				types.add(args[1].getClass().getSimpleName());
+			}
+			else {
+				types.add(method.startsWith("set") ? method.substring(3) : method);
+			}
+		}
+		return types;
+	}
+
+	private static Long updateCount(Object result) {
+		return switch (result) {
+			case Integer count -> (long) Math.max(0, count);
+			case Long count -> Math.max(0, count);
+			case int[] counts -> (long) Arrays.stream(counts).map(count -> Math.max(0, count)).sum();
+			case long[] counts -> Arrays.stream(counts).map(count -> Math.max(0, count)).sum();
+			case null, default -> null;
+		};
+	}
+
+	private static final class OpenQuery {
+
+		private final List<QueryInfo> queries;
+
+		private final boolean batch;
+
+		private long nanos;
+
+		private long rows;
+
+		private OpenQuery(List<QueryInfo> queries, boolean batch, long nanos) {
+			this.queries = queries;
+			this.batch = batch;
+			this.nanos = nanos;
+		}
+
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.example.demo.common.sql;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements run by one request, or by one block of code in tests: the number of
+ * statements, the rows read from their result sets and the time spent in JDBC, plus how
+ * often the most repeated statement ran, which exposes N+1 query patterns.
+ * <p>
+ * Statistics are collected per thread while a measurement is open; JDBC calls outside
+ * one are not counted. Instances are confined to the measuring thread.
+ */
+public final class QueryStats {
+
+	/**
+	 * Request attribute marking a response whose body is started before its statements
+	 * run, such as a streamed page. Statistics headers could only count the statements
+	 * run before the body and are left out of such responses.
+	 */
+	public static final String STREAMED_RESPONSE_ATTRIBUTE = QueryStats.class.getName() + ".streamed";
+
+	private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+	private final Map<String, Integer> executions = new HashMap<>();
+
+	private int statements;
+
+	private long rows;
+
+	private long jdbcNanos;
+
+	private String mostRepeated;
+
+	private int maxRepeats;
+
+	/**
+	 * Runs an action and returns the statements it ran. Measurements may be nested; the
+	 * outer one does not see the statements of the inner one.
+	 * @param action the code to measure
+	 * @return the statistics of the action
+	 */
+	public static QueryStats measure(Runnable action) {
+		QueryStats previous = CURRENT.get();
+		QueryStats stats = new QueryStats();
+		CURRENT.set(stats);
+		try {
+			action.run();
+		}
+		finally {
+			restore(previous);
+		}
+		return stats;
+	}
+
+	static QueryStats current() {
+		return CURRENT.get();
+	}
+
+	static QueryStats open() {
+		QueryStats previous = CURRENT.get();
+		CURRENT.set(new QueryStats());
+		return previous;
+	}
+
+	static void restore(QueryStats previous) {
+		if (previous != null) {
+			CURRENT.set(previous);
+		}
+		else {
+			CURRENT.remove();
+		}
+	}
+
+	void recordStatement(String sql, int count, long nanos) {
+		statements += count;
+		jdbcNanos += nanos;
+		int repeats = executions.merge(sql, count, Integer::sum);
+		if (repeats > maxRepeats) {
+			maxRepeats = repeats;
+			mostRepeated = sql;
+		}
+	}
+
+	void recordRow() {
+		rows++;
+	}
+
+	void recordJdbcTime(long nanos) {
+		jdbcNanos += nanos;
+	}
+
+	/**
+	 * Returns the number of statements executed, counting each batch entry.
+	 * @return the statement count
+	 */
+	public int statements() {
+		return statements;
+	}
+
+	/**
+	 * Returns the number of rows read from result sets.
+	 * @return the row count
+	 */
+	public long rows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the time spent executing statements and reading their rows.
+	 * @return the JDBC time
+	 */
+	public Duration jdbcTime() {
+		return Duration.ofNanos(jdbcNanos);
+	}
+
+	/**
+	 * Returns how often the most frequently executed SQL string ran.
+	 * @return the highest execution count of a single statement
+	 */
+	public int maxRepeats() {
+		return maxRepeats;
+	}
+
+	/**
+	 * Returns the most frequently executed SQL string.
+	 * @return the statement, or {@code null} if none ran
+	 */
+	public String mostRepeatedStatement() {
+		return mostRepeated;
+	}
+
+	/**
+	 * Returns the number of distinct SQL strings executed.
+	 * @return the distinct statement count
+	 */
+	public int distinctStatements() {
+		return executions.size();
+	}
+
+	@Override
+	public String toString() {
+		return "QueryStats{statements=" + statements + ", rows=" + rows + ", jdbcTime=" + jdbcTime()
+				+ ", maxRepeats=" + maxRepeats + "}";
+	}
+
+}
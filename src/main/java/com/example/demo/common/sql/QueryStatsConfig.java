@@ -0,0 +1,78 @@
+package com.example.demo.common.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration for per-request SQL statistics, the slow-query log and repository
+ * timing. The data source is wrapped in a datasource-proxy that reports every statement
+ * and result set row to the {@link QueryStats} of the current thread, and times
+ * connection acquisition and statements for the {@link SlowQueryLog} and
+ * {@link RepositoryTimingAspect}.
+ */
+@Configuration
+@EnableConfigurationProperties({ QueryStatsProperties.class, SlowQueryProperties.class })
+@ConditionalOnProperty(prefix = "sql.stats", name = "enabled", matchIfMissing = true)
+class QueryStatsConfig {
+
+	@Bean
+	static BeanPostProcessor queryStatsDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+		QueryStatsListener listener = new QueryStatsListener();
+		JdbcTimingListener timingListener = new JdbcTimingListener(slowQueryLog);
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource) {
+					return ProxyDataSourceBuilder.create(dataSource)
+						.name(beanName)
+						.listener(listener)
+						.listener(timingListener)
+						.methodListener(listener)
+						.methodListener(timingListener)
+						.proxyResultSet()
+						.build();
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	@Bean
+	FilterRegistrationBean<QueryStatsFilter> queryStatsFilter(QueryStatsProperties properties,
+			MeterRegistry meterRegistry) {
+		var registration = new FilterRegistrationBean<>(new QueryStatsFilter(properties, meterRegistry));
+		// Inside compression, so the headers are set before the encoded body commits the response
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 6);
+		return registration;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "sql.slow-queries", name = "enabled", matchIfMissing = true)
+	SlowQueryLog slowQueryLog(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+		return new SlowQueryLog(properties, meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "sql.slow-queries", name = "enabled", matchIfMissing = true)
+	SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+		return new SlowQueryEndpoint(slowQueryLog);
+	}
+
+	@Bean
+	RepositoryTimingAspect repositoryTimingAspect(MeterRegistry meterRegistry) {
+		return new RepositoryTimingAspect(meterRegistry);
+	}
+
+}
@@ -0,0 +1,204 @@
+package com.example.demo.common.sql;
+
+import com.example.demo.common.logging.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the {@link QueryStats} of every request and records them per endpoint. A
+ * request that runs one statement more often than the configured threshold is counted
+ * and logged as a likely N+1 query.
+ * <p>
+ * When enabled, the statistics are also returned as response headers. Headers can only
+ * be set before the body is written, so they cover the statements run up to that point;
+ * the metrics cover the whole request. Responses marked with
+ * {@link QueryStats#STREAMED_RESPONSE_ATTRIBUTE} start their body before running their
+ * statements and get no headers.
+ */
+class QueryStatsFilter extends OncePerRequestFilter {
+
+	private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+	static final String STATEMENTS_HEADER = "X-SQL-Statements";
+
+	static final String ROWS_HEADER = "X-SQL-Rows";
+
+	static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+	static final String STATEMENTS_METRIC = "sql.request.statements";
+
+	static final String ROWS_METRIC = "sql.request.rows";
+
+	static final String TIME_METRIC = "sql.request.time";
+
+	static final String REPEATED_METRIC = "sql.request.repeated";
+
+	private final QueryStatsProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final LogSampler repeatedLogSampler = new LogSampler(5, 0.2);
+
+	private final Map<String, EndpointMeters> endpointMeters = new ConcurrentHashMap<>();
+
+	QueryStatsFilter(QueryStatsProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		QueryStats previous = QueryStats.open();
+		QueryStats stats = QueryStats.current();
+		HttpServletResponse target = properties.responseHeaders() ? new HeaderWritingResponse(request, response, stats)
+				: response;
+		try {
+			filterChain.doFilter(request, target);
+		}
+		finally {
+			QueryStats.restore(previous);
+			if (target instanceof HeaderWritingResponse headerWriting) {
+				headerWriting.writeHeaders();
+			}
+			if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern) {
+				record(request.getMethod(), pattern, stats);
+			}
+		}
+	}
+
+	private void record(String method, String pattern, QueryStats stats) {
+		EndpointMeters meters = endpointMeters.computeIfAbsent(method + " " + pattern,
+				key -> EndpointMeters.register(meterRegistry, method, pattern));
+		meters.statements().record(stats.statements());
+		meters.rows().record(stats.rows());
+		meters.time().record(stats.jdbcTime().toNanos(), TimeUnit.NANOSECONDS);
+		if (stats.maxRepeats() > properties.repeatedStatementThreshold()) {
+			meters.repeated().increment();
+			long suppressed = repeatedLogSampler.tryAcquire();
+			if (suppressed != LogSampler.SUPPRESSED) {
+				log.warn("Likely N+1 query on {} {}: statement ran {} times ({} similar suppressed): {}", method,
+						pattern, stats.maxRepeats(), suppressed, stats.mostRepeatedStatement());
+			}
+		}
+	}
+
+	/**
+	 * The meters of one endpoint, registered on its first request.
+	 */
+	private record EndpointMeters(DistributionSummary statements, DistributionSummary rows, Timer time,
+			Counter repeated) {
+
+		static EndpointMeters register(MeterRegistry meterRegistry, String method, String pattern) {
+			return new EndpointMeters(
+					DistributionSummary.builder(STATEMENTS_METRIC)
+						.description("SQL statements executed per request")
+						.tag("method", method)
+						.tag("uri", pattern)
+						.register(meterRegistry),
+					DistributionSummary.builder(ROWS_METRIC)
+						.description("Rows read from SQL result sets per request")
+						.tag("method", method)
+						.tag("uri", pattern)
+						.register(meterRegistry),
+					Timer.builder(TIME_METRIC)
+						.description("Time spent in JDBC per request")
+						.tag("method", method)
+						.tag("uri", pattern)
+						.register(meterRegistry),
+					Counter.builder(REPEATED_METRIC)
+						.description(
+								"Requests that ran one statement more often than the threshold, a likely N+1 query")
+						.tag("method", method)
+						.tag("uri", pattern)
+						.register(meterRegistry));
+		}
+	}
+
+	/**
+	 * Adds the statistics as headers just before the response is committed.
+	 */
+	private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+		private final HttpServletRequest request;
+
+		private final QueryStats stats;
+
+		private boolean written;
+
+		HeaderWritingResponse(HttpServletRequest request, HttpServletResponse response, QueryStats stats) {
+			super(response);
+			this.request = request;
+			this.stats = stats;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			writeHeaders();
+			return super.getOutputStream();
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			writeHeaders();
+			return super.getWriter();
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			writeHeaders();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			writeHeaders();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			writeHeaders();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			writeHeaders();
+			super.sendRedirect(location);
+		}
+
+		void writeHeaders() {
+			if (written || isCommitted()) {
+				return;
+			}
+			written = true;
+			if (request.getAttribute(QueryStats.STREAMED_RESPONSE_ATTRIBUTE) != null) {
+				return;
+			}
+			setHeader(STATEMENTS_HEADER, Integer.toString(stats.statements()));
+			setHeader(ROWS_HEADER, Long.toString(stats.rows()));
+			setHeader(TIME_HEADER, Long.toString(stats.jdbcTime().toMillis()));
+		}
+
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.example.demo.common.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Feeds the JDBC calls of the proxied data source into the {@link QueryStats} of the
+ * current thread. Statement time is taken from {@code System.nanoTime()} around each
+ * execution, since the proxy only reports whole milliseconds. Rows are counted on
+ * {@link ResultSet#next()}, which also adds the time spent fetching them.
+ */
+class QueryStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+	private static final ThreadLocal<long[]> STARTED = ThreadLocal.withInitial(() -> new long[1]);
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		if (QueryStats.current() != null) {
+			STARTED.get()[0] = System.nanoTime();
+		}
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		QueryStats stats = QueryStats.current();
+		if (stats == null) {
+			return;
+		}
+		long nanos = System.nanoTime() - STARTED.get()[0];
+		for (int i = 0; i < queryInfoList.size(); i++) {
+			QueryInfo query = queryInfoList.get(i);
+			// A prepared batch is a single query with one parameter set per execution
+			int executions = execInfo.isBatch() ? Math.max(1, query.getParametersList().size()) : 1;
+			stats.recordStatement(query.getQuery(), executions, (i == 0) ? nanos : 0);
+		}
+	}
+
+	@Override
+	public void beforeMethod(MethodExecutionContext executionContext) {
+		if (executionContext.getTarget() instanceof ResultSet && QueryStats.current() != null) {
+			STARTED.get()[0] = System.nanoTime();
+		}
+	}
+
+	@Override
+	public void afterMethod(MethodExecutionContext executionContext) {
+		if (!(executionContext.getTarget() instanceof ResultSet)
+				|| !"next".equals(executionContext.getMethod().getName())) {
+			return;
+		}
+		QueryStats stats = QueryStats.current();
+		if (stats == null) {
+			return;
+		}
+		stats.recordJdbcTime(System.nanoTime() - STARTED.get()[0]);
+		if (Boolean.TRUE.equals(executionContext.getResult())) {
+			stats.recordRow();
+		}
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.example.demo.common.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for per-request SQL statistics.
+ */
+@ConfigurationProperties(prefix = "sql.stats")
+public record QueryStatsProperties(@DefaultValue("true") boolean enabled,
+		@DefaultValue("false") boolean responseHeaders, @DefaultValue("5") int repeatedStatementThreshold) {
+
+	/**
+	 * Creates a new instance of QueryStatsProperties.
+	 * @param enabled whether the data source is proxied and statements are counted
+	 * @param responseHeaders whether the statistics are returned as {@code X-SQL-*}
+	 * response headers; never enable in production, they reveal the query plan shape
+	 * @param repeatedStatementThreshold how often one statement may run within a request
+	 * before the request is reported as a likely N+1 query
+	 */
+	@ConstructorBinding
+	public QueryStatsProperties {
+		if (repeatedStatementThreshold < 2) {
+			throw new IllegalArgumentException("repeatedStatementThreshold must be at least 2");
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.demo.common.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the JDBC time of every Spring Data repository method into waiting for a pooled
+ * connection and executing statements, recorded as histograms by repository and method:
+ * <ul>
+ * <li>{@code repository.connection.acquire}: time waiting for the connection pool,
+ * including the wait of the enclosing transaction for the first call in it (see
+ * {@link JdbcTime})</li>
+ * <li>{@code repository.execution}: time executing statements and reading their
+ * rows</li>
+ * </ul>
+ * When a spike shows in the request latency, the two tell whether the database or the
+ * pool size is the bottleneck. Nested repository calls are timed as part of the
+ * outermost one; rows of a returned {@code Stream} are read after the call and not
+ * included. The timers of a repository method are registered on its first call.
+ */
+@Aspect
+class RepositoryTimingAspect {
+
+	static final String ACQUIRE_METRIC = "repository.connection.acquire";
+
+	static final String EXECUTION_METRIC = "repository.execution";
+
+	private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+
+		@Override
+		protected String computeValue(Class<?> type) {
+			for (Class<?> candidate : type.getInterfaces()) {
+				if (Repository.class.isAssignableFrom(candidate)
+						&& !candidate.getName().startsWith("org.springframework.")) {
+					return candidate.getSimpleName();
+				}
+			}
+			return type.getSimpleName();
+		}
+
+	};
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, MethodTimers> methodTimers = new ConcurrentHashMap<>();
+
+	RepositoryTimingAspect(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+	Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+		JdbcTime time = JdbcTime.current();
+		if (time.caller() != null) {
+			return joinPoint.proceed();
+		}
+		String repository = REPOSITORY_NAMES.get(joinPoint.getThis().getClass());
+		String method = joinPoint.getSignature().getName();
+		String caller = repository + "." + method;
+		long executionStart = time.executionNanos();
+		time.enter(caller);
+		try {
+			return joinPoint.proceed();
+		}
+		finally {
+			time.exit();
+			MethodTimers timers = methodTimers.computeIfAbsent(caller,
+					key -> MethodTimers.register(meterRegistry, repository, method));
+			timers.acquire().record(time.claimAcquireNanos(), TimeUnit.NANOSECONDS);
+			timers.execution().record(time.executionNanos() - executionStart, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * The timers of one repository method, registered on its first call.
+	 */
+	private record MethodTimers(Timer acquire, Timer execution) {
+
+		static MethodTimers register(MeterRegistry meterRegistry, String repository, String method) {
+			return new MethodTimers(
+					timer(meterRegistry, ACQUIRE_METRIC, "Time repository methods waited for a pooled connection",
+							repository, method),
+					timer(meterRegistry, EXECUTION_METRIC, "Time repository methods executed statements and read rows",
+							repository, method));
+		}
+
+		private static Timer timer(MeterRegistry meterRegistry, String name, String description, String repository,
+				String method) {
+			return Timer.builder(name)
+				.description(description)
+				.tag("repository", repository)
+				.tag("method", method)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.example.demo.common.sql;
+
+import com.example.demo.common.sql.SlowQueryLog.SlowQuery;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing the slowest SQL statements:
+ * <ul>
+ * <li>{@code GET /actuator/slowqueries} lists the statements, slowest first, with their
+ * normalized SQL, bind parameter types, duration, rows and repository method</li>
+ * <li>{@code DELETE /actuator/slowqueries} clears the list</li>
+ * </ul>
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+	private final SlowQueryLog slowQueryLog;
+
+	SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+		this.slowQueryLog = slowQueryLog;
+	}
+
+	@ReadOperation
+	public List<SlowQuery> slowQueries() {
+		return slowQueryLog.slowest();
+	}
+
+	@DeleteOperation
+	public void clear() {
+		slowQueryLog.clear();
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.example.demo.common.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the slowest statements above a threshold. Statements are kept in normalized form,
+ * with literals replaced by {@code ?}, and with the types of their bind parameters rather
+ * than the values, so the log holds no data from the database.
+ * <p>
+ * Once full, a slower statement replaces the fastest one kept; every slow statement is
+ * counted in {@code sql.slow.statements}.
+ */
+class SlowQueryLog {
+
+	static final String SLOW_METRIC = "sql.slow.statements";
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+	private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+	private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private static final Comparator<SlowQuery> FASTEST_FIRST = Comparator.comparing(SlowQuery::duration);
+
+	private final long thresholdNanos;
+
+	private final int capacity;
+
+	private final PriorityQueue<SlowQuery> slowest;
+
+	private final Counter slowStatements;
+
+	SlowQueryLog(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+		this.thresholdNanos = properties.threshold().toNanos();
+		this.capacity = properties.capacity();
+		this.slowest = new PriorityQueue<>(properties.capacity(), FASTEST_FIRST);
+		this.slowStatements = Counter.builder(SLOW_METRIC)
+			.description("Statements slower than the slow-query threshold")
+			.register(meterRegistry);
+	}
+
+	boolean isSlow(long nanos) {
+		return nanos >= thresholdNanos;
+	}
+
+	void record(SlowQuery query) {
+		slowStatements.increment();
+		synchronized (slowest) {
+			if (slowest.size() < capacity) {
+				slowest.add(query);
+			}
+			else if (FASTEST_FIRST.compare(query, slowest.peek()) > 0) {
+				slowest.poll();
+				slowest.add(query);
+			}
+		}
+	}
+
+	/**
+	 * Returns the slowest statements kept, slowest first.
+	 * @return the statements
+	 */
+	List<SlowQuery> slowest() {
+		synchronized (slowest) {
+			return slowest.stream().sorted(FASTEST_FIRST.reversed()).toList();
+		}
+	}
+
+	void clear() {
+		synchronized (slowest) {
+			slowest.clear();
+		}
+	}
+
+	/**
+	 * Normalizes a SQL string: literals become {@code ?}, lists of parameters in an
+	 * {@code IN} clause collapse to one, and whitespace to single spaces. Statements that
+	 * differ only in their values normalize to the same string.
+	 * @param sql the SQL string
+	 * @return the normalized SQL
+	 */
+	static String normalize(String sql) {
+		String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+		normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+		normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+		return WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+	}
+
+	/**
+	 * A statement slower than the threshold.
+	 * @param time when the statement completed
+	 * @param sql the normalized SQL
+	 * @param parameters the types of the bind parameters, in the order they were set
+	 * @param batchSize the number of parameter sets executed in one batch, or 1
+	 * @param duration the time executing the statement and reading its rows
+	 * @param rows the rows read or updated, or {@code null} if unknown
+	 * @param caller the repository method that ran the statement, or {@code null}
+	 */
+	public record SlowQuery(Instant time, String sql, List<String> parameters, int batchSize, Duration duration,
+			Long rows, String caller) {
+	}
+
+}
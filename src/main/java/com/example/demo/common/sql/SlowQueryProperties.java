@@ -0,0 +1,28 @@
+package com.example.demo.common.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the slow-query log.
+ */
+@ConfigurationProperties(prefix = "sql.slow-queries")
+public record SlowQueryProperties(@DefaultValue("true") boolean enabled, @DefaultValue("200ms") Duration threshold,
+		@DefaultValue("20") int capacity) {
+
+	/**
+	 * Creates a new instance of SlowQueryProperties.
+	 * @param enabled whether statements slower than the threshold are kept
+	 * @param threshold the shortest statement, including reading its rows, that is kept
+	 * @param capacity the number of slowest statements kept
+	 */
+	@ConstructorBinding
+	public SlowQueryProperties {
+		if (threshold.isNegative() || capacity <= 0) {
+			throw new IllegalArgumentException("threshold must not be negative and capacity must be positive");
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package com.example.demo.common.tracing;
+
+import com.example.demo.common.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samples a fixed number of traces per second for each endpoint instead of a fixed
+ * share of all requests, so tracing overhead stays flat as load grows while rarely
+ * called endpoints are still traced. Each endpoint draws from a {@link TokenBucket}; the
+ * number of endpoints is bounded, further ones share the {@value #OTHER_ENDPOINT}
+ * bucket.
+ * <p>
+ * Child spans follow their parent. When tail retention is on, traces that are not
+ * sampled are still recorded (but not exported), so {@link TailSamplingSpanProcessor}
+ * can keep the slow and failed ones once the request completes.
+ */
+final class AdaptiveSampler implements Sampler {
+
+	static final String OTHER_ENDPOINT = "other";
+
+	static final String DECISIONS_METRIC = "tracing.sampler.decisions";
+
+	private static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.request.method");
+
+	private static final AttributeKey<String> HTTP_ROUTE = AttributeKey.stringKey("http.route");
+
+	private static final AttributeKey<String> URL_PATH = AttributeKey.stringKey("url.path");
+
+	private final double tracesPerSecond;
+
+	private final int maxEndpoints;
+
+	private final boolean recordUnsampled;
+
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	private final Counter sampled;
+
+	private final Counter recordedOnly;
+
+	private final Counter dropped;
+
+	AdaptiveSampler(double tracesPerSecond, int maxEndpoints, boolean recordUnsampled, MeterRegistry meterRegistry) {
+		this.tracesPerSecond = tracesPerSecond;
+		this.maxEndpoints = maxEndpoints;
+		this.recordUnsampled = recordUnsampled;
+		this.sampled = decisionCounter("sampled", meterRegistry);
+		this.recordedOnly = decisionCounter("recorded", meterRegistry);
+		this.dropped = decisionCounter("dropped", meterRegistry);
+	}
+
+	private static Counter decisionCounter(String decision, MeterRegistry meterRegistry) {
+		return Counter.builder(DECISIONS_METRIC)
+			.description("Sampling decisions for new traces")
+			.tag("decision", decision)
+			.register(meterRegistry);
+	}
+
+	@Override
+	public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+			Attributes attributes, List<LinkData> parentLinks) {
+		Span parentSpan = Span.fromContext(parentContext);
+		SpanContext parent = parentSpan.getSpanContext();
+		if (parent.isValid()) {
+			if (parent.isSampled()) {
+				return SamplingResult.recordAndSample();
+			}
+			// A remote caller that did not sample still leaves the tail decision to us
+			if (recordUnsampled && (parent.isRemote() || parentSpan.isRecording())) {
+				return SamplingResult.recordOnly();
+			}
+			return SamplingResult.drop();
+		}
+		if (bucket(endpoint(attributes, name)).tryConsume(System.nanoTime()) == 0) {
+			sampled.increment();
+			return SamplingResult.recordAndSample();
+		}
+		if (recordUnsampled) {
+			recordedOnly.increment();
+			return SamplingResult.recordOnly();
+		}
+		dropped.increment();
+		return SamplingResult.drop();
+	}
+
+	private TokenBucket bucket(String endpoint) {
+		TokenBucket bucket = buckets.get(endpoint);
+		if (bucket != null) {
+			return bucket;
+		}
+		String key = (buckets.size() < maxEndpoints) ? endpoint : OTHER_ENDPOINT;
+		return buckets.computeIfAbsent(key,
+				k -> new TokenBucket((long) Math.ceil(tracesPerSecond), tracesPerSecond, System.nanoTime()));
+	}
+
+	int endpointCount() {
+		return buckets.size();
+	}
+
+	@Override
+	public String getDescription() {
+		return "AdaptiveSampler{tracesPerSecond=" + tracesPerSecond + ", recordUnsampled=" + recordUnsampled + "}";
+	}
+
+	/**
+	 * Returns the endpoint a span belongs to, such as {@code GET /api/v1/products/{id}}.
+	 * The route is only known once the request has been matched, so numeric path
+	 * segments are folded into {@code {id}} to give the same key before that.
+	 * @param attributes the span attributes
+	 * @param spanName the span name, used for spans that are not HTTP requests
+	 * @return the endpoint key
+	 */
+	static String endpoint(Attributes attributes, String spanName) {
+		String method = attributes.get(HTTP_METHOD);
+		String route = attributes.get(HTTP_ROUTE);
+		if (route == null) {
+			String path = attributes.get(URL_PATH);
+			route = (path != null) ? foldIds(path) : null;
+		}
+		return (method != null && route != null) ? method + " " + route : spanName;
+	}
+
+	static String foldIds(String path) {
+		StringBuilder folded = null;
+		int segmentStart = 0;
+		for (int i = 0; i <= path.length(); i++) {
+			if (i < path.length() && path.charAt(i) != '/') {
+				continue;
+			}
+			boolean numeric = i > segmentStart;
+			for (int j = segmentStart; j < i && numeric; j++) {
+				numeric = Character.isDigit(path.charAt(j));
+			}
+			if (numeric && folded == null) {
+				folded = new StringBuilder(path.length()).append(path, 0, segmentStart);
+			}
+			if (folded != null) {
+				if (numeric) {
+					folded.append("{id}");
+				}
+				else {
+					folded.append(path, segmentStart, i);
+				}
+				if (i < path.length()) {
+					folded.append('/');
+				}
+			}
+			segmentStart = i + 1;
+		}
+		return (folded != null) ? folded.toString() : path;
+	}
+
+}
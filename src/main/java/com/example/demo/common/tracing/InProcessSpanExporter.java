@@ -0,0 +1,82 @@
+package com.example.demo.common.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for the OTLP exporter that keeps the most recent exported spans in memory.
+ * Enabled with {@code tracing.sampling.in-process-exporter=true}, it lets tests and
+ * local load runs check what sampling and tail retention keep, and what tracing costs,
+ * without a collector.
+ */
+final class InProcessSpanExporter implements SpanExporter {
+
+	private final int capacity;
+
+	private final ConcurrentLinkedDeque<SpanData> spans = new ConcurrentLinkedDeque<>();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final LongAdder exported = new LongAdder();
+
+	/**
+	 * Creates an exporter.
+	 * @param capacity the number of most recent spans kept
+	 */
+	InProcessSpanExporter(int capacity) {
+		this.capacity = capacity;
+	}
+
+	@Override
+	public CompletableResultCode export(Collection<SpanData> batch) {
+		for (SpanData span : batch) {
+			spans.addLast(span);
+			if (size.incrementAndGet() > capacity && spans.pollFirst() != null) {
+				size.decrementAndGet();
+			}
+		}
+		exported.add(batch.size());
+		return CompletableResultCode.ofSuccess();
+	}
+
+	/**
+	 * Returns the most recent exported spans, oldest first.
+	 * @return a snapshot of the kept spans
+	 */
+	List<SpanData> getExportedSpans() {
+		return new ArrayList<>(spans);
+	}
+
+	/**
+	 * Returns the number of spans exported since startup or the last reset.
+	 * @return the exported span count
+	 */
+	long getExportedCount() {
+		return exported.sum();
+	}
+
+	void reset() {
+		spans.clear();
+		size.set(0);
+		exported.reset();
+	}
+
+	@Override
+	public CompletableResultCode flush() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		return CompletableResultCode.ofSuccess();
+	}
+
+}
@@ -0,0 +1,220 @@
+package com.example.demo.common.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail-based retention for traces the {@link AdaptiveSampler} recorded without sampling.
+ * Their spans are held per trace until the local root span ends, i.e. the request has
+ * completed. The trace is then exported if it failed or took longer than the latency
+ * threshold of its endpoint, and dropped otherwise. Sampled spans are left to the regular
+ * batch processor.
+ * <p>
+ * Memory is bounded: at most {@code maxPendingTraces} unfinished traces are held, traces
+ * whose root never ends are evicted after {@link #PENDING_TTL}, and kept spans wait for
+ * export in a bounded queue drained by a background thread.
+ */
+final class TailSamplingSpanProcessor implements SpanProcessor {
+
+	static final String TRACES_METRIC = "tracing.tail.traces";
+
+	static final Duration PENDING_TTL = Duration.ofSeconds(30);
+
+	private static final int EXPORT_BATCH_SIZE = 512;
+
+	private final long slowThresholdNanos;
+
+	private final Map<String, Long> endpointThresholdNanos = new ConcurrentHashMap<>();
+
+	private final int maxPendingTraces;
+
+	private final Map<String, PendingTrace> pending = new ConcurrentHashMap<>();
+
+	private final BlockingQueue<SpanData> exportQueue;
+
+	private final List<SpanExporter> exporters = new CopyOnWriteArrayList<>();
+
+	private final ScheduledExecutorService flusher;
+
+	private final Counter keptSlow;
+
+	private final Counter keptError;
+
+	private final Counter discarded;
+
+	private final Counter evicted;
+
+	private final Counter overflowed;
+
+	TailSamplingSpanProcessor(TraceSamplingProperties.Tail properties, MeterRegistry meterRegistry) {
+		this.slowThresholdNanos = properties.slowThreshold().toNanos();
+		properties.endpointThresholds()
+			.forEach((endpoint, threshold) -> endpointThresholdNanos.put(endpoint, threshold.toNanos()));
+		this.maxPendingTraces = properties.maxPendingTraces();
+		this.exportQueue = new ArrayBlockingQueue<>(properties.maxQueueSize());
+		this.keptSlow = tracesCounter("kept", "slow", meterRegistry);
+		this.keptError = tracesCounter("kept", "error", meterRegistry);
+		this.discarded = tracesCounter("discarded", "fast", meterRegistry);
+		this.evicted = tracesCounter("discarded", "evicted", meterRegistry);
+		this.overflowed = tracesCounter("discarded", "overflow", meterRegistry);
+		this.flusher = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().daemon().name("tail-sampling-export").factory());
+		this.flusher.scheduleWithFixedDelay(() -> flush(System.nanoTime()), 1, 1, TimeUnit.SECONDS);
+	}
+
+	private static Counter tracesCounter(String outcome, String reason, MeterRegistry meterRegistry) {
+		return Counter.builder(TRACES_METRIC)
+			.description("Traces not sampled up front, by tail retention outcome")
+			.tags("outcome", outcome, "reason", reason)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Adds an exporter that kept traces are sent to.
+	 * @param exporter the span exporter
+	 */
+	void exportTo(SpanExporter exporter) {
+		exporters.add(exporter);
+	}
+
+	@Override
+	public void onStart(Context parentContext, ReadWriteSpan span) {
+	}
+
+	@Override
+	public boolean isStartRequired() {
+		return false;
+	}
+
+	@Override
+	public void onEnd(ReadableSpan span) {
+		SpanContext context = span.getSpanContext();
+		if (context.isSampled()) {
+			return;
+		}
+		SpanContext parent = span.getParentSpanContext();
+		if (parent.isValid() && !parent.isRemote()) {
+			buffer(context.getTraceId(), span.toSpanData());
+			return;
+		}
+		// The local root ended, so the request is complete and the trace can be judged
+		SpanData root = span.toSpanData();
+		PendingTrace trace = pending.remove(context.getTraceId());
+		Counter outcome = outcome(root, trace);
+		outcome.increment();
+		if (outcome != discarded) {
+			enqueue(root);
+			if (trace != null) {
+				trace.spans().forEach(this::enqueue);
+			}
+		}
+	}
+
+	@Override
+	public boolean isEndRequired() {
+		return true;
+	}
+
+	private void buffer(String traceId, SpanData span) {
+		PendingTrace trace = pending.get(traceId);
+		if (trace == null) {
+			if (pending.size() >= maxPendingTraces) {
+				evicted.increment();
+				return;
+			}
+			trace = pending.computeIfAbsent(traceId, id -> new PendingTrace(System.nanoTime()));
+		}
+		trace.spans().add(span);
+	}
+
+	private Counter outcome(SpanData root, PendingTrace trace) {
+		if (isError(root) || (trace != null && trace.spans().stream().anyMatch(TailSamplingSpanProcessor::isError))) {
+			return keptError;
+		}
+		long latencyNanos = root.getEndEpochNanos() - root.getStartEpochNanos();
+		String endpoint = AdaptiveSampler.endpoint(root.getAttributes(), root.getName());
+		return (latencyNanos > endpointThresholdNanos.getOrDefault(endpoint, slowThresholdNanos)) ? keptSlow
+				: discarded;
+	}
+
+	private static boolean isError(SpanData span) {
+		return span.getStatus().getStatusCode() == StatusCode.ERROR;
+	}
+
+	private void enqueue(SpanData span) {
+		if (!exportQueue.offer(span)) {
+			overflowed.increment();
+		}
+	}
+
+	/**
+	 * Evicts traces whose root span never ended and exports the queued spans.
+	 * @param nowNanos the current {@link System#nanoTime()} value
+	 */
+	void flush(long nowNanos) {
+		long ttlNanos = PENDING_TTL.toNanos();
+		pending.values().removeIf(trace -> {
+			boolean stale = nowNanos - trace.startedNanos() > ttlNanos;
+			if (stale) {
+				evicted.increment();
+			}
+			return stale;
+		});
+		List<SpanData> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+		while (exportQueue.drainTo(batch, EXPORT_BATCH_SIZE) > 0) {
+			for (SpanExporter exporter : exporters) {
+				exporter.export(batch);
+			}
+			batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+		}
+	}
+
+	int pendingTraceCount() {
+		return pending.size();
+	}
+
+	@Override
+	public CompletableResultCode forceFlush() {
+		flush(System.nanoTime());
+		return CompletableResultCode.ofSuccess();
+	}
+
+	@Override
+	public CompletableResultCode shutdown() {
+		flusher.shutdown();
+		// Exporters are shut down by the tracer provider's own span processors
+		flush(System.nanoTime());
+		return CompletableResultCode.ofSuccess();
+	}
+
+	private record PendingTrace(long startedNanos, Queue<SpanData> spans) {
+
+		PendingTrace(long startedNanos) {
+			this(startedNanos, new ConcurrentLinkedQueue<>());
+		}
+	}
+
+}
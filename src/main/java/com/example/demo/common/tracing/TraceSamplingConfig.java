@@ -0,0 +1,61 @@
+package com.example.demo.common.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.autoconfigure.spi.AutoConfigurationCustomizerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for trace sampling. Replaces the sampler of the OpenTelemetry SDK
+ * configured by the Spring Boot starter with the {@link AdaptiveSampler} and adds tail
+ * retention for the traces it does not sample.
+ */
+@Configuration
+@EnableConfigurationProperties(TraceSamplingProperties.class)
+class TraceSamplingConfig {
+
+	private static final int IN_PROCESS_CAPACITY = 10_000;
+
+	@Bean
+	AdaptiveSampler adaptiveSampler(TraceSamplingProperties properties, MeterRegistry meterRegistry) {
+		return new AdaptiveSampler(properties.tracesPerSecond(), properties.maxEndpoints(),
+				properties.tail().enabled(), meterRegistry);
+	}
+
+	@Bean(destroyMethod = "shutdown")
+	@ConditionalOnProperty(prefix = "tracing.sampling.tail", name = "enabled", matchIfMissing = true)
+	TailSamplingSpanProcessor tailSamplingSpanProcessor(TraceSamplingProperties properties,
+			MeterRegistry meterRegistry) {
+		return new TailSamplingSpanProcessor(properties.tail(), meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "tracing.sampling", name = "in-process-exporter")
+	InProcessSpanExporter inProcessSpanExporter() {
+		return new InProcessSpanExporter(IN_PROCESS_CAPACITY);
+	}
+
+	@Bean
+	AutoConfigurationCustomizerProvider traceSamplingCustomizer(AdaptiveSampler sampler,
+			ObjectProvider<TailSamplingSpanProcessor> tailProcessor,
+			ObjectProvider<InProcessSpanExporter> inProcessExporter) {
+		return customizer -> customizer.addSamplerCustomizer((configured, config) -> sampler)
+			.addSpanExporterCustomizer((exporter, config) -> {
+				tailProcessor.ifAvailable(processor -> processor.exportTo(exporter));
+				return exporter;
+			})
+			.addTracerProviderCustomizer((builder, config) -> {
+				inProcessExporter.ifAvailable(exporter -> {
+					builder.addSpanProcessor(SimpleSpanProcessor.create(exporter));
+					tailProcessor.ifAvailable(processor -> processor.exportTo(exporter));
+				});
+				tailProcessor.ifAvailable(builder::addSpanProcessor);
+				return builder;
+			});
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.example.demo.common.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Configuration properties for trace sampling.
+ */
+@ConfigurationProperties(prefix = "tracing.sampling")
+public record TraceSamplingProperties(@DefaultValue("5") double tracesPerSecond, @DefaultValue("200") int maxEndpoints,
+		@DefaultValue("false") boolean inProcessExporter, @DefaultValue Tail tail) {
+
+	/**
+	 * Creates a new instance of TraceSamplingProperties.
+	 * @param tracesPerSecond the number of traces sampled up front per endpoint and second
+	 * @param maxEndpoints the maximum number of endpoints with a rate of their own; further
+	 * endpoints share one
+	 * @param inProcessExporter whether kept spans are also exported to an in-memory
+	 * exporter, for offline tests of overhead and retention
+	 * @param tail the tail-based retention of traces not sampled up front
+	 */
+	@ConstructorBinding
+	public TraceSamplingProperties {
+		if (tracesPerSecond <= 0) {
+			throw new IllegalArgumentException("tracesPerSecond must be positive");
+		}
+		if (maxEndpoints <= 0) {
+			throw new IllegalArgumentException("maxEndpoints must be positive");
+		}
+	}
+
+	/**
+	 * Tail-based retention. Traces not sampled up front are recorded in memory and kept
+	 * only when the request turns out slow or failed.
+	 * @param enabled whether traces not sampled up front are recorded for retention
+	 * @param slowThreshold the latency above which a trace is kept
+	 * @param endpointThresholds latency thresholds per endpoint, keyed like
+	 * {@code GET /api/v1/products/{id}}
+	 * @param maxPendingTraces the maximum number of unfinished traces held in memory
+	 * @param maxQueueSize the maximum number of kept spans waiting for export
+	 */
+	public record Tail(@DefaultValue("true") boolean enabled, @DefaultValue("500ms") Duration slowThreshold,
+			Map<String, Duration> endpointThresholds, @DefaultValue("10000") int maxPendingTraces,
+			@DefaultValue("2048") int maxQueueSize) {
+
+		public Tail {
+			if (endpointThresholds == null) {
+				endpointThresholds = Map.of();
+			}
+			if (maxPendingTraces <= 0 || maxQueueSize <= 0) {
+				throw new IllegalArgumentException("maxPendingTraces and maxQueueSize must be positive");
+			}
+		}
+	}
+}
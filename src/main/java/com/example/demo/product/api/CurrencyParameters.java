@@ -0,0 +1,26 @@
+package com.example.demo.product.api;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Documents the {@code currency} query parameter and the {@code Accept-Currency} header
+ * of an endpoint that prices products in a requested currency, see
+ * {@link ProductController#requestedCurrency(String, String)}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Parameter(name = "currency", in = ParameterIn.QUERY,
+		description = "Currency to additionally price products in (ISO 4217 code)")
+@Parameter(name = ProductController.ACCEPT_CURRENCY, in = ParameterIn.HEADER,
+		description = "Preferred currency, used when no currency parameter is given")
+@interface CurrencyParameters {
+
+}
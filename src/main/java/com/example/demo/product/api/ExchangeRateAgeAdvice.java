@@ -0,0 +1,57 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.domain.ExchangeRateProvider;
+import com.example.demo.product.domain.ExchangeRates;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Instant;
+
+/**
+ * Adds the age of the exchange rates used for converted prices to product responses, so
+ * clients can tell when prices are based on last-known-good rates during an upstream
+ * outage. The header is omitted when no rates are being served.
+ */
+@RestControllerAdvice(assignableTypes = ProductController.class)
+class ExchangeRateAgeAdvice implements ResponseBodyAdvice<Object> {
+
+	static final String EXCHANGE_RATE_AGE = "X-Exchange-Rate-Age";
+
+	private final ExchangeRateProvider exchangeRateProvider;
+
+	ExchangeRateAgeAdvice(ExchangeRateProvider exchangeRateProvider) {
+		this.exchangeRateProvider = exchangeRateProvider;
+	}
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		String age = exchangeRateAge(exchangeRateProvider.currentRates(), Instant.now());
+		if (age != null) {
+			response.getHeaders().set(EXCHANGE_RATE_AGE, age);
+		}
+		return body;
+	}
+
+	/**
+	 * Returns the value of the age header for a rate snapshot.
+	 * @param rates the rates being served
+	 * @param now the current time
+	 * @return the age in seconds, or {@code null} if no rates are being served
+	 */
+	static String exchangeRateAge(ExchangeRates rates, Instant now) {
+		return rates.isEmpty() ? null : Long.toString(Math.max(0, rates.age(now).toSeconds()));
+	}
+
+}
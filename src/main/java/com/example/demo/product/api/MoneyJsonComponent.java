@@ -0,0 +1,60 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springdoc.core.utils.SpringDocUtils;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Renders {@link Money} as a plain JSON number, exactly as the {@link BigDecimal} prices
+ * were rendered before, so the external format is unchanged.
+ */
+@JsonComponent
+class MoneyJsonComponent {
+
+	static {
+		// Document prices as numbers in the OpenAPI schema, not as the internal structure
+		SpringDocUtils.getConfig().replaceWithClass(Money.class, BigDecimal.class);
+	}
+
+	/**
+	 * Writes the amount without creating a BigDecimal. Binary formats such as Smile and
+	 * CBOR encode decimals natively and get the BigDecimal instead of the text.
+	 */
+	static class Serializer extends JsonSerializer<Money> {
+
+		@Override
+		public void serialize(Money value, JsonGenerator generator, SerializerProvider serializers)
+				throws IOException {
+			if (generator instanceof JsonGeneratorImpl) {
+				generator.writeNumber(value.toString());
+			}
+			else {
+				generator.writeNumber(value.toBigDecimal());
+			}
+		}
+
+	}
+
+	/**
+	 * Reads any JSON number into a Money with the number's own scale.
+	 */
+	static class Deserializer extends JsonDeserializer<Money> {
+
+		@Override
+		public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			return Money.of(parser.getDecimalValue());
+		}
+
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.example.demo.product.api;
+
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+
+/**
+ * Receives the rows of one page as they are read, followed by the page metadata, so a
+ * page can be written out without holding all of its rows in memory.
+ *
+ * @param <T> the type of the rows
+ */
+public interface PageSink<T> {
+
+	/**
+	 * Writes the next row of the page.
+	 * @param row the row
+	 * @throws IOException if the row cannot be written
+	 */
+	void add(T row) throws IOException;
+
+	/**
+	 * Completes the page.
+	 * @param pageable the requested page
+	 * @param totalElements the total number of rows across all pages
+	 * @throws IOException if the page cannot be completed
+	 */
+	void finish(Pageable pageable, long totalElements) throws IOException;
+
+}
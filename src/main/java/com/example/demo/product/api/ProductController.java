@@ -1,7 +1,9 @@
 package com.example.demo.product.api;
 
+import com.example.demo.common.logging.LogSampler;
+import com.example.demo.product.domain.ProductField;
+import com.example.demo.product.domain.ProductNotFoundException;
 import com.example.demo.product.domain.ProductService;
-import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,137 +11,218 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/v1/products")
 @Tag(name = "Product Catalog", description = "Product catalog management API")
-@Timed(value = "http.server.requests", extraTags = { "controller", "ProductController" })
 class ProductController {
 
 	private static final Logger log = LoggerFactory.getLogger(ProductController.class);
 
-	private static final String PRODUCT_NOT_FOUND_WITH_ID = "Product not found with ID: {}";
+	private static final String PRODUCT_NOT_FOUND_WITH_ID = "Product not found with ID: {} ({} similar suppressed)";
+
+	static final String ACCEPT_CURRENCY = "Accept-Currency";
+
+	private static final String FIELDS_DESCRIPTION = "Comma-separated fields to return, for example id,name,priceUSD;"
+			+ " all fields when omitted";
 
 	private final ProductService productService;
 
-	ProductController(ProductService productService) {
+	private final ProductPageWriter pageWriter;
+
+	private final ProductPageProperties pageProperties;
+
+	// Probing random IDs must not turn into one warning per request
+	private final LogSampler notFoundLogSampler = new LogSampler(10, 1);
+
+	ProductController(ProductService productService, ProductPageWriter pageWriter,
+			ProductPageProperties pageProperties) {
 		this.productService = productService;
+		this.pageWriter = pageWriter;
+		this.pageProperties = pageProperties;
 	}
 
-	@Timed(value = "http.server.requests",
-			extraTags = { "controller", "ProductController", "method", "getAllProducts" })
 	@GetMapping
 	@Operation(summary = "Get all products", description = "Returns a paginated list of all products")
+	@CurrencyParameters
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
-			content = @Content(schema = @Schema(implementation = PageResponse.class))) })
-	ResponseEntity<PageResponse<ProductResponse>> getAllProducts(
+			content = @Content(schema = @Schema(implementation = PageResponse.class))),
+			@ApiResponse(responseCode = "400", description = "Page size, sort, fields or currency out of range"),
+			@ApiResponse(responseCode = "406", description = "The Accept header matches none of the page formats") })
+	void getAllProducts(
 			@Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
 			@Parameter(description = "Page size") @RequestParam(defaultValue = "100") int size,
 			@Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sort,
-			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction) {
+			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction,
+			@RequestParam(required = false) String currency,
+			@RequestHeader(value = ACCEPT_CURRENCY, required = false) String acceptCurrency,
+			@Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+			HttpServletRequest request, HttpServletResponse response)
+			throws HttpMediaTypeNotAcceptableException, IOException {
 
 		if (log.isDebugEnabled()) {
 			log.debug("REST request to get all products, page: {}, size: {}", page, size);
 		}
 		Pageable pageable = createPageable(page, size, sort, direction);
-		Page<ProductResponse> productPage = productService.getAllProducts(pageable);
-		return ResponseEntity.ok(PageResponse.from(productPage));
+		String requestedCurrency = requestedCurrency(currency, acceptCurrency);
+		Set<ProductField> requestedFields = requestedFields(fields);
+		if (requestedFields != null) {
+			pageWriter.write(request, response,
+					productService.getAllProducts(pageable, requestedCurrency, requestedFields));
+		}
+		else if (streams(pageable)) {
+			productService.streamAllProducts(pageable, requestedCurrency, pageWriter.stream(request, response));
+		}
+		else {
+			pageWriter.write(request, response, productService.getAllProducts(pageable, requestedCurrency));
+		}
 	}
 
-	@Timed(value = "http.server.requests",
-			extraTags = { "controller", "ProductController", "method", "getProductsByCategory" })
 	@GetMapping("/category/{category}")
 	@Operation(summary = "Get products by category",
 			description = "Returns a paginated list of products in the specified category")
+	@CurrencyParameters
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
-			content = @Content(schema = @Schema(implementation = PageResponse.class))) })
-	ResponseEntity<PageResponse<ProductResponse>> getProductsByCategory(
+			content = @Content(schema = @Schema(implementation = PageResponse.class))),
+			@ApiResponse(responseCode = "400", description = "Page size, sort, fields or currency out of range"),
+			@ApiResponse(responseCode = "406", description = "The Accept header matches none of the page formats") })
+	void getProductsByCategory(
 			@Parameter(description = "Category name") @PathVariable String category,
 			@Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
 			@Parameter(description = "Page size") @RequestParam(defaultValue = "100") int size,
 			@Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sort,
-			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction) {
+			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction,
+			@RequestParam(required = false) String currency,
+			@RequestHeader(value = ACCEPT_CURRENCY, required = false) String acceptCurrency,
+			@Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+			HttpServletRequest request, HttpServletResponse response)
+			throws HttpMediaTypeNotAcceptableException, IOException {
 
 		if (log.isDebugEnabled()) {
 			log.debug("REST request to get products by category: {}, page: {}, size: {}", category, page, size);
 		}
 		Pageable pageable = createPageable(page, size, sort, direction);
-		Page<ProductResponse> productPage = productService.getProductsByCategory(category, pageable);
-		return ResponseEntity.ok(PageResponse.from(productPage));
+		String requestedCurrency = requestedCurrency(currency, acceptCurrency);
+		Set<ProductField> requestedFields = requestedFields(fields);
+		if (requestedFields != null) {
+			pageWriter.write(request, response,
+					productService.getProductsByCategory(category, pageable, requestedCurrency, requestedFields));
+		}
+		else if (streams(pageable)) {
+			productService.streamProductsByCategory(category, pageable, requestedCurrency,
+					pageWriter.stream(request, response));
+		}
+		else {
+			pageWriter.write(request, response,
+					productService.getProductsByCategory(category, pageable, requestedCurrency));
+		}
 	}
 
-	@Timed(value = "http.server.requests",
-			extraTags = { "controller", "ProductController", "method", "searchProductsByName" })
 	@GetMapping("/search")
 	@Operation(summary = "Search products by name",
 			description = "Returns a paginated list of products with names containing the search term")
+	@CurrencyParameters
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
-			content = @Content(schema = @Schema(implementation = PageResponse.class))) })
-	ResponseEntity<PageResponse<ProductResponse>> searchProductsByName(
+			content = @Content(schema = @Schema(implementation = PageResponse.class))),
+			@ApiResponse(responseCode = "400", description = "Page size, sort, fields or currency out of range"),
+			@ApiResponse(responseCode = "406", description = "The Accept header matches none of the page formats") })
+	void searchProductsByName(
 			@Parameter(description = "Search term") @RequestParam String name,
 			@Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
 			@Parameter(description = "Page size") @RequestParam(defaultValue = "100") int size,
 			@Parameter(description = "Sort field") @RequestParam(defaultValue = "id") String sort,
-			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction) {
+			@Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String direction,
+			@RequestParam(required = false) String currency,
+			@RequestHeader(value = ACCEPT_CURRENCY, required = false) String acceptCurrency,
+			@Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields,
+			HttpServletRequest request, HttpServletResponse response)
+			throws HttpMediaTypeNotAcceptableException, IOException {
 
 		if (log.isDebugEnabled()) {
 			log.debug("REST request to search products by name: {}, page: {}, size: {}", name, page, size);
 		}
 		Pageable pageable = createPageable(page, size, sort, direction);
-		Page<ProductResponse> productPage = productService.getProductsByName(name, pageable);
-		return ResponseEntity.ok(PageResponse.from(productPage));
+		String requestedCurrency = requestedCurrency(currency, acceptCurrency);
+		Set<ProductField> requestedFields = requestedFields(fields);
+		if (requestedFields != null) {
+			pageWriter.write(request, response,
+					productService.getProductsByName(name, pageable, requestedCurrency, requestedFields));
+		}
+		else if (streams(pageable)) {
+			productService.streamProductsByName(name, pageable, requestedCurrency,
+					pageWriter.stream(request, response));
+		}
+		else {
+			pageWriter.write(request, response, productService.getProductsByName(name, pageable, requestedCurrency));
+		}
 	}
 
-	@Timed(value = "http.server.requests",
-			extraTags = { "controller", "ProductController", "method", "getProductById" })
 	@GetMapping("/{id}")
 	@Operation(summary = "Get product by ID", description = "Returns a single product by its ID")
+	@CurrencyParameters
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Successfully retrieved product",
 					content = @Content(schema = @Schema(implementation = ProductResponse.class))),
+			@ApiResponse(responseCode = "400", description = "Unknown field or currency requested"),
 			@ApiResponse(responseCode = "404", description = "Product not found") })
-	ResponseEntity<ProductResponse> getProductById(@Parameter(description = "Product ID") @PathVariable Long id) {
+	ResponseEntity<ProductResponse> getProductById(@Parameter(description = "Product ID") @PathVariable Long id,
+			@RequestParam(required = false) String currency,
+			@RequestHeader(value = ACCEPT_CURRENCY, required = false) String acceptCurrency,
+			@Parameter(description = FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
 
 		if (log.isDebugEnabled()) {
 			log.debug("REST request to get product by ID: {}", id);
 		}
+		String requestedCurrency = requestedCurrency(currency, acceptCurrency);
+		Set<ProductField> requestedFields = requestedFields(fields);
 		try {
-			ProductResponse product = productService.getProductById(id);
+			ProductResponse product = (requestedFields != null)
+					? productService.getProductById(id, requestedCurrency, requestedFields)
+					: productService.getProductById(id, requestedCurrency);
 			return ResponseEntity.ok(product);
 		}
-		catch (EntityNotFoundException _) {
-			log.warn(PRODUCT_NOT_FOUND_WITH_ID, id);
+		catch (ProductNotFoundException _) {
+			logNotFound(id);
 			return ResponseEntity.notFound().build();
 		}
 	}
 
-	@Timed(value = "http.server.requests", extraTags = { "controller", "ProductController", "method", "createProduct" })
 	@PostMapping
 	@Operation(summary = "Create a new product", description = "Creates a new product and returns the created product")
+	@CurrencyParameters
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "201", description = "Product created successfully",
 					content = @Content(schema = @Schema(implementation = ProductResponse.class))),
 			@ApiResponse(responseCode = "400",
 					description = "Invalid input or product with same name already exists") })
 	ResponseEntity<ProductResponse> createProduct(
-			@Parameter(description = "Product to create") @Valid @RequestBody ProductRequest request) {
+			@Parameter(description = "Product to create") @Valid @RequestBody ProductRequest request,
+			@RequestParam(required = false) String currency,
+			@RequestHeader(value = ACCEPT_CURRENCY, required = false) String acceptCurrency) {
 
 		if (log.isDebugEnabled()) {
 			log.debug("REST request to create product: {}", request);
 		}
+		String requestedCurrency = requestedCurrency(currency, acceptCurrency);
 		try {
-			ProductResponse createdProduct = productService.createProduct(request);
+			ProductResponse createdProduct = productService.createProduct(request, requestedCurrency);
 			return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
 		}
 		catch (IllegalArgumentException e) {
@@ -148,27 +231,31 @@ class ProductController {
 		}
 	}
 
-	@Timed(value = "http.server.requests", extraTags = { "controller", "ProductController", "method", "updateProduct" })
 	@PutMapping("/{id}")
 	@Operation(summary = "Update an existing product",
 			description = "Updates an existing product and returns the updated product")
+	@CurrencyParameters
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Product updated successfully",
 					content = @Content(schema = @Schema(implementation = ProductResponse.class))),
 			@ApiResponse(responseCode = "400", description = "Invalid input or product with same name already exists"),
-			@ApiResponse(responseCode = "404", description = "Product not found") })
+			@ApiResponse(responseCode = "404", description = "Product not found"),
+			@ApiResponse(responseCode = "409", description = "Product was modified concurrently") })
 	ResponseEntity<ProductResponse> updateProduct(@Parameter(description = "Product ID") @PathVariable Long id,
-			@Parameter(description = "Updated product") @Valid @RequestBody ProductRequest request) {
+			@Parameter(description = "Updated product") @Valid @RequestBody ProductRequest request,
+			@RequestParam(required = false) String currency,
+			@RequestHeader(value = ACCEPT_CURRENCY, required = false) String acceptCurrency) {
 
 		if (log.isDebugEnabled()) {
 			log.debug("REST request to update product with ID: {}, request: {}", id, request);
 		}
+		String requestedCurrency = requestedCurrency(currency, acceptCurrency);
 		try {
-			ProductResponse updatedProduct = productService.updateProduct(id, request);
+			ProductResponse updatedProduct = productService.updateProduct(id, request, requestedCurrency);
 			return ResponseEntity.ok(updatedProduct);
 		}
-		catch (EntityNotFoundException _) {
-			log.warn(PRODUCT_NOT_FOUND_WITH_ID, id);
+		catch (ProductNotFoundException _) {
+			logNotFound(id);
 			return ResponseEntity.notFound().build();
 		}
 		catch (IllegalArgumentException illegalArgumentException) {
@@ -177,7 +264,6 @@ class ProductController {
 		}
 	}
 
-	@Timed(value = "http.server.requests", extraTags = { "controller", "ProductController", "method", "deleteProduct" })
 	@DeleteMapping("/{id}")
 	@Operation(summary = "Delete a product", description = "Deletes a product by its ID")
 	@ApiResponses(value = { @ApiResponse(responseCode = "204", description = "Product deleted successfully"),
@@ -191,18 +277,90 @@ class ProductController {
 			productService.deleteProduct(id);
 			return ResponseEntity.noContent().build();
 		}
-		catch (EntityNotFoundException _) {
-			log.warn(PRODUCT_NOT_FOUND_WITH_ID, id);
+		catch (ProductNotFoundException _) {
+			logNotFound(id);
 			return ResponseEntity.notFound().build();
 		}
 	}
 
 	/**
 	 * Creates a Pageable object for pagination and sorting.
+	 * @throws IllegalArgumentException if the page size exceeds the configured maximum or
+	 * the sort field is not a product attribute
 	 */
 	private Pageable createPageable(int page, int size, String sort, String direction) {
+		if (size < 1 || size > pageProperties.maxPageSize()) {
+			throw new IllegalArgumentException("Page size must be between 1 and " + pageProperties.maxPageSize());
+		}
+		if (!ProductField.isSortable(sort)) {
+			throw new IllegalArgumentException("Unsupported sort field: " + sort);
+		}
 		Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
 		return PageRequest.of(page, size, Sort.by(sortDirection, sort));
 	}
 
+	/**
+	 * Whether a page is large enough to be streamed from the database. Smaller pages are
+	 * read in one go, which lets identical concurrent requests share the result.
+	 */
+	private boolean streams(Pageable pageable) {
+		return pageable.getPageSize() > pageProperties.streamThreshold();
+	}
+
+	/**
+	 * Parses the fields a client asked for. Asking for every field is served like asking
+	 * for none, so the full representation keeps using the cached JSON.
+	 * @return the requested fields, or {@code null} for the full representation
+	 * @throws IllegalArgumentException if a field is not on the allowlist
+	 */
+	static Set<ProductField> requestedFields(String fields) {
+		if (fields == null || fields.isBlank()) {
+			return null;
+		}
+		Set<ProductField> requested = ProductField.parse(fields);
+		return (requested.size() == ProductField.values().length) ? null : requested;
+	}
+
+	/**
+	 * Resolves the currency a client asked for. The query parameter wins over the
+	 * Accept-Currency header, of which only the first entry is used.
+	 * @throws IllegalArgumentException if the code is not a valid ISO 4217 currency
+	 */
+	static String requestedCurrency(String currency, String acceptCurrency) {
+		String code = (currency != null && !currency.isBlank()) ? currency : firstHeaderEntry(acceptCurrency);
+		if (code == null) {
+			return null;
+		}
+		code = code.trim().toUpperCase(Locale.ROOT);
+		try {
+			return Currency.getInstance(code).getCurrencyCode();
+		}
+		catch (IllegalArgumentException _) {
+			throw new IllegalArgumentException("Unsupported currency: " + code);
+		}
+	}
+
+	private void logNotFound(Long id) {
+		long suppressed = notFoundLogSampler.tryAcquire();
+		if (suppressed != LogSampler.SUPPRESSED) {
+			log.warn(PRODUCT_NOT_FOUND_WITH_ID, id, suppressed);
+		}
+	}
+
+	private static String firstHeaderEntry(String header) {
+		if (header == null || header.isBlank()) {
+			return null;
+		}
+		int end = header.length();
+		int comma = header.indexOf(',');
+		int semicolon = header.indexOf(';');
+		if (comma >= 0) {
+			end = comma;
+		}
+		if (semicolon >= 0 && semicolon < end) {
+			end = semicolon;
+		}
+		return header.substring(0, end);
+	}
+
 }
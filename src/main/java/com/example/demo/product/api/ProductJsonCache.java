@@ -0,0 +1,147 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.cache.CacheRegistry;
+import com.example.demo.common.compression.ContentCoding;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Encoded JSON of individual products, copied into list and detail responses instead of
+ * serializing every {@link ProductResponse} again. An entry is keyed by the product ID
+ * and version and by the converted prices it shows, so a changed product or a new rate
+ * snapshot misses instead of serving stale JSON. Entries of an older version or a deleted
+ * product are never read again and leave the cache through expiry or size eviction.
+ * Entries whose JSON reaches the compression threshold also keep compressed copies of
+ * it, made on first use, so a large product sent on its own is compressed once rather
+ * than per request. Smaller entries would be sent uncompressed anyway and keep none.
+ */
+class ProductJsonCache {
+
+	static final String CACHE_NAME = "product.json";
+
+	private final boolean enabled;
+
+	private final Cache<Key, Entry> fragments;
+
+	private final long compressionThreshold;
+
+	/**
+	 * Creates a new instance of ProductJsonCache.
+	 * @param properties the cache properties
+	 * @param cacheRegistry the registry publishing the cache statistics
+	 * @param compressionThreshold the size from which responses are compressed, see
+	 * {@code compression.min-response-size}
+	 */
+	ProductJsonCache(ProductJsonCacheProperties properties, CacheRegistry cacheRegistry,
+			DataSize compressionThreshold) {
+		this.enabled = properties.enabled();
+		this.compressionThreshold = compressionThreshold.toBytes();
+		this.fragments = Caffeine.newBuilder()
+			.maximumWeight(properties.maxSize().toBytes())
+			// Leaves room for the compressed copies, which are added after the entry is weighed
+			.weigher((Key key, Entry entry) -> entry.compressible() ? entry.size() * 3 / 2 : entry.size())
+			.expireAfterAccess(properties.expireAfterAccess())
+			.recordStats()
+			.build();
+		cacheRegistry.register(CACHE_NAME, fragments);
+	}
+
+	/**
+	 * Returns the encoded JSON of a product, encoding it on a miss. Products without an ID
+	 * and partial products built from a projection are not cached.
+	 * @param product the product to encode
+	 * @param encoder encodes the product on a miss
+	 * @return the encoded JSON object
+	 */
+	SerializedString get(ProductResponse product, Function<ProductResponse, SerializedString> encoder) {
+		if (!isCacheable(product)) {
+			return encoder.apply(product);
+		}
+		return fragments.get(Key.of(product), key -> new Entry(encoder.apply(product), compressionThreshold)).json();
+	}
+
+	/**
+	 * Returns the cached entry of a product without encoding it.
+	 * @param product the product
+	 * @return the entry, or {@code null} if the product is not cached
+	 */
+	Entry find(ProductResponse product) {
+		if (!isCacheable(product)) {
+			return null;
+		}
+		return fragments.getIfPresent(Key.of(product));
+	}
+
+	long size() {
+		fragments.cleanUp();
+		return fragments.estimatedSize();
+	}
+
+	private boolean isCacheable(ProductResponse product) {
+		return enabled && product.id() != null && product.version() != ProductResponse.NO_VERSION;
+	}
+
+	/**
+	 * The encoded JSON of one product and its compressed copies.
+	 */
+	static final class Entry {
+
+		private final SerializedString json;
+
+		private final AtomicReferenceArray<byte[]> compressed;
+
+		Entry(SerializedString json, long compressionThreshold) {
+			this.json = json;
+			this.compressed = (json.asUnquotedUTF8().length >= compressionThreshold)
+					? new AtomicReferenceArray<>(ContentCoding.values().length) : null;
+		}
+
+		SerializedString json() {
+			return json;
+		}
+
+		int size() {
+			return json.asUnquotedUTF8().length;
+		}
+
+		boolean compressible() {
+			return compressed != null;
+		}
+
+		/**
+		 * Returns the JSON compressed with a coding, compressing it on first use, or
+		 * {@code null} if the JSON is below the compression threshold. Concurrent first uses
+		 * may both compress; either result is kept.
+		 */
+		byte[] compressed(ContentCoding coding, int level) {
+			if (compressed == null) {
+				return null;
+			}
+			byte[] bytes = compressed.get(coding.ordinal());
+			if (bytes == null) {
+				bytes = coding.compress(json.asUnquotedUTF8(), level);
+				compressed.set(coding.ordinal(), bytes);
+			}
+			return bytes;
+		}
+
+	}
+
+	/**
+	 * Identifies one encoding of a product: its state, the requested currency and the
+	 * prices converted with the rates of the request.
+	 */
+	record Key(long id, long version, String currency, Money priceEUR, Money price) {
+
+		static Key of(ProductResponse product) {
+			return new Key(product.id(), product.version(), product.currency(), product.priceEUR(), product.price());
+		}
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.example.demo.product.api;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cache of encoded product JSON.
+ */
+@ConfigurationProperties(prefix = "product.json-cache")
+public record ProductJsonCacheProperties(@DefaultValue("true") boolean enabled,
+		@DefaultValue("32MB") DataSize maxSize, @DefaultValue("10m") Duration expireAfterAccess) {
+
+	/**
+	 * Creates a new instance of ProductJsonCacheProperties.
+	 * @param enabled whether encoded products are cached
+	 * @param maxSize the maximum total size of the cached JSON
+	 * @param expireAfterAccess how long an unread entry is kept
+	 */
+	@ConstructorBinding
+	public ProductJsonCacheProperties {
+		if (maxSize.toBytes() <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+	}
+}
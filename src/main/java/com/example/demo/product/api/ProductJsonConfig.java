@@ -0,0 +1,71 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.cache.CacheRegistry;
+import com.example.demo.common.compression.CompressionProperties;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.converter.HttpMessageConverter;
+
+/**
+ * Configuration for the JSON output of products. The Jackson module is picked up by
+ * Spring Boot's ObjectMapper and wraps the bean serializer of {@link ProductResponse};
+ * the message converter is placed ahead of the default JSON converter. Single products
+ * are also read and written as Protobuf for service-to-service callers.
+ */
+@Configuration
+@EnableConfigurationProperties({ ProductJsonCacheProperties.class, ProductPageProperties.class })
+class ProductJsonConfig {
+
+	@Bean
+	ProductJsonCache productJsonCache(ProductJsonCacheProperties properties, CacheRegistry cacheRegistry,
+			CompressionProperties compressionProperties) {
+		return new ProductJsonCache(properties, cacheRegistry, compressionProperties.minResponseSize());
+	}
+
+	@Bean
+	Module productJsonCacheModule(ProductJsonCache productJsonCache) {
+		return productJsonModule(productJsonCache);
+	}
+
+	@Bean
+	@Order(0)
+	HttpMessageConverter<ProductResponse> productResponseHttpMessageConverter(ObjectMapper objectMapper,
+			ProductJsonCache productJsonCache, CompressionProperties compressionProperties) {
+		return new ProductResponseHttpMessageConverter(objectMapper, productJsonCache, compressionProperties);
+	}
+
+	// After the JSON converter, so JSON stays the default for clients that accept anything
+	@Bean
+	@Order(1)
+	ProductProtobufHttpMessageConverter productProtobufHttpMessageConverter() {
+		return new ProductProtobufHttpMessageConverter();
+	}
+
+	static Module productJsonModule(ProductJsonCache productJsonCache) {
+		SimpleModule module = new SimpleModule("product-json-cache");
+		module.setSerializerModifier(new BeanSerializerModifier() {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+					JsonSerializer<?> serializer) {
+				if (beanDesc.getBeanClass() == ProductResponse.class) {
+					return new ProductJsonSerializer((JsonSerializer<ProductResponse>) serializer, productJsonCache);
+				}
+				return serializer;
+			}
+
+		});
+		return module;
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.example.demo.product.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a {@link ProductResponse} by copying its encoded JSON from the
+ * {@link ProductJsonCache}. Misses are encoded by the regular bean serializer, so the
+ * output is byte for byte what Jackson would otherwise write.
+ */
+class ProductJsonSerializer extends StdSerializer<ProductResponse> implements ResolvableSerializer,
+		ContextualSerializer {
+
+	private static final JsonFactory DEFAULT_FACTORY = new JsonFactory();
+
+	private final JsonSerializer<ProductResponse> delegate;
+
+	private final ProductJsonCache cache;
+
+	ProductJsonSerializer(JsonSerializer<ProductResponse> delegate, ProductJsonCache cache) {
+		super(ProductResponse.class);
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public void serialize(ProductResponse value, JsonGenerator generator, SerializerProvider provider)
+			throws IOException {
+		// Indented output depends on the nesting depth, so it cannot be spliced in, and
+		// binary formats such as Smile and CBOR cannot take raw JSON at all
+		if (generator.getPrettyPrinter() != null || !(generator instanceof JsonGeneratorImpl)) {
+			delegate.serialize(value, generator, provider);
+			return;
+		}
+		SerializedString json;
+		try {
+			json = cache.get(value, product -> encode(product, generator, provider));
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		generator.writeRawValue(json);
+	}
+
+	@Override
+	public void serializeWithType(ProductResponse value, JsonGenerator generator, SerializerProvider provider,
+			TypeSerializer typeSerializer) throws IOException {
+		delegate.serializeWithType(value, generator, provider, typeSerializer);
+	}
+
+	@Override
+	public void resolve(SerializerProvider provider) throws JsonMappingException {
+		if (delegate instanceof ResolvableSerializer resolvable) {
+			resolvable.resolve(provider);
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+			throws JsonMappingException {
+		if (delegate instanceof ContextualSerializer contextual) {
+			JsonSerializer<?> contextualDelegate = contextual.createContextual(provider, property);
+			if (contextualDelegate != delegate) {
+				return new ProductJsonSerializer((JsonSerializer<ProductResponse>) contextualDelegate, cache);
+			}
+		}
+		return this;
+	}
+
+	private SerializedString encode(ProductResponse product, JsonGenerator generator, SerializerProvider provider) {
+		StringWriter writer = new StringWriter(512);
+		try (JsonGenerator fragment = factory(generator).createGenerator(writer)) {
+			delegate.serialize(product, fragment, provider);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		SerializedString json = new SerializedString(writer.toString());
+		// Encode to UTF-8 now, so every later write is a plain copy
+		json.asUnquotedUTF8();
+		return json;
+	}
+
+	private static JsonFactory factory(JsonGenerator generator) {
+		ObjectCodec codec = generator.getCodec();
+		return codec != null ? codec.getFactory() : DEFAULT_FACTORY;
+	}
+
+}
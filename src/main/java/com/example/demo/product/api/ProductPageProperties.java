@@ -0,0 +1,25 @@
+package com.example.demo.product.api;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for paginated product responses.
+ */
+@ConfigurationProperties(prefix = "product.pagination")
+public record ProductPageProperties(@DefaultValue("1000") int maxPageSize, @DefaultValue("100") int streamThreshold) {
+
+	/**
+	 * Creates a new instance of ProductPageProperties.
+	 * @param maxPageSize the largest page size a client may request
+	 * @param streamThreshold pages larger than this are streamed from the database instead
+	 * of being read into memory first
+	 */
+	@ConstructorBinding
+	public ProductPageProperties {
+		if (maxPageSize <= 0 || streamThreshold <= 0) {
+			throw new IllegalArgumentException("maxPageSize and streamThreshold must be positive");
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.sql.QueryStats;
+import com.example.demo.product.api.proto.ProductProtos;
+import com.example.demo.product.domain.ExchangeRateProvider;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Writes pages of products to the response in the {@link PageResponse} format, one
+ * product at a time. The encoding is negotiated from the Accept header: JSON, any binary
+ * Jackson format with a registered converter (Smile, CBOR), or Protobuf. JSON is used when
+ * the client accepts anything or sends no Accept header; a client accepting none of them
+ * gets a 406. Jackson recycles its output buffers and Protobuf writes through one
+ * fixed-size buffer per page, so the memory needed does not grow with the page size.
+ */
+@Component
+class ProductPageWriter {
+
+	private final List<Format> formats;
+
+	private final List<MediaType> mediaTypes;
+
+	private final ExchangeRateProvider exchangeRateProvider;
+
+	ProductPageWriter(List<AbstractJackson2HttpMessageConverter> converters,
+			ExchangeRateProvider exchangeRateProvider) {
+		List<Format> formats = new ArrayList<>();
+		for (AbstractJackson2HttpMessageConverter converter : converters) {
+			// Rows are flushed by the generator when its buffer fills, not after every product
+			ObjectWriter productWriter = converter.getObjectMapper()
+				.writerFor(ProductResponse.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			formats.add(new JacksonFormat(converter.getSupportedMediaTypes().getFirst(), productWriter,
+					converter.getObjectMapper().getFactory()::createGenerator));
+		}
+		formats.sort(Comparator.comparing((Format format) -> !MediaType.APPLICATION_JSON.equals(format.mediaType())));
+		if (formats.isEmpty() || !MediaType.APPLICATION_JSON.equals(formats.getFirst().mediaType())) {
+			throw new IllegalStateException("No JSON message converter registered");
+		}
+		formats.add(new ProtobufFormat());
+		this.formats = List.copyOf(formats);
+		this.mediaTypes = formats.stream().map(Format::mediaType).toList();
+		this.exchangeRateProvider = exchangeRateProvider;
+	}
+
+	/**
+	 * Writes a page that is already in memory.
+	 * @param request the request, whose Accept header selects the encoding
+	 * @param response the response to write to
+	 * @param page the page
+	 * @throws HttpMediaTypeNotAcceptableException if the client accepts none of the
+	 * formats
+	 * @throws IOException if the page cannot be written
+	 */
+	void write(HttpServletRequest request, HttpServletResponse response, Page<ProductResponse> page)
+			throws HttpMediaTypeNotAcceptableException, IOException {
+		EncodingPageSink sink = open(request, response);
+		for (ProductResponse product : page) {
+			sink.add(product);
+		}
+		sink.end(page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages(), page.isFirst(),
+				page.isLast());
+	}
+
+	/**
+	 * Starts a page on the response. Nothing reaches the client until the output buffer
+	 * fills or the page is finished, so a failure before the first rows still produces a
+	 * regular error response.
+	 * @param request the request, whose Accept header selects the encoding
+	 * @param response the response to write to
+	 * @return the sink receiving the products of the page
+	 * @throws HttpMediaTypeNotAcceptableException if the client accepts none of the
+	 * formats
+	 * @throws IOException if the response cannot be written
+	 */
+	EncodingPageSink open(HttpServletRequest request, HttpServletResponse response)
+			throws HttpMediaTypeNotAcceptableException, IOException {
+		Format format = negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		response.setStatus(HttpStatus.OK.value());
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		response.setContentType(format.mediaType().toString());
+		if (format.mediaType().equals(MediaType.APPLICATION_JSON)) {
+			response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		}
+		String age = ExchangeRateAgeAdvice.exchangeRateAge(exchangeRateProvider.currentRates(), Instant.now());
+		if (age != null) {
+			response.setHeader(ExchangeRateAgeAdvice.EXCHANGE_RATE_AGE, age);
+		}
+		return format.open(response.getOutputStream());
+	}
+
+	/**
+	 * Starts a page whose products are queried while it is written. The headers are sent
+	 * before the queries run, so the response is marked as streamed and gets no SQL
+	 * statistics headers. A query failing after the first rows were sent cannot change the
+	 * status any more; the response is aborted instead, so the client sees an incomplete
+	 * body rather than a short page.
+	 * @param request the request, whose Accept header selects the encoding
+	 * @param response the response to write to
+	 * @return the sink receiving the products of the page
+	 * @throws HttpMediaTypeNotAcceptableException if the client accepts none of the
+	 * formats
+	 * @throws IOException if the response cannot be written
+	 * @see QueryStats#STREAMED_RESPONSE_ATTRIBUTE
+	 */
+	EncodingPageSink stream(HttpServletRequest request, HttpServletResponse response)
+			throws HttpMediaTypeNotAcceptableException, IOException {
+		request.setAttribute(QueryStats.STREAMED_RESPONSE_ATTRIBUTE, Boolean.TRUE);
+		return open(request, response);
+	}
+
+	/**
+	 * Chooses the format with the highest quality value in the Accept header. Ties go to
+	 * the earlier format, so JSON wins for clients that accept anything.
+	 */
+	private Format negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+		if (accept == null || accept.isBlank()) {
+			return formats.getFirst();
+		}
+		List<MediaType> accepted;
+		try {
+			accepted = MediaType.parseMediaTypes(accept);
+		}
+		catch (InvalidMediaTypeException _) {
+			return formats.getFirst();
+		}
+		Format best = null;
+		double bestQuality = 0;
+		for (Format format : formats) {
+			double quality = 0;
+			for (MediaType mediaType : accepted) {
+				if (mediaType.includes(format.mediaType())) {
+					quality = Math.max(quality, mediaType.getQualityValue());
+				}
+			}
+			if (quality > bestQuality) {
+				best = format;
+				bestQuality = quality;
+			}
+		}
+		if (bestQuality == 0) {
+			throw new HttpMediaTypeNotAcceptableException(mediaTypes);
+		}
+		return best;
+	}
+
+	/**
+	 * An encoding pages can be written in.
+	 */
+	private interface Format {
+
+		MediaType mediaType();
+
+		EncodingPageSink open(OutputStream output) throws IOException;
+
+	}
+
+	@FunctionalInterface
+	private interface GeneratorFactory {
+
+		JsonGenerator create(OutputStream output, JsonEncoding encoding) throws IOException;
+
+	}
+
+	private record JacksonFormat(MediaType mediaType, ObjectWriter productWriter,
+			GeneratorFactory generatorFactory) implements Format {
+
+		@Override
+		public EncodingPageSink open(OutputStream output) throws IOException {
+			JsonGenerator generator = generatorFactory.create(output, JsonEncoding.UTF8)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			return new JsonPageSink(generator, productWriter);
+		}
+	}
+
+	private record ProtobufFormat() implements Format {
+
+		@Override
+		public MediaType mediaType() {
+			return ProductProtobuf.PROTOBUF;
+		}
+
+		@Override
+		public EncodingPageSink open(OutputStream output) {
+			return new ProtobufPageSink(CodedOutputStream.newInstance(output));
+		}
+	}
+
+	/**
+	 * Sink that counts the rows it writes, so that the page metadata can be completed the
+	 * way {@link org.springframework.data.domain.PageImpl} would.
+	 */
+	abstract static class EncodingPageSink implements PageSink<ProductResponse> {
+
+		private long rows;
+
+		@Override
+		public void add(ProductResponse row) throws IOException {
+			write(row);
+			rows++;
+		}
+
+		@Override
+		public void finish(Pageable pageable, long totalElements) throws IOException {
+			int number = pageable.getPageNumber();
+			int size = pageable.getPageSize();
+			// Same adjustment as PageImpl: rows inserted after counting extend the total
+			long total = (rows > 0 && pageable.getOffset() + size > totalElements) ? pageable.getOffset() + rows
+					: totalElements;
+			int totalPages = (int) Math.ceil((double) total / size);
+			end(number, size, total, totalPages, number == 0, number + 1 >= totalPages);
+		}
+
+		abstract void write(ProductResponse row) throws IOException;
+
+		abstract void end(int number, int size, long totalElements, int totalPages, boolean first, boolean last)
+				throws IOException;
+
+	}
+
+	static class JsonPageSink extends EncodingPageSink {
+
+		private final JsonGenerator generator;
+
+		private final ObjectWriter productWriter;
+
+		JsonPageSink(JsonGenerator generator, ObjectWriter productWriter) throws IOException {
+			this.generator = generator;
+			this.productWriter = productWriter;
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("content");
+		}
+
+		@Override
+		void write(ProductResponse row) throws IOException {
+			productWriter.writeValue(generator, row);
+		}
+
+		@Override
+		void end(int number, int size, long totalElements, int totalPages, boolean first, boolean last)
+				throws IOException {
+			generator.writeEndArray();
+			generator.writeNumberField("page", number);
+			generator.writeNumberField("size", size);
+			generator.writeNumberField("totalElements", totalElements);
+			generator.writeNumberField("totalPages", totalPages);
+			generator.writeBooleanField("first", first);
+			generator.writeBooleanField("last", last);
+			generator.writeEndObject();
+			// Flushes the remaining bytes and returns the buffers for reuse
+			generator.close();
+		}
+
+	}
+
+	/**
+	 * Writes a {@code ProductPage} message field by field. Each product is written as one
+	 * element of the repeated {@code content} field as soon as it arrives; the page fields
+	 * follow, which Protobuf parsers accept in any order.
+	 */
+	static class ProtobufPageSink extends EncodingPageSink {
+
+		private final CodedOutputStream output;
+
+		ProtobufPageSink(CodedOutputStream output) {
+			this.output = output;
+		}
+
+		@Override
+		void write(ProductResponse row) throws IOException {
+			output.writeMessage(ProductProtos.ProductPage.CONTENT_FIELD_NUMBER, ProductProtobuf.toProto(row));
+		}
+
+		@Override
+		void end(int number, int size, long totalElements, int totalPages, boolean first, boolean last)
+				throws IOException {
+			output.writeInt32(ProductProtos.ProductPage.PAGE_FIELD_NUMBER, number);
+			output.writeInt32(ProductProtos.ProductPage.SIZE_FIELD_NUMBER, size);
+			output.writeInt64(ProductProtos.ProductPage.TOTAL_ELEMENTS_FIELD_NUMBER, totalElements);
+			output.writeInt32(ProductProtos.ProductPage.TOTAL_PAGES_FIELD_NUMBER, totalPages);
+			output.writeBool(ProductProtos.ProductPage.FIRST_FIELD_NUMBER, first);
+			output.writeBool(ProductProtos.ProductPage.LAST_FIELD_NUMBER, last);
+			output.flush();
+		}
+
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.api.proto.ProductProtos;
+import com.example.demo.product.domain.Money;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Maps the product API types to and from their Protobuf messages, defined in
+ * {@code src/main/proto/product.proto}.
+ */
+final class ProductProtobuf {
+
+	/**
+	 * Media type of Protobuf-encoded bodies.
+	 */
+	static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+	private ProductProtobuf() {
+	}
+
+	static ProductProtos.Product toProto(ProductResponse product) {
+		ProductProtos.Product.Builder builder = ProductProtos.Product.newBuilder();
+		if (product.id() != null) {
+			builder.setId(product.id());
+		}
+		if (product.name() != null) {
+			builder.setName(product.name());
+		}
+		if (product.description() != null) {
+			builder.setDescription(product.description());
+		}
+		if (product.priceUSD() != null) {
+			builder.setPriceUsd(toProto(product.priceUSD()));
+		}
+		if (product.priceEUR() != null) {
+			builder.setPriceEur(toProto(product.priceEUR()));
+		}
+		if (product.price() != null) {
+			builder.setPrice(toProto(product.price()));
+		}
+		if (product.currency() != null) {
+			builder.setCurrency(product.currency());
+		}
+		if (product.category() != null) {
+			builder.setCategory(product.category());
+		}
+		if (product.imageUrl() != null) {
+			builder.setImageUrl(product.imageUrl());
+		}
+		if (product.available() != null) {
+			builder.setAvailable(product.available());
+		}
+		if (product.createdAt() != null) {
+			builder.setCreatedAt(toProto(product.createdAt()));
+		}
+		if (product.updatedAt() != null) {
+			builder.setUpdatedAt(toProto(product.updatedAt()));
+		}
+		return builder.build();
+	}
+
+	static ProductRequest fromProto(ProductProtos.ProductRequest request) {
+		return new ProductRequest(request.getName(), request.getDescription(),
+				request.hasPrice() ? fromProto(request.getPrice()).toBigDecimal() : null,
+				request.hasCategory() ? request.getCategory() : null,
+				request.hasImageUrl() ? request.getImageUrl() : null,
+				request.hasAvailable() ? request.getAvailable() : null);
+	}
+
+	static ProductProtos.Money toProto(Money money) {
+		return ProductProtos.Money.newBuilder().setMinorUnits(money.minorUnits()).setScale(money.scale()).build();
+	}
+
+	static Money fromProto(ProductProtos.Money money) {
+		return new Money(money.getMinorUnits(), money.getScale());
+	}
+
+	static ProductProtos.DateTime toProto(LocalDateTime dateTime) {
+		return ProductProtos.DateTime.newBuilder()
+			.setSeconds(dateTime.toEpochSecond(ZoneOffset.UTC))
+			.setNanos(dateTime.getNano())
+			.build();
+	}
+
+	static LocalDateTime fromProto(ProductProtos.DateTime dateTime) {
+		return LocalDateTime.ofEpochSecond(dateTime.getSeconds(), dateTime.getNanos(), ZoneOffset.UTC);
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.api.proto.ProductProtos;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link ProductRequest} and writes {@link ProductResponse} as Protobuf messages.
+ * Pages are written by {@link ProductPageWriter}.
+ */
+class ProductProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+	ProductProtobufHttpMessageConverter() {
+		super(ProductProtobuf.PROTOBUF);
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return ProductRequest.class == clazz || ProductResponse.class == clazz;
+	}
+
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return ProductRequest.class == clazz && canRead(mediaType);
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+		return ProductResponse.class == clazz && canWrite(mediaType);
+	}
+
+	@Override
+	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+		return ProductProtobuf.fromProto(ProductProtos.ProductRequest.parseFrom(inputMessage.getBody()));
+	}
+
+	@Override
+	protected void writeInternal(Object object, HttpOutputMessage outputMessage) throws IOException {
+		ProductProtos.Product product = ProductProtobuf.toProto((ProductResponse) object);
+		outputMessage.getHeaders().setContentLength(product.getSerializedSize());
+		product.writeTo(outputMessage.getBody());
+	}
+
+}
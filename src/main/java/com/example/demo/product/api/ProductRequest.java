@@ -1,5 +1,6 @@
 package com.example.demo.product.api;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -17,8 +18,10 @@ public record ProductRequest(
 		@NotBlank(message = "Product description is required") @Size(min = 10, max = 1000,
 				message = "Product description must be between 10 and 1000 characters") String description,
 
+		// The column is DECIMAL(19, 2), and 16 integer digits keep the cents within a long
 		@NotNull(message = "Product price is required") @Positive(
-				message = "Product price must be positive") BigDecimal price,
+				message = "Product price must be positive") @Digits(integer = 16, fraction = 2,
+						message = "Product price must have at most 16 digits and 2 decimals") BigDecimal price,
 
 		String category,
 
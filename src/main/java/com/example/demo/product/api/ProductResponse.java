@@ -1,25 +1,42 @@
 package com.example.demo.product.api;
 
 import com.example.demo.product.domain.CurrencyExchangeService;
+import com.example.demo.product.domain.Money;
+import com.example.demo.product.domain.PriceConverter;
 import com.example.demo.product.domain.Product;
+import com.example.demo.product.domain.ProductField;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Tuple;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
- * Record representing a product response.
+ * Record representing a product response. {@code price} and {@code currency} are only
+ * present when the client asked for a specific currency. Prices are fixed-point
+ * {@link Money} values, rendered as JSON numbers by {@link MoneyJsonComponent}. The
+ * entity {@code version} is not serialized; it keys the encoded JSON in
+ * {@link ProductJsonCache}. A response built from a projection holds only the requested
+ * fields, the others are {@code null} and left out of the JSON.
  */
-public record ProductResponse(Long id, String name, String description, BigDecimal priceUSD, BigDecimal priceEUR,
-		String category, String imageUrl, boolean available, LocalDateTime createdAt, LocalDateTime updatedAt) {
+public record ProductResponse(Long id, String name, String description, Money priceUSD, Money priceEUR,
+		Money price, String currency, String category, String imageUrl, Boolean available,
+		LocalDateTime createdAt, LocalDateTime updatedAt, @JsonIgnore long version) {
+
+	/**
+	 * Version of responses built from a projection, which does not read the version. Such
+	 * responses are never cached.
+	 */
+	public static final long NO_VERSION = -1;
+
 	/**
 	 * Creates a ProductResponse from a Product entity.
 	 * @param product the product entity
 	 * @return a new ProductResponse
 	 */
 	public static ProductResponse fromEntity(Product product) {
-		return new ProductResponse(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
-				null, product.getCategory(), product.getImageUrl(), product.isAvailable(), product.getCreatedAt(),
-				product.getUpdatedAt());
+		return fromEntity(product, PriceConverter.NONE);
 	}
 
 	/**
@@ -29,13 +46,62 @@ public record ProductResponse(Long id, String name, String description, BigDecim
 	 * @return a new ProductResponse
 	 */
 	public static ProductResponse fromEntity(Product product, CurrencyExchangeService currencyExchangeService) {
-		BigDecimal priceUSD = product.getPrice();
-		BigDecimal rate = currencyExchangeService.getExchangeRate("USD", "EUR");
-		BigDecimal priceEUR = (rate != null && rate.compareTo(BigDecimal.ZERO) > 0)
-				? priceUSD.divide(rate, 2, java.math.RoundingMode.HALF_UP) : priceUSD;
+		return fromEntity(product, currencyExchangeService.getExchangeRate("USD", "EUR"));
+	}
 
-		return new ProductResponse(product.getId(), product.getName(), product.getDescription(), priceUSD, priceEUR,
+	/**
+	 * Creates a ProductResponse from a Product entity using an already resolved USD to EUR
+	 * rate. Lets callers mapping a whole page look the rate up once instead of per row.
+	 * @param product the product entity
+	 * @param eurRate the USD to EUR exchange rate, or {@code null} if no rate is available
+	 * @return a new ProductResponse, priced in EUR at par with USD if no valid rate was given
+	 */
+	public static ProductResponse fromEntity(Product product, BigDecimal eurRate) {
+		return fromEntity(product, PriceConverter.eurOnly(eurRate));
+	}
+
+	/**
+	 * Creates a ProductResponse from a Product entity using conversions resolved once for
+	 * the whole request.
+	 * @param product the product entity
+	 * @param priceConverter the conversions to apply
+	 * @return a new ProductResponse
+	 */
+	public static ProductResponse fromEntity(Product product, PriceConverter priceConverter) {
+		Money priceUSD = product.getPrice();
+		return new ProductResponse(product.getId(), product.getName(), product.getDescription(), priceUSD,
+				priceConverter.toEur(priceUSD), priceConverter.toTarget(priceUSD), priceConverter.currency(),
 				product.getCategory(), product.getImageUrl(), product.isAvailable(), product.getCreatedAt(),
-				product.getUpdatedAt());
+				product.getUpdatedAt(), product.getVersion());
+	}
+
+	/**
+	 * Creates a ProductResponse holding only the requested fields of a projection row.
+	 * @param row the row, with each element aliased by its entity attribute
+	 * @param fields the requested fields
+	 * @param priceConverter the conversions to apply, {@link PriceConverter#NONE} if no
+	 * converted field was requested
+	 * @return a new ProductResponse
+	 */
+	public static ProductResponse fromProjection(Tuple row, Set<ProductField> fields, PriceConverter priceConverter) {
+		boolean priced = fields.contains(ProductField.PRICE_USD) || fields.contains(ProductField.PRICE_EUR)
+				|| fields.contains(ProductField.PRICE);
+		Money priceUSD = priced ? row.get("price", Money.class) : null;
+		return new ProductResponse(value(row, fields, ProductField.ID, Long.class),
+				value(row, fields, ProductField.NAME, String.class),
+				value(row, fields, ProductField.DESCRIPTION, String.class),
+				fields.contains(ProductField.PRICE_USD) ? priceUSD : null,
+				fields.contains(ProductField.PRICE_EUR) ? priceConverter.toEur(priceUSD) : null,
+				fields.contains(ProductField.PRICE) ? priceConverter.toTarget(priceUSD) : null,
+				fields.contains(ProductField.CURRENCY) ? priceConverter.currency() : null,
+				value(row, fields, ProductField.CATEGORY, String.class),
+				value(row, fields, ProductField.IMAGE_URL, String.class),
+				value(row, fields, ProductField.AVAILABLE, Boolean.class),
+				value(row, fields, ProductField.CREATED_AT, LocalDateTime.class),
+				value(row, fields, ProductField.UPDATED_AT, LocalDateTime.class), NO_VERSION);
+	}
+
+	private static <T> T value(Tuple row, Set<ProductField> fields, ProductField field, Class<T> type) {
+		return fields.contains(field) ? row.get(field.attribute(), type) : null;
 	}
 }
@@ -0,0 +1,72 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.compression.CompressionProperties;
+import com.example.demo.common.compression.ContentCoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a single {@link ProductResponse} as JSON. When the client accepts a compressed
+ * response and the JSON reaches the compression threshold, the compressed copy kept in
+ * the {@link ProductJsonCache} is sent, so a hot product is compressed once rather than on
+ * every request. The compression filter passes such bodies through unchanged.
+ */
+class ProductResponseHttpMessageConverter extends AbstractHttpMessageConverter<ProductResponse> {
+
+	private final ObjectMapper objectMapper;
+
+	private final ProductJsonCache productJsonCache;
+
+	private final CompressionProperties compressionProperties;
+
+	ProductResponseHttpMessageConverter(ObjectMapper objectMapper, ProductJsonCache productJsonCache,
+			CompressionProperties compressionProperties) {
+		super(MediaType.APPLICATION_JSON);
+		this.objectMapper = objectMapper;
+		this.productJsonCache = productJsonCache;
+		this.compressionProperties = compressionProperties;
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return ProductResponse.class == clazz;
+	}
+
+	@Override
+	protected ProductResponse readInternal(Class<? extends ProductResponse> clazz, HttpInputMessage inputMessage)
+			throws IOException {
+		return objectMapper.readValue(inputMessage.getBody(), clazz);
+	}
+
+	@Override
+	protected void writeInternal(ProductResponse product, HttpOutputMessage outputMessage) throws IOException {
+		// Goes through the product JSON cache, which also makes the entry available below
+		byte[] body = objectMapper.writeValueAsBytes(product);
+		ContentCoding coding = negotiatedCoding();
+		ProductJsonCache.Entry entry = (coding != null) ? productJsonCache.find(product) : null;
+		// Only entries at or above the compression threshold keep compressed copies
+		byte[] compressed = (entry != null) ? entry.compressed(coding, compressionProperties.level(coding)) : null;
+		if (compressed != null) {
+			body = compressed;
+			outputMessage.getHeaders().set(HttpHeaders.CONTENT_ENCODING, coding.token());
+		}
+		outputMessage.getHeaders().setContentLength(body.length);
+		outputMessage.getBody().write(body);
+	}
+
+	private static ContentCoding negotiatedCoding() {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+			return ContentCoding.negotiated(attributes.getRequest());
+		}
+		return null;
+	}
+
+}
@@ -1,13 +1,37 @@
 package com.example.demo.product.config;
 
+import com.example.demo.product.domain.ExchangeRateProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
 
 /**
- * Configuration for currency exchange service.
+ * Configuration for currency exchange service. Schedules the background refresh of the
+ * exchange-rate snapshot, starting right after startup.
  */
 @Configuration
+@EnableScheduling
 @EnableConfigurationProperties(CurrencyExchangeProperties.class)
-public class CurrencyExchangeConfig {
+public class CurrencyExchangeConfig implements SchedulingConfigurer {
+
+	private final ExchangeRateProvider exchangeRateProvider;
+
+	private final CurrencyExchangeProperties properties;
+
+	public CurrencyExchangeConfig(ExchangeRateProvider exchangeRateProvider, CurrencyExchangeProperties properties) {
+		this.exchangeRateProvider = exchangeRateProvider;
+		this.properties = properties;
+	}
+
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+		taskRegistrar.addFixedDelayTask(
+				new FixedDelayTask(exchangeRateProvider::refresh, properties.refreshInterval(), Duration.ZERO));
+	}
 
-}
\ No newline at end of file
+}
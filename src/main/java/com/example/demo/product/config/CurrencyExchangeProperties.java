@@ -2,22 +2,79 @@ package com.example.demo.product.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
 
 /**
  * Configuration properties for currency exchange service.
  */
 @ConfigurationProperties(prefix = "currency.exchange")
-public record CurrencyExchangeProperties(String frankfurterApiUrl, int maxRetries) {
+public record CurrencyExchangeProperties(String frankfurterApiUrl, @DefaultValue("3") int maxRetries,
+		@DefaultValue("USD") String baseCurrency, @DefaultValue("5m") Duration refreshInterval,
+		@DefaultValue("24h") Duration maxStaleness, @DefaultValue Backoff backoff,
+		@DefaultValue Breaker circuitBreaker) {
 
 	/**
 	 * Creates a new instance of CurrencyExchangeProperties.
 	 * @param frankfurterApiUrl the URL for the Frankfurter API
 	 * @param maxRetries the maximum number of retries for API calls
+	 * @param baseCurrency the currency product prices are stored in
+	 * @param refreshInterval how often the rate snapshot is refreshed in the background
+	 * @param maxStaleness how old the snapshot may get before its rates are no longer served
+	 * @param backoff the delays between retries
+	 * @param circuitBreaker when to stop calling the API altogether
 	 */
 	@ConstructorBinding
 	public CurrencyExchangeProperties {
 		if (maxRetries < 0) {
 			throw new IllegalArgumentException("maxRetries must be non-negative");
 		}
+		if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+			throw new IllegalArgumentException("refreshInterval must be positive");
+		}
+		if (maxStaleness.compareTo(refreshInterval) < 0) {
+			throw new IllegalArgumentException("maxStaleness must not be shorter than refreshInterval");
+		}
+	}
+
+	/**
+	 * Exponential backoff between retries. Each delay is picked at random between the
+	 * current and the next interval, so nodes that failed together do not retry together.
+	 * @param initialInterval the delay before the first retry
+	 * @param multiplier the factor the delay grows by on every retry
+	 * @param maxInterval the upper bound for a single delay
+	 */
+	public record Backoff(@DefaultValue("200ms") Duration initialInterval, @DefaultValue("2.0") double multiplier,
+			@DefaultValue("2s") Duration maxInterval) {
+
+		public Backoff {
+			if (initialInterval.isNegative() || initialInterval.isZero()) {
+				throw new IllegalArgumentException("initialInterval must be positive");
+			}
+			if (multiplier < 1.0) {
+				throw new IllegalArgumentException("multiplier must be at least 1");
+			}
+			if (maxInterval.compareTo(initialInterval) < 0) {
+				throw new IllegalArgumentException("maxInterval must not be shorter than initialInterval");
+			}
+		}
+	}
+
+	/**
+	 * Circuit breaker settings for the Frankfurter client.
+	 * @param failureThreshold the number of consecutive failed calls that opens the breaker
+	 * @param openDuration how long calls fail fast before a single probe call is allowed
+	 */
+	public record Breaker(@DefaultValue("5") int failureThreshold, @DefaultValue("30s") Duration openDuration) {
+
+		public Breaker {
+			if (failureThreshold <= 0) {
+				throw new IllegalArgumentException("failureThreshold must be positive");
+			}
+			if (openDuration.isNegative() || openDuration.isZero()) {
+				throw new IllegalArgumentException("openDuration must be positive");
+			}
+		}
 	}
 }
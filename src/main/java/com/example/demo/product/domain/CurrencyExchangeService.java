@@ -1,19 +1,24 @@
 package com.example.demo.product.domain;
 
+import com.example.demo.common.circuitbreaker.CircuitBreaker;
+import com.example.demo.common.circuitbreaker.CircuitBreakerOpenException;
 import com.example.demo.product.config.CurrencyExchangeProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
- * Service for currency exchange operations.
+ * Service for currency exchange operations. Every call to the Frankfurter API goes
+ * through a circuit breaker and is retried with exponential backoff and jitter; while the
+ * breaker is open, calls fail fast without touching the network and are not retried.
  */
 @Service
 public class CurrencyExchangeService {
@@ -24,9 +29,23 @@ public class CurrencyExchangeService {
 
 	private final CurrencyExchangeProperties properties;
 
-	public CurrencyExchangeService(RestClient restClient, CurrencyExchangeProperties properties) {
+	private final CircuitBreaker circuitBreaker;
+
+	private final RetryTemplate retryTemplate;
+
+	public CurrencyExchangeService(RestClient restClient, CurrencyExchangeProperties properties,
+			MeterRegistry meterRegistry) {
 		this.restClient = restClient;
 		this.properties = properties;
+		this.circuitBreaker = new CircuitBreaker("frankfurter", properties.circuitBreaker().failureThreshold(),
+				properties.circuitBreaker().openDuration(), meterRegistry);
+		CurrencyExchangeProperties.Backoff backoff = properties.backoff();
+		this.retryTemplate = RetryTemplate.builder()
+			.maxAttempts(properties.maxRetries() + 1)
+			.exponentialBackoff(backoff.initialInterval().toMillis(), backoff.multiplier(),
+					backoff.maxInterval().toMillis(), true)
+			.notRetryOn(CircuitBreakerOpenException.class)
+			.build();
 	}
 
 	/**
@@ -39,11 +58,40 @@ public class CurrencyExchangeService {
 	 * Get the exchange rate from one currency to another.
 	 * @param from the source currency
 	 * @param to the target currency
-	 * @return the exchange rate
+	 * @return the exchange rate, or {@code null} if the API is unavailable. Never a
+	 * made-up rate, so callers omit converted prices instead of publishing wrong ones. A
+	 * missing rate is not cached, so the next call asks the API again.
 	 */
-	@Cacheable(value = "currency", key = "#from + '-' + #to")
-	@Retryable(maxAttempts = 3, retryFor = { Exception.class }, noRetryFor = { IllegalArgumentException.class })
+	@Cacheable(value = "currency", key = "#from + '-' + #to", unless = "#result == null")
 	public BigDecimal getExchangeRate(String from, String to) {
+		try {
+			return call(() -> requestExchangeRate(from, to));
+		}
+		catch (RuntimeException e) {
+			log.error("Error fetching exchange rate from Frankfurter API after retries: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Fetch all exchange rates for a base currency in a single call.
+	 * @param base the base currency
+	 * @return the rates keyed by target currency
+	 * @throws CircuitBreakerOpenException if the API is currently considered unavailable
+	 */
+	public Map<String, BigDecimal> fetchRates(String base) {
+		return call(() -> requestRates(base));
+	}
+
+	CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	private <T> T call(Supplier<T> request) {
+		return retryTemplate.execute(context -> circuitBreaker.call(request));
+	}
+
+	private BigDecimal requestExchangeRate(String from, String to) {
 		if (log.isDebugEnabled()) {
 			log.debug("Fetching {} to {} exchange rate from Frankfurter API", from, to);
 		}
@@ -62,19 +110,24 @@ public class CurrencyExchangeService {
 		}
 		else {
 			log.warn("Invalid response from Frankfurter API");
-			throw new RuntimeException("Invalid response from Frankfurter API");
+			throw new IllegalStateException("Invalid response from Frankfurter API");
 		}
 	}
 
-	/**
-	 * Recovery method for getEurToUsdRate.
-	 * @param e the exception that caused the retry to fail
-	 * @return default exchange rate (1.0)
-	 */
-	@Recover
-	public BigDecimal getExchangeRate(Exception e) {
-		log.error("Error fetching exchange rate from Frankfurter API after retries", e);
-		return BigDecimal.ONE; // Default to 1:1 if API fails after all retries
+	private Map<String, BigDecimal> requestRates(String base) {
+		if (log.isDebugEnabled()) {
+			log.debug("Fetching all {} exchange rates from Frankfurter API", base);
+		}
+
+		FrankfurterResponse response = restClient.get()
+			.uri(properties.frankfurterApiUrl() + "from=" + base)
+			.retrieve()
+			.body(FrankfurterResponse.class);
+
+		if (response == null || response.rates() == null || response.rates().isEmpty()) {
+			throw new IllegalStateException("Invalid response from Frankfurter API");
+		}
+		return response.rates();
 	}
 
 }
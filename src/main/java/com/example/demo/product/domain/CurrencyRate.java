@@ -0,0 +1,94 @@
+package com.example.demo.product.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Conversion from the base currency to one target currency, with the target's number of
+ * minor-unit digits and a fixed-point copy of the rate resolved up front, so converting a
+ * price does no lookups and, in the common case, no {@link BigDecimal} arithmetic.
+ *
+ * @param currency the ISO 4217 code of the target currency
+ * @param rate the units of the target currency one unit of the base currency buys, always
+ * positive
+ * @param scale the number of decimal places prices in this currency are rounded to
+ * @param scaledRate the rate in units of 10<sup>-{@value #RATE_SCALE}</sup>, or {@code 0}
+ * if it cannot be represented exactly at that scale
+ */
+public record CurrencyRate(String currency, BigDecimal rate, int scale, long scaledRate) {
+
+	/**
+	 * Number of decimal places of the fixed-point rate. Matches the precision rates are
+	 * stored with, and covers the five significant digits published by the upstream API.
+	 */
+	public static final int RATE_SCALE = 10;
+
+	private static final int DEFAULT_SCALE = 2;
+
+	public CurrencyRate {
+		if (rate == null || rate.signum() <= 0) {
+			throw new IllegalArgumentException("rate must be positive");
+		}
+	}
+
+	/**
+	 * Creates a CurrencyRate, deriving the scale from the currency's default fraction
+	 * digits.
+	 * @param currency the ISO 4217 code of the target currency
+	 * @param rate the exchange rate
+	 * @return a new CurrencyRate
+	 */
+	public static CurrencyRate of(String currency, BigDecimal rate) {
+		return new CurrencyRate(currency, rate, scaleOf(currency), scaledRateOf(rate));
+	}
+
+	/**
+	 * Converts an amount in the base currency.
+	 * @param amount the amount in the base currency
+	 * @return the converted amount, rounded half-up to this currency's scale
+	 */
+	public BigDecimal convert(BigDecimal amount) {
+		return amount.multiply(rate).setScale(scale, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * Converts an amount in the base currency with long arithmetic. The result is exactly
+	 * what {@link #convert(BigDecimal)} returns; amounts too large for the fixed-point path
+	 * fall back to it.
+	 * @param amount the amount in the base currency
+	 * @return the converted amount, rounded half-up to this currency's scale
+	 */
+	public Money convert(Money amount) {
+		if (scaledRate > 0) {
+			// minorUnits * scaledRate is the exact product at the price scale plus RATE_SCALE
+			int shift = amount.scale() + RATE_SCALE - scale;
+			if (shift >= 0 && shift <= Money.MAX_SCALE) {
+				long product = amount.minorUnits() * scaledRate;
+				if (Math.multiplyHigh(amount.minorUnits(), scaledRate) == (product >> 63)) {
+					return new Money(Money.divideHalfUp(product, Money.powerOfTen(shift)), scale);
+				}
+			}
+		}
+		return Money.of(convert(amount.toBigDecimal()));
+	}
+
+	private static int scaleOf(String currency) {
+		try {
+			int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+			return digits >= 0 ? digits : DEFAULT_SCALE;
+		}
+		catch (IllegalArgumentException _) {
+			return DEFAULT_SCALE;
+		}
+	}
+
+	private static long scaledRateOf(BigDecimal rate) {
+		try {
+			return rate.setScale(RATE_SCALE).unscaledValue().longValueExact();
+		}
+		catch (ArithmeticException _) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.demo.product.domain;
+
+import java.util.List;
+
+/**
+ * Writes a whole rate snapshot at once instead of one entity at a time.
+ */
+interface ExchangeRateBulkRepository {
+
+	/**
+	 * Insert rates in a single statement. The rates must not be stored yet.
+	 * @param rates the rates to insert
+	 */
+	void insertAll(List<StoredExchangeRate> rates);
+
+}
@@ -0,0 +1,57 @@
+package com.example.demo.product.domain;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+/**
+ * Inserts a snapshot with one multi-row {@code INSERT}. Saving the entities through
+ * {@code saveAll} would merge each of them, since their IDs are assigned, and cost a
+ * {@code SELECT} and an {@code INSERT} per currency on every refresh.
+ */
+class ExchangeRateBulkRepositoryImpl implements ExchangeRateBulkRepository {
+
+	private static final String INSERT = "insert into exchange_rates (base_currency, currency, rate, fetched_at)"
+			+ " values ";
+
+	private final EntityManager entityManager;
+
+	ExchangeRateBulkRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public void insertAll(List<StoredExchangeRate> rates) {
+		if (rates.isEmpty()) {
+			return;
+		}
+		StringBuilder sql = new StringBuilder(INSERT.length() + rates.size() * 24).append(INSERT);
+		for (int i = 0; i < rates.size(); i++) {
+			int parameter = i * 4;
+			if (i > 0) {
+				sql.append(", ");
+			}
+			sql.append("(?")
+				.append(parameter + 1)
+				.append(", ?")
+				.append(parameter + 2)
+				.append(", ?")
+				.append(parameter + 3)
+				.append(", ?")
+				.append(parameter + 4)
+				.append(')');
+		}
+		Query query = entityManager.createNativeQuery(sql.toString());
+		for (int i = 0; i < rates.size(); i++) {
+			StoredExchangeRate rate = rates.get(i);
+			int parameter = i * 4;
+			query.setParameter(parameter + 1, rate.getBaseCurrency())
+				.setParameter(parameter + 2, rate.getCurrency())
+				.setParameter(parameter + 3, rate.getRate())
+				.setParameter(parameter + 4, rate.getFetchedAt());
+		}
+		query.executeUpdate();
+	}
+
+}
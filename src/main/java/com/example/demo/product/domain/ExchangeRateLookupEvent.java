@@ -0,0 +1,30 @@
+package com.example.demo.product.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a lookup of a currency in the exchange-rate snapshot.
+ */
+@Name("com.example.demo.ExchangeRateLookup")
+@Label("Exchange Rate Lookup")
+@Category({ "Product Catalog", "Currency" })
+@Description("A currency looked up in the exchange-rate snapshot, and whether a rate was found")
+@StackTrace(false)
+class ExchangeRateLookupEvent extends Event {
+
+	@Label("Currency")
+	String currency;
+
+	@Label("Hit")
+	boolean hit;
+
+	@Label("Snapshot Empty")
+	@Description("No rates were served, because none were loaded yet or they are too stale")
+	boolean snapshotEmpty;
+
+}
@@ -0,0 +1,167 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.config.CurrencyExchangeProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Refresh-ahead source of exchange rates. A background task replaces an immutable
+ * {@link ExchangeRates} snapshot on a fixed delay; request threads only read the current
+ * snapshot and never call the upstream API.
+ * <p>
+ * Every successful refresh is written to the {@link ExchangeRateStore}, and the stored
+ * rates are loaded at startup, so prices can be served before the first upstream call
+ * completes. When a refresh fails the last-known-good snapshot stays in place. Once it is
+ * older than {@code currency.exchange.max-staleness} its rates are no longer served, so
+ * converted prices are omitted rather than computed from an outdated or made-up rate.
+ */
+@Component
+public class ExchangeRateProvider {
+
+	private static final Logger log = LoggerFactory.getLogger(ExchangeRateProvider.class);
+
+	private final CurrencyExchangeService currencyExchangeService;
+
+	private final ExchangeRateStore exchangeRateStore;
+
+	private final CurrencyExchangeProperties properties;
+
+	private final Clock clock;
+
+	private final AtomicReference<ExchangeRates> snapshot = new AtomicReference<>(ExchangeRates.EMPTY);
+
+	private final Counter refreshSuccesses;
+
+	private final Counter refreshFailures;
+
+	private final Counter storeFailures;
+
+	@Autowired
+	ExchangeRateProvider(CurrencyExchangeService currencyExchangeService, ExchangeRateStore exchangeRateStore,
+			CurrencyExchangeProperties properties, MeterRegistry meterRegistry) {
+		this(currencyExchangeService, exchangeRateStore, properties, meterRegistry, Clock.systemUTC());
+	}
+
+	ExchangeRateProvider(CurrencyExchangeService currencyExchangeService, ExchangeRateStore exchangeRateStore,
+			CurrencyExchangeProperties properties, MeterRegistry meterRegistry, Clock clock) {
+		this.currencyExchangeService = currencyExchangeService;
+		this.exchangeRateStore = exchangeRateStore;
+		this.properties = properties;
+		this.clock = clock;
+		this.refreshSuccesses = Counter.builder("currency.rates.refresh")
+			.description("Background refreshes of the exchange-rate snapshot")
+			.tag("outcome", "success")
+			.register(meterRegistry);
+		this.refreshFailures = Counter.builder("currency.rates.refresh")
+			.description("Background refreshes of the exchange-rate snapshot")
+			.tag("outcome", "failure")
+			.register(meterRegistry);
+		this.storeFailures = Counter.builder("currency.rates.store.failures")
+			.description("Failed writes of the last-known-good exchange rates")
+			.register(meterRegistry);
+		Gauge.builder("currency.rates.age", this, provider -> provider.ageSeconds())
+			.description("Age of the exchange-rate snapshot served to requests")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Loads the last-known-good rates persisted by a previous run, so requests can be
+	 * priced before the first refresh completes. Never calls the upstream API.
+	 */
+	@PostConstruct
+	public void loadLastKnownGood() {
+		try {
+			ExchangeRates stored = exchangeRateStore.load(properties.baseCurrency());
+			if (!stored.isEmpty()) {
+				snapshot.compareAndSet(ExchangeRates.EMPTY, stored);
+				log.info("Loaded {} stored exchange rates for base {} fetched at {}", stored.rates().size(),
+						stored.base(), stored.fetchedAt());
+			}
+		}
+		catch (RuntimeException e) {
+			log.warn("Could not load stored exchange rates: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Fetches all rates for the base currency, swaps in the new snapshot and persists it
+	 * as the last-known-good rates. Failures are logged and counted; the previous
+	 * snapshot is kept.
+	 */
+	public void refresh() {
+		ExchangeRates rates;
+		try {
+			Map<String, BigDecimal> fetched = currencyExchangeService.fetchRates(properties.baseCurrency());
+			rates = ExchangeRates.of(properties.baseCurrency(), fetched, clock.instant());
+			snapshot.set(rates);
+			refreshSuccesses.increment();
+			if (log.isDebugEnabled()) {
+				log.debug("Refreshed {} exchange rates for base {}", fetched.size(), properties.baseCurrency());
+			}
+		}
+		catch (RuntimeException e) {
+			refreshFailures.increment();
+			log.warn("Exchange rate refresh failed, keeping snapshot from {}: {}", snapshot.get().fetchedAt(),
+					e.getMessage());
+			return;
+		}
+		try {
+			exchangeRateStore.save(rates);
+		}
+		catch (RuntimeException e) {
+			storeFailures.increment();
+			log.warn("Could not persist exchange rates: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the snapshot that requests should use, or {@link ExchangeRates#EMPTY} if
+	 * there is none yet or it has exceeded the staleness limit.
+	 * @return the current rates
+	 */
+	public ExchangeRates currentRates() {
+		ExchangeRates rates = snapshot.get();
+		if (rates.age(clock.instant()).compareTo(properties.maxStaleness()) > 0) {
+			return ExchangeRates.EMPTY;
+		}
+		return rates;
+	}
+
+	/**
+	 * Returns the rate from the base currency to the given currency.
+	 * @param currency the target currency
+	 * @return the rate, or {@code null} if it is unknown or too stale to serve
+	 */
+	public BigDecimal getRate(String currency) {
+		return currentRates().rate(currency);
+	}
+
+	/**
+	 * Returns the age of the latest snapshot, whether or not it is still served.
+	 * @return the age, or {@code null} before the first successful refresh
+	 */
+	public Duration snapshotAge() {
+		ExchangeRates rates = snapshot.get();
+		return rates.isEmpty() ? null : rates.age(clock.instant());
+	}
+
+	private double ageSeconds() {
+		Duration age = snapshotAge();
+		return age == null ? Double.NaN : age.toMillis() / 1000.0;
+	}
+
+}
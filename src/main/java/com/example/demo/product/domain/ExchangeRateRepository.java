@@ -0,0 +1,33 @@
+package com.example.demo.product.domain;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the persisted last-known-good exchange rates.
+ */
+@Repository
+interface ExchangeRateRepository
+		extends JpaRepository<StoredExchangeRate, StoredExchangeRate.Key>, ExchangeRateBulkRepository {
+
+	/**
+	 * Find all stored rates for a base currency.
+	 * @param baseCurrency the base currency
+	 * @return the stored rates
+	 */
+	List<StoredExchangeRate> findByBaseCurrency(String baseCurrency);
+
+	/**
+	 * Delete all stored rates for a base currency in a single statement.
+	 * @param baseCurrency the base currency
+	 */
+	@Modifying
+	@Query("delete from StoredExchangeRate r where r.baseCurrency = :baseCurrency")
+	void deleteByBaseCurrency(@Param("baseCurrency") String baseCurrency);
+
+}
@@ -0,0 +1,69 @@
+package com.example.demo.product.domain;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persists the last successfully fetched exchange rates so they survive restarts and
+ * can be served while the upstream API is unavailable.
+ */
+@Component
+class ExchangeRateStore {
+
+	private final ExchangeRateRepository exchangeRateRepository;
+
+	ExchangeRateStore(ExchangeRateRepository exchangeRateRepository) {
+		this.exchangeRateRepository = exchangeRateRepository;
+	}
+
+	/**
+	 * Replaces the stored rates for the snapshot's base currency, with one statement to
+	 * delete the old rates and one to insert the new ones.
+	 * @param rates the snapshot to store
+	 */
+	@Transactional
+	public void save(ExchangeRates rates) {
+		LocalDateTime fetchedAt = LocalDateTime.ofInstant(rates.fetchedAt(), ZoneOffset.UTC);
+		List<StoredExchangeRate> rows = new ArrayList<>(rates.rates().size());
+		rates.rates().forEach((currency, rate) -> {
+			if (!currency.equals(rates.base())) {
+				rows.add(new StoredExchangeRate(rates.base(), currency, rate.rate(), fetchedAt));
+			}
+		});
+		exchangeRateRepository.deleteByBaseCurrency(rates.base());
+		exchangeRateRepository.insertAll(rows);
+	}
+
+	/**
+	 * Loads the stored rates for a base currency.
+	 * @param base the base currency
+	 * @return the stored snapshot, or {@link ExchangeRates#EMPTY} if nothing is stored
+	 */
+	@Transactional(readOnly = true)
+	public ExchangeRates load(String base) {
+		List<StoredExchangeRate> rows = exchangeRateRepository.findByBaseCurrency(base);
+		if (rows.isEmpty()) {
+			return ExchangeRates.EMPTY;
+		}
+		Map<String, BigDecimal> rates = HashMap.newHashMap(rows.size());
+		LocalDateTime fetchedAt = rows.getFirst().getFetchedAt();
+		for (StoredExchangeRate row : rows) {
+			rates.put(row.getCurrency(), row.getRate());
+			if (row.getFetchedAt().isBefore(fetchedAt)) {
+				fetchedAt = row.getFetchedAt();
+			}
+		}
+		Instant fetchedInstant = fetchedAt.toInstant(ZoneOffset.UTC);
+		return ExchangeRates.of(base, rates, fetchedInstant);
+	}
+
+}
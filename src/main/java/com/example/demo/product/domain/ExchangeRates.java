@@ -0,0 +1,78 @@
+package com.example.demo.product.domain;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of exchange rates from one base currency, as fetched in a single
+ * upstream call. The base currency itself is included with a rate of one.
+ *
+ * @param base the base currency
+ * @param rates the rates keyed by target currency
+ * @param fetchedAt when the rates were fetched
+ */
+public record ExchangeRates(String base, Map<String, CurrencyRate> rates, Instant fetchedAt) {
+
+	/**
+	 * Placeholder used before the first successful fetch.
+	 */
+	public static final ExchangeRates EMPTY = new ExchangeRates("", Map.of(), Instant.EPOCH);
+
+	public ExchangeRates {
+		rates = Map.copyOf(rates);
+	}
+
+	/**
+	 * Creates a snapshot from raw upstream rates, precomputing each currency's scale.
+	 * Rates that are missing or not positive are skipped.
+	 * @param base the base currency
+	 * @param rawRates the rates keyed by target currency
+	 * @param fetchedAt when the rates were fetched
+	 * @return a new ExchangeRates
+	 */
+	public static ExchangeRates of(String base, Map<String, BigDecimal> rawRates, Instant fetchedAt) {
+		Map<String, CurrencyRate> rates = HashMap.newHashMap(rawRates.size() + 1);
+		rawRates.forEach((currency, rate) -> {
+			if (rate != null && rate.signum() > 0) {
+				rates.put(currency, CurrencyRate.of(currency, rate));
+			}
+		});
+		rates.put(base, CurrencyRate.of(base, BigDecimal.ONE));
+		return new ExchangeRates(base, rates, fetchedAt);
+	}
+
+	/**
+	 * Returns the conversion to the given currency.
+	 * @param currency the target currency
+	 * @return the conversion, or {@code null} if the snapshot has none
+	 */
+	public CurrencyRate find(String currency) {
+		return rates.get(currency);
+	}
+
+	/**
+	 * Returns the rate from the base currency to the given currency.
+	 * @param currency the target currency
+	 * @return the rate, or {@code null} if the snapshot has none
+	 */
+	public BigDecimal rate(String currency) {
+		CurrencyRate currencyRate = rates.get(currency);
+		return currencyRate != null ? currencyRate.rate() : null;
+	}
+
+	/**
+	 * Returns how old this snapshot is.
+	 * @param now the current time
+	 * @return the age of the snapshot
+	 */
+	public Duration age(Instant now) {
+		return Duration.between(fetchedAt, now);
+	}
+
+	public boolean isEmpty() {
+		return rates.isEmpty();
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.demo.product.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point amount held as a count of minor units at a decimal scale, e.g. 99.99 is
+ * {@code 9999} at scale 2. Prices are converted and rendered with long arithmetic only,
+ * instead of allocating intermediate {@link BigDecimal} objects for every row.
+ * <p>
+ * The scale is kept from the amount the value was created from, so {@link #toString()}
+ * renders exactly what {@link BigDecimal#toString()} would for the same amount (up to
+ * scale 6, beyond which BigDecimal may switch to exponent notation).
+ *
+ * @param minorUnits the amount in minor units
+ * @param scale the number of decimal places, between 0 and {@value #MAX_SCALE}
+ */
+public record Money(long minorUnits, int scale) {
+
+	/**
+	 * The largest supported scale.
+	 */
+	public static final int MAX_SCALE = 18;
+
+	private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i <= MAX_SCALE; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	public Money {
+		if (scale < 0 || scale > MAX_SCALE) {
+			throw new IllegalArgumentException("scale must be between 0 and " + MAX_SCALE);
+		}
+	}
+
+	/**
+	 * Creates a Money from a decimal amount, keeping its scale. Amounts with a negative
+	 * scale are normalised to scale 0.
+	 * @param amount the amount
+	 * @return a new Money, or {@code null} if the amount is {@code null}
+	 * @throws ArithmeticException if the amount does not fit into a long at its scale
+	 */
+	public static Money of(BigDecimal amount) {
+		if (amount == null) {
+			return null;
+		}
+		BigDecimal normalized = amount.scale() < 0 ? amount.setScale(0) : amount;
+		return new Money(normalized.unscaledValue().longValueExact(), normalized.scale());
+	}
+
+	/**
+	 * Returns ten to the given power.
+	 * @param exponent the exponent, between 0 and {@value #MAX_SCALE}
+	 * @return the power of ten
+	 */
+	static long powerOfTen(int exponent) {
+		return POWERS_OF_TEN[exponent];
+	}
+
+	/**
+	 * Divides two longs, rounding half away from zero like
+	 * {@link RoundingMode#HALF_UP}.
+	 * @param dividend the dividend
+	 * @param divisor the divisor, positive
+	 * @return the rounded quotient
+	 */
+	static long divideHalfUp(long dividend, long divisor) {
+		long quotient = dividend / divisor;
+		long remainder = Math.abs(dividend % divisor);
+		// remainder < divisor, so comparing against the other half cannot overflow
+		if (remainder >= divisor - remainder) {
+			quotient += Long.signum(dividend);
+		}
+		return quotient;
+	}
+
+	public int signum() {
+		return Long.signum(minorUnits);
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(minorUnits, scale);
+	}
+
+	/**
+	 * Renders the amount in plain decimal notation with all {@link #scale()} digits.
+	 */
+	@Override
+	public String toString() {
+		if (scale == 0) {
+			return Long.toString(minorUnits);
+		}
+		StringBuilder text = new StringBuilder(21 + scale);
+		if (minorUnits < 0) {
+			text.append('-');
+		}
+		long units = Math.abs(minorUnits / POWERS_OF_TEN[scale]);
+		long fraction = Math.abs(minorUnits % POWERS_OF_TEN[scale]);
+		text.append(units).append('.');
+		for (int digits = fraction == 0 ? 0 : numberOfDigits(fraction); digits < scale; digits++) {
+			text.append('0');
+		}
+		if (fraction != 0) {
+			text.append(fraction);
+		}
+		return text.toString();
+	}
+
+	private static int numberOfDigits(long value) {
+		int digits = 1;
+		while (digits <= MAX_SCALE && value >= POWERS_OF_TEN[digits]) {
+			digits++;
+		}
+		return digits;
+	}
+}
@@ -0,0 +1,28 @@
+package com.example.demo.product.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Money} to a DECIMAL column. The driver still reads a {@link BigDecimal},
+ * but it is converted once on load, not on every conversion and serialization. Money is
+ * immutable, which lets dirty checking compare values instead of taking copies.
+ */
+@Converter
+@Immutable
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Money money) {
+		return money != null ? money.toBigDecimal() : null;
+	}
+
+	@Override
+	public Money convertToEntityAttribute(BigDecimal amount) {
+		return Money.of(amount);
+	}
+
+}
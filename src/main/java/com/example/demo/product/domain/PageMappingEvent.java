@@ -0,0 +1,37 @@
+package com.example.demo.product.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for mapping a page of entities or projection rows to responses. For a
+ * streamed page the event also covers writing the rows to the response.
+ */
+@Name("com.example.demo.PageMapping")
+@Label("Page Mapping")
+@Category({ "Product Catalog", "Service" })
+@Description("A page of products mapped to responses")
+@StackTrace(false)
+class PageMappingEvent extends Event {
+
+	@Label("Rows")
+	int rows;
+
+	@Label("Page Number")
+	int pageNumber;
+
+	@Label("Page Size")
+	int pageSize;
+
+	@Label("Projected")
+	@Description("Only the requested fields were read")
+	boolean projected;
+
+	@Label("Streamed")
+	boolean streamed;
+
+}
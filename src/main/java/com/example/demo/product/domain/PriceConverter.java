@@ -0,0 +1,79 @@
+package com.example.demo.product.domain;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Price conversions for one request, resolved once from a rate snapshot and then applied
+ * to every row of a page. Without a EUR rate the EUR price falls back to the USD price,
+ * as {@code priceEUR} always has.
+ *
+ * @param eur the conversion to EUR, or {@code null} if no EUR price is produced
+ * @param currency the currency requested by the client, or {@code null} if none
+ * @param target the conversion to the requested currency, or {@code null} if unavailable
+ */
+public record PriceConverter(CurrencyRate eur, String currency, CurrencyRate target) {
+
+	/**
+	 * Converter that produces no converted prices.
+	 */
+	public static final PriceConverter NONE = new PriceConverter(null, null, null);
+
+	private static final CurrencyRate EUR_AT_PAR = CurrencyRate.of("EUR", BigDecimal.ONE);
+
+	/**
+	 * Resolves the conversions for a request. The price in the requested currency is only
+	 * omitted while no rates are available at all; a currency the rates do not cover is
+	 * rejected.
+	 * @param rates the current rate snapshot
+	 * @param currency the requested currency, or {@code null} if none
+	 * @return a new PriceConverter
+	 * @throws IllegalArgumentException if the snapshot has rates, but none for the
+	 * requested currency
+	 */
+	public static PriceConverter of(ExchangeRates rates, String currency) {
+		CurrencyRate eur = Objects.requireNonNullElse(lookup(rates, "EUR"), EUR_AT_PAR);
+		CurrencyRate target = currency != null ? lookup(rates, currency) : null;
+		if (currency != null && target == null && !rates.isEmpty()) {
+			throw new IllegalArgumentException("Unsupported currency: " + currency);
+		}
+		return new PriceConverter(eur, currency, target);
+	}
+
+	/**
+	 * Creates a converter that only produces EUR prices.
+	 * @param eurRate the USD to EUR rate, or {@code null} if unavailable
+	 * @return a new PriceConverter
+	 */
+	public static PriceConverter eurOnly(BigDecimal eurRate) {
+		if (eurRate == null || eurRate.signum() <= 0) {
+			return new PriceConverter(EUR_AT_PAR, null, null);
+		}
+		return new PriceConverter(CurrencyRate.of("EUR", eurRate), null, null);
+	}
+
+	/**
+	 * Finds a rate, recording an {@link ExchangeRateLookupEvent} while JFR is recording.
+	 */
+	private static CurrencyRate lookup(ExchangeRates rates, String currency) {
+		ExchangeRateLookupEvent event = new ExchangeRateLookupEvent();
+		event.begin();
+		CurrencyRate rate = rates.find(currency);
+		event.end();
+		if (event.shouldCommit()) {
+			event.currency = currency;
+			event.hit = rate != null;
+			event.snapshotEmpty = rates.isEmpty();
+			event.commit();
+		}
+		return rate;
+	}
+
+	public Money toEur(Money amount) {
+		return eur != null ? eur.convert(amount) : null;
+	}
+
+	public Money toTarget(Money amount) {
+		return target != null ? target.convert(amount) : null;
+	}
+}
@@ -1,15 +1,17 @@
 package com.example.demo.product.domain;
 
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -30,8 +32,9 @@ public class Product {
 	private String description;
 
 	@NotNull
-	@Positive
-	private BigDecimal price;
+	@Column(precision = 19, scale = 2)
+	@Convert(converter = MoneyConverter.class)
+	private Money price;
 
 	private String category;
 
@@ -43,11 +46,14 @@ public class Product {
 
 	private LocalDateTime updatedAt;
 
+	@Version
+	private long version;
+
 	// Default constructor required by JPA
 	protected Product() {
 	}
 
-	public Product(String name, String description, BigDecimal price, String category, String imageUrl,
+	public Product(String name, String description, Money price, String category, String imageUrl,
 			boolean available) {
 		this.name = name;
 		this.description = description;
@@ -83,11 +89,11 @@ public class Product {
 		this.updatedAt = LocalDateTime.now();
 	}
 
-	public BigDecimal getPrice() {
+	public Money getPrice() {
 		return price;
 	}
 
-	public void setPrice(BigDecimal price) {
+	public void setPrice(Money price) {
 		this.price = price;
 		this.updatedAt = LocalDateTime.now();
 	}
@@ -127,4 +133,17 @@ public class Product {
 		return updatedAt;
 	}
 
+	/**
+	 * Returns the optimistic-lock version, incremented by every flushed update. Together
+	 * with the ID it identifies one state of the product.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	@AssertTrue(message = "must be greater than 0")
+	protected boolean isPricePositive() {
+		return price == null || price.signum() > 0;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.example.demo.product.domain;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of the product representation a client can ask for with {@code ?fields=}. Every
+ * field is read from a fixed entity attribute, so the projection queries built from them
+ * come from a small, closed set of JPQL strings that stay in the query plan cache.
+ */
+public enum ProductField {
+
+	ID("id", "id"),
+
+	NAME("name", "name"),
+
+	DESCRIPTION("description", "description"),
+
+	PRICE_USD("priceUSD", "price"),
+
+	PRICE_EUR("priceEUR", "price"),
+
+	PRICE("price", "price"),
+
+	CURRENCY("currency", null),
+
+	CATEGORY("category", "category"),
+
+	IMAGE_URL("imageUrl", "imageUrl"),
+
+	AVAILABLE("available", "available"),
+
+	CREATED_AT("createdAt", "createdAt"),
+
+	UPDATED_AT("updatedAt", "updatedAt");
+
+	private static final Map<String, ProductField> BY_NAME = new HashMap<>();
+
+	private static final Set<String> ATTRIBUTES;
+
+	static {
+		for (ProductField field : values()) {
+			BY_NAME.put(field.jsonName, field);
+		}
+		ATTRIBUTES = BY_NAME.values()
+			.stream()
+			.map(ProductField::attribute)
+			.filter(Objects::nonNull)
+			.collect(Collectors.toUnmodifiableSet());
+	}
+
+	private final String jsonName;
+
+	private final String attribute;
+
+	ProductField(String jsonName, String attribute) {
+		this.jsonName = jsonName;
+		this.attribute = attribute;
+	}
+
+	/**
+	 * Returns the name of the field in the JSON representation.
+	 */
+	public String jsonName() {
+		return jsonName;
+	}
+
+	/**
+	 * Returns the entity attribute the field is read from, or {@code null} if the field
+	 * does not come from the database.
+	 */
+	public String attribute() {
+		return attribute;
+	}
+
+	/**
+	 * Returns whether the field needs the exchange rates.
+	 */
+	public boolean isConverted() {
+		return this == PRICE_EUR || this == PRICE || this == CURRENCY;
+	}
+
+	/**
+	 * Parses a comma-separated list of JSON field names.
+	 * @param fields the field names, for example {@code id,name,priceUSD}
+	 * @return the requested fields
+	 * @throws IllegalArgumentException if the list is empty or names an unknown field
+	 */
+	public static Set<ProductField> parse(String fields) {
+		EnumSet<ProductField> parsed = EnumSet.noneOf(ProductField.class);
+		for (String name : fields.split(",")) {
+			String trimmed = name.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			ProductField field = BY_NAME.get(trimmed);
+			if (field == null) {
+				throw new IllegalArgumentException("Unknown field: " + trimmed + ". Allowed fields: "
+						+ EnumSet.allOf(ProductField.class)
+							.stream()
+							.map(ProductField::jsonName)
+							.collect(Collectors.joining(",")));
+			}
+			parsed.add(field);
+		}
+		if (parsed.isEmpty()) {
+			throw new IllegalArgumentException("At least one field must be requested");
+		}
+		return parsed;
+	}
+
+	/**
+	 * Returns whether a product can be sorted by an entity attribute.
+	 * @param attribute the attribute name
+	 * @return whether the attribute is one the fields are read from
+	 */
+	public static boolean isSortable(String attribute) {
+		return ATTRIBUTES.contains(attribute);
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.example.demo.product.domain;
+
+/**
+ * Restricts the products read by a projection query.
+ *
+ * @param category the exact category, or {@code null} for any
+ * @param name a substring of the name (case insensitive), or {@code null} for any
+ */
+record ProductFilter(String category, String name) {
+
+	/**
+	 * Filter matching every product.
+	 */
+	static final ProductFilter ALL = new ProductFilter(null, null);
+
+	static ProductFilter byCategory(String category) {
+		return new ProductFilter(category, null);
+	}
+
+	static ProductFilter byNameContaining(String name) {
+		return new ProductFilter(null, name);
+	}
+}
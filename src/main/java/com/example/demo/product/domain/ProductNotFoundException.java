@@ -0,0 +1,32 @@
+package com.example.demo.product.domain;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Thrown when no product exists for a requested ID. Lookups of unknown IDs are cheap for
+ * a client to trigger, so the exception does not capture a stack trace and only builds
+ * its message when it is read.
+ */
+public class ProductNotFoundException extends EntityNotFoundException {
+
+	private final Long id;
+
+	public ProductNotFoundException(Long id) {
+		this.id = id;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	@Override
+	public String getMessage() {
+		return "Product not found with ID: " + id;
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
+
+}
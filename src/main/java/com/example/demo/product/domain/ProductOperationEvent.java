@@ -0,0 +1,30 @@
+package com.example.demo.product.domain;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one {@link ProductService} operation, including any time spent waiting
+ * on a coalesced call or a transaction.
+ */
+@Name("com.example.demo.ProductOperation")
+@Label("Product Operation")
+@Category({ "Product Catalog", "Service" })
+@Description("A product service call with its arguments summarized")
+@StackTrace(false)
+class ProductOperationEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Arguments")
+	String arguments;
+
+	@Label("Failure")
+	String failure;
+
+}
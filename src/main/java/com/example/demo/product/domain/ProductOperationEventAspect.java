@@ -0,0 +1,87 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.api.PageSink;
+import com.example.demo.product.api.ProductRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records a {@link ProductOperationEvent} around every public {@link ProductService}
+ * method. While no recording is running the event is disabled and the advice only
+ * allocates it; the arguments are summarized only for events that are committed.
+ * Runs outside request coalescing, so time spent joining an in-flight call is included.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class ProductOperationEventAspect {
+
+	private static final int MAX_TEXT_LENGTH = 64;
+
+	@Around("execution(public * com.example.demo.product.domain.ProductService.*(..))")
+	Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+		ProductOperationEvent event = new ProductOperationEvent();
+		if (!event.isEnabled()) {
+			return joinPoint.proceed();
+		}
+		event.begin();
+		Throwable failure = null;
+		try {
+			return joinPoint.proceed();
+		}
+		catch (Throwable ex) {
+			failure = ex;
+			throw ex;
+		}
+		finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.operation = joinPoint.getSignature().getName();
+				event.arguments = summarize(joinPoint.getArgs());
+				event.failure = (failure != null) ? failure.getClass().getSimpleName() : null;
+				event.commit();
+			}
+		}
+	}
+
+	/**
+	 * Summarizes call arguments in a bounded form: page requests by number, size and sort,
+	 * product requests by name and long text cut short. Output sinks are left out.
+	 */
+	static String summarize(Object[] args) {
+		StringBuilder summary = new StringBuilder();
+		for (Object arg : args) {
+			if (arg instanceof PageSink<?>) {
+				continue;
+			}
+			if (!summary.isEmpty()) {
+				summary.append(", ");
+			}
+			switch (arg) {
+				case null -> summary.append("null");
+				case Pageable pageable when pageable.isPaged() -> summary.append("page=")
+					.append(pageable.getPageNumber())
+					.append(" size=")
+					.append(pageable.getPageSize())
+					.append(" sort=")
+					.append(pageable.getSort());
+				case ProductRequest request -> summary.append("request(name=")
+					.append(abbreviate(request.name()))
+					.append(')');
+				case String text -> summary.append('"').append(abbreviate(text)).append('"');
+				default -> summary.append(abbreviate(arg.toString()));
+			}
+		}
+		return summary.toString();
+	}
+
+	private static String abbreviate(String text) {
+		return (text == null || text.length() <= MAX_TEXT_LENGTH) ? text : text.substring(0, MAX_TEXT_LENGTH) + "...";
+	}
+
+}
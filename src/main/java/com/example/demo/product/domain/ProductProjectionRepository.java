@@ -0,0 +1,34 @@
+package com.example.demo.product.domain;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Queries that select only the columns behind the requested {@link ProductField}s. Each
+ * tuple element is aliased with its entity attribute name.
+ */
+interface ProductProjectionRepository {
+
+	/**
+	 * Find one page of products, reading only the columns of the given fields.
+	 * @param fields the requested fields
+	 * @param filter the products to include
+	 * @param pageable pagination information
+	 * @return page of tuples holding the selected attributes
+	 * @throws IllegalArgumentException if the sort is not on a product attribute
+	 */
+	Page<Tuple> findFields(Set<ProductField> fields, ProductFilter filter, Pageable pageable);
+
+	/**
+	 * Find a product by ID, reading only the columns of the given fields.
+	 * @param id the product ID
+	 * @param fields the requested fields
+	 * @return the tuple holding the selected attributes, if the product exists
+	 */
+	Optional<Tuple> findFieldsById(Long id, Set<ProductField> fields);
+
+}
@@ -0,0 +1,125 @@
+package com.example.demo.product.domain;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Builds the projection queries from the requested fields. The select list follows the
+ * declaration order of {@link ProductField} and filters and sorts only use validated
+ * attribute names, so equal requests produce equal JPQL and share a cached query plan.
+ */
+class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+	private final EntityManager entityManager;
+
+	ProductProjectionRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public Page<Tuple> findFields(Set<ProductField> fields, ProductFilter filter, Pageable pageable) {
+		String jpql = "select " + selectList(fields) + " from Product p" + where(filter) + orderBy(pageable.getSort());
+		TypedQuery<Tuple> query = entityManager.createQuery(jpql, Tuple.class)
+			.setHint(HibernateHints.HINT_READ_ONLY, true);
+		bind(query, filter);
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+		}
+		List<Tuple> content = query.getResultList();
+		return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+	}
+
+	@Override
+	public Optional<Tuple> findFieldsById(Long id, Set<ProductField> fields) {
+		return entityManager.createQuery("select " + selectList(fields) + " from Product p where p.id = :id",
+				Tuple.class)
+			.setParameter("id", id)
+			.setHint(HibernateHints.HINT_READ_ONLY, true)
+			.getResultStream()
+			.findFirst();
+	}
+
+	private long count(ProductFilter filter) {
+		TypedQuery<Long> query = entityManager.createQuery("select count(p) from Product p" + where(filter),
+				Long.class);
+		bind(query, filter);
+		return query.getSingleResult();
+	}
+
+	/**
+	 * Selects each attribute behind the fields once. Fields that are not stored, such as
+	 * the currency, still need a row per product, so the ID stands in when nothing else is
+	 * selected.
+	 */
+	private static String selectList(Set<ProductField> fields) {
+		Set<String> attributes = new LinkedHashSet<>();
+		for (ProductField field : fields) {
+			if (field.attribute() != null) {
+				attributes.add(field.attribute());
+			}
+		}
+		if (attributes.isEmpty()) {
+			attributes.add(ProductField.ID.attribute());
+		}
+		StringBuilder select = new StringBuilder();
+		for (String attribute : attributes) {
+			if (!select.isEmpty()) {
+				select.append(", ");
+			}
+			select.append("p.").append(attribute).append(" as ").append(attribute);
+		}
+		return select.toString();
+	}
+
+	private static String where(ProductFilter filter) {
+		if (filter.category() != null) {
+			return " where p.category = :category";
+		}
+		if (filter.name() != null) {
+			return " where upper(p.name) like upper(:name) escape '\\'";
+		}
+		return "";
+	}
+
+	private static void bind(TypedQuery<?> query, ProductFilter filter) {
+		if (filter.category() != null) {
+			query.setParameter("category", filter.category());
+		}
+		if (filter.name() != null) {
+			query.setParameter("name", "%" + escapeLike(filter.name()) + "%");
+		}
+	}
+
+	private static String orderBy(Sort sort) {
+		if (sort.isUnsorted()) {
+			return "";
+		}
+		StringBuilder orderBy = new StringBuilder(" order by ");
+		for (Sort.Order order : sort) {
+			if (!ProductField.isSortable(order.getProperty())) {
+				throw new IllegalArgumentException("Unsupported sort field: " + order.getProperty());
+			}
+			if (orderBy.length() > " order by ".length()) {
+				orderBy.append(", ");
+			}
+			orderBy.append("p.").append(order.getProperty()).append(order.isAscending() ? " asc" : " desc");
+		}
+		return orderBy.toString();
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
@@ -1,18 +1,28 @@
 package com.example.demo.product.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Product entity operations.
  */
 @Repository
-interface ProductRepository extends JpaRepository<Product, Long> {
+interface ProductRepository extends JpaRepository<Product, Long>, ProductProjectionRepository {
+
+	/**
+	 * Rows fetched per round trip when streaming. Streamed entities are read-only, so the
+	 * persistence context keeps no snapshots of them.
+	 */
+	String STREAM_FETCH_SIZE = "100";
 
 	/**
 	 * Find products by category.
@@ -52,4 +62,49 @@ interface ProductRepository extends JpaRepository<Product, Long> {
 	 */
 	Optional<Product> findByNameIgnoreCase(String name);
 
-}
\ No newline at end of file
+	/**
+	 * Stream one page of all products. Must be consumed inside a transaction and closed.
+	 * @param pageable pagination information
+	 * @return stream of the products on the page
+	 */
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<Product> streamAllBy(Pageable pageable);
+
+	/**
+	 * Stream one page of products in a category. Must be consumed inside a transaction and
+	 * closed.
+	 * @param category the category to search for
+	 * @param pageable pagination information
+	 * @return stream of the products on the page
+	 */
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<Product> streamByCategory(String category, Pageable pageable);
+
+	/**
+	 * Stream one page of products with names containing the given string (case
+	 * insensitive). Must be consumed inside a transaction and closed.
+	 * @param name the name substring to search for
+	 * @param pageable pagination information
+	 * @return stream of the products on the page
+	 */
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<Product> streamByNameContainingIgnoreCase(String name, Pageable pageable);
+
+	/**
+	 * Count products in a category.
+	 * @param category the category to count
+	 * @return number of products in the given category
+	 */
+	long countByCategory(String category);
+
+	/**
+	 * Count products with names containing the given string (case insensitive).
+	 * @param name the name substring to search for
+	 * @return number of products with names containing the given string
+	 */
+	long countByNameContainingIgnoreCase(String name);
+
+}
@@ -1,8 +1,11 @@
 package com.example.demo.product.domain;
 
+import com.example.demo.common.coalescing.Coalesced;
+import com.example.demo.product.api.PageSink;
 import com.example.demo.product.api.ProductRequest;
 import com.example.demo.product.api.ProductResponse;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -10,7 +13,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service for product operations.
@@ -22,84 +30,235 @@ public class ProductService {
 
 	private final ProductRepository productRepository;
 
-	private final CurrencyExchangeService currencyExchangeService;
+	private final ExchangeRateProvider exchangeRateProvider;
 
-	public ProductService(ProductRepository productRepository, CurrencyExchangeService currencyExchangeService) {
+	private final EntityManager entityManager;
+
+	public ProductService(ProductRepository productRepository, ExchangeRateProvider exchangeRateProvider,
+			EntityManager entityManager) {
 		this.productRepository = productRepository;
-		this.currencyExchangeService = currencyExchangeService;
+		this.exchangeRateProvider = exchangeRateProvider;
+		this.entityManager = entityManager;
 	}
 
 	/**
 	 * Get all products with pagination.
 	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
 	 * @return page of product responses
 	 */
+	@Coalesced
 	@Transactional(readOnly = true)
-	public Page<ProductResponse> getAllProducts(Pageable pageable) {
+	public Page<ProductResponse> getAllProducts(Pageable pageable, String currency) {
 		if (log.isDebugEnabled()) {
 			log.debug("Getting all products with pagination: {}", pageable);
 		}
-		return productRepository.findAll(pageable)
-			.map(product -> ProductResponse.fromEntity(product, currencyExchangeService));
+		return mapPage(productRepository.findAll(pageable), responseMapper(currency), false);
 	}
 
 	/**
 	 * Get products by category with pagination.
 	 * @param category category to filter by
 	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
 	 * @return page of product responses
 	 */
+	@Coalesced
 	@Transactional(readOnly = true)
-	public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable) {
+	public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable, String currency) {
 		if (log.isDebugEnabled()) {
 			log.debug("Getting products by category: {} with pagination: {}", category, pageable);
 		}
-		return productRepository.findByCategory(category, pageable)
-			.map(product -> ProductResponse.fromEntity(product, currencyExchangeService));
+		return mapPage(productRepository.findByCategory(category, pageable), responseMapper(currency), false);
 	}
 
 	/**
 	 * Get products by name containing the given string with pagination.
 	 * @param name name substring to search for
 	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
 	 * @return page of product responses
 	 */
+	@Coalesced
 	@Transactional(readOnly = true)
-	public Page<ProductResponse> getProductsByName(String name, Pageable pageable) {
+	public Page<ProductResponse> getProductsByName(String name, Pageable pageable, String currency) {
 		if (log.isDebugEnabled()) {
 			log.debug("Getting products by name containing: {} with pagination: {}", name, pageable);
 		}
-		return productRepository.findByNameContainingIgnoreCase(name, pageable)
-			.map(product -> ProductResponse.fromEntity(product, currencyExchangeService));
+		return mapPage(productRepository.findByNameContainingIgnoreCase(name, pageable), responseMapper(currency),
+				false);
+	}
+
+	/**
+	 * Get all products with pagination, reading only the requested fields.
+	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
+	 * @param fields the fields to read and return
+	 * @return page of product responses holding only the requested fields
+	 */
+	@Coalesced
+	@Transactional(readOnly = true)
+	public Page<ProductResponse> getAllProducts(Pageable pageable, String currency, Set<ProductField> fields) {
+		if (log.isDebugEnabled()) {
+			log.debug("Getting fields {} of all products with pagination: {}", fields, pageable);
+		}
+		return mapPage(productRepository.findFields(fields, ProductFilter.ALL, pageable),
+				projectionMapper(currency, fields), true);
+	}
+
+	/**
+	 * Get products by category with pagination, reading only the requested fields.
+	 * @param category category to filter by
+	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
+	 * @param fields the fields to read and return
+	 * @return page of product responses holding only the requested fields
+	 */
+	@Coalesced
+	@Transactional(readOnly = true)
+	public Page<ProductResponse> getProductsByCategory(String category, Pageable pageable, String currency,
+			Set<ProductField> fields) {
+		if (log.isDebugEnabled()) {
+			log.debug("Getting fields {} of products by category: {} with pagination: {}", fields, category,
+					pageable);
+		}
+		return mapPage(productRepository.findFields(fields, ProductFilter.byCategory(category), pageable),
+				projectionMapper(currency, fields), true);
+	}
+
+	/**
+	 * Get products by name containing the given string with pagination, reading only the
+	 * requested fields.
+	 * @param name name substring to search for
+	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
+	 * @param fields the fields to read and return
+	 * @return page of product responses holding only the requested fields
+	 */
+	@Coalesced
+	@Transactional(readOnly = true)
+	public Page<ProductResponse> getProductsByName(String name, Pageable pageable, String currency,
+			Set<ProductField> fields) {
+		if (log.isDebugEnabled()) {
+			log.debug("Getting fields {} of products by name containing: {} with pagination: {}", fields, name,
+					pageable);
+		}
+		return mapPage(productRepository.findFields(fields, ProductFilter.byNameContaining(name), pageable),
+				projectionMapper(currency, fields), true);
+	}
+
+	/**
+	 * Stream all products with pagination, writing each product as it is read.
+	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
+	 * @param sink receives the products of the page
+	 * @throws IOException if the page cannot be written
+	 */
+	@Transactional(readOnly = true)
+	public void streamAllProducts(Pageable pageable, String currency, PageSink<ProductResponse> sink)
+			throws IOException {
+		if (log.isDebugEnabled()) {
+			log.debug("Streaming all products with pagination: {}", pageable);
+		}
+		long total = productRepository.count();
+		try (Stream<Product> products = productRepository.streamAllBy(pageable)) {
+			writePage(products, pageable, total, currency, sink);
+		}
+	}
+
+	/**
+	 * Stream products by category with pagination, writing each product as it is read.
+	 * @param category category to filter by
+	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
+	 * @param sink receives the products of the page
+	 * @throws IOException if the page cannot be written
+	 */
+	@Transactional(readOnly = true)
+	public void streamProductsByCategory(String category, Pageable pageable, String currency,
+			PageSink<ProductResponse> sink) throws IOException {
+		if (log.isDebugEnabled()) {
+			log.debug("Streaming products by category: {} with pagination: {}", category, pageable);
+		}
+		long total = productRepository.countByCategory(category);
+		try (Stream<Product> products = productRepository.streamByCategory(category, pageable)) {
+			writePage(products, pageable, total, currency, sink);
+		}
+	}
+
+	/**
+	 * Stream products by name containing the given string with pagination, writing each
+	 * product as it is read.
+	 * @param name name substring to search for
+	 * @param pageable pagination information
+	 * @param currency currency to additionally price products in, or {@code null}
+	 * @param sink receives the products of the page
+	 * @throws IOException if the page cannot be written
+	 */
+	@Transactional(readOnly = true)
+	public void streamProductsByName(String name, Pageable pageable, String currency, PageSink<ProductResponse> sink)
+			throws IOException {
+		if (log.isDebugEnabled()) {
+			log.debug("Streaming products by name containing: {} with pagination: {}", name, pageable);
+		}
+		long total = productRepository.countByNameContainingIgnoreCase(name);
+		try (Stream<Product> products = productRepository.streamByNameContainingIgnoreCase(name, pageable)) {
+			writePage(products, pageable, total, currency, sink);
+		}
 	}
 
 	/**
 	 * Get a product by ID.
 	 * @param id product ID
+	 * @param currency currency to additionally price the product in, or {@code null}
 	 * @return product response
-	 * @throws EntityNotFoundException if product not found
+	 * @throws ProductNotFoundException if product not found
 	 */
+	@Coalesced
 	@Transactional(readOnly = true)
-	public ProductResponse getProductById(Long id) {
+	public ProductResponse getProductById(Long id, String currency) {
 		if (log.isDebugEnabled()) {
 			log.debug("Getting product by ID: {}", id);
 		}
 		return productRepository.findById(id)
-			.map(product -> ProductResponse.fromEntity(product, currencyExchangeService))
-			.orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+			.map(responseMapper(currency))
+			.orElseThrow(() -> new ProductNotFoundException(id));
+	}
+
+	/**
+	 * Get a product by ID, reading only the requested fields.
+	 * @param id product ID
+	 * @param currency currency to additionally price the product in, or {@code null}
+	 * @param fields the fields to read and return
+	 * @return product response holding only the requested fields
+	 * @throws ProductNotFoundException if product not found
+	 */
+	@Coalesced
+	@Transactional(readOnly = true)
+	public ProductResponse getProductById(Long id, String currency, Set<ProductField> fields) {
+		if (log.isDebugEnabled()) {
+			log.debug("Getting fields {} of product by ID: {}", fields, id);
+		}
+		return productRepository.findFieldsById(id, fields)
+			.map(projectionMapper(currency, fields))
+			.orElseThrow(() -> new ProductNotFoundException(id));
 	}
 
 	/**
 	 * Create a new product.
 	 * @param request product request
+	 * @param currency currency to additionally price the product in, or {@code null}
 	 * @return created product response
 	 */
 	@Transactional
-	public ProductResponse createProduct(ProductRequest request) {
+	public ProductResponse createProduct(ProductRequest request, String currency) {
 		if (log.isDebugEnabled()) {
 			log.debug("Creating product: {}", request);
 		}
 
+		// Resolve the conversions first, so an unsupported currency is rejected before writing
+		Function<Product, ProductResponse> mapper = responseMapper(currency);
+
 		// Check if product with same name already exists
 		Optional<Product> existingProduct = productRepository.findByNameIgnoreCase(request.name());
 		if (existingProduct.isPresent()) {
@@ -107,29 +266,33 @@ public class ProductService {
 			throw new IllegalArgumentException("Product with name '" + request.name() + "' already exists");
 		}
 
-		Product product = new Product(request.name(), request.description(), request.price(), request.category(),
-				request.imageUrl(), request.available());
+		Product product = new Product(request.name(), request.description(), Money.of(request.price()),
+				request.category(), request.imageUrl(), request.available());
 
 		Product savedProduct = productRepository.save(product);
 		log.info("Created product with ID: {}", savedProduct.getId());
-		return ProductResponse.fromEntity(savedProduct, currencyExchangeService);
+		return mapper.apply(savedProduct);
 	}
 
 	/**
 	 * Update an existing product.
 	 * @param id product ID
 	 * @param request product request
+	 * @param currency currency to additionally price the product in, or {@code null}
 	 * @return updated product response
-	 * @throws EntityNotFoundException if product not found
+	 * @throws ProductNotFoundException if product not found
 	 */
 	@Transactional
-	public ProductResponse updateProduct(Long id, ProductRequest request) {
+	public ProductResponse updateProduct(Long id, ProductRequest request, String currency) {
 		if (log.isDebugEnabled()) {
 			log.debug("Updating product with ID: {}, request: {}", id, request);
 		}
 
+		// Resolve the conversions first, so an unsupported currency is rejected before writing
+		Function<Product, ProductResponse> mapper = responseMapper(currency);
+
 		Product product = productRepository.findById(id)
-			.orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+			.orElseThrow(() -> new ProductNotFoundException(id));
 
 		// Check if another product with the same name exists
 		Optional<Product> existingProduct = productRepository.findByNameIgnoreCase(request.name());
@@ -140,20 +303,21 @@ public class ProductService {
 
 		product.setName(request.name());
 		product.setDescription(request.description());
-		product.setPrice(request.price());
+		product.setPrice(Money.of(request.price()));
 		product.setCategory(request.category());
 		product.setImageUrl(request.imageUrl());
 		product.setAvailable(request.available());
 
-		Product updatedProduct = productRepository.save(product);
+		// Flush so the response carries the incremented version, which keys its cached JSON
+		Product updatedProduct = productRepository.saveAndFlush(product);
 		log.info("Updated product with ID: {}", updatedProduct.getId());
-		return ProductResponse.fromEntity(updatedProduct, currencyExchangeService);
+		return mapper.apply(updatedProduct);
 	}
 
 	/**
 	 * Delete a product by ID.
 	 * @param id product ID
-	 * @throws EntityNotFoundException if product not found
+	 * @throws ProductNotFoundException if product not found
 	 */
 	@Transactional
 	public void deleteProduct(Long id) {
@@ -162,12 +326,78 @@ public class ProductService {
 		}
 
 		if (!productRepository.existsById(id)) {
-			log.warn("Product not found with ID: {}", id);
-			throw new EntityNotFoundException("Product not found with ID: " + id);
+			throw new ProductNotFoundException(id);
 		}
 
 		productRepository.deleteById(id);
 		log.info("Deleted product with ID: {}", id);
 	}
 
+	/**
+	 * Writes the products of a page as they come off the result set. Each entity is
+	 * detached once written, so the persistence context does not grow with the page.
+	 */
+	private void writePage(Stream<Product> products, Pageable pageable, long total, String currency,
+			PageSink<ProductResponse> sink) throws IOException {
+		Function<Product, ProductResponse> mapper = responseMapper(currency);
+		PageMappingEvent event = new PageMappingEvent();
+		event.begin();
+		int rows = 0;
+		for (Iterator<Product> iterator = products.iterator(); iterator.hasNext();) {
+			Product product = iterator.next();
+			sink.add(mapper.apply(product));
+			entityManager.detach(product);
+			rows++;
+		}
+		sink.finish(pageable, total);
+		event.end();
+		if (event.shouldCommit()) {
+			event.rows = rows;
+			event.pageNumber = pageable.getPageNumber();
+			event.pageSize = pageable.getPageSize();
+			event.streamed = true;
+			event.commit();
+		}
+	}
+
+	/**
+	 * Maps a page to responses, recording a {@link PageMappingEvent} while JFR is
+	 * recording.
+	 */
+	private static <T> Page<ProductResponse> mapPage(Page<T> page, Function<T, ProductResponse> mapper,
+			boolean projected) {
+		PageMappingEvent event = new PageMappingEvent();
+		event.begin();
+		Page<ProductResponse> responses = page.map(mapper);
+		event.end();
+		if (event.shouldCommit()) {
+			event.rows = responses.getNumberOfElements();
+			event.pageNumber = page.getNumber();
+			event.pageSize = page.getSize();
+			event.projected = projected;
+			event.commit();
+		}
+		return responses;
+	}
+
+	/**
+	 * Creates the mapping from entities to responses for one request. The conversions are
+	 * resolved once from the in-memory rate snapshot, so mapping a page costs a single
+	 * lookup per currency regardless of the page size.
+	 */
+	private Function<Product, ProductResponse> responseMapper(String currency) {
+		PriceConverter priceConverter = PriceConverter.of(exchangeRateProvider.currentRates(), currency);
+		return product -> ProductResponse.fromEntity(product, priceConverter);
+	}
+
+	/**
+	 * Creates the mapping from projection rows to responses for one request. The rate
+	 * snapshot is not consulted at all unless a converted field was requested.
+	 */
+	private Function<Tuple, ProductResponse> projectionMapper(String currency, Set<ProductField> fields) {
+		PriceConverter priceConverter = fields.stream().anyMatch(ProductField::isConverted)
+				? PriceConverter.of(exchangeRateProvider.currentRates(), currency) : PriceConverter.NONE;
+		return row -> ProductResponse.fromProjection(row, fields, priceConverter);
+	}
+
 }
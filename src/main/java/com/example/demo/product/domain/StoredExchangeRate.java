@@ -0,0 +1,68 @@
+package com.example.demo.product.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding one exchange rate from the last successful fetch.
+ */
+@Entity
+@Table(name = "exchange_rates")
+@IdClass(StoredExchangeRate.Key.class)
+class StoredExchangeRate {
+
+	@Id
+	@Column(length = 3)
+	private String baseCurrency;
+
+	@Id
+	@Column(length = 3)
+	private String currency;
+
+	@Column(nullable = false, precision = 19, scale = 10)
+	private BigDecimal rate;
+
+	@Column(nullable = false)
+	private LocalDateTime fetchedAt;
+
+	// Default constructor required by JPA
+	protected StoredExchangeRate() {
+	}
+
+	StoredExchangeRate(String baseCurrency, String currency, BigDecimal rate, LocalDateTime fetchedAt) {
+		this.baseCurrency = baseCurrency;
+		this.currency = currency;
+		this.rate = rate;
+		this.fetchedAt = fetchedAt;
+	}
+
+	String getBaseCurrency() {
+		return baseCurrency;
+	}
+
+	String getCurrency() {
+		return currency;
+	}
+
+	BigDecimal getRate() {
+		return rate;
+	}
+
+	LocalDateTime getFetchedAt() {
+		return fetchedAt;
+	}
+
+	/**
+	 * Composite primary key of a stored rate.
+	 */
+	record Key(String baseCurrency, String currency) implements Serializable {
+	}
+
+}
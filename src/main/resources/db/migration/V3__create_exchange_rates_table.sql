@@ -0,0 +1,8 @@
+-- Last successfully fetched exchange rates, loaded into memory at startup
+CREATE TABLE exchange_rates (
+    base_currency VARCHAR(3) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    rate DECIMAL(19, 10) NOT NULL,
+    fetched_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (base_currency, currency)
+);
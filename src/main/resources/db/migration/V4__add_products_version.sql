@@ -0,0 +1,2 @@
+-- Optimistic-lock version, incremented on every update; identifies cached representations
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
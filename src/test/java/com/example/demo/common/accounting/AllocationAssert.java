@@ -0,0 +1,69 @@
+package com.example.demo.common.accounting;
+
+import org.assertj.core.api.AbstractAssert;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * AssertJ assertions for allocation budgets. The action is first run repeatedly so class
+ * loading, JIT compilation and caches settle, then measured several times on the calling
+ * thread; the smallest measurement is compared with the budget, which keeps the check
+ * stable against one-off allocations while still failing on a steady-state regression.
+ * <p>
+ * Call from a platform thread: allocation is not counted on virtual threads.
+ */
+public class AllocationAssert extends AbstractAssert<AllocationAssert, Runnable> {
+
+	private static final int WARMUP_RUNS = 50;
+
+	private static final int MEASURED_RUNS = 5;
+
+	private long allocatedBytes = -1;
+
+	private AllocationAssert(Runnable actual) {
+		super(actual, AllocationAssert.class);
+	}
+
+	/**
+	 * Starts assertions on the allocations of an action.
+	 * @param action the code to measure, typically one service or MockMvc call
+	 * @return the assertion
+	 */
+	public static AllocationAssert assertThatAllocation(Runnable action) {
+		return new AllocationAssert(action);
+	}
+
+	/**
+	 * Verifies that one run of the action allocates no more than the given size.
+	 * @param budget the allocation budget
+	 * @return this assertion
+	 */
+	public AllocationAssert allocatesAtMost(DataSize budget) {
+		isNotNull();
+		long allocated = measure();
+		if (allocated > budget.toBytes()) {
+			failWithMessage("Expected at most <%s> to be allocated per run but <%d> bytes were", budget, allocated);
+		}
+		return this;
+	}
+
+	private long measure() {
+		if (allocatedBytes >= 0) {
+			return allocatedBytes;
+		}
+		if (ThreadResources.allocatedBytes() == ThreadResources.UNSUPPORTED) {
+			throw new IllegalStateException("Allocation is not measurable on " + Thread.currentThread());
+		}
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			actual.run();
+		}
+		long smallest = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long before = ThreadResources.allocatedBytes();
+			actual.run();
+			smallest = Math.min(smallest, ThreadResources.allocatedBytes() - before);
+		}
+		allocatedBytes = smallest;
+		return smallest;
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.example.demo.common.accounting;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestAccountingFilterTest {
+
+	private static volatile byte[] sink;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final RequestAccountingFilter filter = new RequestAccountingFilter(meterRegistry);
+
+	private final FilterChain allocatingChain = (req, res) -> {
+		req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/products/{id}");
+		sink = new byte[512 * 1024];
+	};
+
+	@Test
+	void doFilter_WhenOnPlatformThread_ShouldRecordAllocationAndCpuPerEndpoint() throws Exception {
+		// Act
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/42"), new MockHttpServletResponse(),
+				allocatingChain);
+
+		// Assert
+		assertThat(meterRegistry.get(RequestAccountingFilter.ALLOCATION_METRIC)
+			.tag("method", "GET")
+			.tag("uri", "/api/v1/products/{id}")
+			.summary()
+			.totalAmount()).isGreaterThanOrEqualTo(512 * 1024);
+		assertThat(meterRegistry.get(RequestAccountingFilter.CPU_METRIC).timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get(RequestAccountingFilter.UNACCOUNTED_METRIC).counter().count()).isZero();
+	}
+
+	@Test
+	void doFilter_WhenEndpointRequestedAgain_ShouldReuseItsMeters() throws Exception {
+		// Act
+		for (int i = 0; i < 2; i++) {
+			filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/42"), new MockHttpServletResponse(),
+					allocatingChain);
+		}
+
+		// Assert
+		assertThat(meterRegistry.get(RequestAccountingFilter.ALLOCATION_METRIC).summaries()).hasSize(1);
+		assertThat(meterRegistry.get(RequestAccountingFilter.ALLOCATION_METRIC).summary().count()).isEqualTo(2);
+		assertThat(meterRegistry.get(RequestAccountingFilter.CPU_METRIC).timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void doFilter_WhenSpanCurrent_ShouldAddAttributes() throws Exception {
+		// Arrange
+		try (SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build()) {
+			Span span = tracerProvider.get("test").spanBuilder("GET /api/v1/products/{id}").startSpan();
+
+			// Act
+			try (Scope scope = span.makeCurrent()) {
+				filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/42"),
+						new MockHttpServletResponse(), allocatingChain);
+			}
+			finally {
+				span.end();
+			}
+
+			// Assert
+			ReadableSpan readable = (ReadableSpan) span;
+			assertThat(readable.getAttribute(RequestAccountingFilter.ALLOCATED_BYTES_ATTRIBUTE))
+				.isGreaterThanOrEqualTo(512 * 1024);
+			assertThat(readable.getAttribute(RequestAccountingFilter.CPU_TIME_ATTRIBUTE)).isNotNull();
+		}
+	}
+
+	@Test
+	void doFilter_WhenOnVirtualThread_ShouldCountUnaccounted() throws Exception {
+		// Arrange
+		AtomicReference<Exception> failure = new AtomicReference<>();
+
+		// Act
+		Thread.ofVirtual().start(() -> {
+			try {
+				filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/products/42"),
+						new MockHttpServletResponse(), allocatingChain);
+			}
+			catch (Exception ex) {
+				failure.set(ex);
+			}
+		}).join();
+
+		// Assert
+		assertThat(failure).hasNullValue();
+		assertThat(meterRegistry.get(RequestAccountingFilter.UNACCOUNTED_METRIC).counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.find(RequestAccountingFilter.ALLOCATION_METRIC).summary()).isNull();
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.demo.common.accounting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({ "test", "accounting" })
+class RequestAccountingProfileTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void getAllProducts_WithAccountingProfile_ShouldRecordAllocationAndCpu() throws Exception {
+		// Act
+		mockMvc.perform(get("/api/v1/products")).andExpect(status().isOk());
+
+		// Assert
+		assertThat(meterRegistry.get(RequestAccountingFilter.ALLOCATION_METRIC)
+			.tag("method", "GET")
+			.tag("uri", "/api/v1/products")
+			.summary()
+			.totalAmount()).isPositive();
+		assertThat(meterRegistry.get(RequestAccountingFilter.CPU_METRIC)
+			.tag("method", "GET")
+			.tag("uri", "/api/v1/products")
+			.timer()
+			.count()).isPositive();
+		assertThat(meterRegistry.get(RequestAccountingFilter.UNACCOUNTED_METRIC).counter().count()).isZero();
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.example.demo.common.accounting;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadResourcesTest {
+
+	private static volatile byte[] sink;
+
+	@Test
+	void allocatedBytes_WhenThreadAllocates_ShouldGrowByAtLeastAllocation() {
+		// Arrange
+		long before = ThreadResources.allocatedBytes();
+
+		// Act
+		sink = new byte[1024 * 1024];
+		long after = ThreadResources.allocatedBytes();
+
+		// Assert
+		assertThat(before).isNotEqualTo(ThreadResources.UNSUPPORTED);
+		assertThat(after - before).isGreaterThanOrEqualTo(sink.length);
+	}
+
+	@Test
+	void cpuNanos_WhenThreadComputes_ShouldGrow() {
+		// Arrange
+		long before = ThreadResources.cpuNanos();
+		long deadline = System.nanoTime() + 20_000_000;
+
+		// Act
+		while (System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		long after = ThreadResources.cpuNanos();
+
+		// Assert
+		assertThat(before).isNotEqualTo(ThreadResources.UNSUPPORTED);
+		assertThat(after).isGreaterThan(before);
+	}
+
+	@Test
+	void readings_WhenOnVirtualThread_ShouldBeUnsupported() throws Exception {
+		// Arrange
+		AtomicLong bytes = new AtomicLong();
+		AtomicLong cpu = new AtomicLong();
+
+		// Act
+		Thread.ofVirtual().start(() -> {
+			bytes.set(ThreadResources.allocatedBytes());
+			cpu.set(ThreadResources.cpuNanos());
+		}).join();
+
+		// Assert
+		assertThat(bytes).hasValue(ThreadResources.UNSUPPORTED);
+		assertThat(cpu).hasValue(ThreadResources.UNSUPPORTED);
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.example.demo.common.cache;
+
+import com.example.demo.common.cache.CacheInspectionEndpoint.CacheContents;
+import com.example.demo.common.cache.CacheInspectionEndpoint.CacheSummary;
+import com.example.demo.common.cache.CacheInspectionEndpoint.EntryInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheInspectionEndpointTest {
+
+	private final CacheRegistry cacheRegistry = new CacheRegistry(new SimpleMeterRegistry());
+
+	private final CacheInspectionEndpoint endpoint = new CacheInspectionEndpoint(cacheRegistry);
+
+	private Cache<String, String> bounded;
+
+	private Cache<String, String> expiring;
+
+	@BeforeEach
+	void setUp() {
+		bounded = Caffeine.newBuilder().maximumSize(100).executor(Runnable::run).recordStats().build();
+		expiring = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(5)).recordStats().build();
+		cacheRegistry.register("bounded", bounded);
+		cacheRegistry.register("expiring", expiring);
+	}
+
+	@Test
+	void caches_ShouldSummarizeStatisticsPerCache() {
+		// Arrange
+		bounded.get("a", key -> "A");
+		bounded.getIfPresent("a");
+		bounded.getIfPresent("b");
+
+		// Act
+		var summaries = endpoint.caches();
+
+		// Assert
+		assertThat(summaries).containsOnlyKeys("bounded", "expiring");
+		CacheSummary summary = summaries.get("bounded");
+		assertThat(summary.manager()).isEqualTo(CacheRegistry.DIRECT);
+		assertThat(summary.size()).isEqualTo(1);
+		assertThat(summary.maximum()).isEqualTo(100);
+		assertThat(summary.hits()).isEqualTo(1);
+		assertThat(summary.misses()).isEqualTo(2);
+		assertThat(summary.loads()).isEqualTo(1);
+		assertThat(summaries.get("expiring").maximum()).isNull();
+	}
+
+	@Test
+	void cache_WhenSizeBounded_ShouldListHottestEntriesFirst() {
+		// Arrange
+		Cache<String, String> small = Caffeine.newBuilder()
+			.maximumSize(2)
+			.executor(Runnable::run)
+			.recordStats()
+			.build();
+		cacheRegistry.register("small", small);
+		small.put("cold", "1");
+		small.put("hot", "2");
+		for (int i = 0; i < 10; i++) {
+			small.getIfPresent("hot");
+		}
+		small.cleanUp();
+
+		// Act
+		WebEndpointResponse<CacheContents> response = endpoint.cache("small", 1);
+
+		// Assert
+		assertThat(response.getBody().order()).isEqualTo("frequency");
+		assertThat(response.getBody().entries()).extracting(EntryInfo::key).containsExactly("hot");
+	}
+
+	@Test
+	void cache_WhenExpiringAfterWrite_ShouldReportEntryAges() {
+		// Arrange
+		expiring.put("rate", "0.91");
+
+		// Act
+		CacheContents contents = endpoint.cache("expiring", null).getBody();
+
+		// Assert
+		assertThat(contents.order()).isEqualTo("recent-write");
+		EntryInfo entry = contents.entries().get(0);
+		assertThat(entry.key()).isEqualTo("rate");
+		assertThat(entry.age()).isNotNull().isLessThan(Duration.ofMinutes(1));
+		assertThat(entry.idle()).isNull();
+	}
+
+	@Test
+	void evict_WhenPrefixGiven_ShouldEvictMatchingEntriesOnly() {
+		// Arrange
+		expiring.put("USD-EUR", "0.91");
+		expiring.put("USD-JPY", "150");
+		expiring.put("EUR-USD", "1.10");
+
+		// Act
+		int byPrefix = endpoint.evict("expiring", null, "USD-").getBody().evicted();
+		int byKey = endpoint.evict("expiring", "EUR-USD", null).getBody().evicted();
+
+		// Assert
+		assertThat(byPrefix).isEqualTo(2);
+		assertThat(byKey).isEqualTo(1);
+		assertThat(expiring.asMap()).isEmpty();
+	}
+
+	@Test
+	void evict_WhenNeitherKeyNorPrefixGiven_ShouldRejectRequest() {
+		// Act & Assert
+		assertThatThrownBy(() -> endpoint.evict("expiring", null, null))
+			.isInstanceOf(InvalidEndpointRequestException.class);
+	}
+
+	@Test
+	void selectorOperations_WhenCacheUnknown_ShouldReturnNotFound() {
+		// Act & Assert
+		assertThat(endpoint.cache("unknown", null).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+		assertThat(endpoint.evict("unknown", "key", null).getStatus())
+			.isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+	}
+
+}
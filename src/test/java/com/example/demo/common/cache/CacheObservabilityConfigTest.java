@@ -0,0 +1,45 @@
+package com.example.demo.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheObservabilityConfigTest {
+
+	@Test
+	void statisticsRecordingCustomizer_WhenSpecLacksRecordStats_ShouldRecordStatsAndKeepSpec() {
+		// Arrange
+		CacheProperties cacheProperties = new CacheProperties();
+		cacheProperties.getCaffeine().setSpec("expireAfterWrite=10s");
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager("currency");
+
+		// Act
+		new CacheObservabilityConfig().statisticsRecordingCacheManagerCustomizer(cacheProperties)
+			.customize(cacheManager);
+
+		// Assert
+		Cache<?, ?> cache = (Cache<?, ?>) cacheManager.getCache("currency").getNativeCache();
+		assertThat(cache.policy().isRecordingStats()).isTrue();
+		assertThat(cache.policy().expireAfterWrite()).isPresent();
+	}
+
+	@Test
+	void statisticsRecordingCustomizer_WhenSpecRecordsStats_ShouldLeaveManagerAlone() {
+		// Arrange
+		CacheProperties cacheProperties = new CacheProperties();
+		cacheProperties.getCaffeine().setSpec("maximumSize=10,recordStats");
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager("currency");
+		Object before = cacheManager.getCache("currency");
+
+		// Act
+		new CacheObservabilityConfig().statisticsRecordingCacheManagerCustomizer(cacheProperties)
+			.customize(cacheManager);
+
+		// Assert
+		assertThat(cacheManager.getCache("currency")).isSameAs(before);
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.example.demo.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheRegistryTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final CacheRegistry cacheRegistry = new CacheRegistry(meterRegistry);
+
+	@Test
+	void register_WhenCacheUsed_ShouldPublishHitMissAndLoadMetrics() {
+		// Arrange
+		Cache<String, String> cache = Caffeine.newBuilder().maximumSize(10).recordStats().build();
+		cacheRegistry.register("names", cache);
+
+		// Act
+		cache.get("a", key -> key.toUpperCase());
+		cache.get("a", key -> key.toUpperCase());
+
+		// Assert
+		assertThat(meterRegistry.get("cache.gets")
+			.tag("cache", "names")
+			.tag("cache.manager", CacheRegistry.DIRECT)
+			.tag("result", "hit")
+			.functionCounter()
+			.count()).isEqualTo(1);
+		assertThat(meterRegistry.get(CacheRegistry.LOAD_TIME_METRIC).tag("cache", "names").functionTimer().count())
+			.isEqualTo(1);
+		assertThat(meterRegistry.get("cache.size").tag("cache", "names").gauge().value()).isEqualTo(1);
+		assertThat(cacheRegistry.caches()).containsOnlyKeys("names");
+	}
+
+	@Test
+	void register_WhenCacheDoesNotRecordStats_ShouldThrow() {
+		// Arrange
+		Cache<String, String> cache = Caffeine.newBuilder().build();
+
+		// Act & Assert
+		assertThatThrownBy(() -> cacheRegistry.register("plain", cache)).isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("recordStats()");
+	}
+
+	@Test
+	void register_WhenNameTaken_ShouldThrow() {
+		// Arrange
+		cacheRegistry.register("names", Caffeine.newBuilder().recordStats().build());
+
+		// Act & Assert
+		assertThatThrownBy(() -> cacheRegistry.register("names", Caffeine.newBuilder().recordStats().build()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("already registered");
+	}
+
+	@Test
+	void registerAll_ShouldAddCachesRecordingStatsAndSkipOthers() {
+		// Arrange
+		CaffeineCacheManager recording = new CaffeineCacheManager("currency");
+		recording.setCaffeine(Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.SECONDS).recordStats());
+		CaffeineCacheManager plain = new CaffeineCacheManager("plain");
+
+		// Act
+		cacheRegistry.registerAll("cacheManager", recording);
+		cacheRegistry.registerAll("plainCacheManager", plain);
+
+		// Assert
+		assertThat(cacheRegistry.caches()).containsOnlyKeys("currency");
+		assertThat(cacheRegistry.cache("currency").manager()).isEqualTo("cacheManager");
+		assertThat(meterRegistry.get(CacheRegistry.LOAD_TIME_METRIC)
+			.tag("cache", "currency")
+			.tag("cache.manager", "cacheManager")
+			.functionTimer()).isNotNull();
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.example.demo.common.circuitbreaker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private CircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		circuitBreaker = new CircuitBreaker("test", 3, Duration.ofSeconds(30), meterRegistry, nanoTime::get);
+	}
+
+	@Test
+	void call_WhenFailuresReachThreshold_ShouldOpenAndFailFast() {
+		// Arrange
+		failTimes(3);
+
+		// Act & Assert
+		assertThatThrownBy(() -> circuitBreaker.call(this::succeed)).isInstanceOf(CircuitBreakerOpenException.class)
+			.hasMessage("Circuit breaker test is open");
+		assertThat(calls).hasValue(3);
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(meterRegistry.get("circuitbreaker.state").tag("name", "test").gauge().value()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("circuitbreaker.calls.rejected").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("circuitbreaker.transitions").tag("from", "CLOSED").tag("to", "OPEN").counter()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	void call_WhenOpen_ShouldReportRemainingOpenTime() {
+		// Arrange
+		failTimes(3);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		// Act & Assert
+		assertThatThrownBy(() -> circuitBreaker.call(this::succeed)).isInstanceOfSatisfying(
+				CircuitBreakerOpenException.class,
+				e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(20)));
+	}
+
+	@Test
+	void call_WhenSuccessInterruptsFailures_ShouldStayClosed() {
+		// Arrange
+		failTimes(2);
+		circuitBreaker.call(this::succeed);
+
+		// Act
+		failTimes(2);
+
+		// Assert
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void call_WhenProbeSucceedsAfterOpenDuration_ShouldClose() {
+		// Arrange
+		failTimes(3);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+		// Act
+		String result = circuitBreaker.call(this::succeed);
+
+		// Assert
+		assertThat(result).isEqualTo("ok");
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(meterRegistry.get("circuitbreaker.transitions").tag("from", "OPEN").tag("to", "HALF_OPEN").counter()
+			.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("circuitbreaker.transitions").tag("from", "HALF_OPEN").tag("to", "CLOSED")
+			.counter()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	void call_WhenProbeFails_ShouldReopenForAnotherOpenDuration() {
+		// Arrange
+		failTimes(3);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+		// Act
+		failTimes(1);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(29));
+
+		// Assert
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThatThrownBy(() -> circuitBreaker.call(this::succeed)).isInstanceOf(CircuitBreakerOpenException.class);
+		assertThat(calls).hasValue(4);
+	}
+
+	@Test
+	void call_WhenProbeThrowsError_ShouldReopen() {
+		// Arrange
+		failTimes(3);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+		// Act
+		assertThatThrownBy(() -> circuitBreaker.call(() -> {
+			throw new StackOverflowError();
+		})).isInstanceOf(StackOverflowError.class);
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+		// Assert
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(circuitBreaker.call(this::succeed)).isEqualTo("ok");
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	private String succeed() {
+		calls.incrementAndGet();
+		return "ok";
+	}
+
+	private void failTimes(int times) {
+		for (int i = 0; i < times; i++) {
+			assertThatThrownBy(() -> circuitBreaker.call(() -> {
+				calls.incrementAndGet();
+				throw new IllegalStateException("upstream unavailable");
+			})).isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.example.demo.common.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescingAspectTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RequestCoalescingAspect aspect;
+
+	private SlowReader target;
+
+	private SlowReader proxy;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		aspect = new RequestCoalescingAspect(meterRegistry);
+		target = new SlowReader();
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(aspect);
+		proxy = factory.getProxy();
+	}
+
+	@Test
+	void coalesce_WhenIdenticalCallsOverlap_ShouldRunOnceAndShareResult() throws Exception {
+		// Arrange
+		int callers = 8;
+		List<CompletableFuture<String>> results = new ArrayList<>();
+
+		// Act
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			results.add(CompletableFuture.supplyAsync(() -> proxy.read("electronics"), executor));
+			assertThat(target.started.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 1; i < callers; i++) {
+				results.add(CompletableFuture.supplyAsync(() -> proxy.read("electronics"), executor));
+			}
+			awaitCollapsed(callers - 1);
+			target.release.countDown();
+			CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+		}
+
+		// Assert
+		assertThat(target.invocations).hasValue(1);
+		assertThat(results).allSatisfy(result -> assertThat(result.join()).isEqualTo("electronics-1"));
+		assertThat(meterRegistry.get(RequestCoalescingAspect.COLLAPSED_METRIC).counter().count())
+			.isEqualTo(callers - 1);
+		assertThat(aspect.inFlightCount()).isZero();
+	}
+
+	@Test
+	void coalesce_WhenArgumentsDiffer_ShouldNotShareResult() {
+		// Arrange
+		target.release.countDown();
+
+		// Act
+		String first = proxy.read("electronics");
+		String second = proxy.read("books");
+
+		// Assert
+		assertThat(first).isEqualTo("electronics-1");
+		assertThat(second).isEqualTo("books-2");
+		assertThat(meterRegistry.find(RequestCoalescingAspect.COLLAPSED_METRIC).counter()).isNull();
+	}
+
+	@Test
+	void coalesce_WhenLeaderFails_ShouldPropagateOriginalException() {
+		// Arrange
+		target.release.countDown();
+
+		// Act & Assert
+		assertThatThrownBy(() -> proxy.read("")).isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("key must not be empty");
+		assertThat(aspect.inFlightCount()).isZero();
+	}
+
+	private void awaitCollapsed(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			var counter = meterRegistry.find(RequestCoalescingAspect.COLLAPSED_METRIC).counter();
+			if (counter != null && counter.count() >= expected) {
+				return;
+			}
+			Thread.sleep(5);
+		}
+	}
+
+	static class SlowReader {
+
+		final AtomicInteger invocations = new AtomicInteger();
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Coalesced
+		public String read(String key) {
+			if (key.isEmpty()) {
+				throw new IllegalArgumentException("key must not be empty");
+			}
+			int invocation = invocations.incrementAndGet();
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return key + "-" + invocation;
+		}
+
+	}
+
+}
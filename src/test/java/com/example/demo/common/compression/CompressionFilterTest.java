@@ -0,0 +1,229 @@
+package com.example.demo.common.compression;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class CompressionFilterTest {
+
+	private static final String LARGE_JSON = "{\"content\":["
+			+ "{\"description\":\"Lorem ipsum dolor sit amet\"},".repeat(200) + "{}]}";
+
+	private CompressionFilter filter;
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	void setUp() {
+		filter = new CompressionFilter(new CompressionProperties(true, DataSize.ofKilobytes(1),
+				List.of(ContentCoding.ZSTD, ContentCoding.GZIP), List.of(MimeType.valueOf("application/json")), 3, 6));
+		request = new MockHttpServletRequest("GET", "/api/v1/products");
+		response = new MockHttpServletResponse();
+	}
+
+	@Test
+	void doFilter_WhenBodyReachesThreshold_ShouldCompress() throws Exception {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+		// Act
+		filter.doFilter(request, response, chainWriting(MediaType.APPLICATION_JSON_VALUE, LARGE_JSON, 512));
+
+		// Assert
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+		assertThat(response.getContentAsByteArray().length).isLessThan(LARGE_JSON.length() / 4);
+		assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(LARGE_JSON);
+		assertThat(ContentCoding.negotiated(request)).isEqualTo(ContentCoding.GZIP);
+	}
+
+	@Test
+	void doFilter_WhenBodyIsBelowThreshold_ShouldSendItWithContentLength() throws Exception {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd");
+		String json = "{\"id\":1}";
+
+		// Act
+		filter.doFilter(request, response, chainWriting(MediaType.APPLICATION_JSON_VALUE, json, 512));
+
+		// Assert
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(response.getContentLength()).isEqualTo(json.length());
+		assertThat(response.getContentAsString()).isEqualTo(json);
+	}
+
+	@Test
+	void doFilter_WhenContentTypeIsNotCompressible_ShouldNotCompress() throws Exception {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+		// Act
+		filter.doFilter(request, response, chainWriting(MediaType.IMAGE_PNG_VALUE, LARGE_JSON, 512));
+
+		// Assert
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(response.getContentAsString()).isEqualTo(LARGE_JSON);
+	}
+
+	@Test
+	void doFilter_WhenBodyIsAlreadyEncoded_ShouldPassItThrough() throws Exception {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+				resp.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+				resp.setContentLength(LARGE_JSON.length());
+				resp.getOutputStream().write(LARGE_JSON.getBytes(StandardCharsets.UTF_8));
+			}
+		});
+
+		// Act
+		filter.doFilter(request, response, chain);
+
+		// Assert
+		assertThat(response.getContentLength()).isEqualTo(LARGE_JSON.length());
+		assertThat(response.getContentAsString()).isEqualTo(LARGE_JSON);
+	}
+
+	@Test
+	void doFilter_WhenClientAcceptsNoCoding_ShouldNotWrapResponse() throws Exception {
+		// Act
+		filter.doFilter(request, response, chainWriting(MediaType.APPLICATION_JSON_VALUE, LARGE_JSON, 512));
+
+		// Assert
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(response.getContentAsString()).isEqualTo(LARGE_JSON);
+		assertThat(ContentCoding.negotiated(request)).isNull();
+	}
+
+	@Test
+	void doFilter_WhenBodyIsWrittenWithWriter_ShouldCompress() throws Exception {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+				resp.setCharacterEncoding("UTF-8");
+				resp.getWriter().write(LARGE_JSON);
+			}
+		});
+
+		// Act
+		filter.doFilter(request, response, chain);
+
+		// Assert
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(LARGE_JSON);
+	}
+
+	@Test
+	void doFilter_WhenApplicationFailsMidBody_ShouldNotCompleteCompressedStream() {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+				OutputStream out = resp.getOutputStream();
+				out.write(LARGE_JSON.getBytes(StandardCharsets.UTF_8));
+				out.flush();
+				throw new IllegalStateException("Query failed");
+			}
+		});
+
+		// Act & Assert
+		assertThatThrownBy(() -> filter.doFilter(request, response, chain)).hasMessage("Query failed");
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThatThrownBy(() -> gunzip(response.getContentAsByteArray())).isInstanceOf(EOFException.class);
+	}
+
+	@Test
+	void doFilter_WhenApplicationFailsBelowThreshold_ShouldLeaveResponseUncommitted() {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+				resp.getOutputStream().write("{\"content\":[".getBytes(StandardCharsets.UTF_8));
+				throw new IllegalStateException("Query failed");
+			}
+		});
+
+		// Act & Assert
+		assertThatThrownBy(() -> filter.doFilter(request, response, chain)).hasMessage("Query failed");
+		assertThat(response.isCommitted()).isFalse();
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	void doFilter_WhenApplicationRegistersWriteListener_ShouldRejectIt() {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.getOutputStream().setWriteListener(mock(WriteListener.class));
+			}
+		});
+
+		// Act & Assert
+		assertThatThrownBy(() -> filter.doFilter(request, response, chain)).isInstanceOf(IllegalStateException.class)
+			.hasMessage("Compressed responses are only written in blocking mode");
+	}
+
+	/**
+	 * Writes the body in chunks, flushing after each one like a streaming writer.
+	 */
+	private static MockFilterChain chainWriting(String contentType, String body, int chunkSize) {
+		return new MockFilterChain(new HttpServlet() {
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp)
+					throws ServletException, IOException {
+				resp.setContentType(contentType);
+				byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+				OutputStream out = resp.getOutputStream();
+				for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+					out.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+					out.flush();
+				}
+			}
+		});
+	}
+
+	private static String gunzip(byte[] compressed) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.example.demo.common.compression;
+
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCodingTest {
+
+	private static final List<ContentCoding> AVAILABLE = List.of(ContentCoding.ZSTD, ContentCoding.GZIP);
+
+	@Test
+	void negotiate_WhenClientAcceptsBothEqually_ShouldPreferServerOrder() {
+		assertThat(ContentCoding.negotiate("gzip, deflate, br, zstd", AVAILABLE)).isEqualTo(ContentCoding.ZSTD);
+	}
+
+	@Test
+	void negotiate_ShouldHonourQualityValues() {
+		assertThat(ContentCoding.negotiate("zstd;q=0.5, gzip", AVAILABLE)).isEqualTo(ContentCoding.GZIP);
+		assertThat(ContentCoding.negotiate("gzip;q=0, *;q=0.1", AVAILABLE)).isEqualTo(ContentCoding.ZSTD);
+	}
+
+	@Test
+	void negotiate_WhenNothingAcceptable_ShouldReturnNull() {
+		assertThat(ContentCoding.negotiate(null, AVAILABLE)).isNull();
+		assertThat(ContentCoding.negotiate("identity", AVAILABLE)).isNull();
+		assertThat(ContentCoding.negotiate("br, *;q=0", AVAILABLE)).isNull();
+		assertThat(ContentCoding.negotiate("zstd", List.of(ContentCoding.GZIP))).isNull();
+	}
+
+	@Test
+	void negotiate_WhenQualityIsMalformed_ShouldTreatCodingAsUnacceptable() {
+		assertThat(ContentCoding.negotiate("GZIP;q=abc", AVAILABLE)).isNull();
+	}
+
+	@Test
+	void compress_ShouldRoundTrip() throws IOException {
+		// Arrange
+		byte[] data = "{\"description\":\"A long and repetitive description\"}".repeat(50)
+			.getBytes(StandardCharsets.UTF_8);
+
+		// Act
+		byte[] gzip = ContentCoding.GZIP.compress(data, 6);
+		byte[] zstd = ContentCoding.ZSTD.compress(data, 3);
+
+		// Assert
+		assertThat(gzip.length).isLessThan(data.length / 4);
+		assertThat(zstd.length).isLessThan(data.length / 4);
+		assertThat(readAll(new GZIPInputStream(new ByteArrayInputStream(gzip)))).isEqualTo(data);
+		assertThat(readAll(new ZstdInputStream(new ByteArrayInputStream(zstd)))).isEqualTo(data);
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		try (in) {
+			return in.readAllBytes();
+		}
+	}
+
+}
@@ -1,22 +1,32 @@
 package com.example.demo.common.error;
 
+import com.example.demo.common.ratelimit.RateLimitExceededException;
+import com.example.demo.product.domain.ProductNotFoundException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -64,6 +74,21 @@ class GlobalExceptionHandlerTest {
 		assertThat(problemDetail.getProperties()).containsKey("timestamp");
 	}
 
+	@Test
+	void handleOptimisticLockingFailure_ShouldReturnConflict() {
+		// Arrange
+		ObjectOptimisticLockingFailureException exception = new ObjectOptimisticLockingFailureException(Object.class,
+				42L);
+
+		// Act
+		ProblemDetail problemDetail = exceptionHandler.handleOptimisticLockingFailure(exception);
+
+		// Assert
+		assertThat(problemDetail.getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+		assertThat(problemDetail.getTitle()).isEqualTo("Concurrent Modification");
+		assertThat(problemDetail.getProperties()).containsKey("timestamp");
+	}
+
 	@Test
 	void handleEntityNotFoundException_ShouldReturnProblemDetail() {
 		// Arrange
@@ -80,6 +105,24 @@ class GlobalExceptionHandlerTest {
 		assertThat(problemDetail.getProperties()).containsKey("timestamp");
 	}
 
+	@Test
+	void handleEntityNotFoundException_WhenProductNotFound_ShouldReturnProblemDetail() {
+		// Arrange
+		ProductNotFoundException exception = new ProductNotFoundException(42L);
+
+		// Act
+		ProblemDetail first = exceptionHandler.handleEntityNotFoundException(exception);
+		ProblemDetail second = exceptionHandler.handleEntityNotFoundException(exception);
+
+		// Assert
+		assertThat(first.getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+		assertThat(first.getDetail()).isEqualTo("Product not found with ID: 42");
+		assertThat(first.getType()).hasToString("https://api.product-catalog.com/problems/not-found");
+		assertThat(second.getType()).isSameAs(first.getType());
+		assertThat(second).isNotSameAs(first);
+		assertThat(exception.getStackTrace()).isEmpty();
+	}
+
 	@Test
 	void handleIllegalArgumentException_ShouldReturnProblemDetail() {
 		// Arrange
@@ -116,12 +159,27 @@ class GlobalExceptionHandlerTest {
 	}
 
 	@Test
-	void handleGenericException_ShouldReturnProblemDetail() {
+	void handleMediaTypeNotAcceptable_ShouldReturnNotAcceptableWithoutBody() {
+		// Arrange
+		HttpMediaTypeNotAcceptableException exception = new HttpMediaTypeNotAcceptableException(
+				List.of(MediaType.APPLICATION_JSON));
+
+		// Act
+		ResponseEntity<Void> response = exceptionHandler.handleMediaTypeNotAcceptable(exception);
+
+		// Assert
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_ACCEPTABLE);
+		assertThat(response.getBody()).isNull();
+	}
+
+	@Test
+	void handleGenericException_ShouldReturnProblemDetail() throws Exception {
 		// Arrange
 		Exception exception = new Exception("Generic exception");
 
 		// Act
-		ProblemDetail problemDetail = exceptionHandler.handleGenericException(exception);
+		ProblemDetail problemDetail = exceptionHandler.handleGenericException(exception,
+				new MockHttpServletResponse());
 
 		// Assert
 		assertThat(problemDetail).isNotNull();
@@ -131,6 +189,19 @@ class GlobalExceptionHandlerTest {
 		assertThat(problemDetail.getProperties()).containsKey("timestamp");
 	}
 
+	@Test
+	void handleGenericException_WhenResponseIsCommitted_ShouldRethrow() throws Exception {
+		// Arrange
+		Exception exception = new IllegalStateException("Cursor closed");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.getOutputStream().write('{');
+		response.flushBuffer();
+
+		// Act & Assert
+		assertThatThrownBy(() -> exceptionHandler.handleGenericException(exception, response)).isSameAs(exception);
+		assertThat(response.getContentAsString()).isEqualTo("{");
+	}
+
 	@Test
 	void handleNoResourceFoundException_ShouldReturnProblemDetail() {
 		// Arrange
@@ -148,4 +219,23 @@ class GlobalExceptionHandlerTest {
 		assertThat(problemDetail.getProperties()).containsKey("timestamp");
 	}
 
+	@Test
+	void handleRateLimitExceeded_ShouldReturnTooManyRequestsWithRetryAfter() {
+		// Arrange
+		RateLimitExceededException exception = new RateLimitExceededException("search", Duration.ofMillis(1500));
+
+		// Act
+		ResponseEntity<ProblemDetail> response = exceptionHandler.handleRateLimitExceeded(exception);
+
+		// Assert
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+		ProblemDetail problemDetail = response.getBody();
+		assertThat(problemDetail).isNotNull();
+		assertThat(problemDetail.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		assertThat(problemDetail.getTitle()).isEqualTo("Too Many Requests");
+		assertThat(problemDetail.getDetail()).isEqualTo("Rate limit exceeded for search endpoints");
+		assertThat(problemDetail.getProperties()).containsKey("timestamp");
+	}
+
 }
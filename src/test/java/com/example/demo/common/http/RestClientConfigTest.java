@@ -0,0 +1,99 @@
+package com.example.demo.common.http;
+
+import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.routing.HttpRoute;
+import org.apache.hc.core5.http.HttpHost;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestClientConfigTest {
+
+	private final RestClientConfig config = new RestClientConfig();
+
+	@Test
+	void outboundConnectionManager_ShouldApplyPoolLimits() {
+		// Arrange
+		OutboundHttpProperties properties = properties(Map.of("api.frankfurter.app", 5));
+
+		// Act
+		try (PoolingHttpClientConnectionManager connectionManager = config.outboundConnectionManager(properties)) {
+
+			// Assert
+			assertThat(connectionManager.getMaxTotal()).isEqualTo(50);
+			assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(10);
+			assertThat(connectionManager
+				.getMaxPerRoute(new HttpRoute(new HttpHost("https", "api.frankfurter.app", 443)))).isEqualTo(5);
+			assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("https", "example.com", 443))))
+				.isEqualTo(10);
+		}
+	}
+
+	@Test
+	void properties_WithNonPositiveHostLimit_ShouldThrowException() {
+		// Act & Assert
+		assertThatThrownBy(() -> properties(Map.of("api.frankfurter.app", 0)))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("connection limit for api.frankfurter.app must be positive");
+	}
+
+	@Test
+	void deadlineRequestFactory_ShouldAbortRequestWhenDeadlinePasses() throws IOException {
+		// Arrange
+		List<Runnable> deadlines = new ArrayList<>();
+		try (CloseableHttpClient httpClient = HttpClients.createMinimal()) {
+			DeadlineRequestFactory factory = new DeadlineRequestFactory(httpClient, deadlines::add);
+			HttpUriRequest request = (HttpUriRequest) factory.createHttpUriRequest(HttpMethod.GET,
+					URI.create("https://api.frankfurter.app/latest?from=USD"));
+
+			// Act
+			deadlines.forEach(Runnable::run);
+
+			// Assert
+			assertThat(deadlines).hasSize(1);
+			assertThat(request.isAborted()).isTrue();
+		}
+	}
+
+	@Test
+	void debugLoggingInterceptor_ShouldPassRequestThrough() throws IOException {
+		// Arrange
+		MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+				URI.create("https://api.frankfurter.app/latest?from=USD"));
+		byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+		ClientHttpResponse expected = new MockClientHttpResponse();
+		ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+		when(execution.execute(request, body)).thenReturn(expected);
+
+		// Act
+		ClientHttpResponse response = RestClientConfig.debugLoggingInterceptor().intercept(request, body, execution);
+
+		// Assert
+		assertThat(response).isSameAs(expected);
+	}
+
+	private static OutboundHttpProperties properties(Map<String, Integer> hostMaxConnections) {
+		return new OutboundHttpProperties(Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofSeconds(1), 50, 10,
+				hostMaxConnections, Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(8));
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.example.demo.common.jfr;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightRecordingEndpointTest {
+
+	private final FlightRecordings recordings = mock(FlightRecordings.class);
+
+	private final FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(recordings);
+
+	@Test
+	void start_WhenRecordingsRejectRequest_ShouldReportInvalidRequest() {
+		// Arrange
+		when(recordings.start(any(), any(), any())).thenThrow(new IllegalArgumentException("Duration too long"));
+
+		// Act & Assert
+		assertThatThrownBy(() -> endpoint.start(null, Duration.ofHours(1), null))
+			.isInstanceOf(InvalidEndpointRequestException.class)
+			.hasMessage("Duration too long");
+	}
+
+	@Test
+	void download_WhenRecordingExists_ShouldReturnFile() {
+		// Arrange
+		when(recordings.dump(7)).thenReturn(Optional.of(Path.of("recording-7.jfr")));
+
+		// Act
+		WebEndpointResponse<Resource> response = endpoint.download(7);
+
+		// Assert
+		assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+		assertThat(response.getBody().getFilename()).isEqualTo("recording-7.jfr");
+	}
+
+	@Test
+	void selectorOperations_WhenRecordingUnknown_ShouldReturnNotFound() {
+		// Arrange
+		when(recordings.dump(7)).thenReturn(Optional.empty());
+		when(recordings.stop(7)).thenReturn(Optional.empty());
+
+		// Act & Assert
+		assertThat(endpoint.download(7).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+		assertThat(endpoint.stop(7).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+		assertThat(endpoint.delete(7).getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+	}
+
+}
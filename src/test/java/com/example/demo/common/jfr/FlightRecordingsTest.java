@@ -0,0 +1,133 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.FlightRecordings.RecordingInfo;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingsTest {
+
+	@TempDir
+	private Path directory;
+
+	private FlightRecordings recordings;
+
+	@AfterEach
+	void tearDown() {
+		if (recordings != null) {
+			recordings.close();
+		}
+	}
+
+	@Test
+	void start_WhenNoDurationGiven_ShouldUseDefaultDurationAndLimits() {
+		// Arrange
+		recordings = new FlightRecordings(properties(2));
+
+		// Act
+		RecordingInfo recording = recordings.start(null, null, DataSize.ofGigabytes(1));
+
+		// Assert
+		assertThat(recording.state()).isEqualTo("RUNNING");
+		assertThat(recording.duration()).isEqualTo(Duration.ofSeconds(30));
+		assertThat(recording.name()).startsWith("on-demand-");
+		assertThat(recordings.list()).extracting(RecordingInfo::id).containsExactly(recording.id());
+	}
+
+	@Test
+	void start_WhenDurationAboveMaximum_ShouldThrow() {
+		// Arrange
+		recordings = new FlightRecordings(properties(2));
+
+		// Act & Assert
+		assertThatThrownBy(() -> recordings.start("too-long", Duration.ofHours(1), null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("at most PT5M");
+		assertThat(recordings.list()).isEmpty();
+	}
+
+	@Test
+	void start_WhenAllRecordingsRunning_ShouldThrow() {
+		// Arrange
+		recordings = new FlightRecordings(properties(1));
+		recordings.start("first", null, null);
+
+		// Act & Assert
+		assertThatThrownBy(() -> recordings.start("second", null, null)).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void start_WhenLimitReachedWithStoppedRecording_ShouldDiscardIt() {
+		// Arrange
+		recordings = new FlightRecordings(properties(1));
+		RecordingInfo first = recordings.start("first", null, null);
+		recordings.stop(first.id());
+
+		// Act
+		RecordingInfo second = recordings.start("second", null, null);
+
+		// Assert
+		assertThat(recordings.list()).extracting(RecordingInfo::id).containsExactly(second.id());
+	}
+
+	@Test
+	void dump_WhenRecordingRunning_ShouldWriteReadableFileAndKeepRunning() throws Exception {
+		// Arrange
+		recordings = new FlightRecordings(properties(2));
+		RecordingInfo recording = recordings.start("dump", null, null);
+
+		// Act
+		Path file = recordings.dump(recording.id()).orElseThrow();
+
+		// Assert
+		assertThat(file).isRegularFile().hasParent(directory);
+		assertThat(RecordingFile.readAllEvents(file)).isNotEmpty();
+		assertThat(recordings.list()).singleElement().extracting(RecordingInfo::state).isEqualTo("RUNNING");
+	}
+
+	@Test
+	void stopAndDelete_ShouldStopThenDiscardRecordingAndFile() {
+		// Arrange
+		recordings = new FlightRecordings(properties(2));
+		RecordingInfo recording = recordings.start("stop", null, null);
+		Path file = recordings.dump(recording.id()).orElseThrow();
+
+		// Act
+		RecordingInfo stopped = recordings.stop(recording.id()).orElseThrow();
+		boolean deleted = recordings.delete(recording.id());
+
+		// Assert
+		assertThat(stopped.state()).isEqualTo("STOPPED");
+		assertThat(deleted).isTrue();
+		assertThat(Files.exists(file)).isFalse();
+		assertThat(recordings.list()).isEmpty();
+	}
+
+	@Test
+	void operations_WhenRecordingUnknown_ShouldReportAbsence() {
+		// Arrange
+		recordings = new FlightRecordings(properties(2));
+
+		// Act & Assert
+		assertThat(recordings.stop(Long.MAX_VALUE)).isEmpty();
+		assertThat(recordings.dump(Long.MAX_VALUE)).isEmpty();
+		assertThat(recordings.delete(Long.MAX_VALUE)).isFalse();
+	}
+
+	private JfrProperties properties(int maxRecordings) {
+		return new JfrProperties(true, "default", Duration.ofSeconds(30), Duration.ofMinutes(5),
+				DataSize.ofMegabytes(50), maxRecordings, directory, new JfrProperties.Metrics(false,
+						Duration.ofMillis(10), Duration.ofMillis(10)),
+				new JfrProperties.Pinning(false, Duration.ofMillis(20), 50, 8));
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.example.demo.common.jfr;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventMetricsTest {
+
+	@Test
+	void start_WhenGarbageCollectionRuns_ShouldRecordPause() throws Exception {
+		// Arrange
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		JfrEventMetrics metrics = new JfrEventMetrics(
+				new JfrProperties.Metrics(true, Duration.ofMillis(10), Duration.ofMillis(10)), meterRegistry);
+
+		// Act
+		metrics.start();
+		try {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+			while (meterRegistry.find(JfrEventMetrics.GC_PAUSE_METRIC).timer() == null
+					&& System.nanoTime() < deadline) {
+				System.gc();
+				Thread.sleep(200);
+			}
+		}
+		finally {
+			metrics.stop();
+		}
+
+		// Assert
+		assertThat(meterRegistry.get(JfrEventMetrics.GC_PAUSE_METRIC).timer().count()).isPositive();
+		assertThat(metrics.isRunning()).isFalse();
+	}
+
+}
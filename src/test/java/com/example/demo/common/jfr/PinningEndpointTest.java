@@ -0,0 +1,48 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.VirtualThreadPinningMonitor.PinningReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PinningEndpointTest {
+
+	private final VirtualThreadPinningMonitor monitor = mock(VirtualThreadPinningMonitor.class);
+
+	private final PinningEndpoint endpoint = new PinningEndpoint(monitor);
+
+	@Test
+	void report_WhenNoLimitGiven_ShouldUseDefaultLimit() {
+		// Arrange
+		PinningReport report = new PinningReport(0, Duration.ZERO, 0, 4, List.of());
+		when(monitor.report(20)).thenReturn(report);
+
+		// Act & Assert
+		assertThat(endpoint.report(null)).isSameAs(report);
+	}
+
+	@Test
+	void report_WhenLimitNotPositive_ShouldReportInvalidRequest() {
+		// Act & Assert
+		assertThatThrownBy(() -> endpoint.report(0)).isInstanceOf(InvalidEndpointRequestException.class)
+			.hasMessage("limit must be positive");
+	}
+
+	@Test
+	void reset_WhenCalled_ShouldResetMonitor() {
+		// Act
+		endpoint.reset();
+
+		// Assert
+		verify(monitor).reset();
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.PinningSites.PinnedSite;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PinningSitesTest {
+
+	private static final List<String> DRIVER_STACK = List.of("java.lang.VirtualThread.parkOnCarrierThread:675",
+			"java.util.concurrent.locks.LockSupport.park:221", "com.mysql.cj.protocol.ReadAheadInputStream.fill:98",
+			"com.mysql.cj.protocol.ReadAheadInputStream.read:143", "com.zaxxer.hikari.pool.ProxyStatement.execute:94");
+
+	private static final List<String> APPENDER_STACK = List.of("java.lang.VirtualThread.parkOnCarrierThread:675",
+			"ch.qos.logback.core.OutputStreamAppender.writeBytes:203");
+
+	@Test
+	void record_WhenSameStackPinsAgain_ShouldAggregateSite() {
+		// Arrange
+		PinningSites sites = new PinningSites(10, 8);
+
+		// Act
+		String site = sites.record(DRIVER_STACK, Duration.ofMillis(30));
+		sites.record(DRIVER_STACK, Duration.ofMillis(50));
+
+		// Assert
+		assertThat(site).isEqualTo("com.mysql.cj.protocol.ReadAheadInputStream.fill");
+		assertThat(sites.count()).isEqualTo(2);
+		assertThat(sites.totalTime()).isEqualTo(Duration.ofMillis(80));
+		PinnedSite pinned = sites.top(10).getFirst();
+		assertThat(pinned.count()).isEqualTo(2);
+		assertThat(pinned.maxTime()).isEqualTo(Duration.ofMillis(50));
+		assertThat(pinned.stackTrace()).isEqualTo(DRIVER_STACK);
+	}
+
+	@Test
+	void record_WhenStacksDifferBelowStackDepth_ShouldCountSameSite() {
+		// Arrange
+		PinningSites sites = new PinningSites(10, 1);
+		List<String> otherCaller = List.of(DRIVER_STACK.get(0), DRIVER_STACK.get(1), DRIVER_STACK.get(2),
+				"com.example.demo.product.domain.ProductService.getProductById:120");
+
+		// Act
+		sites.record(DRIVER_STACK, Duration.ofMillis(30));
+		sites.record(otherCaller, Duration.ofMillis(30));
+
+		// Assert
+		assertThat(sites.top(10)).singleElement().satisfies(site -> {
+			assertThat(site.count()).isEqualTo(2);
+			assertThat(site.stackTrace()).hasSize(3);
+		});
+	}
+
+	@Test
+	void top_WhenSeveralSites_ShouldOrderByTotalTime() {
+		// Arrange
+		PinningSites sites = new PinningSites(10, 8);
+		sites.record(DRIVER_STACK, Duration.ofMillis(30));
+		sites.record(APPENDER_STACK, Duration.ofMillis(40));
+		sites.record(DRIVER_STACK, Duration.ofMillis(30));
+
+		// Act
+		List<PinnedSite> top = sites.top(1);
+
+		// Assert
+		assertThat(top).extracting(PinnedSite::site).containsExactly("com.mysql.cj.protocol.ReadAheadInputStream.fill");
+	}
+
+	@Test
+	void record_WhenSitesFull_ShouldCountNewSitesAsOther() {
+		// Arrange
+		PinningSites sites = new PinningSites(1, 8);
+		sites.record(DRIVER_STACK, Duration.ofMillis(30));
+
+		// Act
+		String site = sites.record(APPENDER_STACK, Duration.ofMillis(40));
+
+		// Assert
+		assertThat(site).isEqualTo(PinningSites.OTHER);
+		assertThat(sites.top(10)).extracting(PinnedSite::site)
+			.containsExactly(PinningSites.OTHER, "com.mysql.cj.protocol.ReadAheadInputStream.fill");
+	}
+
+	@Test
+	void clear_WhenSitesRecorded_ShouldForgetThem() {
+		// Arrange
+		PinningSites sites = new PinningSites(1, 8);
+		sites.record(DRIVER_STACK, Duration.ofMillis(30));
+		sites.record(APPENDER_STACK, Duration.ofMillis(40));
+
+		// Act
+		sites.clear();
+
+		// Assert
+		assertThat(sites.count()).isZero();
+		assertThat(sites.totalTime()).isZero();
+		assertThat(sites.top(10)).isEmpty();
+	}
+
+}
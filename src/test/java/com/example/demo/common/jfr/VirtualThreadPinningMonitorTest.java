@@ -0,0 +1,98 @@
+package com.example.demo.common.jfr;
+
+import com.example.demo.common.jfr.PinningSites.PinnedSite;
+import com.example.demo.common.jfr.VirtualThreadPinningMonitor.PinningReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+	@Test
+	void start_WhenVirtualThreadBlocksWhilePinned_ShouldReportSite() throws Exception {
+		// Arrange
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(
+				new JfrProperties.Pinning(true, Duration.ofMillis(20), 50, 8), meterRegistry);
+		PinningReport report;
+
+		// Act
+		monitor.start();
+		try {
+			// A virtual thread cannot unmount while running a class initializer
+			Thread.ofVirtual().start(() -> new PinsWhileInitializing()).join();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+			do {
+				Thread.sleep(200);
+				report = monitor.report(10);
+			}
+			while (report.pinnedCount() == 0 && System.nanoTime() < deadline);
+		}
+		finally {
+			monitor.stop();
+		}
+
+		// Assert
+		assertThat(report.pinnedTime()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+		assertThat(report.carriers()).isPositive();
+		assertThat(report.sites()).extracting(PinnedSite::site)
+			.contains(PinsWhileInitializing.class.getName() + ".<clinit>");
+		assertThat(meterRegistry.get(VirtualThreadPinningMonitor.PINNED_METRIC).timer().count()).isPositive();
+		assertThat(monitor.isRunning()).isFalse();
+	}
+
+	@Test
+	void reset_WhenSitesReported_ShouldKeepMetrics() {
+		// Arrange
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(
+				new JfrProperties.Pinning(true, Duration.ofMillis(20), 50, 8), meterRegistry);
+
+		// Act
+		monitor.reset();
+
+		// Assert
+		assertThat(monitor.report(10).sites()).isEmpty();
+		assertThat(meterRegistry.get(VirtualThreadPinningMonitor.CARRIERS_METRIC).gauge().value()).isPositive();
+		assertThat(meterRegistry.get(VirtualThreadPinningMonitor.SUBMIT_FAILED_METRIC).counter().count()).isZero();
+	}
+
+	@Test
+	void reset_WhenSitesWerePinned_ShouldRemoveTheirTimers() {
+		// Arrange
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(
+				new JfrProperties.Pinning(true, Duration.ofMillis(20), 1, 8), meterRegistry);
+		monitor.recordPinned(List.of("com.example.Dao.query:10"), Duration.ofMillis(30));
+		monitor.recordPinned(List.of("com.example.Cache.load:20"), Duration.ofMillis(40));
+
+		// Act
+		monitor.reset();
+		monitor.recordPinned(List.of("com.example.Cache.load:20"), Duration.ofMillis(50));
+
+		// Assert
+		assertThat(meterRegistry.find(VirtualThreadPinningMonitor.PINNED_METRIC).timers())
+			.extracting(timer -> timer.getId().getTag("site"))
+			.containsExactly("com.example.Cache.load");
+		assertThat(meterRegistry.get(VirtualThreadPinningMonitor.PINNED_METRIC).timer().count()).isEqualTo(1);
+	}
+
+	static class PinsWhileInitializing {
+
+		static {
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.example.demo.common.latency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyRecorderTest {
+
+	private static final String ENDPOINT = "/api/v1/products/{id}";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final LatencyRecorder recorder = new LatencyRecorder(new LatencyProperties(true, Duration.ofSeconds(15),
+			Duration.ofSeconds(10), Map.of("GET " + ENDPOINT, Duration.ofMillis(50))), meterRegistry);
+
+	@Test
+	void rotate_ShouldPublishPercentilesOfLastInterval() {
+		// Arrange
+		for (int i = 1; i <= 1000; i++) {
+			recorder.record("GET", ENDPOINT, Duration.ofMillis(i).toNanos());
+		}
+
+		// Act
+		recorder.rotate();
+
+		// Assert
+		assertThat(quantile("0.5")).isCloseTo(0.5, within(0.001));
+		assertThat(quantile("0.99")).isCloseTo(0.99, within(0.001));
+		assertThat(quantile("0.999")).isCloseTo(0.999, within(0.001));
+		assertThat(quantile("1.0")).isCloseTo(1.0, within(0.001));
+		assertThat(meterRegistry.get("http.server.latency.count").gauge().value()).isEqualTo(1000);
+	}
+
+	@Test
+	void rotate_ShouldOnlyCoverValuesSinceLastRotation() {
+		// Arrange
+		recorder.record("GET", ENDPOINT, Duration.ofSeconds(2).toNanos());
+		recorder.rotate();
+		recorder.record("GET", ENDPOINT, Duration.ofMillis(3).toNanos());
+
+		// Act
+		recorder.rotate();
+
+		// Assert
+		assertThat(quantile("1.0")).isCloseTo(0.003, within(0.0001));
+		assertThat(meterRegistry.get("http.server.latency.count").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void rotate_WhenIntervalIsEmpty_ShouldPublishZeros() {
+		// Arrange
+		recorder.record("GET", ENDPOINT, Duration.ofMillis(5).toNanos());
+		recorder.rotate();
+
+		// Act
+		recorder.rotate();
+
+		// Assert
+		assertThat(quantile("0.99")).isZero();
+		assertThat(meterRegistry.get("http.server.latency.count").gauge().value()).isZero();
+	}
+
+	@Test
+	void record_WhenSlowerThanObjective_ShouldCountBreach() {
+		// Act
+		recorder.record("GET", ENDPOINT, Duration.ofMillis(20).toNanos());
+		recorder.record("GET", ENDPOINT, Duration.ofMillis(80).toNanos());
+		recorder.record("GET", ENDPOINT, Duration.ofMinutes(5).toNanos());
+
+		// Assert
+		assertThat(meterRegistry.get("http.server.latency.slo.breaches").counter().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("http.server.latency.slo").gauge().value()).isEqualTo(0.05);
+	}
+
+	@Test
+	void record_WhenEndpointHasNoObjective_ShouldNotRegisterSloMeters() {
+		// Act
+		recorder.record("DELETE", ENDPOINT, Duration.ofSeconds(1).toNanos());
+
+		// Assert
+		assertThat(recorder.endpoint("DELETE", ENDPOINT)).isNotNull();
+		assertThat(meterRegistry.find("http.server.latency.slo.breaches").tag("method", "DELETE").counter()).isNull();
+	}
+
+	private double quantile(String quantile) {
+		return meterRegistry.get(LatencyRecorder.LATENCY_METRIC)
+			.tags("method", "GET", "uri", ENDPOINT, "quantile", quantile)
+			.gauge()
+			.value();
+	}
+
+}
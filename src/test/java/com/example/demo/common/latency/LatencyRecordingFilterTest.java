@@ -0,0 +1,49 @@
+package com.example.demo.common.latency;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LatencyRecordingFilterTest {
+
+	private final LatencyRecorder recorder = mock(LatencyRecorder.class);
+
+	private final LatencyRecordingFilter filter = new LatencyRecordingFilter(recorder);
+
+	@Test
+	void doFilter_WhenHandlerMatched_ShouldRecordUnderPattern() throws Exception {
+		// Arrange
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/42");
+		FilterChain chain = (req, res) -> req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+				"/api/v1/products/{id}");
+
+		// Act
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		// Assert
+		verify(recorder).record(eq("GET"), eq("/api/v1/products/{id}"), anyLong());
+	}
+
+	@Test
+	void doFilter_WhenNoHandlerMatched_ShouldNotRecord() throws Exception {
+		// Arrange
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/unknown");
+
+		// Act
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		// Assert
+		verify(recorder, never()).record(anyString(), anyString(), anyLong());
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.example.demo.common.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventRingTest {
+
+	@Test
+	void constructor_WhenCapacityIsNotPowerOfTwo_ShouldThrow() {
+		// Act & Assert
+		assertThatThrownBy(() -> new EventRing<String>(1000)).isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("capacity must be a power of two, but was 1000");
+	}
+
+	@Test
+	void poll_ShouldReturnElementsInOfferOrder() {
+		// Arrange
+		EventRing<String> ring = new EventRing<>(4);
+		ring.offer("a");
+		ring.offer("b");
+
+		// Act & Assert
+		assertThat(ring.size()).isEqualTo(2);
+		assertThat(ring.poll()).isEqualTo("a");
+		assertThat(ring.poll()).isEqualTo("b");
+		assertThat(ring.poll()).isNull();
+		assertThat(ring.size()).isZero();
+	}
+
+	@Test
+	void offer_WhenFull_ShouldRejectUntilSlotIsFreed() {
+		// Arrange
+		EventRing<Integer> ring = new EventRing<>(2);
+		ring.offer(1);
+		ring.offer(2);
+
+		// Act
+		boolean whenFull = ring.offer(3);
+		ring.poll();
+		boolean afterPoll = ring.offer(3);
+
+		// Assert
+		assertThat(whenFull).isFalse();
+		assertThat(afterPoll).isTrue();
+		assertThat(ring.poll()).isEqualTo(2);
+		assertThat(ring.poll()).isEqualTo(3);
+	}
+
+	@Test
+	void offer_FromManyThreads_ShouldDeliverEveryAcceptedElementOnce() throws Exception {
+		// Arrange
+		EventRing<Integer> ring = new EventRing<>(1024);
+		int producers = 4;
+		int perProducer = 10_000;
+		AtomicInteger accepted = new AtomicInteger();
+		List<Integer> received = new ArrayList<>();
+
+		// Act
+		try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+			for (int p = 0; p < producers; p++) {
+				int base = p * perProducer;
+				executor.execute(() -> {
+					for (int i = 0; i < perProducer; i++) {
+						while (!ring.offer(base + i)) {
+							Thread.onSpinWait();
+						}
+						accepted.incrementAndGet();
+					}
+				});
+			}
+			while (received.size() < producers * perProducer) {
+				Integer element = ring.poll();
+				if (element != null) {
+					received.add(element);
+				}
+			}
+		}
+
+		// Assert
+		assertThat(accepted).hasValue(producers * perProducer);
+		assertThat(received).doesNotHaveDuplicates().hasSize(producers * perProducer);
+		assertThat(ring.poll()).isNull();
+	}
+
+}
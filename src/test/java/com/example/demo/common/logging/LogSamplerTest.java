@@ -0,0 +1,57 @@
+package com.example.demo.common.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSamplerTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void tryAcquire_WithinBurst_ShouldLogEveryEvent() {
+		// Arrange
+		LogSampler sampler = new LogSampler(3, 1);
+		long now = System.nanoTime();
+
+		// Act & Assert
+		assertThat(sampler.tryAcquire(now)).isZero();
+		assertThat(sampler.tryAcquire(now)).isZero();
+		assertThat(sampler.tryAcquire(now)).isZero();
+	}
+
+	@Test
+	void tryAcquire_WhenBurstIsExhausted_ShouldSuppressEvents() {
+		// Arrange
+		LogSampler sampler = new LogSampler(1, 1);
+		long now = System.nanoTime();
+		sampler.tryAcquire(now);
+
+		// Act
+		long second = sampler.tryAcquire(now);
+		long third = sampler.tryAcquire(now);
+
+		// Assert
+		assertThat(second).isEqualTo(LogSampler.SUPPRESSED);
+		assertThat(third).isEqualTo(LogSampler.SUPPRESSED);
+	}
+
+	@Test
+	void tryAcquire_AfterSuppression_ShouldReportSuppressedCountOnce() {
+		// Arrange
+		LogSampler sampler = new LogSampler(1, 1);
+		long now = System.nanoTime();
+		sampler.tryAcquire(now);
+		sampler.tryAcquire(now);
+		sampler.tryAcquire(now);
+
+		// Act
+		long afterRefill = sampler.tryAcquire(now + SECOND);
+		long next = sampler.tryAcquire(now + 2 * SECOND);
+
+		// Assert
+		assertThat(afterRefill).isEqualTo(2);
+		assertThat(next).isZero();
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.example.demo.common.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggingMetricsTest {
+
+	private final LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+	private final Logger logger = context.getLogger("logging-metrics-test");
+
+	private final RingBufferAppender appender = new RingBufferAppender();
+
+	@BeforeEach
+	void setUp() {
+		ListAppender<ILoggingEvent> delegate = new ListAppender<>();
+		delegate.setContext(context);
+		delegate.start();
+		appender.setContext(context);
+		appender.setName("TEST_RING");
+		appender.addAppender(delegate);
+		appender.start();
+		logger.addAppender(appender);
+	}
+
+	@AfterEach
+	void tearDown() {
+		logger.detachAppender(appender);
+		appender.stop();
+	}
+
+	@Test
+	void bindTo_ShouldRegisterRingMeters() {
+		// Arrange
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+		// Act
+		new LoggingMetrics().bindTo(registry);
+
+		// Assert
+		assertThat(registry.get("logging.ring.capacity").tag("appender", "TEST_RING").gauge().value())
+			.isEqualTo(8192);
+		assertThat(registry.get("logging.ring.queued").tag("appender", "TEST_RING").gauge().value()).isZero();
+		assertThat(registry.get("logging.ring.dropped").tag("appender", "TEST_RING").functionCounters()).hasSize(2);
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.example.demo.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferAppenderTest {
+
+	private final LoggerContext context = new LoggerContext();
+
+	private final RingBufferAppender appender = new RingBufferAppender();
+
+	@BeforeEach
+	void setUp() {
+		appender.setContext(context);
+		appender.setName("RING");
+	}
+
+	@AfterEach
+	void tearDown() {
+		appender.stop();
+	}
+
+	@Test
+	void start_WithoutAttachedAppender_ShouldNotStart() {
+		// Act
+		appender.start();
+
+		// Assert
+		assertThat(appender.isStarted()).isFalse();
+	}
+
+	@Test
+	void doAppend_ShouldDeliverEventsToAttachedAppenderInOrder() {
+		// Arrange
+		ListAppender<ILoggingEvent> delegate = new ListAppender<>();
+		delegate.setContext(context);
+		delegate.start();
+		appender.addAppender(delegate);
+		appender.start();
+
+		// Act
+		appender.doAppend(event(Level.INFO, "first"));
+		appender.doAppend(event(Level.WARN, "second"));
+		appender.stop();
+
+		// Assert
+		assertThat(delegate.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("first", "second");
+		assertThat(appender.getDiscardedCount()).isZero();
+		assertThat(appender.getOverflowedCount()).isZero();
+	}
+
+	@Test
+	void doAppend_WhenRingIsBacklogged_ShouldShedLowLevelsThenDropWhenFull() throws Exception {
+		// Arrange
+		BlockingAppender delegate = new BlockingAppender();
+		delegate.setContext(context);
+		delegate.start();
+		appender.addAppender(delegate);
+		appender.setCapacity(4);
+		appender.setDiscardingWatermark(0.5);
+		appender.start();
+		appender.doAppend(event(Level.INFO, "in flight"));
+		assertThat(delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// Act
+		appender.doAppend(event(Level.INFO, "queued 1"));
+		appender.doAppend(event(Level.INFO, "queued 2"));
+		appender.doAppend(event(Level.INFO, "discarded"));
+		appender.doAppend(event(Level.WARN, "warning 1"));
+		appender.doAppend(event(Level.ERROR, "error 1"));
+		appender.doAppend(event(Level.ERROR, "overflow"));
+
+		// Assert
+		assertThat(appender.getQueueSize()).isEqualTo(4);
+		assertThat(appender.getDiscardedCount()).isEqualTo(1);
+		assertThat(appender.getOverflowedCount()).isEqualTo(1);
+		delegate.release.countDown();
+	}
+
+	@Test
+	void doAppend_WhenWorkerIsIdle_ShouldWakeItUp() throws Exception {
+		// Arrange
+		QueueAppender delegate = new QueueAppender();
+		delegate.setContext(context);
+		delegate.start();
+		appender.addAppender(delegate);
+		appender.start();
+		appender.doAppend(event(Level.INFO, "first"));
+		assertThat(delegate.messages.poll(5, TimeUnit.SECONDS)).isEqualTo("first");
+
+		// Act
+		appender.doAppend(event(Level.INFO, "after idle"));
+
+		// Assert
+		assertThat(delegate.messages.poll(5, TimeUnit.SECONDS)).isEqualTo("after idle");
+	}
+
+	private LoggingEvent event(Level level, String message) {
+		return new LoggingEvent(RingBufferAppenderTest.class.getName(), context.getLogger("test"), level, message,
+				null, null);
+	}
+
+	static class QueueAppender extends AppenderBase<ILoggingEvent> {
+
+		final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			messages.add(event.getFormattedMessage());
+		}
+
+	}
+
+	static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+		final CountDownLatch entered = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			entered.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+	}
+
+}
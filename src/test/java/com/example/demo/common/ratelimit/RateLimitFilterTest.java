@@ -0,0 +1,65 @@
+package com.example.demo.common.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class RateLimitFilterTest {
+
+	private final RateLimiter rateLimiter = mock(RateLimiter.class);
+
+	private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+
+	private final RateLimitFilter filter = new RateLimitFilter(rateLimiter, exceptionResolver);
+
+	@Test
+	void doFilter_WhenPermitted_ShouldContinueChainAndIdentifyClientByAddress() throws Exception {
+		// Arrange
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/search");
+		request.setRemoteAddr("10.0.0.2");
+		// Unauthenticated, so it must not select the bucket
+		request.addHeader("X-API-Key", "partner-key");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = mock(FilterChain.class);
+
+		// Act
+		filter.doFilter(request, response, chain);
+
+		// Assert
+		verify(rateLimiter).acquire("GET", "/api/v1/products/search", "10.0.0.2");
+		verify(chain).doFilter(request, response);
+		verifyNoInteractions(exceptionResolver);
+	}
+
+	@Test
+	void doFilter_WhenRejected_ShouldResolveExceptionAndStopChain() throws Exception {
+		// Arrange
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/search");
+		request.setRemoteAddr("10.0.0.1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = mock(FilterChain.class);
+		RateLimitExceededException exception = new RateLimitExceededException("search", Duration.ofSeconds(1));
+		doThrow(exception).when(rateLimiter).acquire("GET", "/api/v1/products/search", "10.0.0.1");
+
+		// Act
+		filter.doFilter(request, response, chain);
+
+		// Assert
+		verify(exceptionResolver).resolveException(eq(request), eq(response), isNull(), eq(exception));
+		verify(chain, never()).doFilter(any(), any());
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.example.demo.common.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private RateLimiter rateLimiter;
+
+	@BeforeEach
+	void setUp() {
+		Map<String, RateLimitProperties.Group> groups = new LinkedHashMap<>();
+		groups.put("search",
+				new RateLimitProperties.Group(List.of("/api/v1/products/search"), List.of("GET"), 2, 0.001));
+		groups.put("read", new RateLimitProperties.Group(List.of("/api/v1/products/**"), List.of("GET"), 100, 100));
+		meterRegistry = new SimpleMeterRegistry();
+		rateLimiter = new RateLimiter(new RateLimitProperties(true, 1000, Duration.ofMinutes(1), groups),
+				meterRegistry);
+	}
+
+	@Test
+	void acquire_WhenGroupExhausted_ShouldThrowRateLimitExceededException() {
+		// Arrange
+		rateLimiter.acquire("GET", "/api/v1/products/search", "client-a");
+		rateLimiter.acquire("GET", "/api/v1/products/search", "client-a");
+
+		// Act & Assert
+		assertThatThrownBy(() -> rateLimiter.acquire("GET", "/api/v1/products/search", "client-a"))
+			.isInstanceOf(RateLimitExceededException.class)
+			.satisfies(ex -> {
+				RateLimitExceededException rateLimitException = (RateLimitExceededException) ex;
+				assertThat(rateLimitException.getGroup()).isEqualTo("search");
+				assertThat(rateLimitException.getRetryAfter()).isPositive();
+			});
+		assertThat(meterRegistry.get(RateLimiter.REJECTED_METRIC).tag("group", "search").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void acquire_ShouldKeepSeparateBucketsPerClient() {
+		// Arrange
+		rateLimiter.acquire("GET", "/api/v1/products/search", "client-a");
+		rateLimiter.acquire("GET", "/api/v1/products/search", "client-a");
+
+		// Act & Assert
+		assertThatCode(() -> rateLimiter.acquire("GET", "/api/v1/products/search", "client-b"))
+			.doesNotThrowAnyException();
+		assertThat(rateLimiter.bucketCount()).isEqualTo(2);
+	}
+
+	@Test
+	void acquire_WhenPathOrMethodIsNotLimited_ShouldAlwaysAllow() {
+		// Act & Assert
+		assertThatCode(() -> {
+			for (int i = 0; i < 10; i++) {
+				rateLimiter.acquire("POST", "/api/v1/products/search", "client-a");
+				rateLimiter.acquire("GET", "/actuator/health", "client-a");
+			}
+		}).doesNotThrowAnyException();
+		assertThat(rateLimiter.bucketCount()).isZero();
+	}
+
+	@Test
+	void bucketKey_ShouldNotRevealClientInTextForm() {
+		// Arrange
+		RateLimiter.BucketKey key = new RateLimiter.BucketKey("search", "203.0.113.7");
+
+		// Act
+		String text = key.toString();
+
+		// Assert
+		assertThat(text).startsWith("BucketKey[group=search, client=").doesNotContain("203.0.113.7");
+		assertThat(text).isEqualTo(new RateLimiter.BucketKey("search", "203.0.113.7").toString());
+	}
+
+}
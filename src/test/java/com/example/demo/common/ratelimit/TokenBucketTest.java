@@ -0,0 +1,83 @@
+package com.example.demo.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void tryConsume_WhenBucketIsFull_ShouldAllowBurstUpToCapacity() {
+		// Arrange
+		TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+		// Act & Assert
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isZero();
+		assertThat(bucket.tryConsume(0)).isEqualTo(SECOND);
+	}
+
+	@Test
+	void tryConsume_AfterRefillPeriod_ShouldAllowAgain() {
+		// Arrange
+		TokenBucket bucket = new TokenBucket(1, 2, 0);
+		bucket.tryConsume(0);
+
+		// Act
+		long early = bucket.tryConsume(SECOND / 4);
+		long onTime = bucket.tryConsume(SECOND / 2);
+
+		// Assert
+		assertThat(early).isEqualTo(SECOND / 4);
+		assertThat(onTime).isZero();
+	}
+
+	@Test
+	void tryConsume_WhenIdleForLong_ShouldNotAccumulateBeyondCapacity() {
+		// Arrange
+		TokenBucket bucket = new TokenBucket(2, 10, 0);
+
+		// Act
+		long now = 60 * SECOND;
+		int granted = (int) IntStream.range(0, 5).filter(i -> bucket.tryConsume(now) == 0).count();
+
+		// Assert
+		assertThat(granted).isEqualTo(2);
+	}
+
+	@Test
+	void tryConsume_WhenContended_ShouldNeverGrantMoreThanCapacity() {
+		// Arrange
+		TokenBucket bucket = new TokenBucket(100, 0.001, 0);
+		AtomicInteger granted = new AtomicInteger();
+
+		// Act
+		try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+			for (int i = 0; i < 1000; i++) {
+				executor.submit(() -> {
+					if (bucket.tryConsume(0) == 0) {
+						granted.incrementAndGet();
+					}
+				});
+			}
+		}
+
+		// Assert
+		assertThat(granted).hasValue(100);
+	}
+
+	@Test
+	void constructor_WhenCapacityIsNotPositive_ShouldThrowException() {
+		assertThatThrownBy(() -> new TokenBucket(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.example.demo.common.sql;
+
+import com.example.demo.common.sql.SlowQueryLog.SlowQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JdbcTimingListenerTest {
+
+	private SlowQueryLog slowQueryLog;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// Every statement is slow, so each one is kept
+		slowQueryLog = new SlowQueryLog(new SlowQueryProperties(true, Duration.ZERO, 10), new SimpleMeterRegistry());
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("slowQueryLog", slowQueryLog);
+		JdbcTimingListener listener = new JdbcTimingListener(beanFactory.getBeanProvider(SlowQueryLog.class));
+		DataSource target = new DriverManagerDataSource("jdbc:h2:mem:jdbc-timing;DB_CLOSE_DELAY=-1", "sa", "");
+		DataSource dataSource = ProxyDataSourceBuilder.create(target)
+			.listener(listener)
+			.methodListener(listener)
+			.proxyResultSet()
+			.build();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS item");
+		jdbcTemplate.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+		jdbcTemplate.batchUpdate("INSERT INTO item VALUES (?, ?)",
+				List.of(new Object[] { 1L, "a" }, new Object[] { 2L, "b" }, new Object[] { 3L, "c" }));
+		slowQueryLog.clear();
+		JdbcTime.current().claimAcquireNanos();
+	}
+
+	@Test
+	void query_WhenResultSetClosed_ShouldRecordRowsAndParameterTypes() {
+		// Act
+		jdbcTemplate.queryForList("SELECT name FROM item WHERE id > ? AND name <> 'x'", String.class, 1L);
+
+		// Assert
+		assertThat(slowQueryLog.slowest()).singleElement().satisfies(query -> {
+			assertThat(query.sql()).isEqualTo("SELECT name FROM item WHERE id > ? AND name <> ?");
+			assertThat(query.parameters()).containsExactly("Long");
+			assertThat(query.rows()).isEqualTo(2);
+			assertThat(query.batchSize()).isEqualTo(1);
+			assertThat(query.duration()).isPositive();
+		});
+	}
+
+	@Test
+	void batchUpdate_WhenExecuted_ShouldRecordBatchSizeAndUpdatedRows() {
+		// Act
+		jdbcTemplate.batchUpdate("UPDATE item SET name = ? WHERE id = ?",
+				List.of(new Object[] { "x", 1L }, new Object[] { "y", 2L }));
+
+		// Assert
+		assertThat(slowQueryLog.slowest()).extracting(SlowQuery::batchSize, SlowQuery::rows)
+			.containsExactly(tuple(2, 2L));
+	}
+
+	@Test
+	void query_WhenConnectionAcquired_ShouldRecordAcquireAndExecutionTime() {
+		// Arrange
+		long executionBefore = JdbcTime.current().executionNanos();
+
+		// Act
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item", Long.class);
+
+		// Assert
+		assertThat(JdbcTime.current().claimAcquireNanos()).isPositive();
+		assertThat(JdbcTime.current().executionNanos()).isGreaterThan(executionBefore);
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.example.demo.common.sql;
+
+import org.assertj.core.api.AbstractAssert;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * AssertJ assertions for SQL statement budgets. Use {@link QueryStats#measure(Runnable)}
+ * around service calls, or the {@code X-SQL-*} headers of a MockMvc response, to fail a
+ * test when a code path starts running more statements than it should.
+ */
+public class QueryStatsAssert extends AbstractAssert<QueryStatsAssert, QueryStatsAssert.Observed> {
+
+	private QueryStatsAssert(Observed actual) {
+		super(actual, QueryStatsAssert.class);
+	}
+
+	/**
+	 * Starts assertions on measured statistics.
+	 * @param stats the statistics returned by {@link QueryStats#measure(Runnable)}
+	 * @return the assertion
+	 */
+	public static QueryStatsAssert assertThatQueries(QueryStats stats) {
+		return new QueryStatsAssert(new Observed(stats.statements(), stats.rows(), stats.maxRepeats(),
+				stats.mostRepeatedStatement()));
+	}
+
+	/**
+	 * Starts assertions on the statistics returned in the response headers. Repeated
+	 * statements are not reported in headers, so {@link #hasNoRepeatedStatements()} is not
+	 * available.
+	 * @param response the response of a request with SQL statistics headers enabled
+	 * @return the assertion
+	 */
+	public static QueryStatsAssert assertThatQueries(MockHttpServletResponse response) {
+		String statements = response.getHeader(QueryStatsFilter.STATEMENTS_HEADER);
+		String rows = response.getHeader(QueryStatsFilter.ROWS_HEADER);
+		if (statements == null || rows == null) {
+			throw new AssertionError("Expected response to carry " + QueryStatsFilter.STATEMENTS_HEADER + " and "
+					+ QueryStatsFilter.ROWS_HEADER + " headers; is sql.stats.response-headers enabled?");
+		}
+		return new QueryStatsAssert(new Observed(Integer.parseInt(statements), Long.parseLong(rows), -1, null));
+	}
+
+	/**
+	 * Verifies that no more than the given number of statements ran.
+	 * @param budget the statement budget
+	 * @return this assertion
+	 */
+	public QueryStatsAssert hasStatementsAtMost(int budget) {
+		isNotNull();
+		if (actual.statements() > budget) {
+			failWithMessage("Expected at most <%d> SQL statements but <%d> ran", budget, actual.statements());
+		}
+		return this;
+	}
+
+	/**
+	 * Verifies that exactly the given number of statements ran.
+	 * @param expected the expected statement count
+	 * @return this assertion
+	 */
+	public QueryStatsAssert hasStatements(int expected) {
+		isNotNull();
+		if (actual.statements() != expected) {
+			failWithMessage("Expected <%d> SQL statements but <%d> ran", expected, actual.statements());
+		}
+		return this;
+	}
+
+	/**
+	 * Verifies that no more than the given number of rows were read.
+	 * @param budget the row budget
+	 * @return this assertion
+	 */
+	public QueryStatsAssert hasRowsAtMost(long budget) {
+		isNotNull();
+		if (actual.rows() > budget) {
+			failWithMessage("Expected at most <%d> rows to be read but <%d> were", budget, actual.rows());
+		}
+		return this;
+	}
+
+	/**
+	 * Verifies that no statement ran more than once, the signature of an N+1 query.
+	 * @return this assertion
+	 */
+	public QueryStatsAssert hasNoRepeatedStatements() {
+		isNotNull();
+		if (actual.maxRepeats() < 0) {
+			throw new IllegalStateException("Repeated statements are only known for measured QueryStats");
+		}
+		if (actual.maxRepeats() > 1) {
+			failWithMessage("Expected no repeated SQL statements but <%s> ran <%d> times",
+					actual.mostRepeatedStatement(), actual.maxRepeats());
+		}
+		return this;
+	}
+
+	/**
+	 * The statistics under assertion; {@code maxRepeats} is -1 when not known.
+	 */
+	record Observed(int statements, long rows, int maxRepeats, String mostRepeatedStatement) {
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.example.demo.common.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static com.example.demo.common.sql.QueryStatsAssert.assertThatQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatsFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void doFilter_WhenHeadersEnabled_ShouldAddHeadersBeforeBodyIsWritten() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, true, 5), meterRegistry);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = (req, res) -> {
+			runStatement("SELECT * FROM products WHERE id = ?", 2);
+			res.getWriter().write("{}");
+			res.flushBuffer();
+			// Runs after the response is committed, so only the metrics see it
+			runStatement("SELECT count(*) FROM products", 1);
+		};
+
+		// Act
+		filter.doFilter(matchedRequest(), response, chain);
+
+		// Assert
+		assertThatQueries(response).hasStatements(1).hasRowsAtMost(2);
+		assertThat(response.getHeader(QueryStatsFilter.TIME_HEADER)).isNotNull();
+		assertThat(meterRegistry.get(QueryStatsFilter.STATEMENTS_METRIC)
+			.tag("uri", "/api/v1/products/{id}")
+			.summary()
+			.totalAmount()).isEqualTo(2);
+		assertThat(meterRegistry.get(QueryStatsFilter.ROWS_METRIC).summary().totalAmount()).isEqualTo(3);
+		assertThat(QueryStats.current()).isNull();
+	}
+
+	@Test
+	void doFilter_WhenNothingWritten_ShouldAddHeadersAfterChain() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, true, 5), meterRegistry);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		filter.doFilter(matchedRequest(), response, (req, res) -> runStatement("DELETE FROM products", 0));
+
+		// Assert
+		assertThatQueries(response).hasStatements(1).hasRowsAtMost(0);
+	}
+
+	@Test
+	void doFilter_WhenResponseStreamed_ShouldOnlyRecordMetrics() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, true, 5), meterRegistry);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = (req, res) -> {
+			req.setAttribute(QueryStats.STREAMED_RESPONSE_ATTRIBUTE, Boolean.TRUE);
+			res.getOutputStream();
+			runStatement("SELECT * FROM products", 100);
+		};
+
+		// Act
+		filter.doFilter(matchedRequest(), response, chain);
+
+		// Assert
+		assertThat(response.getHeader(QueryStatsFilter.STATEMENTS_HEADER)).isNull();
+		assertThat(meterRegistry.get(QueryStatsFilter.ROWS_METRIC).summary().totalAmount()).isEqualTo(100);
+	}
+
+	@Test
+	void doFilter_WhenHeadersDisabled_ShouldOnlyRecordMetrics() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, false, 5), meterRegistry);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		filter.doFilter(matchedRequest(), response, (req, res) -> runStatement("SELECT 1", 1));
+
+		// Assert
+		assertThat(response.getHeader(QueryStatsFilter.STATEMENTS_HEADER)).isNull();
+		assertThat(meterRegistry.get(QueryStatsFilter.STATEMENTS_METRIC).summary().count()).isEqualTo(1);
+	}
+
+	@Test
+	void doFilter_WhenStatementRepeatedAboveThreshold_ShouldCountLikelyNPlusOne() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, false, 3), meterRegistry);
+		FilterChain chain = (req, res) -> {
+			for (int i = 0; i < 4; i++) {
+				runStatement("SELECT * FROM products WHERE id = ?", 1);
+			}
+		};
+
+		// Act
+		filter.doFilter(matchedRequest(), new MockHttpServletResponse(), chain);
+
+		// Assert
+		assertThat(meterRegistry.get(QueryStatsFilter.REPEATED_METRIC).counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void doFilter_WhenEndpointCalledAgain_ShouldRecordOnSameMeters() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, false, 5), meterRegistry);
+
+		// Act
+		filter.doFilter(matchedRequest(), new MockHttpServletResponse(), (req, res) -> runStatement("SELECT 1", 1));
+		filter.doFilter(matchedRequest(), new MockHttpServletResponse(), (req, res) -> runStatement("SELECT 1", 1));
+
+		// Assert
+		assertThat(meterRegistry.get(QueryStatsFilter.STATEMENTS_METRIC).summaries()).hasSize(1);
+		assertThat(meterRegistry.get(QueryStatsFilter.STATEMENTS_METRIC).summary().count()).isEqualTo(2);
+	}
+
+	@Test
+	void doFilter_WhenNoHandlerMatched_ShouldNotRecordMetrics() throws Exception {
+		// Arrange
+		QueryStatsFilter filter = new QueryStatsFilter(new QueryStatsProperties(true, false, 5), meterRegistry);
+
+		// Act
+		filter.doFilter(new MockHttpServletRequest("GET", "/unknown"), new MockHttpServletResponse(),
+				(req, res) -> runStatement("SELECT 1", 1));
+
+		// Assert
+		assertThat(meterRegistry.find(QueryStatsFilter.STATEMENTS_METRIC).summary()).isNull();
+	}
+
+	private static MockHttpServletRequest matchedRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/42");
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/products/{id}");
+		return request;
+	}
+
+	private static void runStatement(String sql, int rows) {
+		QueryStats stats = QueryStats.current();
+		stats.recordStatement(sql, 1, 1_000);
+		for (int i = 0; i < rows; i++) {
+			stats.recordRow();
+		}
+	}
+
+}
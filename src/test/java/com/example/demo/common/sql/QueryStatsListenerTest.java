@@ -0,0 +1,116 @@
+package com.example.demo.common.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static com.example.demo.common.sql.QueryStatsAssert.assertThatQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryStatsListenerTest {
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		DataSource target = new DriverManagerDataSource("jdbc:h2:mem:query-stats;DB_CLOSE_DELAY=-1", "sa", "");
+		QueryStatsListener listener = new QueryStatsListener();
+		DataSource dataSource = ProxyDataSourceBuilder.create(target)
+			.listener(listener)
+			.methodListener(listener)
+			.proxyResultSet()
+			.build();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS item");
+		jdbcTemplate.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+		jdbcTemplate.batchUpdate("INSERT INTO item VALUES (?, ?)",
+				List.of(new Object[] { 1, "a" }, new Object[] { 2, "b" }, new Object[] { 3, "c" }));
+	}
+
+	@Test
+	void measure_WhenQueryReadsRows_ShouldCountStatementAndRows() {
+		// Act
+		QueryStats stats = QueryStats
+			.measure(() -> jdbcTemplate.queryForList("SELECT name FROM item ORDER BY id", String.class));
+
+		// Assert
+		assertThat(stats.statements()).isEqualTo(1);
+		assertThat(stats.rows()).isEqualTo(3);
+		assertThat(stats.jdbcTime()).isPositive();
+		assertThatQueries(stats).hasStatementsAtMost(1).hasNoRepeatedStatements();
+	}
+
+	@Test
+	void measure_WhenStatementRunsPerRow_ShouldReportRepeats() {
+		// Act
+		QueryStats stats = QueryStats.measure(() -> {
+			for (long id = 1; id <= 3; id++) {
+				jdbcTemplate.queryForObject("SELECT name FROM item WHERE id = ?", String.class, id);
+			}
+		});
+
+		// Assert
+		assertThat(stats.statements()).isEqualTo(3);
+		assertThat(stats.maxRepeats()).isEqualTo(3);
+		assertThat(stats.distinctStatements()).isEqualTo(1);
+		assertThat(stats.mostRepeatedStatement()).isEqualTo("SELECT name FROM item WHERE id = ?");
+		assertThatThrownBy(() -> assertThatQueries(stats).hasNoRepeatedStatements()).isInstanceOf(AssertionError.class)
+			.hasMessageContaining("ran <3> times");
+	}
+
+	@Test
+	void measure_WhenBatchExecuted_ShouldCountEachParameterSet() {
+		// Act
+		QueryStats stats = QueryStats.measure(() -> jdbcTemplate.batchUpdate("UPDATE item SET name = ? WHERE id = ?",
+				List.of(new Object[] { "x", 1 }, new Object[] { "y", 2 })));
+
+		// Assert
+		assertThat(stats.statements()).isEqualTo(2);
+		assertThat(stats.rows()).isZero();
+	}
+
+	@Test
+	void measure_WhenNested_ShouldKeepStatisticsSeparate() {
+		// Act
+		QueryStats[] inner = new QueryStats[1];
+		QueryStats outer = QueryStats.measure(() -> {
+			jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+			inner[0] = QueryStats.measure(() -> jdbcTemplate.queryForList("SELECT name FROM item", String.class));
+		});
+
+		// Assert
+		assertThat(outer.statements()).isEqualTo(1);
+		assertThat(inner[0].statements()).isEqualTo(1);
+		assertThat(QueryStats.current()).isNull();
+	}
+
+	@Test
+	void query_WhenNotMeasured_ShouldNotFail() {
+		// Act
+		List<String> names = jdbcTemplate.queryForList("SELECT name FROM item", String.class);
+
+		// Assert
+		assertThat(names).hasSize(3);
+		assertThat(QueryStats.current()).isNull();
+	}
+
+	@Test
+	void hasStatementsAtMost_WhenBudgetExceeded_ShouldFail() {
+		// Arrange
+		QueryStats stats = QueryStats.measure(() -> {
+			jdbcTemplate.queryForList("SELECT id FROM item", Long.class);
+			jdbcTemplate.queryForList("SELECT name FROM item", String.class);
+		});
+
+		// Act & Assert
+		assertThatThrownBy(() -> assertThatQueries(stats).hasStatementsAtMost(1)).isInstanceOf(AssertionError.class)
+			.hasMessageContaining("Expected at most <1> SQL statements but <2> ran");
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.example.demo.common.sql;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.Repository;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryTimingAspectTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ItemRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		JdbcItemRepository target = new JdbcItemRepository();
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.addAspect(new RepositoryTimingAspect(meterRegistry));
+		repository = factory.getProxy();
+		target.self = repository;
+		JdbcTime.current().claimAcquireNanos();
+	}
+
+	@Test
+	void time_WhenTransactionAcquiredConnectionBefore_ShouldChargeWaitToFirstCall() {
+		// Arrange
+		JdbcTime.current().recordAcquire(Duration.ofMillis(40).toNanos());
+
+		// Act
+		repository.findName(1);
+		repository.findName(2);
+
+		// Assert
+		Timer acquire = timer(RepositoryTimingAspect.ACQUIRE_METRIC, "findName");
+		assertThat(acquire.count()).isEqualTo(2);
+		assertThat(acquire.max(TimeUnit.MILLISECONDS)).isEqualTo(40);
+		assertThat(acquire.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+		assertThat(timer(RepositoryTimingAspect.EXECUTION_METRIC, "findName").totalTime(TimeUnit.MILLISECONDS))
+			.isEqualTo(10);
+	}
+
+	@Test
+	void time_WhenRepositoryCallsItself_ShouldTimeOutermostCallOnly() {
+		// Act
+		repository.findNames();
+
+		// Assert
+		assertThat(timer(RepositoryTimingAspect.EXECUTION_METRIC, "findNames").totalTime(TimeUnit.MILLISECONDS))
+			.isEqualTo(10);
+		assertThat(meterRegistry.find(RepositoryTimingAspect.EXECUTION_METRIC).tag("method", "findName").timer())
+			.isNull();
+		assertThat(JdbcTime.current().caller()).isNull();
+	}
+
+	private Timer timer(String name, String method) {
+		return meterRegistry.get(name).tag("repository", "ItemRepository").tag("method", method).timer();
+	}
+
+	interface ItemRepository extends Repository<Object, Long> {
+
+		String findName(long id);
+
+		String findNames();
+
+	}
+
+	static class JdbcItemRepository implements ItemRepository {
+
+		ItemRepository self;
+
+		@Override
+		public String findName(long id) {
+			assertThat(JdbcTime.current().caller()).startsWith("ItemRepository.findName");
+			JdbcTime.current().recordExecution(Duration.ofMillis(5).toNanos());
+			return "item-" + id;
+		}
+
+		@Override
+		public String findNames() {
+			return self.findName(1) + self.findName(2);
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.example.demo.common.sql;
+
+import com.example.demo.common.sql.SlowQueryLog.SlowQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryLogTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void normalize_WhenSqlHasLiterals_ShouldReplaceThemWithPlaceholders() {
+		// Act
+		String normalized = SlowQueryLog.normalize("""
+				select p1_0.id, p1_0.name from product p1_0
+				where p1_0.name = 'O''Brien' and p1_0.price > 10.5 and p1_0.id in (?, ?, ?)
+				limit 20""");
+
+		// Assert
+		assertThat(normalized).isEqualTo("select p1_0.id, p1_0.name from product p1_0 "
+				+ "where p1_0.name = ? and p1_0.price > ? and p1_0.id in (?...) limit ?");
+	}
+
+	@Test
+	void record_WhenFull_ShouldKeepSlowestStatements() {
+		// Arrange
+		SlowQueryLog log = new SlowQueryLog(new SlowQueryProperties(true, Duration.ofMillis(100), 2), meterRegistry);
+
+		// Act
+		log.record(query("select 1", 300));
+		log.record(query("select 2", 150));
+		log.record(query("select 3", 500));
+		log.record(query("select 4", 120));
+
+		// Assert
+		assertThat(log.slowest()).extracting(SlowQuery::sql).containsExactly("select 3", "select 1");
+		assertThat(meterRegistry.get(SlowQueryLog.SLOW_METRIC).counter().count()).isEqualTo(4);
+	}
+
+	@Test
+	void isSlow_WhenBelowThreshold_ShouldReturnFalse() {
+		// Arrange
+		SlowQueryLog log = new SlowQueryLog(new SlowQueryProperties(true, Duration.ofMillis(100), 2), meterRegistry);
+
+		// Act & Assert
+		assertThat(log.isSlow(Duration.ofMillis(99).toNanos())).isFalse();
+		assertThat(log.isSlow(Duration.ofMillis(100).toNanos())).isTrue();
+	}
+
+	@Test
+	void clear_WhenStatementsKept_ShouldRemoveThem() {
+		// Arrange
+		SlowQueryLog log = new SlowQueryLog(new SlowQueryProperties(true, Duration.ofMillis(100), 2), meterRegistry);
+		log.record(query("select 1", 300));
+
+		// Act
+		log.clear();
+
+		// Assert
+		assertThat(log.slowest()).isEmpty();
+	}
+
+	private static SlowQuery query(String sql, long millis) {
+		return new SlowQuery(Instant.now(), sql, List.of(), 1, Duration.ofMillis(millis), 1L, null);
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.example.demo.common.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveSamplerTest {
+
+	private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+	private static final String SPAN_ID = "b7ad6b7169203331";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void shouldSample_WhenEndpointRateIsUsedUp_ShouldRecordWithoutSampling() {
+		// Arrange
+		AdaptiveSampler sampler = new AdaptiveSampler(2, 10, true, meterRegistry);
+		Attributes request = request("GET", "/api/v1/products/1");
+
+		// Act
+		SamplingDecision first = decide(sampler, Context.root(), request);
+		SamplingDecision second = decide(sampler, Context.root(), request("GET", "/api/v1/products/2"));
+		SamplingDecision third = decide(sampler, Context.root(), request);
+
+		// Assert
+		assertThat(first).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+		assertThat(second).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+		assertThat(third).isEqualTo(SamplingDecision.RECORD_ONLY);
+		assertThat(meterRegistry.get(AdaptiveSampler.DECISIONS_METRIC).tag("decision", "recorded").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void shouldSample_ShouldKeepSeparateRatePerEndpoint() {
+		// Arrange
+		AdaptiveSampler sampler = new AdaptiveSampler(0.001, 10, false, meterRegistry);
+		decide(sampler, Context.root(), request("GET", "/api/v1/products/1"));
+
+		// Act
+		SamplingDecision sameEndpoint = decide(sampler, Context.root(), request("GET", "/api/v1/products/7"));
+		SamplingDecision otherEndpoint = decide(sampler, Context.root(), request("GET", "/api/v1/products"));
+
+		// Assert
+		assertThat(sameEndpoint).isEqualTo(SamplingDecision.DROP);
+		assertThat(otherEndpoint).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+	}
+
+	@Test
+	void shouldSample_WhenEndpointLimitIsReached_ShouldShareOneRate() {
+		// Arrange
+		AdaptiveSampler sampler = new AdaptiveSampler(0.001, 1, false, meterRegistry);
+		decide(sampler, Context.root(), request("GET", "/api/v1/products"));
+
+		// Act
+		SamplingDecision first = decide(sampler, Context.root(), request("GET", "/api/v1/categories"));
+		SamplingDecision second = decide(sampler, Context.root(), request("GET", "/api/v1/orders"));
+
+		// Assert
+		assertThat(first).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+		assertThat(second).isEqualTo(SamplingDecision.DROP);
+		assertThat(sampler.endpointCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldSample_WhenParentIsSampled_ShouldFollowParent() {
+		// Arrange
+		AdaptiveSampler sampler = new AdaptiveSampler(0.001, 10, false, meterRegistry);
+		Attributes request = request("GET", "/api/v1/products");
+		decide(sampler, Context.root(), request);
+		Context sampledParent = parent(TraceFlags.getSampled());
+		Context unsampledParent = parent(TraceFlags.getDefault());
+
+		// Act & Assert
+		assertThat(decide(sampler, sampledParent, request)).isEqualTo(SamplingDecision.RECORD_AND_SAMPLE);
+		assertThat(decide(sampler, unsampledParent, request)).isEqualTo(SamplingDecision.DROP);
+	}
+
+	@Test
+	void shouldSample_WhenRemoteParentIsNotSampledAndTailIsEnabled_ShouldRecord() {
+		// Arrange
+		AdaptiveSampler sampler = new AdaptiveSampler(5, 10, true, meterRegistry);
+
+		// Act
+		SamplingDecision decision = decide(sampler, parent(TraceFlags.getDefault()), Attributes.empty());
+
+		// Assert
+		assertThat(decision).isEqualTo(SamplingDecision.RECORD_ONLY);
+	}
+
+	@Test
+	void endpoint_ShouldPreferRouteAndFoldNumericPathSegments() {
+		// Act & Assert
+		assertThat(AdaptiveSampler.endpoint(request("GET", "/api/v1/products/42"), "GET"))
+			.isEqualTo("GET /api/v1/products/{id}");
+		assertThat(AdaptiveSampler.endpoint(Attributes.builder()
+			.put("http.request.method", "PUT")
+			.put("http.route", "/api/v1/products/{id}")
+			.put("url.path", "/api/v1/products/42")
+			.build(), "PUT")).isEqualTo("PUT /api/v1/products/{id}");
+		assertThat(AdaptiveSampler.endpoint(Attributes.empty(), "refreshRates")).isEqualTo("refreshRates");
+		assertThat(AdaptiveSampler.foldIds("/a/12/b/34")).isEqualTo("/a/{id}/b/{id}");
+		assertThat(AdaptiveSampler.foldIds("/api/v1/products")).isEqualTo("/api/v1/products");
+	}
+
+	private static SamplingDecision decide(AdaptiveSampler sampler, Context parent, Attributes attributes) {
+		return sampler.shouldSample(parent, TRACE_ID, "GET", SpanKind.SERVER, attributes, List.of()).getDecision();
+	}
+
+	private static Attributes request(String method, String path) {
+		return Attributes.builder().put("http.request.method", method).put("url.path", path).build();
+	}
+
+	private static Context parent(TraceFlags flags) {
+		SpanContext remote = SpanContext.createFromRemoteParent(TRACE_ID, SPAN_ID, flags, TraceState.getDefault());
+		return Context.root().with(Span.wrap(remote));
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.example.demo.common.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TailSamplingSpanProcessorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final InProcessSpanExporter exporter = new InProcessSpanExporter(100);
+
+	private TailSamplingSpanProcessor processor;
+
+	private SdkTracerProvider tracerProvider;
+
+	private Tracer tracer;
+
+	@BeforeEach
+	void setUp() {
+		processor = new TailSamplingSpanProcessor(new TraceSamplingProperties.Tail(true, Duration.ofMillis(500),
+				Map.of("GET /api/v1/products/{id}", Duration.ofMillis(100)), 10, 100), meterRegistry);
+		processor.exportTo(exporter);
+		// Nothing is sampled up front, so every trace goes through tail retention
+		tracerProvider = SdkTracerProvider.builder()
+			.setSampler(new RecordOnlySampler())
+			.addSpanProcessor(SimpleSpanProcessor.create(exporter))
+			.addSpanProcessor(processor)
+			.build();
+		tracer = tracerProvider.get("test");
+	}
+
+	@AfterEach
+	void tearDown() {
+		tracerProvider.shutdown();
+	}
+
+	@Test
+	void onEnd_WhenRequestIsFast_ShouldDropTrace() {
+		// Act
+		request("/api/v1/products", 50, StatusCode.UNSET);
+		processor.flush(System.nanoTime());
+
+		// Assert
+		assertThat(exporter.getExportedCount()).isZero();
+		assertThat(processor.pendingTraceCount()).isZero();
+		assertThat(meterRegistry.get(TailSamplingSpanProcessor.TRACES_METRIC).tag("reason", "fast").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void onEnd_WhenRequestIsSlow_ShouldExportWholeTrace() {
+		// Act
+		request("/api/v1/products", 600, StatusCode.UNSET);
+		processor.flush(System.nanoTime());
+
+		// Assert
+		assertThat(exporter.getExportedSpans()).extracting(SpanData::getName)
+			.containsExactlyInAnyOrder("GET /api/v1/products", "SELECT product");
+		assertThat(exporter.getExportedSpans()).allSatisfy(span -> assertThat(span.getTraceId())
+			.isEqualTo(exporter.getExportedSpans().getFirst().getTraceId()));
+	}
+
+	@Test
+	void onEnd_ShouldApplyEndpointThreshold() {
+		// Act
+		request("/api/v1/products/42", 150, StatusCode.UNSET);
+		processor.flush(System.nanoTime());
+
+		// Assert
+		assertThat(exporter.getExportedCount()).isEqualTo(2);
+		assertThat(meterRegistry.get(TailSamplingSpanProcessor.TRACES_METRIC).tag("reason", "slow").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void onEnd_WhenChildSpanFailed_ShouldExportTrace() {
+		// Act
+		request("/api/v1/products", 10, StatusCode.ERROR);
+		processor.flush(System.nanoTime());
+
+		// Assert
+		assertThat(exporter.getExportedCount()).isEqualTo(2);
+		assertThat(meterRegistry.get(TailSamplingSpanProcessor.TRACES_METRIC).tag("reason", "error").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void flush_WhenRootNeverEnds_ShouldEvictPendingTrace() {
+		// Arrange
+		Span root = tracer.spanBuilder("GET /api/v1/products").setSpanKind(SpanKind.SERVER).startSpan();
+		tracer.spanBuilder("SELECT product").setParent(Context.root().with(root)).startSpan().end();
+
+		// Act
+		processor.flush(System.nanoTime() + TailSamplingSpanProcessor.PENDING_TTL.toNanos() + 1);
+
+		// Assert
+		assertThat(processor.pendingTraceCount()).isZero();
+		assertThat(exporter.getExportedCount()).isZero();
+	}
+
+	private void request(String path, long durationMillis, StatusCode childStatus) {
+		Span root = tracer.spanBuilder("GET " + path)
+			.setSpanKind(SpanKind.SERVER)
+			.setAttribute("http.request.method", "GET")
+			.setAttribute("url.path", path)
+			.setStartTimestamp(0, TimeUnit.MILLISECONDS)
+			.startSpan();
+		Span child = tracer.spanBuilder("SELECT product")
+			.setParent(Context.root().with(root))
+			.setStartTimestamp(1, TimeUnit.MILLISECONDS)
+			.startSpan();
+		child.setStatus(childStatus);
+		child.end(durationMillis - 1, TimeUnit.MILLISECONDS);
+		root.end(durationMillis, TimeUnit.MILLISECONDS);
+	}
+
+	static class RecordOnlySampler implements Sampler {
+
+		@Override
+		public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+				Attributes attributes, List<LinkData> parentLinks) {
+			return SamplingResult.recordOnly();
+		}
+
+		@Override
+		public String getDescription() {
+			return "RecordOnlySampler";
+		}
+
+	}
+
+}
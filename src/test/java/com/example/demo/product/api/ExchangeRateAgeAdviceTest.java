@@ -0,0 +1,70 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.domain.ExchangeRateProvider;
+import com.example.demo.product.domain.ExchangeRates;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateAgeAdviceTest {
+
+	@Mock
+	private ExchangeRateProvider exchangeRateProvider;
+
+	@InjectMocks
+	private ExchangeRateAgeAdvice advice;
+
+	@Test
+	void beforeBodyWrite_WhenRatesAreServed_ShouldAddAgeHeader() throws IOException {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.of("USD",
+				Map.of("EUR", new BigDecimal("0.91")), Instant.now().minus(Duration.ofMinutes(10))));
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+		// Act
+		write(servletResponse);
+
+		// Assert
+		assertThat(Long.parseLong(servletResponse.getHeader(ExchangeRateAgeAdvice.EXCHANGE_RATE_AGE)))
+			.isBetween(600L, 610L);
+	}
+
+	@Test
+	void beforeBodyWrite_WhenNoRatesAreServed_ShouldOmitAgeHeader() throws IOException {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+		// Act
+		write(servletResponse);
+
+		// Assert
+		assertThat(servletResponse.getHeader(ExchangeRateAgeAdvice.EXCHANGE_RATE_AGE)).isNull();
+	}
+
+	private void write(MockHttpServletResponse servletResponse) throws IOException {
+		ServletServerHttpResponse response = new ServletServerHttpResponse(servletResponse);
+		advice.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, MappingJackson2HttpMessageConverter.class,
+				new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+		response.flush();
+	}
+
+}
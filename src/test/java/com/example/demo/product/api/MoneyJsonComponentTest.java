@@ -0,0 +1,67 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyJsonComponentTest {
+
+	private ObjectMapper objectMapper;
+
+	@BeforeEach
+	void setUp() {
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(Money.class, new MoneyJsonComponent.Serializer());
+		module.addDeserializer(Money.class, new MoneyJsonComponent.Deserializer());
+		objectMapper = new ObjectMapper().registerModule(module);
+	}
+
+	@Test
+	void serialize_ShouldWriteSameJsonAsBigDecimal() throws Exception {
+		for (String amount : List.of("99.90", "0.05", "14704", "-12.5", "1499.999")) {
+			// Arrange
+			BigDecimal decimal = new BigDecimal(amount);
+
+			// Act
+			String json = objectMapper.writeValueAsString(Money.of(decimal));
+
+			// Assert
+			assertThat(json).isEqualTo(objectMapper.writeValueAsString(decimal)).isEqualTo(amount);
+		}
+	}
+
+	@Test
+	void deserialize_ShouldKeepScaleOfJsonNumber() throws Exception {
+		// Act
+		Money money = objectMapper.readValue("123.45", Money.class);
+
+		// Assert
+		assertThat(money).isEqualTo(new Money(12345, 2));
+	}
+
+	@Test
+	void serialize_WhenBinaryFormat_ShouldRoundTripAsDecimal() throws Exception {
+		// Arrange
+		ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+		ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+		Money money = new Money(149999, 3);
+
+		// Act
+		Money fromCbor = cborMapper.readValue(cborMapper.writeValueAsBytes(money), Money.class);
+		Money fromSmile = smileMapper.readValue(smileMapper.writeValueAsBytes(money), Money.class);
+
+		// Assert
+		assertThat(fromCbor).isEqualTo(money);
+		assertThat(fromSmile).isEqualTo(money);
+	}
+
+}
@@ -1,6 +1,9 @@
 package com.example.demo.product.api;
 
+import com.example.demo.product.api.proto.ProductProtos;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -9,9 +12,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
 
+import static com.example.demo.common.sql.QueryStatsAssert.assertThatQueries;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -125,6 +133,18 @@ class ProductApiIntegrationTest {
 			.andExpect(jsonPath("$.errors.price").isNotEmpty());
 	}
 
+	@Test
+	void createProduct_WithMoreThanTwoDecimals_ShouldReturnBadRequest() throws Exception {
+		createProductWithPrice("10.999").andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.errors.price").value(containsString("2 decimals")));
+	}
+
+	@Test
+	void createProduct_WithPriceTooLargeForColumn_ShouldReturnBadRequest() throws Exception {
+		createProductWithPrice("123456789012345678.00").andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.errors.price").value(containsString("16 digits")));
+	}
+
 	@Test
 	void getProduct_WithInvalidId_ShouldReturnNotFound() throws Exception {
 		mockMvc.perform(get("/api/v1/products/{id}", 999999)).andExpect(status().isNotFound());
@@ -150,4 +170,230 @@ class ProductApiIntegrationTest {
 			.andExpect(status().isBadRequest());
 	}
 
+	@Test
+	void getProducts_WithRequestedCurrency_ShouldEchoCurrency() throws Exception {
+		mockMvc.perform(get("/api/v1/products").param("currency", "gbp"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[*].currency", everyItem(is("GBP"))));
+
+		mockMvc.perform(get("/api/v1/products").header(ProductController.ACCEPT_CURRENCY, "CHF, EUR;q=0.5"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[*].currency", everyItem(is("CHF"))));
+	}
+
+	@Test
+	void getProducts_WithUnsupportedCurrency_ShouldReturnBadRequest() throws Exception {
+		mockMvc.perform(get("/api/v1/products").param("currency", "NOPE"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.detail").value("Unsupported currency: NOPE"));
+	}
+
+	@Test
+	void getProducts_WithPageAboveStreamThreshold_ShouldStreamPage() throws Exception {
+		mockMvc.perform(get("/api/v1/products").param("size", "500").param("sort", "name"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+			.andExpect(jsonPath("$.content").isArray())
+			.andExpect(jsonPath("$.page").value(0))
+			.andExpect(jsonPath("$.size").value(500))
+			.andExpect(jsonPath("$.totalElements").isNumber())
+			.andExpect(jsonPath("$.first").value(true));
+	}
+
+	@Test
+	void getProducts_WithUnacceptableFormat_ShouldReturnNotAcceptable() throws Exception {
+		mockMvc.perform(get("/api/v1/products").accept(MediaType.TEXT_PLAIN))
+			.andExpect(status().isNotAcceptable())
+			.andExpect(content().bytes(new byte[0]));
+	}
+
+	@Test
+	void getProducts_WithPageSizeAboveMaximum_ShouldReturnBadRequest() throws Exception {
+		mockMvc.perform(get("/api/v1/products").param("size", "5000"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.detail").value("Page size must be between 1 and 1000"));
+	}
+
+	@Test
+	void getProducts_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+		ProductRequest createRequest = new ProductRequest("Projected Product", "A product read through a projection",
+				new BigDecimal("25.50"), "Projected Category", "https://example.com/projected.jpg", true);
+		mockMvc
+			.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(createRequest)))
+			.andExpect(status().isCreated());
+
+		mockMvc
+			.perform(get("/api/v1/products").param("fields", "id,name,priceUSD")
+				.param("sort", "price")
+				.param("size", "1000"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[*].name", hasItem("Projected Product")))
+			.andExpect(jsonPath("$.content[*].priceUSD", hasItem(25.5)))
+			.andExpect(jsonPath("$.content[*].description").isEmpty())
+			.andExpect(jsonPath("$.content[*].priceEUR").isEmpty())
+			.andExpect(jsonPath("$.content[*].available").isEmpty())
+			.andExpect(jsonPath("$.totalElements").isNumber());
+
+		mockMvc
+			.perform(get("/api/v1/products/search").param("name", "projected")
+				.param("fields", "name,currency,price")
+				.param("currency", "GBP"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[0].name").value("Projected Product"))
+			.andExpect(jsonPath("$.content[0].currency").value("GBP"))
+			.andExpect(jsonPath("$.content[0].id").doesNotExist());
+	}
+
+	@Test
+	void getProduct_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+		ProductRequest createRequest = new ProductRequest("Sparse Product", "A product read with sparse fields",
+				new BigDecimal("10.00"), "Sparse Category", "https://example.com/sparse.jpg", false);
+		String createResponseJson = mockMvc
+			.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(createRequest)))
+			.andExpect(status().isCreated())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		Long productId = objectMapper.readValue(createResponseJson, ProductResponse.class).id();
+
+		mockMvc.perform(get("/api/v1/products/{id}", productId).param("fields", "available,category"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.available").value(false))
+			.andExpect(jsonPath("$.category").value("Sparse Category"))
+			.andExpect(jsonPath("$.id").doesNotExist())
+			.andExpect(jsonPath("$.name").doesNotExist());
+
+		mockMvc.perform(get("/api/v1/products/category/{category}", "Sparse Category").param("fields", "id"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.content[0].id").value(productId))
+			.andExpect(jsonPath("$.totalElements").value(1));
+	}
+
+	@Test
+	void getProducts_WithUnknownFieldOrSort_ShouldReturnBadRequest() throws Exception {
+		mockMvc.perform(get("/api/v1/products").param("fields", "id,password"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.detail", startsWith("Unknown field: password")));
+
+		mockMvc.perform(get("/api/v1/products").param("sort", "nope"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.detail").value("Unsupported sort field: nope"));
+	}
+
+	@Test
+	void getProduct_WithAcceptEncoding_ShouldReturnCompressedJson() throws Exception {
+		// Create a product whose JSON is above the compression threshold
+		ProductRequest createRequest = new ProductRequest("Compressed Product", "Long description. ".repeat(55),
+				new BigDecimal("42.00"), "Test Category", "https://example.com/compressed.jpg", true);
+		String createResponseJson = mockMvc
+			.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(createRequest)))
+			.andExpect(status().isCreated())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		Long productId = objectMapper.readValue(createResponseJson, ProductResponse.class).id();
+
+		// Get it compressed
+		byte[] compressed = mockMvc.perform(get("/api/v1/products/{id}", productId).header("Accept-Encoding", "gzip"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Content-Encoding", "gzip"))
+			.andExpect(header().string("Vary", containsString("Accept-Encoding")))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			ProductResponse product = objectMapper.readValue(in, ProductResponse.class);
+			assertThat(product.id()).isEqualTo(productId);
+			assertThat(product.description()).isEqualTo(createRequest.description());
+		}
+	}
+
+	@Test
+	void createAndGetProduct_WithBinaryEncodings_ShouldRoundTrip() throws Exception {
+		// Create a product with a CBOR body, answered in Smile
+		ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+		ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+		ProductRequest createRequest = new ProductRequest("Binary Product", "A product sent as CBOR",
+				new BigDecimal("19.99"), "Binary Category", "https://example.com/binary.jpg", true);
+		byte[] created = mockMvc
+			.perform(post("/api/v1/products").contentType("application/cbor")
+				.accept("application/x-jackson-smile")
+				.content(cborMapper.writeValueAsBytes(createRequest)))
+			.andExpect(status().isCreated())
+			.andExpect(content().contentType("application/x-jackson-smile"))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		ProductResponse createdProduct = smileMapper.readValue(created, ProductResponse.class);
+		assertThat(createdProduct.name()).isEqualTo(createRequest.name());
+		assertThat(createdProduct.priceUSD().toBigDecimal()).isEqualByComparingTo("19.99");
+
+		// Read it back as Protobuf, on its own and in a page
+		byte[] single = mockMvc
+			.perform(get("/api/v1/products/{id}", createdProduct.id()).accept(ProductProtobuf.PROTOBUF))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(ProductProtobuf.PROTOBUF))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		assertThat(ProductProtos.Product.parseFrom(single).getName()).isEqualTo(createRequest.name());
+
+		byte[] page = mockMvc
+			.perform(get("/api/v1/products/category/{category}", "Binary Category").accept(ProductProtobuf.PROTOBUF))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(ProductProtobuf.PROTOBUF))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+		ProductProtos.ProductPage productPage = ProductProtos.ProductPage.parseFrom(page);
+		assertThat(productPage.getContentList()).extracting(ProductProtos.Product::getId)
+			.containsExactly(createdProduct.id());
+		assertThat(productPage.getTotalElements()).isEqualTo(1);
+	}
+
+	@Test
+	void productEndpoints_ShouldStayWithinStatementBudgets() throws Exception {
+		// Create a product: duplicate name check and insert
+		ProductRequest createRequest = new ProductRequest("Statement Budget Product",
+				"A product created to check statement budgets", new BigDecimal("42.00"), "Budget Category",
+				"https://example.com/budget.jpg", true);
+		MvcResult createResult = mockMvc
+			.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(createRequest)))
+			.andExpect(status().isCreated())
+			.andReturn();
+		assertThatQueries(createResult.getResponse()).hasStatementsAtMost(2);
+		Long productId = objectMapper.readValue(createResult.getResponse().getContentAsString(), ProductResponse.class)
+			.id();
+
+		// Read it back: a single select, also once the JSON cache holds the product, since
+		// its entries are keyed by the version the select reads
+		MvcResult getResult = mockMvc.perform(get("/api/v1/products/{id}", productId))
+			.andExpect(status().isOk())
+			.andReturn();
+		assertThatQueries(getResult.getResponse()).hasStatements(1).hasRowsAtMost(1);
+		MvcResult cachedResult = mockMvc.perform(get("/api/v1/products/{id}", productId))
+			.andExpect(status().isOk())
+			.andReturn();
+		assertThatQueries(cachedResult.getResponse()).hasStatements(1).hasRowsAtMost(1);
+
+		// A page costs its select and count, however many products it holds
+		MvcResult pageResult = mockMvc.perform(get("/api/v1/products/category/{category}", "Budget Category"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists("X-SQL-Time-Ms"))
+			.andReturn();
+		assertThatQueries(pageResult.getResponse()).hasStatementsAtMost(2);
+	}
+
+	private ResultActions createProductWithPrice(String price) throws Exception {
+		ProductRequest request = new ProductRequest("Priced Product " + price, "A product with a price to validate",
+				new BigDecimal(price), "Test Category", "https://example.com/test.jpg", true);
+		return mockMvc.perform(post("/api/v1/products").contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(request)));
+	}
+
 }
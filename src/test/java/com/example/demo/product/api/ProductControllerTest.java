@@ -1,26 +1,37 @@
 package com.example.demo.product.api;
 
+import com.example.demo.product.domain.Money;
+import com.example.demo.product.domain.ProductField;
+import com.example.demo.product.domain.ProductNotFoundException;
 import com.example.demo.product.domain.ProductService;
-import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +40,9 @@ class ProductControllerTest {
 	@Mock
 	private ProductService productService;
 
-	@InjectMocks
+	@Mock
+	private ProductPageWriter pageWriter;
+
 	private ProductController productController;
 
 	private ProductResponse productResponse;
@@ -38,11 +51,16 @@ class ProductControllerTest {
 
 	private final LocalDateTime now = LocalDateTime.now();
 
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
 	@BeforeEach
 	void setUp() {
+		productController = new ProductController(productService, pageWriter, new ProductPageProperties(1000, 100));
+
 		// Setup test product response
-		productResponse = new ProductResponse(1L, "Test Product", "Test Description", new BigDecimal("99.99"),
-				new BigDecimal("90.90"), "Test Category", "https://example.com/test.jpg", true, now, now);
+		productResponse = new ProductResponse(1L, "Test Product", "Test Description",
+				Money.of(new BigDecimal("99.99")), Money.of(new BigDecimal("90.90")), null, null, "Test Category",
+				"https://example.com/test.jpg", true, now, now, 0);
 
 		// Setup test product request
 		productRequest = new ProductRequest("Test Product", "Test Description", new BigDecimal("99.99"),
@@ -50,168 +68,290 @@ class ProductControllerTest {
 	}
 
 	@Test
-	void getAllProducts_ShouldReturnPageOfProducts() {
+	void getAllProducts_ShouldWritePageOfProducts() throws Exception {
 		// Arrange
 		Page<ProductResponse> productPage = new PageImpl<>(List.of(productResponse));
-		when(productService.getAllProducts(any(Pageable.class))).thenReturn(productPage);
+		when(productService.getAllProducts(any(Pageable.class), isNull())).thenReturn(productPage);
+		MockHttpServletResponse response = new MockHttpServletResponse();
 
 		// Act
-		ResponseEntity<PageResponse<ProductResponse>> response = productController.getAllProducts(0, 10, "id", "asc");
+		productController.getAllProducts(0, 10, "id", "asc", null, null, null, request, response);
 
 		// Assert
-		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		assertThat(response.getBody()).isNotNull();
-		assertThat(response.getBody().content()).hasSize(1);
-		assertThat(response.getBody().content().get(0).name()).isEqualTo(productResponse.name());
-		verify(productService).getAllProducts(any(Pageable.class));
+		verify(productService).getAllProducts(PageRequest.of(0, 10, Sort.by("id")), null);
+		verify(pageWriter).write(request, response, productPage);
+		verify(productService, never()).streamAllProducts(any(), any(), any());
+	}
+
+	@Test
+	void getAllProducts_WhenPageExceedsStreamThreshold_ShouldStreamPage() throws Exception {
+		// Arrange
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ProductPageWriter.JsonPageSink sink = mock(ProductPageWriter.JsonPageSink.class);
+		when(pageWriter.stream(request, response)).thenReturn(sink);
+
+		// Act
+		productController.getAllProducts(0, 500, "id", "asc", "EUR", null, null, request, response);
+
+		// Assert
+		verify(productService).streamAllProducts(PageRequest.of(0, 500, Sort.by("id")), "EUR", sink);
+		verify(productService, never()).getAllProducts(any(), any());
+	}
+
+	@Test
+	void getAllProducts_WhenPageSizeExceedsMaximum_ShouldThrowException() {
+		// Act & Assert
+		assertThatThrownBy(() -> productController.getAllProducts(0, 1001, "id", "asc", null, null, null,
+				request, new MockHttpServletResponse()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Page size must be between 1 and 1000");
+		verifyNoInteractions(productService, pageWriter);
+	}
+
+	@Test
+	void getAllProducts_WhenFieldsRequested_ShouldWriteProjectedPage() throws Exception {
+		// Arrange
+		Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE_USD);
+		Page<ProductResponse> productPage = new PageImpl<>(List.of(productResponse));
+		when(productService.getAllProducts(any(Pageable.class), isNull(), eq(fields))).thenReturn(productPage);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		productController.getAllProducts(0, 500, "id", "asc", null, null, "id, name,priceUSD", request, response);
+
+		// Assert
+		verify(pageWriter).write(request, response, productPage);
+		verify(productService, never()).streamAllProducts(any(), any(), any());
+		verify(productService, never()).getAllProducts(any(), any());
+	}
+
+	@Test
+	void getAllProducts_WhenEveryFieldRequested_ShouldWriteFullRepresentation() throws Exception {
+		// Arrange
+		String every = Arrays.stream(ProductField.values())
+			.map(ProductField::jsonName)
+			.collect(Collectors.joining(","));
+		Page<ProductResponse> productPage = new PageImpl<>(List.of(productResponse));
+		when(productService.getAllProducts(any(Pageable.class), isNull())).thenReturn(productPage);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		productController.getAllProducts(0, 10, "id", "asc", null, null, every, request, response);
+
+		// Assert
+		verify(pageWriter).write(request, response, productPage);
+		verify(productService, never()).getAllProducts(any(), any(), any());
+	}
+
+	@Test
+	void getAllProducts_WhenFieldUnknown_ShouldThrowException() {
+		// Act & Assert
+		assertThatThrownBy(() -> productController.getAllProducts(0, 10, "id", "asc", null, null, "id,secret",
+				request, new MockHttpServletResponse()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageStartingWith("Unknown field: secret");
+		verifyNoInteractions(productService, pageWriter);
+	}
+
+	@Test
+	void getAllProducts_WhenSortFieldUnknown_ShouldThrowException() {
+		// Act & Assert
+		assertThatThrownBy(() -> productController.getAllProducts(0, 10, "priceUSD", "asc", null, null, null,
+				request, new MockHttpServletResponse()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unsupported sort field: priceUSD");
+		verifyNoInteractions(productService, pageWriter);
 	}
 
 	@Test
-	void getProductsByCategory_ShouldReturnPageOfProductsInCategory() {
+	void getProductsByCategory_ShouldWritePageOfProductsInCategory() throws Exception {
 		// Arrange
 		String category = "Test Category";
 		Page<ProductResponse> productPage = new PageImpl<>(List.of(productResponse));
-		when(productService.getProductsByCategory(eq(category), any(Pageable.class))).thenReturn(productPage);
+		when(productService.getProductsByCategory(eq(category), any(Pageable.class), isNull())).thenReturn(productPage);
+		MockHttpServletResponse response = new MockHttpServletResponse();
 
 		// Act
-		ResponseEntity<PageResponse<ProductResponse>> response = productController.getProductsByCategory(category, 0,
-				10, "id", "asc");
+		productController.getProductsByCategory(category, 0, 10, "id", "asc", null, null, null, request, response);
 
 		// Assert
-		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		assertThat(response.getBody()).isNotNull();
-		assertThat(response.getBody().content()).hasSize(1);
-		assertThat(response.getBody().content().get(0).category()).isEqualTo(category);
-		verify(productService).getProductsByCategory(eq(category), any(Pageable.class));
+		verify(productService).getProductsByCategory(eq(category), any(Pageable.class), isNull());
+		verify(pageWriter).write(request, response, productPage);
 	}
 
 	@Test
-	void searchProductsByName_ShouldReturnPageOfProductsWithNameContaining() {
+	void getProductsByCategory_WhenPageExceedsStreamThreshold_ShouldStreamPage() throws Exception {
+		// Arrange
+		String category = "Test Category";
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ProductPageWriter.JsonPageSink sink = mock(ProductPageWriter.JsonPageSink.class);
+		when(pageWriter.stream(request, response)).thenReturn(sink);
+
+		// Act
+		productController.getProductsByCategory(category, 1, 200, "name", "desc", null, null, null, request, response);
+
+		// Assert
+		verify(productService).streamProductsByCategory(category,
+				PageRequest.of(1, 200, Sort.by(Sort.Direction.DESC, "name")), null, sink);
+	}
+
+	@Test
+	void searchProductsByName_ShouldWritePageOfProductsWithNameContaining() throws Exception {
 		// Arrange
 		String name = "Test";
 		Page<ProductResponse> productPage = new PageImpl<>(List.of(productResponse));
-		when(productService.getProductsByName(eq(name), any(Pageable.class))).thenReturn(productPage);
+		when(productService.getProductsByName(eq(name), any(Pageable.class), isNull())).thenReturn(productPage);
+		MockHttpServletResponse response = new MockHttpServletResponse();
 
 		// Act
-		ResponseEntity<PageResponse<ProductResponse>> response = productController.searchProductsByName(name, 0, 10,
-				"id", "asc");
+		productController.searchProductsByName(name, 0, 10, "id", "asc", null, null, null, request, response);
 
 		// Assert
-		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-		assertThat(response.getBody()).isNotNull();
-		assertThat(response.getBody().content()).hasSize(1);
-		assertThat(response.getBody().content().get(0).name()).contains(name);
-		verify(productService).getProductsByName(eq(name), any(Pageable.class));
+		verify(productService).getProductsByName(eq(name), any(Pageable.class), isNull());
+		verify(pageWriter).write(request, response, productPage);
+	}
+
+	@Test
+	void searchProductsByName_WhenPageExceedsStreamThreshold_ShouldStreamPage() throws Exception {
+		// Arrange
+		String name = "Test";
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ProductPageWriter.JsonPageSink sink = mock(ProductPageWriter.JsonPageSink.class);
+		when(pageWriter.stream(request, response)).thenReturn(sink);
+
+		// Act
+		productController.searchProductsByName(name, 0, 1000, "id", "asc", null, null, null, request, response);
+
+		// Assert
+		verify(productService).streamProductsByName(name, PageRequest.of(0, 1000, Sort.by("id")), null, sink);
 	}
 
 	@Test
 	void getProductById_WhenProductExists_ShouldReturnProduct() {
 		// Arrange
 		Long id = 1L;
-		when(productService.getProductById(id)).thenReturn(productResponse);
+		when(productService.getProductById(id, null)).thenReturn(productResponse);
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.getProductById(id);
+		ResponseEntity<ProductResponse> response = productController.getProductById(id, null, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 		assertThat(response.getBody()).isNotNull();
 		assertThat(response.getBody().id()).isEqualTo(id);
-		verify(productService).getProductById(id);
+		verify(productService).getProductById(id, null);
 	}
 
 	@Test
 	void getProductById_WhenProductDoesNotExist_ShouldReturnNotFound() {
 		// Arrange
 		Long id = 999L;
-		when(productService.getProductById(id))
-			.thenThrow(new EntityNotFoundException("Product not found with ID: " + id));
+		when(productService.getProductById(id, null))
+			.thenThrow(new ProductNotFoundException(id));
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.getProductById(id);
+		ResponseEntity<ProductResponse> response = productController.getProductById(id, null, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 		assertThat(response.getBody()).isNull();
-		verify(productService).getProductById(id);
+		verify(productService).getProductById(id, null);
+	}
+
+	@Test
+	void getProductById_WhenFieldsRequested_ShouldReturnProjectedProduct() {
+		// Arrange
+		Long id = 1L;
+		ProductResponse projected = new ProductResponse(id, "Test Product", null, null, null, null, null, null, null,
+				null, null, null, ProductResponse.NO_VERSION);
+		when(productService.getProductById(id, null, EnumSet.of(ProductField.ID, ProductField.NAME)))
+			.thenReturn(projected);
+
+		// Act
+		ResponseEntity<ProductResponse> response = productController.getProductById(id, null, null, "name,id");
+
+		// Assert
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isEqualTo(projected);
+		verify(productService, never()).getProductById(any(), any());
 	}
 
 	@Test
 	void createProduct_WhenNameIsUnique_ShouldCreateProduct() {
 		// Arrange
-		when(productService.createProduct(productRequest)).thenReturn(productResponse);
+		when(productService.createProduct(productRequest, null)).thenReturn(productResponse);
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.createProduct(productRequest);
+		ResponseEntity<ProductResponse> response = productController.createProduct(productRequest, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
 		assertThat(response.getBody()).isNotNull();
 		assertThat(response.getBody().name()).isEqualTo(productRequest.name());
-		verify(productService).createProduct(productRequest);
+		verify(productService).createProduct(productRequest, null);
 	}
 
 	@Test
 	void createProduct_WhenNameExists_ShouldReturnBadRequest() {
 		// Arrange
-		when(productService.createProduct(productRequest)).thenThrow(
+		when(productService.createProduct(productRequest, null)).thenThrow(
 				new IllegalArgumentException("Product with name '" + productRequest.name() + "' already exists"));
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.createProduct(productRequest);
+		ResponseEntity<ProductResponse> response = productController.createProduct(productRequest, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
 		assertThat(response.getBody()).isNull();
-		verify(productService).createProduct(productRequest);
+		verify(productService).createProduct(productRequest, null);
 	}
 
 	@Test
 	void updateProduct_WhenProductExistsAndNameIsUnique_ShouldUpdateProduct() {
 		// Arrange
 		Long id = 1L;
-		when(productService.updateProduct(id, productRequest)).thenReturn(productResponse);
+		when(productService.updateProduct(id, productRequest, null)).thenReturn(productResponse);
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.updateProduct(id, productRequest);
+		ResponseEntity<ProductResponse> response = productController.updateProduct(id, productRequest, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
 		assertThat(response.getBody()).isNotNull();
 		assertThat(response.getBody().id()).isEqualTo(id);
-		verify(productService).updateProduct(id, productRequest);
+		verify(productService).updateProduct(id, productRequest, null);
 	}
 
 	@Test
 	void updateProduct_WhenProductDoesNotExist_ShouldReturnNotFound() {
 		// Arrange
 		Long id = 999L;
-		when(productService.updateProduct(id, productRequest))
-			.thenThrow(new EntityNotFoundException("Product not found with ID: " + id));
+		when(productService.updateProduct(id, productRequest, null))
+			.thenThrow(new ProductNotFoundException(id));
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.updateProduct(id, productRequest);
+		ResponseEntity<ProductResponse> response = productController.updateProduct(id, productRequest, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 		assertThat(response.getBody()).isNull();
-		verify(productService).updateProduct(id, productRequest);
+		verify(productService).updateProduct(id, productRequest, null);
 	}
 
 	@Test
 	void updateProduct_WhenNameExistsForDifferentProduct_ShouldReturnBadRequest() {
 		// Arrange
 		Long id = 1L;
-		when(productService.updateProduct(id, productRequest)).thenThrow(new IllegalArgumentException(
+		when(productService.updateProduct(id, productRequest, null)).thenThrow(new IllegalArgumentException(
 				"Another product with name '" + productRequest.name() + "' already exists"));
 
 		// Act
-		ResponseEntity<ProductResponse> response = productController.updateProduct(id, productRequest);
+		ResponseEntity<ProductResponse> response = productController.updateProduct(id, productRequest, null, null);
 
 		// Assert
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
 		assertThat(response.getBody()).isNull();
-		verify(productService).updateProduct(id, productRequest);
+		verify(productService).updateProduct(id, productRequest, null);
 	}
 
 	@Test
@@ -232,7 +372,7 @@ class ProductControllerTest {
 	void deleteProduct_WhenProductDoesNotExist_ShouldReturnNotFound() {
 		// Arrange
 		Long id = 999L;
-		doThrow(new EntityNotFoundException("Product not found with ID: " + id)).when(productService).deleteProduct(id);
+		doThrow(new ProductNotFoundException(id)).when(productService).deleteProduct(id);
 
 		// Act
 		ResponseEntity<Void> response = productController.deleteProduct(id);
@@ -242,4 +382,42 @@ class ProductControllerTest {
 		verify(productService).deleteProduct(id);
 	}
 
+	@Test
+	void getProductById_WithCurrencyParameter_ShouldPassNormalizedCurrencyToService() {
+		// Arrange
+		Long id = 1L;
+		when(productService.getProductById(id, "GBP")).thenReturn(productResponse);
+
+		// Act
+		ResponseEntity<ProductResponse> response = productController.getProductById(id, "gbp", "CHF", null);
+
+		// Assert
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		verify(productService).getProductById(id, "GBP");
+	}
+
+	@Test
+	void requestedCurrency_WithOnlyHeader_ShouldUseFirstHeaderEntry() {
+		// Act
+		String currency = ProductController.requestedCurrency(null, " chf;q=1.0, EUR;q=0.5");
+
+		// Assert
+		assertThat(currency).isEqualTo("CHF");
+	}
+
+	@Test
+	void requestedCurrency_WithNeitherParameterNorHeader_ShouldReturnNull() {
+		// Act & Assert
+		assertThat(ProductController.requestedCurrency(null, null)).isNull();
+		assertThat(ProductController.requestedCurrency(" ", "")).isNull();
+	}
+
+	@Test
+	void requestedCurrency_WithUnknownCode_ShouldThrowException() {
+		// Act & Assert
+		assertThatThrownBy(() -> ProductController.requestedCurrency("XYZ1", null))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unsupported currency: XYZ1");
+	}
+
 }
@@ -0,0 +1,156 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.cache.CacheRegistry;
+import com.example.demo.common.compression.ContentCoding;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.core.io.SerializedString;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductJsonCacheTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ProductJsonCache cache;
+
+	private AtomicInteger encodings;
+
+	private Function<ProductResponse, SerializedString> encoder;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = new ProductJsonCache(properties(true), new CacheRegistry(meterRegistry), DataSize.ofBytes(0));
+		encodings = new AtomicInteger();
+		encoder = product -> {
+			encodings.incrementAndGet();
+			return new SerializedString("{\"id\":" + product.id() + "}");
+		};
+	}
+
+	@Test
+	void get_WhenSameProductAndPrices_ShouldEncodeOnce() {
+		// Act
+		cache.get(product(1L, 0, new Money(9099, 2)), encoder);
+		SerializedString json = cache.get(product(1L, 0, new Money(9099, 2)), encoder);
+
+		// Assert
+		assertThat(json.getValue()).isEqualTo("{\"id\":1}");
+		assertThat(encodings).hasValue(1);
+		assertThat(meterRegistry.get("cache.gets")
+			.tag("cache", ProductJsonCache.CACHE_NAME)
+			.tag("result", "hit")
+			.functionCounter()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	void get_WhenConvertedPriceDiffers_ShouldEncodeAgain() {
+		// Act
+		cache.get(product(1L, 0, new Money(9099, 2)), encoder);
+		cache.get(product(1L, 0, new Money(9120, 2)), encoder);
+
+		// Assert
+		assertThat(encodings).hasValue(2);
+	}
+
+	@Test
+	void get_WhenProductIsProjection_ShouldNotCache() {
+		// Arrange
+		ProductResponse projected = new ProductResponse(1L, "Laptop", null, null, null, null, null, null, null, null,
+				null, null, ProductResponse.NO_VERSION);
+
+		// Act
+		cache.get(projected, encoder);
+		cache.get(projected, encoder);
+
+		// Assert
+		assertThat(encodings).hasValue(2);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void find_ShouldReturnEntryOnlyOnceEncoded() {
+		// Arrange
+		ProductResponse product = product(1L, 0, new Money(9099, 2));
+
+		// Act
+		ProductJsonCache.Entry before = cache.find(product);
+		cache.get(product, encoder);
+		ProductJsonCache.Entry after = cache.find(product);
+
+		// Assert
+		assertThat(before).isNull();
+		assertThat(after).isNotNull();
+		assertThat(after.json().getValue()).isEqualTo("{\"id\":1}");
+		assertThat(encodings).hasValue(1);
+	}
+
+	@Test
+	void compressed_ShouldCompressOncePerCoding() {
+		// Arrange
+		ProductResponse product = product(1L, 0, new Money(9099, 2));
+		cache.get(product, encoder);
+		ProductJsonCache.Entry entry = cache.find(product);
+
+		// Act
+		byte[] gzip = entry.compressed(ContentCoding.GZIP, 6);
+		byte[] zstd = entry.compressed(ContentCoding.ZSTD, 3);
+
+		// Assert
+		assertThat(entry.compressed(ContentCoding.GZIP, 6)).isSameAs(gzip);
+		assertThat(entry.compressed(ContentCoding.ZSTD, 3)).isSameAs(zstd);
+		assertThat(gzip).isNotEqualTo(zstd);
+	}
+
+	@Test
+	void compressed_WhenJsonIsBelowThreshold_ShouldKeepNoCopy() {
+		// Arrange
+		cache = new ProductJsonCache(properties(true), new CacheRegistry(new SimpleMeterRegistry()),
+				DataSize.ofKilobytes(1));
+		ProductResponse product = product(1L, 0, new Money(9099, 2));
+		cache.get(product, encoder);
+
+		// Act
+		byte[] gzip = cache.find(product).compressed(ContentCoding.GZIP, 6);
+
+		// Assert
+		assertThat(gzip).isNull();
+	}
+
+	@Test
+	void get_WhenDisabled_ShouldAlwaysEncode() {
+		// Arrange
+		cache = new ProductJsonCache(properties(false), new CacheRegistry(new SimpleMeterRegistry()),
+				DataSize.ofBytes(0));
+
+		// Act
+		cache.get(product(1L, 0, new Money(9099, 2)), encoder);
+		cache.get(product(1L, 0, new Money(9099, 2)), encoder);
+
+		// Assert
+		assertThat(encodings).hasValue(2);
+		assertThat(cache.size()).isZero();
+		assertThat(cache.find(product(1L, 0, new Money(9099, 2)))).isNull();
+	}
+
+	private static ProductJsonCacheProperties properties(boolean enabled) {
+		return new ProductJsonCacheProperties(enabled, DataSize.ofMegabytes(1), Duration.ofMinutes(10));
+	}
+
+	private static ProductResponse product(Long id, long version, Money priceEUR) {
+		LocalDateTime now = LocalDateTime.now();
+		return new ProductResponse(id, "Laptop", "A laptop", new Money(9999, 2), priceEUR, null, null, "Electronics",
+				null, true, now, now, version);
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.cache.CacheRegistry;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductJsonSerializerTest {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+	private ProductJsonCache cache;
+
+	private ObjectMapper plainMapper;
+
+	private ObjectMapper cachingMapper;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ProductJsonCache(new ProductJsonCacheProperties(true, DataSize.ofMegabytes(1),
+				Duration.ofMinutes(10)), new CacheRegistry(new SimpleMeterRegistry()), DataSize.ofKilobytes(1));
+		plainMapper = mapper();
+		cachingMapper = mapper().registerModule(ProductJsonConfig.productJsonModule(cache));
+	}
+
+	@Test
+	void serialize_ShouldWriteSameJsonAsBeanSerializer() throws Exception {
+		// Arrange
+		ProductResponse product = product(1L, 0, "Laptop \"Pro\" \u2013 15\u2033");
+
+		// Act
+		String first = cachingMapper.writeValueAsString(product);
+		String second = cachingMapper.writeValueAsString(product);
+
+		// Assert
+		assertThat(first).isEqualTo(plainMapper.writeValueAsString(product));
+		assertThat(second).isEqualTo(first);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void serialize_WhenWritingPage_ShouldSpliceEveryProduct() throws Exception {
+		// Arrange
+		List<ProductResponse> products = new ArrayList<>();
+		for (long id = 1; id <= 100; id++) {
+			products.add(product(id, 0, "Product " + id));
+		}
+		PageResponse<ProductResponse> page = PageResponse.from(new PageImpl<>(products));
+
+		// Act
+		byte[] first = cachingMapper.writeValueAsBytes(page);
+		byte[] second = cachingMapper.writeValueAsBytes(page);
+
+		// Assert
+		assertThat(first).isEqualTo(plainMapper.writeValueAsBytes(page));
+		assertThat(second).isEqualTo(first);
+		assertThat(cache.size()).isEqualTo(100);
+	}
+
+	@Test
+	void serialize_WhenVersionChanges_ShouldNotServeStaleJson() throws Exception {
+		// Arrange
+		cachingMapper.writeValueAsString(product(1L, 0, "Laptop"));
+		ProductResponse updated = product(1L, 1, "Updated Laptop");
+
+		// Act
+		String json = cachingMapper.writeValueAsString(updated);
+
+		// Assert
+		assertThat(json).contains("\"name\":\"Updated Laptop\"");
+		assertThat(cache.size()).isEqualTo(2);
+	}
+
+	@Test
+	void serialize_WhenProductHasNoId_ShouldNotCache() throws Exception {
+		// Arrange
+		ProductResponse unsaved = product(null, 0, "Laptop");
+
+		// Act
+		String json = cachingMapper.writeValueAsString(unsaved);
+
+		// Assert
+		assertThat(json).isEqualTo(plainMapper.writeValueAsString(unsaved));
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void serialize_WhenIndenting_ShouldBypassCache() throws Exception {
+		// Arrange
+		ProductResponse product = product(1L, 0, "Laptop");
+
+		// Act
+		String json = cachingMapper.writerWithDefaultPrettyPrinter().writeValueAsString(product);
+
+		// Assert
+		assertThat(json).isEqualTo(plainMapper.writerWithDefaultPrettyPrinter().writeValueAsString(product));
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void serialize_WhenBinaryFormat_ShouldBypassCache() throws Exception {
+		// Arrange
+		ObjectMapper cborMapper = cachingMapper.copyWith(new CBORFactory());
+		ProductResponse product = product(1L, 0, "Laptop");
+
+		// Act
+		byte[] cbor = cborMapper.writeValueAsBytes(product);
+
+		// Assert
+		assertThat(cborMapper.readTree(cbor).get("name").asText()).isEqualTo("Laptop");
+		assertThat(cache.size()).isZero();
+	}
+
+	private static ProductResponse product(Long id, long version, String name) {
+		return new ProductResponse(id, name, "Description of " + name, new Money(99990, 2), new Money(90990, 2),
+				null, null, "Electronics", "https://example.com/" + id + ".jpg", true, CREATED_AT, CREATED_AT,
+				version);
+	}
+
+	private static ObjectMapper mapper() {
+		SimpleModule money = new SimpleModule();
+		money.addSerializer(Money.class, new MoneyJsonComponent.Serializer());
+		return new ObjectMapper().registerModule(new JavaTimeModule())
+			.registerModule(money)
+			.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+	}
+
+}
@@ -0,0 +1,252 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.sql.QueryStats;
+import com.example.demo.product.api.proto.ProductProtos;
+import com.example.demo.product.domain.ExchangeRateProvider;
+import com.example.demo.product.domain.ExchangeRates;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPageWriterTest {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+	@Mock
+	private ExchangeRateProvider exchangeRateProvider;
+
+	private ObjectMapper objectMapper;
+
+	private ObjectMapper smileMapper;
+
+	private ProductPageWriter pageWriter;
+
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	void setUp() {
+		SimpleModule money = new SimpleModule();
+		money.addSerializer(Money.class, new MoneyJsonComponent.Serializer());
+		objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.registerModule(money)
+			.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		smileMapper = objectMapper.copyWith(new SmileFactory());
+		pageWriter = new ProductPageWriter(List.of(new MappingJackson2SmileHttpMessageConverter(smileMapper),
+				new MappingJackson2HttpMessageConverter(objectMapper)), exchangeRateProvider);
+		request = new MockHttpServletRequest();
+	}
+
+	@Test
+	void write_ShouldWriteSameJsonAsPageResponse() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		Page<ProductResponse> page = new PageImpl<>(products(3), PageRequest.of(1, 3), 10);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		pageWriter.write(request, response, page);
+
+		// Assert
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(response.getContentAsString()).isEqualTo(objectMapper.writeValueAsString(PageResponse.from(page)));
+		assertThat(response.getHeader(ExchangeRateAgeAdvice.EXCHANGE_RATE_AGE)).isNull();
+	}
+
+	@Test
+	void open_WhenRowsAreStreamed_ShouldWriteSameJsonAsPageResponse() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		Pageable pageable = PageRequest.of(2, 250);
+		List<ProductResponse> products = products(250);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		PageSink<ProductResponse> sink = pageWriter.open(request, response);
+		for (ProductResponse product : products) {
+			sink.add(product);
+		}
+		sink.finish(pageable, 1000);
+
+		// Assert
+		assertThat(response.getContentAsString())
+			.isEqualTo(objectMapper.writeValueAsString(PageResponse.from(new PageImpl<>(products, pageable, 1000))));
+	}
+
+	@Test
+	void stream_ShouldMarkResponseAsStreamed() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		pageWriter.stream(request, response).finish(PageRequest.of(0, 200), 0);
+
+		// Assert
+		assertThat(request.getAttribute(QueryStats.STREAMED_RESPONSE_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+		assertThat(response.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void open_WhenRowsWereAddedAfterCounting_ShouldAdjustTotalLikePageImpl() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		Pageable pageable = PageRequest.of(0, 200);
+		List<ProductResponse> products = products(5);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		PageSink<ProductResponse> sink = pageWriter.open(request, response);
+		for (ProductResponse product : products) {
+			sink.add(product);
+		}
+		sink.finish(pageable, 3);
+
+		// Assert
+		assertThat(response.getContentAsString())
+			.isEqualTo(objectMapper.writeValueAsString(PageResponse.from(new PageImpl<>(products, pageable, 3))));
+	}
+
+	@Test
+	void open_WhenRatesAreServed_ShouldAddAgeHeader() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.of("USD",
+				Map.of("EUR", new BigDecimal("0.91")), Instant.now().minus(Duration.ofMinutes(10))));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		pageWriter.open(request, response).finish(PageRequest.of(0, 200), 0);
+
+		// Assert
+		assertThat(Long.parseLong(response.getHeader(ExchangeRateAgeAdvice.EXCHANGE_RATE_AGE))).isBetween(600L,
+				610L);
+		assertThat(response.getContentAsString()).isEqualTo("{\"content\":[],\"page\":0,\"size\":200,"
+				+ "\"totalElements\":0,\"totalPages\":0,\"first\":true,\"last\":true}");
+	}
+
+	@Test
+	void write_WhenClientAcceptsAnything_ShouldPreferJson() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		request.addHeader(HttpHeaders.ACCEPT, "application/x-jackson-smile;q=0.9, */*");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		pageWriter.write(request, response, new PageImpl<>(products(2)));
+
+		// Assert
+		assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT);
+	}
+
+	@Test
+	void write_WhenClientAcceptsSmile_ShouldWriteSmile() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		request.addHeader(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile");
+		Page<ProductResponse> page = new PageImpl<>(products(3), PageRequest.of(0, 3), 3);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		pageWriter.write(request, response, page);
+
+		// Assert
+		assertThat(response.getContentType()).isEqualTo("application/x-jackson-smile");
+		// Prices are native decimals in Smile, so JSON has to be read with BigDecimals too
+		assertThat(smileMapper.reader()
+			.with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+			.readTree(response.getContentAsByteArray()))
+			.isEqualTo(objectMapper.reader()
+				.with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+				.readTree(objectMapper.writeValueAsBytes(PageResponse.from(page))));
+	}
+
+	@Test
+	void open_WhenClientAcceptsProtobuf_ShouldStreamProductPageMessage() throws Exception {
+		// Arrange
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+		request.addHeader(HttpHeaders.ACCEPT, "application/x-protobuf");
+		List<ProductResponse> products = products(150);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act
+		PageSink<ProductResponse> sink = pageWriter.open(request, response);
+		for (ProductResponse product : products) {
+			sink.add(product);
+		}
+		sink.finish(PageRequest.of(1, 150), 400);
+
+		// Assert
+		assertThat(response.getContentType()).isEqualTo("application/x-protobuf");
+		ProductProtos.ProductPage page = ProductProtos.ProductPage.parseFrom(response.getContentAsByteArray());
+		assertThat(page.getContentCount()).isEqualTo(150);
+		assertThat(page.getContent(0)).isEqualTo(ProductProtobuf.toProto(products.getFirst()));
+		assertThat(page.getPage()).isEqualTo(1);
+		assertThat(page.getSize()).isEqualTo(150);
+		assertThat(page.getTotalElements()).isEqualTo(400);
+		assertThat(page.getTotalPages()).isEqualTo(3);
+		assertThat(page.getFirst()).isFalse();
+		assertThat(page.getLast()).isFalse();
+	}
+
+	@Test
+	void write_WhenNoFormatAcceptable_ShouldThrowNotAcceptable() {
+		// Arrange
+		request.addHeader(HttpHeaders.ACCEPT, "text/csv, application/json;q=0");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		// Act & Assert
+		assertThatThrownBy(() -> pageWriter.write(request, response, new PageImpl<>(products(1))))
+			.isInstanceOfSatisfying(HttpMediaTypeNotAcceptableException.class,
+					ex -> assertThat(ex.getSupportedMediaTypes()).contains(MediaType.APPLICATION_JSON,
+							ProductProtobuf.PROTOBUF));
+		assertThat(response.isCommitted()).isFalse();
+		assertThat(response.getContentType()).isNull();
+	}
+
+	private static List<ProductResponse> products(int count) {
+		List<ProductResponse> products = new ArrayList<>(count);
+		for (long id = 1; id <= count; id++) {
+			products.add(new ProductResponse(id, "Product " + id, "Description of product " + id,
+					new Money(1000 + id, 2), new Money(910 + id, 2), null, null, "Electronics", null, true,
+					CREATED_AT, CREATED_AT, 0));
+		}
+		return products;
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.example.demo.product.api;
+
+import com.example.demo.product.api.proto.ProductProtos;
+import com.example.demo.product.domain.Money;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductProtobufHttpMessageConverterTest {
+
+	private final ProductProtobufHttpMessageConverter converter = new ProductProtobufHttpMessageConverter();
+
+	@Test
+	void write_ShouldWriteProductMessage() throws Exception {
+		// Arrange
+		LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30, 5, 123_000_000);
+		ProductResponse product = new ProductResponse(1L, "Laptop", "A laptop", new Money(99999, 2),
+				new Money(90999, 2), null, null, "Electronics", null, true, createdAt, createdAt, 3);
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+		// Act
+		converter.write(product, ProductProtobuf.PROTOBUF, message);
+
+		// Assert
+		ProductProtos.Product proto = ProductProtos.Product.parseFrom(message.getBodyAsBytes());
+		assertThat(message.getHeaders().getContentLength()).isEqualTo(message.getBodyAsBytes().length);
+		assertThat(proto.getId()).isEqualTo(1L);
+		assertThat(proto.getName()).isEqualTo("Laptop");
+		assertThat(ProductProtobuf.fromProto(proto.getPriceUsd())).isEqualTo(new Money(99999, 2));
+		assertThat(ProductProtobuf.fromProto(proto.getPriceEur())).isEqualTo(new Money(90999, 2));
+		assertThat(proto.hasPrice()).isFalse();
+		assertThat(proto.hasCurrency()).isFalse();
+		assertThat(proto.hasImageUrl()).isFalse();
+		assertThat(proto.getAvailable()).isTrue();
+		assertThat(ProductProtobuf.fromProto(proto.getCreatedAt())).isEqualTo(createdAt);
+	}
+
+	@Test
+	void read_ShouldReadProductRequest() throws Exception {
+		// Arrange
+		byte[] body = ProductProtos.ProductRequest.newBuilder()
+			.setName("Laptop")
+			.setDescription("A powerful laptop")
+			.setPrice(ProductProtobuf.toProto(new Money(129999, 2)))
+			.setAvailable(false)
+			.build()
+			.toByteArray();
+
+		// Act
+		ProductRequest request = (ProductRequest) converter.read(ProductRequest.class, new MockHttpInputMessage(body));
+
+		// Assert
+		assertThat(request).isEqualTo(new ProductRequest("Laptop", "A powerful laptop", new BigDecimal("1299.99"),
+				"Uncategorized", "", false));
+	}
+
+	@Test
+	void canReadAndWrite_ShouldOnlyAcceptProductTypes() {
+		assertThat(converter.canRead(ProductRequest.class, ProductProtobuf.PROTOBUF)).isTrue();
+		assertThat(converter.canRead(ProductResponse.class, ProductProtobuf.PROTOBUF)).isFalse();
+		assertThat(converter.canWrite(ProductResponse.class, ProductProtobuf.PROTOBUF)).isTrue();
+		assertThat(converter.canWrite(ProductRequest.class, ProductProtobuf.PROTOBUF)).isFalse();
+		assertThat(converter.canWrite(ProductResponse.class, MediaType.APPLICATION_JSON)).isFalse();
+	}
+
+}
@@ -0,0 +1,150 @@
+package com.example.demo.product.api;
+
+import com.example.demo.common.cache.CacheRegistry;
+import com.example.demo.common.compression.CompressionProperties;
+import com.example.demo.common.compression.ContentCoding;
+import com.example.demo.product.domain.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.MimeType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductResponseHttpMessageConverterTest {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+	private ProductJsonCache cache;
+
+	private ObjectMapper objectMapper;
+
+	private ProductResponseHttpMessageConverter converter;
+
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ProductJsonCache(new ProductJsonCacheProperties(true, DataSize.ofMegabytes(1),
+				Duration.ofMinutes(10)), new CacheRegistry(new SimpleMeterRegistry()), DataSize.ofKilobytes(1));
+		SimpleModule money = new SimpleModule();
+		money.addSerializer(Money.class, new MoneyJsonComponent.Serializer());
+		money.addDeserializer(Money.class, new MoneyJsonComponent.Deserializer());
+		objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.registerModule(money)
+			.registerModule(ProductJsonConfig.productJsonModule(cache))
+			.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		converter = new ProductResponseHttpMessageConverter(objectMapper, cache,
+				new CompressionProperties(true, DataSize.ofKilobytes(1),
+						List.of(ContentCoding.ZSTD, ContentCoding.GZIP), List.of(MimeType.valueOf("application/json")),
+						3, 6));
+		request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void write_WhenNoCodingNegotiated_ShouldWritePlainJson() throws Exception {
+		// Arrange
+		ProductResponse product = product("Long description ".repeat(100));
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+		// Act
+		converter.write(product, MediaType.APPLICATION_JSON, message);
+
+		// Assert
+		assertThat(message.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(message.getBodyAsString()).isEqualTo(objectMapper.writeValueAsString(product));
+		assertThat(message.getHeaders().getContentLength()).isEqualTo(message.getBodyAsBytes().length);
+	}
+
+	@Test
+	void write_WhenCodingNegotiated_ShouldReuseCompressedCopy() throws Exception {
+		// Arrange
+		ContentCoding.setNegotiated(request, ContentCoding.GZIP);
+		ProductResponse product = product("Long description ".repeat(100));
+		MockHttpOutputMessage first = new MockHttpOutputMessage();
+		MockHttpOutputMessage second = new MockHttpOutputMessage();
+
+		// Act
+		converter.write(product, MediaType.APPLICATION_JSON, first);
+		converter.write(product, MediaType.APPLICATION_JSON, second);
+
+		// Assert
+		assertThat(first.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(first.getHeaders().getContentLength()).isEqualTo(first.getBodyAsBytes().length);
+		assertThat(gunzip(first.getBodyAsBytes())).isEqualTo(objectMapper.writeValueAsString(product));
+		assertThat(second.getBodyAsBytes()).isEqualTo(first.getBodyAsBytes());
+		assertThat(cache.find(product).compressed(ContentCoding.GZIP, 6)).isEqualTo(first.getBodyAsBytes());
+	}
+
+	@Test
+	void write_WhenJsonBelowThreshold_ShouldNotCompress() throws Exception {
+		// Arrange
+		ContentCoding.setNegotiated(request, ContentCoding.GZIP);
+		ProductResponse product = product("Short");
+		MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+		// Act
+		converter.write(product, MediaType.APPLICATION_JSON, message);
+
+		// Assert
+		assertThat(message.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(message.getBodyAsString()).isEqualTo(objectMapper.writeValueAsString(product));
+	}
+
+	@Test
+	void read_ShouldParseWrittenJson() throws Exception {
+		// Arrange
+		ProductResponse product = product("Test Description");
+		MockHttpOutputMessage written = new MockHttpOutputMessage();
+		converter.write(product, MediaType.APPLICATION_JSON, written);
+		MockHttpInputMessage message = new MockHttpInputMessage(written.getBodyAsBytes());
+		message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+		// Act
+		ProductResponse read = converter.read(ProductResponse.class, message);
+
+		// Assert
+		assertThat(read).isEqualTo(product);
+		assertThat(converter.canRead(ProductResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+		assertThat(converter.canWrite(Object.class, MediaType.APPLICATION_JSON)).isFalse();
+	}
+
+	private static ProductResponse product(String description) {
+		return new ProductResponse(1L, "Laptop", description, new Money(99990, 2), new Money(90990, 2), null, null,
+				"Electronics", null, true, CREATED_AT, CREATED_AT, 0);
+	}
+
+	private static String gunzip(byte[] compressed) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.example.demo.product.api;
 
 import com.example.demo.product.domain.CurrencyExchangeService;
+import com.example.demo.product.domain.Money;
 import com.example.demo.product.domain.Product;
 import org.junit.jupiter.api.Test;
 
@@ -21,7 +22,7 @@ class ProductResponseTest {
 		when(product.getId()).thenReturn(1L);
 		when(product.getName()).thenReturn("Test Product");
 		when(product.getDescription()).thenReturn("Test Description");
-		when(product.getPrice()).thenReturn(new BigDecimal("99.99"));
+		when(product.getPrice()).thenReturn(Money.of(new BigDecimal("99.99")));
 		when(product.getCategory()).thenReturn("Test Category");
 		when(product.getImageUrl()).thenReturn("https://example.com/test.jpg");
 		when(product.isAvailable()).thenReturn(true);
@@ -36,7 +37,7 @@ class ProductResponseTest {
 		assertThat(response.id()).isEqualTo(1L);
 		assertThat(response.name()).isEqualTo("Test Product");
 		assertThat(response.description()).isEqualTo("Test Description");
-		assertThat(response.priceUSD()).isEqualTo(new BigDecimal("99.99"));
+		assertThat(response.priceUSD()).isEqualTo(Money.of(new BigDecimal("99.99")));
 		assertThat(response.priceEUR()).isNull();
 		assertThat(response.category()).isEqualTo("Test Category");
 		assertThat(response.imageUrl()).isEqualTo("https://example.com/test.jpg");
@@ -53,7 +54,7 @@ class ProductResponseTest {
 		when(product.getId()).thenReturn(1L);
 		when(product.getName()).thenReturn("Test Product");
 		when(product.getDescription()).thenReturn("Test Description");
-		when(product.getPrice()).thenReturn(new BigDecimal("99.99"));
+		when(product.getPrice()).thenReturn(Money.of(new BigDecimal("99.99")));
 		when(product.getCategory()).thenReturn("Test Category");
 		when(product.getImageUrl()).thenReturn("https://example.com/test.jpg");
 		when(product.isAvailable()).thenReturn(true);
@@ -61,7 +62,7 @@ class ProductResponseTest {
 		when(product.getUpdatedAt()).thenReturn(now);
 
 		CurrencyExchangeService currencyExchangeService = mock(CurrencyExchangeService.class);
-		when(currencyExchangeService.getExchangeRate("USD", "EUR")).thenReturn(new BigDecimal("1.1"));
+		when(currencyExchangeService.getExchangeRate("USD", "EUR")).thenReturn(new BigDecimal("0.91"));
 
 		// Act
 		ProductResponse response = ProductResponse.fromEntity(product, currencyExchangeService);
@@ -71,9 +72,8 @@ class ProductResponseTest {
 		assertThat(response.id()).isEqualTo(1L);
 		assertThat(response.name()).isEqualTo("Test Product");
 		assertThat(response.description()).isEqualTo("Test Description");
-		assertThat(response.priceUSD()).isEqualTo(new BigDecimal("99.99"));
-		assertThat(response.priceEUR())
-			.isEqualTo(new BigDecimal("99.99").divide(new BigDecimal("1.1"), 2, java.math.RoundingMode.HALF_UP));
+		assertThat(response.priceUSD()).isEqualTo(Money.of(new BigDecimal("99.99")));
+		assertThat(response.priceEUR()).isEqualTo(Money.of(new BigDecimal("90.99")));
 		assertThat(response.category()).isEqualTo("Test Category");
 		assertThat(response.imageUrl()).isEqualTo("https://example.com/test.jpg");
 		assertThat(response.available()).isTrue();
@@ -81,4 +81,32 @@ class ProductResponseTest {
 		assertThat(response.updatedAt()).isEqualTo(now);
 	}
 
+	@Test
+	void fromEntity_WithResolvedRate_ShouldConvertWithoutLookup() {
+		// Arrange
+		Product product = new Product("Test Product", "Test Description", Money.of(new BigDecimal("99.99")),
+				"Test Category", "https://example.com/test.jpg", true);
+
+		// Act
+		ProductResponse response = ProductResponse.fromEntity(product, new BigDecimal("0.91"));
+
+		// Assert
+		assertThat(response.priceUSD()).isEqualTo(Money.of(new BigDecimal("99.99")));
+		assertThat(response.priceEUR()).isEqualTo(Money.of(new BigDecimal("90.99")));
+	}
+
+	@Test
+	void fromEntity_WithMissingRate_ShouldFallBackToUsdPrice() {
+		// Arrange
+		Product product = new Product("Test Product", "Test Description", Money.of(new BigDecimal("99.99")),
+				"Test Category", "https://example.com/test.jpg", true);
+
+		// Act
+		ProductResponse response = ProductResponse.fromEntity(product, (BigDecimal) null);
+
+		// Assert
+		assertThat(response.priceUSD()).isEqualTo(Money.of(new BigDecimal("99.99")));
+		assertThat(response.priceEUR()).isEqualTo(Money.of(new BigDecimal("99.99")));
+	}
+
 }
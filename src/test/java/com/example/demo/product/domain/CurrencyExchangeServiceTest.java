@@ -1,18 +1,32 @@
 package com.example.demo.product.domain;
 
+import com.example.demo.common.circuitbreaker.CircuitBreaker;
+import com.example.demo.common.circuitbreaker.CircuitBreakerOpenException;
 import com.example.demo.product.config.CurrencyExchangeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyExchangeServiceTest {
@@ -23,12 +37,22 @@ class CurrencyExchangeServiceTest {
 	@Mock
 	private CurrencyExchangeProperties properties;
 
+	private static final CurrencyExchangeProperties.Backoff FAST_BACKOFF = new CurrencyExchangeProperties.Backoff(
+			Duration.ofMillis(1), 2.0, Duration.ofMillis(4));
+
+	private static final Duration OPEN_DURATION = Duration.ofMinutes(1);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
 	@BeforeEach
 	void setUp() {
 		// Configure mock properties with lenient mode to avoid unnecessary stubbing
 		// exceptions
 		lenient().when(properties.frankfurterApiUrl()).thenReturn("https://api.frankfurter.app/latest?from=EUR&to=USD");
 		lenient().when(properties.maxRetries()).thenReturn(3);
+		lenient().when(properties.backoff()).thenReturn(FAST_BACKOFF);
+		lenient().when(properties.circuitBreaker())
+			.thenReturn(new CurrencyExchangeProperties.Breaker(5, OPEN_DURATION));
 	}
 
 	@Test
@@ -39,7 +63,7 @@ class CurrencyExchangeServiceTest {
 		BigDecimal expectedEurAmount = usdAmount.divide(exchangeRate, 2, RoundingMode.HALF_UP); // 100.00
 																								// EUR
 
-		CurrencyExchangeService service = new CurrencyExchangeService(restClient, properties);
+		CurrencyExchangeService service = new CurrencyExchangeService(restClient, properties, meterRegistry);
 		CurrencyExchangeService spyService = spy(service);
 		doReturn(exchangeRate).when(spyService).getExchangeRate("EUR", "USD");
 
@@ -54,7 +78,7 @@ class CurrencyExchangeServiceTest {
 	@Test
 	void convertUsdToEur_WhenUsdAmountIsNull_ShouldReturnZero() {
 		// Arrange
-		CurrencyExchangeService service = new CurrencyExchangeService(restClient, properties);
+		CurrencyExchangeService service = new CurrencyExchangeService(restClient, properties, meterRegistry);
 		BigDecimal usdAmount = null;
 
 		// Act
@@ -72,7 +96,7 @@ class CurrencyExchangeServiceTest {
 		BigDecimal invalidRate = BigDecimal.ZERO;
 		BigDecimal expectedEurAmount = usdAmount; // With rate of 1, USD = EUR
 
-		CurrencyExchangeService service = new CurrencyExchangeService(restClient, properties);
+		CurrencyExchangeService service = new CurrencyExchangeService(restClient, properties, meterRegistry);
 		CurrencyExchangeService spyService = spy(service);
 		doReturn(invalidRate).when(spyService).getExchangeRate("USD", "EUR");
 
@@ -86,4 +110,101 @@ class CurrencyExchangeServiceTest {
 		verify(spyService).getExchangeRate("USD", "EUR");
 	}
 
+	@Test
+	void fetchRates_ShouldFetchAllRatesForBaseInOneCall() {
+		// Arrange
+		RestClient.Builder builder = RestClient.builder();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+		server.expect(requestTo("https://api.frankfurter.app/latest?from=USD"))
+			.andExpect(method(HttpMethod.GET))
+			.andRespond(withSuccess(
+					"{\"amount\":1.0,\"base\":\"USD\",\"date\":\"2025-01-01\",\"rates\":{\"EUR\":0.91,\"GBP\":0.79}}",
+					MediaType.APPLICATION_JSON));
+		CurrencyExchangeService service = new CurrencyExchangeService(builder.build(), properties(3, 5),
+				meterRegistry);
+
+		// Act
+		Map<String, BigDecimal> rates = service.fetchRates("USD");
+
+		// Assert
+		assertThat(rates).containsEntry("EUR", new BigDecimal("0.91")).containsEntry("GBP", new BigDecimal("0.79"));
+		server.verify();
+	}
+
+	@Test
+	void fetchRates_WhenResponseHasNoRates_ShouldThrowException() {
+		// Arrange
+		RestClient.Builder builder = RestClient.builder();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+		server.expect(requestTo("https://api.frankfurter.app/latest?from=USD"))
+			.andRespond(withSuccess("{\"base\":\"USD\",\"rates\":{}}", MediaType.APPLICATION_JSON));
+		CurrencyExchangeService service = new CurrencyExchangeService(builder.build(), properties(3, 5),
+				meterRegistry);
+
+		// Act & Assert
+		assertThatThrownBy(() -> service.fetchRates("USD")).isInstanceOf(IllegalStateException.class)
+			.hasMessage("Invalid response from Frankfurter API");
+	}
+
+	@Test
+	void fetchRates_WhenApiFailsTransiently_ShouldRetryWithBackoff() {
+		// Arrange
+		RestClient.Builder builder = RestClient.builder();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+		server.expect(ExpectedCount.times(2), requestTo("https://api.frankfurter.app/latest?from=USD"))
+			.andRespond(withServerError());
+		server.expect(requestTo("https://api.frankfurter.app/latest?from=USD"))
+			.andRespond(withSuccess("{\"base\":\"USD\",\"rates\":{\"EUR\":0.91}}", MediaType.APPLICATION_JSON));
+		CurrencyExchangeService service = new CurrencyExchangeService(builder.build(), properties(3, 5), meterRegistry);
+
+		// Act
+		Map<String, BigDecimal> rates = service.fetchRates("USD");
+
+		// Assert
+		assertThat(rates).containsEntry("EUR", new BigDecimal("0.91"));
+		assertThat(service.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		server.verify();
+	}
+
+	@Test
+	void fetchRates_WhenBreakerOpens_ShouldFailFastWithoutCallingApi() {
+		// Arrange
+		RestClient.Builder builder = RestClient.builder();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+		server.expect(ExpectedCount.times(3), requestTo("https://api.frankfurter.app/latest?from=USD"))
+			.andRespond(withServerError());
+		CurrencyExchangeService service = new CurrencyExchangeService(builder.build(), properties(5, 3), meterRegistry);
+
+		// Act & Assert
+		assertThatThrownBy(() -> service.fetchRates("USD")).isInstanceOf(CircuitBreakerOpenException.class);
+		assertThatThrownBy(() -> service.fetchRates("USD")).isInstanceOf(CircuitBreakerOpenException.class);
+		assertThat(service.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(meterRegistry.get("circuitbreaker.calls.rejected").tag("name", "frankfurter").counter().count())
+			.isEqualTo(2);
+		server.verify();
+	}
+
+	@Test
+	void getExchangeRate_WhenApiUnavailable_ShouldReturnNullInsteadOfParity() {
+		// Arrange
+		RestClient.Builder builder = RestClient.builder();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(builder).build();
+		server.expect(ExpectedCount.times(2), requestTo("https://api.frankfurter.app/latest?from=USD&to=EUR"))
+			.andRespond(withServerError());
+		CurrencyExchangeService service = new CurrencyExchangeService(builder.build(), properties(1, 5), meterRegistry);
+
+		// Act
+		BigDecimal rate = service.getExchangeRate("USD", "EUR");
+
+		// Assert
+		assertThat(rate).isNull();
+		server.verify();
+	}
+
+	private static CurrencyExchangeProperties properties(int maxRetries, int failureThreshold) {
+		return new CurrencyExchangeProperties("https://api.frankfurter.app/latest?", maxRetries, "USD",
+				Duration.ofMinutes(5), Duration.ofHours(1), FAST_BACKOFF,
+				new CurrencyExchangeProperties.Breaker(failureThreshold, OPEN_DURATION));
+	}
+
 }
@@ -0,0 +1,202 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.config.CurrencyExchangeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ExchangeRateProviderTest {
+
+	private final CurrencyExchangeService currencyExchangeService = mock(CurrencyExchangeService.class);
+
+	private final ExchangeRateStore exchangeRateStore = mock(ExchangeRateStore.class);
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ExchangeRateProvider provider;
+
+	@BeforeEach
+	void setUp() {
+		CurrencyExchangeProperties properties = new CurrencyExchangeProperties("https://api.frankfurter.app/latest?",
+				3, "USD", Duration.ofMinutes(5), Duration.ofHours(1),
+				new CurrencyExchangeProperties.Backoff(Duration.ofMillis(200), 2.0, Duration.ofSeconds(2)),
+				new CurrencyExchangeProperties.Breaker(5, Duration.ofSeconds(30)));
+		meterRegistry = new SimpleMeterRegistry();
+		provider = new ExchangeRateProvider(currencyExchangeService, exchangeRateStore, properties, meterRegistry,
+				clock);
+	}
+
+	@Test
+	void getRate_BeforeFirstRefresh_ShouldReturnNull() {
+		assertThat(provider.getRate("EUR")).isNull();
+		assertThat(provider.snapshotAge()).isNull();
+		assertThat(meterRegistry.get("currency.rates.age").gauge().value()).isNaN();
+	}
+
+	@Test
+	void refresh_WhenUpstreamSucceeds_ShouldServeNewSnapshot() {
+		// Arrange
+		when(currencyExchangeService.fetchRates("USD"))
+			.thenReturn(Map.of("EUR", new BigDecimal("0.91"), "GBP", new BigDecimal("0.79")));
+
+		// Act
+		provider.refresh();
+		clock.advance(Duration.ofSeconds(30));
+
+		// Assert
+		assertThat(provider.getRate("EUR")).isEqualTo(new BigDecimal("0.91"));
+		assertThat(provider.getRate("GBP")).isEqualTo(new BigDecimal("0.79"));
+		assertThat(provider.currentRates().base()).isEqualTo("USD");
+		assertThat(meterRegistry.get("currency.rates.age").gauge().value()).isEqualTo(30.0);
+		assertThat(meterRegistry.get("currency.rates.refresh").tag("outcome", "success").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void refresh_WhenUpstreamFails_ShouldKeepPreviousSnapshot() {
+		// Arrange
+		when(currencyExchangeService.fetchRates("USD")).thenReturn(Map.of("EUR", new BigDecimal("0.91")))
+			.thenThrow(new IllegalStateException("Invalid response from Frankfurter API"));
+		provider.refresh();
+		clock.advance(Duration.ofMinutes(5));
+
+		// Act
+		provider.refresh();
+
+		// Assert
+		assertThat(provider.getRate("EUR")).isEqualTo(new BigDecimal("0.91"));
+		assertThat(provider.snapshotAge()).isEqualTo(Duration.ofMinutes(5));
+		assertThat(meterRegistry.get("currency.rates.refresh").tag("outcome", "failure").counter().count())
+			.isEqualTo(1);
+	}
+
+	@Test
+	void getRate_WhenSnapshotExceedsMaxStaleness_ShouldReturnNull() {
+		// Arrange
+		when(currencyExchangeService.fetchRates("USD")).thenReturn(Map.of("EUR", new BigDecimal("0.91")));
+		provider.refresh();
+
+		// Act
+		clock.advance(Duration.ofHours(1).plusSeconds(1));
+
+		// Assert
+		assertThat(provider.getRate("EUR")).isNull();
+		assertThat(provider.currentRates()).isSameAs(ExchangeRates.EMPTY);
+		assertThat(provider.snapshotAge()).isEqualTo(Duration.ofHours(1).plusSeconds(1));
+	}
+
+	@Test
+	void loadLastKnownGood_ShouldServeStoredRatesWithoutUpstreamCall() {
+		// Arrange
+		when(exchangeRateStore.load("USD")).thenReturn(ExchangeRates.of("USD", Map.of("EUR", new BigDecimal("0.91")),
+				clock.instant().minus(Duration.ofMinutes(20))));
+
+		// Act
+		provider.loadLastKnownGood();
+
+		// Assert
+		assertThat(provider.getRate("EUR")).isEqualTo(new BigDecimal("0.91"));
+		assertThat(provider.snapshotAge()).isEqualTo(Duration.ofMinutes(20));
+		verifyNoInteractions(currencyExchangeService);
+	}
+
+	@Test
+	void loadLastKnownGood_WhenStoreFails_ShouldStartWithoutRates() {
+		// Arrange
+		when(exchangeRateStore.load("USD")).thenThrow(new IllegalStateException("Database unavailable"));
+
+		// Act
+		provider.loadLastKnownGood();
+
+		// Assert
+		assertThat(provider.currentRates()).isSameAs(ExchangeRates.EMPTY);
+	}
+
+	@Test
+	void refresh_WhenUpstreamSucceeds_ShouldPersistSnapshot() {
+		// Arrange
+		when(currencyExchangeService.fetchRates("USD")).thenReturn(Map.of("EUR", new BigDecimal("0.91")));
+
+		// Act
+		provider.refresh();
+
+		// Assert
+		verify(exchangeRateStore).save(provider.currentRates());
+	}
+
+	@Test
+	void refresh_WhenUpstreamFails_ShouldNotTouchStore() {
+		// Arrange
+		when(currencyExchangeService.fetchRates("USD"))
+			.thenThrow(new IllegalStateException("Invalid response from Frankfurter API"));
+
+		// Act
+		provider.refresh();
+
+		// Assert
+		verify(exchangeRateStore, never()).save(any());
+	}
+
+	@Test
+	void refresh_WhenStoreFails_ShouldStillServeNewSnapshot() {
+		// Arrange
+		when(currencyExchangeService.fetchRates("USD")).thenReturn(Map.of("EUR", new BigDecimal("0.91")));
+		doThrow(new IllegalStateException("Database unavailable")).when(exchangeRateStore).save(any());
+
+		// Act
+		provider.refresh();
+
+		// Assert
+		assertThat(provider.getRate("EUR")).isEqualTo(new BigDecimal("0.91"));
+		assertThat(meterRegistry.get("currency.rates.store.failures").counter().count()).isEqualTo(1);
+	}
+
+	static final class MutableClock extends Clock {
+
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.common.sql.QueryStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static com.example.demo.common.sql.QueryStatsAssert.assertThatQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statements of storing a rate snapshot against the real persistence layer.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExchangeRateStoreQueryBudgetTest {
+
+	@Autowired
+	private ExchangeRateStore exchangeRateStore;
+
+	@Test
+	void save_ShouldDeleteAndInsertInTwoStatements() {
+		// Arrange
+		Instant fetchedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+		exchangeRateStore.save(ExchangeRates.of("XTS", Map.of("EUR", new BigDecimal("0.5")), fetchedAt));
+		ExchangeRates rates = ExchangeRates.of("XTS", Map.of("EUR", new BigDecimal("0.91"), "GBP",
+				new BigDecimal("0.79"), "JPY", new BigDecimal("147.25")), fetchedAt);
+
+		// Act
+		QueryStats stats = QueryStats.measure(() -> exchangeRateStore.save(rates));
+
+		// Assert
+		assertThatQueries(stats).hasStatements(2);
+		ExchangeRates stored = exchangeRateStore.load("XTS");
+		assertThat(stored.rate("EUR")).isEqualByComparingTo("0.91");
+		assertThat(stored.rate("GBP")).isEqualByComparingTo("0.79");
+		assertThat(stored.rate("JPY")).isEqualByComparingTo("147.25");
+		assertThat(stored.fetchedAt()).isEqualTo(fetchedAt);
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.example.demo.product.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExchangeRateStoreTest {
+
+	private static final Instant FETCHED_AT = Instant.parse("2025-01-01T10:00:00Z");
+
+	@Mock
+	private ExchangeRateRepository exchangeRateRepository;
+
+	@InjectMocks
+	private ExchangeRateStore exchangeRateStore;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void save_ShouldReplaceStoredRatesWithoutBaseCurrency() {
+		// Arrange
+		ExchangeRates rates = ExchangeRates.of("USD",
+				Map.of("EUR", new BigDecimal("0.91"), "GBP", new BigDecimal("0.79")), FETCHED_AT);
+		ArgumentCaptor<List<StoredExchangeRate>> rows = ArgumentCaptor.forClass(List.class);
+
+		// Act
+		exchangeRateStore.save(rates);
+
+		// Assert
+		var order = inOrder(exchangeRateRepository);
+		order.verify(exchangeRateRepository).deleteByBaseCurrency("USD");
+		order.verify(exchangeRateRepository).insertAll(rows.capture());
+		assertThat(rows.getValue()).extracting(StoredExchangeRate::getCurrency).containsExactlyInAnyOrder("EUR", "GBP");
+		assertThat(rows.getValue()).extracting(StoredExchangeRate::getFetchedAt)
+			.containsOnly(LocalDateTime.parse("2025-01-01T10:00:00"));
+	}
+
+	@Test
+	void load_ShouldRebuildSnapshotWithOldestFetchTime() {
+		// Arrange
+		when(exchangeRateRepository.findByBaseCurrency("USD")).thenReturn(List.of(
+				new StoredExchangeRate("USD", "EUR", new BigDecimal("0.9100000000"),
+						LocalDateTime.parse("2025-01-01T10:00:00")),
+				new StoredExchangeRate("USD", "GBP", new BigDecimal("0.7900000000"),
+						LocalDateTime.parse("2025-01-01T09:00:00"))));
+
+		// Act
+		ExchangeRates rates = exchangeRateStore.load("USD");
+
+		// Assert
+		assertThat(rates.base()).isEqualTo("USD");
+		assertThat(rates.rate("EUR")).isEqualByComparingTo("0.91");
+		assertThat(rates.rate("USD")).isEqualByComparingTo("1");
+		assertThat(rates.fetchedAt()).isEqualTo(Instant.parse("2025-01-01T09:00:00Z"));
+	}
+
+	@Test
+	void load_WhenNothingStored_ShouldReturnEmptySnapshot() {
+		// Arrange
+		when(exchangeRateRepository.findByBaseCurrency("USD")).thenReturn(List.of());
+
+		// Act & Assert
+		assertThat(exchangeRateStore.load("USD")).isSameAs(ExchangeRates.EMPTY);
+	}
+
+}
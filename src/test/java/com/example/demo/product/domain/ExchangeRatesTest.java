@@ -0,0 +1,109 @@
+package com.example.demo.product.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExchangeRatesTest {
+
+	private static final Instant FETCHED_AT = Instant.parse("2025-01-01T00:00:00Z");
+
+	@Test
+	void of_ShouldPrecomputeScalePerCurrency() {
+		// Act
+		ExchangeRates rates = ExchangeRates.of("USD",
+				Map.of("EUR", new BigDecimal("0.91"), "JPY", new BigDecimal("147.25"), "KWD", new BigDecimal("0.307")),
+				FETCHED_AT);
+
+		// Assert
+		assertThat(rates.find("EUR").scale()).isEqualTo(2);
+		assertThat(rates.find("JPY").scale()).isZero();
+		assertThat(rates.find("KWD").scale()).isEqualTo(3);
+	}
+
+	@Test
+	void of_ShouldIncludeBaseCurrencyWithIdentityRate() {
+		// Act
+		ExchangeRates rates = ExchangeRates.of("USD", Map.of("EUR", new BigDecimal("0.91")), FETCHED_AT);
+
+		// Assert
+		assertThat(rates.rate("USD")).isEqualByComparingTo(BigDecimal.ONE);
+		assertThat(rates.find("USD").convert(new BigDecimal("99.99"))).isEqualTo(new BigDecimal("99.99"));
+	}
+
+	@Test
+	void of_ShouldSkipMissingAndNonPositiveRates() {
+		// Arrange
+		Map<String, BigDecimal> rawRates = new HashMap<>();
+		rawRates.put("EUR", new BigDecimal("0.91"));
+		rawRates.put("GBP", BigDecimal.ZERO);
+		rawRates.put("CHF", new BigDecimal("-1"));
+		rawRates.put("SEK", null);
+
+		// Act
+		ExchangeRates rates = ExchangeRates.of("USD", rawRates, FETCHED_AT);
+
+		// Assert
+		assertThat(rates.rates()).containsOnlyKeys("USD", "EUR");
+		assertThat(rates.find("GBP")).isNull();
+		assertThat(rates.rate("SEK")).isNull();
+	}
+
+	@Test
+	void age_ShouldReturnTimeSinceFetch() {
+		// Arrange
+		ExchangeRates rates = ExchangeRates.of("USD", Map.of(), FETCHED_AT);
+
+		// Act & Assert
+		assertThat(rates.age(FETCHED_AT.plusSeconds(90))).isEqualTo(Duration.ofSeconds(90));
+		assertThat(ExchangeRates.EMPTY.isEmpty()).isTrue();
+	}
+
+	@Test
+	void convert_ShouldMultiplyByRateAndRoundHalfUpToCurrencyScale() {
+		// Arrange
+		CurrencyRate jpy = CurrencyRate.of("JPY", new BigDecimal("147.25"));
+
+		// Act & Assert
+		assertThat(jpy.convert(new BigDecimal("99.99"))).isEqualTo(new BigDecimal("14724"));
+		assertThat(jpy.convert(new Money(9999, 2))).isEqualTo(new Money(14724, 0));
+		assertThatThrownBy(() -> CurrencyRate.of("JPY", BigDecimal.ZERO)).isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("rate must be positive");
+	}
+
+	@Test
+	void priceConverter_ShouldResolveEurAndRequestedCurrencyOnce() {
+		// Arrange
+		ExchangeRates rates = ExchangeRates.of("USD",
+				Map.of("EUR", new BigDecimal("0.91"), "GBP", new BigDecimal("0.79")), FETCHED_AT);
+
+		// Act
+		PriceConverter converter = PriceConverter.of(rates, "GBP");
+
+		// Assert
+		assertThat(converter.currency()).isEqualTo("GBP");
+		assertThat(converter.toEur(new Money(1000, 2))).isEqualTo(new Money(910, 2));
+		assertThat(converter.toTarget(new Money(1000, 2))).isEqualTo(new Money(790, 2));
+		assertThat(PriceConverter.of(ExchangeRates.EMPTY, null).toEur(new Money(1000, 2)))
+			.isEqualTo(new Money(1000, 2));
+	}
+
+	@Test
+	void priceConverter_WhenCurrencyMissingFromRates_ShouldThrowException() {
+		// Arrange
+		ExchangeRates rates = ExchangeRates.of("USD", Map.of("EUR", new BigDecimal("0.91")), FETCHED_AT);
+
+		// Act & Assert
+		assertThatThrownBy(() -> PriceConverter.of(rates, "CHF")).isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unsupported currency: CHF");
+		assertThat(PriceConverter.of(ExchangeRates.EMPTY, "CHF").toTarget(new Money(1000, 2))).isNull();
+	}
+
+}
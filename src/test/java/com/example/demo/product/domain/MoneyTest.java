@@ -0,0 +1,150 @@
+package com.example.demo.product.domain;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Example tests plus property-based parity checks of the fixed-point path against the
+ * {@link BigDecimal} arithmetic it replaces.
+ */
+class MoneyTest {
+
+	private static final BigDecimal MIN_RATE = new BigDecimal("0.0001");
+
+	private static final BigDecimal MAX_RATE = new BigDecimal("1000000");
+
+	@Property(tries = 20_000)
+	void convert_ShouldMatchBigDecimalMultiplication(@ForAll @LongRange(min = -10_000_000_000L,
+			max = 10_000_000_000L) long minorUnits, @ForAll @IntRange(min = 0, max = 4) int priceScale,
+			@ForAll("rates") BigDecimal rate, @ForAll("currencies") String currency) {
+		// Arrange
+		CurrencyRate currencyRate = CurrencyRate.of(currency, rate);
+		Money price = new Money(minorUnits, priceScale);
+
+		// Act
+		Money converted = currencyRate.convert(price);
+
+		// Assert
+		BigDecimal expected = price.toBigDecimal().multiply(rate).setScale(currencyRate.scale(), RoundingMode.HALF_UP);
+		assertThat(converted).isEqualTo(Money.of(expected));
+		assertThat(converted.toString()).isEqualTo(expected.toString());
+	}
+
+	@Property(tries = 5_000)
+	void convert_WithAmountsBeyondFixedPointRange_ShouldFallBackWithoutLoss(
+			@ForAll @LongRange(min = 1_000_000_000_000L, max = Long.MAX_VALUE / 10) long minorUnits,
+			@ForAll("rates") BigDecimal rate) {
+		// Arrange
+		CurrencyRate currencyRate = CurrencyRate.of("EUR", rate);
+		Money price = new Money(minorUnits, 2);
+
+		// Act
+		Money converted;
+		try {
+			converted = currencyRate.convert(price);
+		}
+		catch (ArithmeticException _) {
+			// The converted amount itself does not fit into a long
+			return;
+		}
+
+		// Assert
+		assertThat(converted.toBigDecimal())
+			.isEqualTo(price.toBigDecimal().multiply(rate).setScale(currencyRate.scale(), RoundingMode.HALF_UP));
+	}
+
+	@Property(tries = 10_000)
+	void toString_ShouldMatchBigDecimal(@ForAll long minorUnits, @ForAll @IntRange(min = 0, max = 6) int scale) {
+		assertThat(new Money(minorUnits, scale).toString()).isEqualTo(BigDecimal.valueOf(minorUnits, scale).toString());
+	}
+
+	@Property(tries = 10_000)
+	void divideHalfUp_ShouldMatchBigDecimalRounding(@ForAll long dividend,
+			@ForAll @LongRange(min = 1, max = Long.MAX_VALUE) long divisor) {
+		assertThat(Money.divideHalfUp(dividend, divisor)).isEqualTo(
+				BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP).longValue());
+	}
+
+	@Provide
+	Arbitrary<BigDecimal> rates() {
+		// Up to 12 decimals, so rates finer than CurrencyRate.RATE_SCALE exercise the fallback
+		Arbitrary<Long> unscaled = Arbitraries.longs().between(1, 2_000_000_000_000L);
+		Arbitrary<Integer> scale = Arbitraries.integers().between(0, 12);
+		return Combinators.combine(unscaled, scale)
+			.as(BigDecimal::valueOf)
+			.filter(rate -> rate.compareTo(MIN_RATE) >= 0 && rate.compareTo(MAX_RATE) <= 0);
+	}
+
+	@Provide
+	Arbitrary<String> currencies() {
+		return Arbitraries.of("EUR", "JPY", "KWD", "CLF");
+	}
+
+	@Test
+	void of_ShouldKeepScaleOfAmount() {
+		// Act & Assert
+		assertThat(Money.of(new BigDecimal("99.99"))).isEqualTo(new Money(9999, 2));
+		assertThat(Money.of(new BigDecimal("10"))).isEqualTo(new Money(10, 0));
+		assertThat(Money.of(new BigDecimal("1E+2"))).isEqualTo(new Money(100, 0));
+		assertThat(Money.of(null)).isNull();
+	}
+
+	@Test
+	void of_WithAmountBeyondLongRange_ShouldThrowException() {
+		// Act & Assert
+		assertThatThrownBy(() -> Money.of(new BigDecimal("100000000000000000000.00")))
+			.isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void toString_ShouldPadFractionDigits() {
+		// Act & Assert
+		assertThat(new Money(1005, 2)).hasToString("10.05");
+		assertThat(new Money(1000, 2)).hasToString("10.00");
+		assertThat(new Money(-5, 3)).hasToString("-0.005");
+		assertThat(new Money(14704, 0)).hasToString("14704");
+	}
+
+	@Test
+	void convert_WithRateFinerThanRateScale_ShouldStillMatchBigDecimal() {
+		// Arrange
+		BigDecimal rate = new BigDecimal("0.912345678901");
+		CurrencyRate currencyRate = CurrencyRate.of("EUR", rate);
+
+		// Act
+		Money converted = currencyRate.convert(new Money(9999, 2));
+
+		// Assert
+		assertThat(currencyRate.scaledRate()).isZero();
+		assertThat(converted)
+			.isEqualTo(Money.of(new BigDecimal("99.99").multiply(rate).setScale(2, RoundingMode.HALF_UP)));
+	}
+
+	@Test
+	void moneyConverter_ShouldRoundTripDecimalColumn() {
+		// Arrange
+		MoneyConverter converter = new MoneyConverter();
+
+		// Act
+		BigDecimal column = converter.convertToDatabaseColumn(new Money(9999, 2));
+
+		// Assert
+		assertThat(column).isEqualTo(new BigDecimal("99.99"));
+		assertThat(converter.convertToEntityAttribute(column)).isEqualTo(new Money(9999, 2));
+		assertThat(converter.convertToDatabaseColumn(null)).isNull();
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.example.demo.product.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductFieldTest {
+
+	@Test
+	void parse_ShouldReturnFieldsByJsonName() {
+		assertThat(ProductField.parse(" priceUSD,id ,name,,id")).containsExactly(ProductField.ID, ProductField.NAME,
+				ProductField.PRICE_USD);
+	}
+
+	@Test
+	void parse_WhenFieldUnknown_ShouldThrowException() {
+		assertThatThrownBy(() -> ProductField.parse("id,version")).isInstanceOf(IllegalArgumentException.class)
+			.hasMessageStartingWith("Unknown field: version. Allowed fields: id,name,description,priceUSD");
+	}
+
+	@Test
+	void parse_WhenNoFieldGiven_ShouldThrowException() {
+		assertThatThrownBy(() -> ProductField.parse(" , ")).isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("At least one field must be requested");
+	}
+
+	@Test
+	void isSortable_ShouldAcceptOnlyEntityAttributes() {
+		assertThat(ProductField.isSortable("price")).isTrue();
+		assertThat(ProductField.isSortable("createdAt")).isTrue();
+		assertThat(ProductField.isSortable("priceUSD")).isFalse();
+		assertThat(ProductField.isSortable("currency")).isFalse();
+		assertThat(ProductField.isSortable("name desc, (select 1)")).isFalse();
+	}
+
+	@Test
+	void isConverted_ShouldBeTrueOnlyForFieldsNeedingRates() {
+		assertThat(ProductField.PRICE_EUR.isConverted()).isTrue();
+		assertThat(ProductField.PRICE.isConverted()).isTrue();
+		assertThat(ProductField.CURRENCY.isConverted()).isTrue();
+		assertThat(ProductField.PRICE_USD.isConverted()).isFalse();
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.api.PageSink;
+import com.example.demo.product.api.ProductRequest;
+import com.example.demo.product.api.ProductResponse;
+import jakarta.persistence.EntityManager;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductOperationEventAspectTest {
+
+	@TempDir
+	private Path directory;
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+
+	private final ExchangeRateProvider exchangeRateProvider = mock(ExchangeRateProvider.class);
+
+	private ProductService productService;
+
+	@BeforeEach
+	void setUp() {
+		ProductService target = new ProductService(productRepository, exchangeRateProvider, mock(EntityManager.class));
+		AspectJProxyFactory factory = new AspectJProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		factory.addAspect(new ProductOperationEventAspect());
+		productService = factory.getProxy();
+		when(exchangeRateProvider.currentRates())
+			.thenReturn(ExchangeRates.of("USD", Map.of("EUR", new BigDecimal("0.91"), "GBP", new BigDecimal("0.79")),
+					Instant.now()));
+	}
+
+	@Test
+	void getAllProducts_WhenRecording_ShouldRecordOperationPageMappingAndRateLookups() throws Exception {
+		// Arrange
+		PageRequest pageable = PageRequest.of(2, 10, Sort.by("name"));
+		Product product = new Product("Recorded Product", "Recorded by JFR", Money.of(new BigDecimal("10.00")),
+				"Recorded", "https://example.com/recorded.jpg", true);
+		when(productRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(product), pageable, 21));
+
+		// Act
+		List<RecordedEvent> events = record(() -> productService.getAllProducts(pageable, "GBP"));
+
+		// Assert
+		RecordedEvent operation = single(events, "com.example.demo.ProductOperation");
+		assertThat(operation.getString("operation")).isEqualTo("getAllProducts");
+		assertThat(operation.getString("arguments")).isEqualTo("page=2 size=10 sort=name: ASC, \"GBP\"");
+		assertThat(operation.getString("failure")).isNull();
+		RecordedEvent mapping = single(events, "com.example.demo.PageMapping");
+		assertThat(mapping.getInt("rows")).isEqualTo(1);
+		assertThat(mapping.getInt("pageNumber")).isEqualTo(2);
+		assertThat(mapping.getBoolean("projected")).isFalse();
+		assertThat(events)
+			.filteredOn(event -> event.getEventType().getName().equals("com.example.demo.ExchangeRateLookup"))
+			.extracting(event -> event.getString("currency") + "=" + event.getBoolean("hit"))
+			.containsExactlyInAnyOrder("EUR=true", "GBP=true");
+	}
+
+	@Test
+	void getProductById_WhenOperationFails_ShouldRecordFailure() throws Exception {
+		// Arrange
+		when(productRepository.findById(42L)).thenReturn(Optional.empty());
+
+		// Act
+		List<RecordedEvent> events = record(() -> assertThatThrownBy(() -> productService.getProductById(42L, null))
+			.isInstanceOf(ProductNotFoundException.class));
+
+		// Assert
+		RecordedEvent operation = single(events, "com.example.demo.ProductOperation");
+		assertThat(operation.getString("arguments")).isEqualTo("42, null");
+		assertThat(operation.getString("failure")).isEqualTo("ProductNotFoundException");
+	}
+
+	@Test
+	void summarize_ShouldBoundTextAndSkipSinks() {
+		// Arrange
+		ProductRequest request = new ProductRequest("x".repeat(100), "description", BigDecimal.ONE, "category", null,
+				true);
+		PageSink<ProductResponse> sink = mock();
+
+		// Act
+		String summary = ProductOperationEventAspect.summarize(new Object[] { 7L, request, sink });
+
+		// Assert
+		assertThat(summary).isEqualTo("7, request(name=" + "x".repeat(64) + "...)");
+	}
+
+	private List<RecordedEvent> record(Runnable action) throws Exception {
+		Path file = directory.resolve("events.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(ProductOperationEvent.class);
+			recording.enable(PageMappingEvent.class);
+			recording.enable(ExchangeRateLookupEvent.class);
+			recording.start();
+			action.run();
+			recording.stop();
+			recording.dump(file);
+		}
+		return RecordingFile.readAllEvents(file);
+	}
+
+	private static RecordedEvent single(List<RecordedEvent> events, String name) {
+		List<RecordedEvent> matching = events.stream()
+			.filter(event -> event.getEventType().getName().equals(name))
+			.toList();
+		assertThat(matching).hasSize(1);
+		return matching.get(0);
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.api.ProductRequest;
+import com.example.demo.product.api.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Connection wait and execution time of {@link ProductRepository} methods, recorded
+ * through the real Spring Data repository proxy.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductRepositoryTimingTest {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void getProductById_ShouldRecordAcquireAndExecutionOfFindById() {
+		// Arrange
+		ProductResponse product = productService.createProduct(new ProductRequest(
+				"Timed Product " + UUID.randomUUID(), "A product used to check repository timing",
+				new BigDecimal("10.00"), "Timing Category", "https://example.com/timing.jpg", true), null);
+		long before = count("repository.execution");
+
+		// Act
+		productService.getProductById(product.id(), null);
+
+		// Assert
+		assertThat(count("repository.execution")).isEqualTo(before + 1);
+		assertThat(timer("repository.connection.acquire").count()).isPositive();
+	}
+
+	private long count(String name) {
+		Timer timer = meterRegistry.find(name).tag("repository", "ProductRepository").tag("method", "findById").timer();
+		return (timer != null) ? timer.count() : 0;
+	}
+
+	private Timer timer(String name) {
+		return meterRegistry.get(name).tag("repository", "ProductRepository").tag("method", "findById").timer();
+	}
+
+}
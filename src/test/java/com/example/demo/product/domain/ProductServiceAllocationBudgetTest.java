@@ -0,0 +1,64 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.product.api.ProductRequest;
+import com.example.demo.product.api.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.example.demo.common.accounting.AllocationAssert.assertThatAllocation;
+
+/**
+ * Allocation budgets of the product read paths against the real persistence layer, so a
+ * change that makes them allocate noticeably more fails the build. The budgets leave
+ * headroom over the measured steady state; lower them when an optimization lands.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceAllocationBudgetTest {
+
+	private static final int PAGE_SIZE = 20;
+
+	@Autowired
+	private ProductService productService;
+
+	private ProductResponse product;
+
+	@BeforeEach
+	void setUp() {
+		product = productService.createProduct(request("Allocation Product " + UUID.randomUUID()), null);
+		for (int i = 1; i < PAGE_SIZE; i++) {
+			productService.createProduct(request("Allocation Product " + UUID.randomUUID()), null);
+		}
+	}
+
+	@Test
+	void getProductById_ShouldStayWithinAllocationBudget() {
+		// Act & Assert
+		assertThatAllocation(() -> productService.getProductById(product.id(), "EUR"))
+			.allocatesAtMost(DataSize.ofKilobytes(256));
+	}
+
+	@Test
+	void getAllProducts_ShouldStayWithinAllocationBudget() {
+		// Arrange
+		PageRequest pageable = PageRequest.of(0, PAGE_SIZE);
+
+		// Act & Assert
+		assertThatAllocation(() -> productService.getAllProducts(pageable, "EUR"))
+			.allocatesAtMost(DataSize.ofMegabytes(2));
+	}
+
+	private static ProductRequest request(String name) {
+		return new ProductRequest(name, "A product used to check allocation budgets", new BigDecimal("10.00"),
+				"Allocation Category", "https://example.com/allocation.jpg", true);
+	}
+
+}
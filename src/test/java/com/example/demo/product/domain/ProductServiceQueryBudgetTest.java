@@ -0,0 +1,88 @@
+package com.example.demo.product.domain;
+
+import com.example.demo.common.sql.QueryStats;
+import com.example.demo.product.api.ProductRequest;
+import com.example.demo.product.api.ProductResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.example.demo.common.sql.QueryStatsAssert.assertThatQueries;
+
+/**
+ * SQL statement budgets of the product service against the real persistence layer.
+ * {@link ProductServiceTest} mocks the repository and cannot see the statements issued.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceQueryBudgetTest {
+
+	@Autowired
+	private ProductService productService;
+
+	private ProductResponse product;
+
+	@BeforeEach
+	void setUp() {
+		product = productService.createProduct(request("Budget Product " + UUID.randomUUID()), null);
+	}
+
+	@Test
+	void getProductById_ShouldRunSingleStatement() {
+		// Act
+		QueryStats stats = QueryStats.measure(() -> productService.getProductById(product.id(), null));
+
+		// Assert
+		assertThatQueries(stats).hasStatements(1).hasRowsAtMost(1);
+	}
+
+	@Test
+	void getAllProducts_ShouldRunPageAndCountQueriesOnly() {
+		// Act
+		QueryStats stats = QueryStats.measure(() -> productService.getAllProducts(PageRequest.of(0, 20), null));
+
+		// Assert
+		assertThatQueries(stats).hasStatementsAtMost(2).hasRowsAtMost(21).hasNoRepeatedStatements();
+	}
+
+	@Test
+	void createProduct_ShouldCheckNameAndInsert() {
+		// Act
+		QueryStats stats = QueryStats
+			.measure(() -> productService.createProduct(request("Budget Product " + UUID.randomUUID()), null));
+
+		// Assert
+		assertThatQueries(stats).hasStatementsAtMost(2).hasNoRepeatedStatements();
+	}
+
+	@Test
+	void updateProduct_ShouldLoadCheckNameAndUpdate() {
+		// Act
+		QueryStats stats = QueryStats.measure(() -> productService.updateProduct(product.id(),
+				request("Budget Product " + UUID.randomUUID()), null));
+
+		// Assert
+		assertThatQueries(stats).hasStatementsAtMost(3).hasNoRepeatedStatements();
+	}
+
+	@Test
+	void deleteProduct_ShouldNotRunMoreThanThreeStatements() {
+		// Act
+		QueryStats stats = QueryStats.measure(() -> productService.deleteProduct(product.id()));
+
+		// Assert
+		assertThatQueries(stats).hasStatementsAtMost(3).hasNoRepeatedStatements();
+	}
+
+	private static ProductRequest request(String name) {
+		return new ProductRequest(name, "A product used to check statement budgets", new BigDecimal("10.00"),
+				"Budget Category", "https://example.com/budget.jpg", true);
+	}
+
+}
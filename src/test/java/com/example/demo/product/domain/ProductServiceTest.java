@@ -1,11 +1,14 @@
 package com.example.demo.product.domain;
 
+import com.example.demo.product.api.PageSink;
 import com.example.demo.product.api.ProductRequest;
 import com.example.demo.product.api.ProductResponse;
-import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,15 +17,20 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,8 +39,18 @@ class ProductServiceTest {
 	@Mock
 	private ProductRepository productRepository;
 
+	private static final BigDecimal EUR_RATE = new BigDecimal("0.91");
+
+	private static final BigDecimal JPY_RATE = new BigDecimal("147.25");
+
+	@Mock
+	private ExchangeRateProvider exchangeRateProvider;
+
 	@Mock
-	private CurrencyExchangeService currencyExchangeService;
+	private EntityManager entityManager;
+
+	@Mock
+	private PageSink<ProductResponse> sink;
 
 	@InjectMocks
 	private ProductService productService;
@@ -44,8 +62,8 @@ class ProductServiceTest {
 	@BeforeEach
 	void setUp() {
 		// Setup test product
-		product = new Product("Test Product", "Test Description", new BigDecimal("99.99"), "Test Category",
-				"https://example.com/test.jpg", true);
+		product = new Product("Test Product", "Test Description", Money.of(new BigDecimal("99.99")),
+				"Test Category", "https://example.com/test.jpg", true);
 		// Use reflection to set the ID field
 		try {
 			var field = Product.class.getDeclaredField("id");
@@ -60,11 +78,10 @@ class ProductServiceTest {
 		productRequest = new ProductRequest("Test Product", "Test Description", new BigDecimal("99.99"),
 				"Test Category", "https://example.com/test.jpg", true);
 
-		// Setup currency exchange service mock
+		// Setup exchange rate provider mock
 		// Assuming USD to EUR rate is 0.91 (1 USD = 0.91 EUR)
-		lenient().when(currencyExchangeService.getExchangeRate(eq("USD"), eq("EUR")))
-			.thenReturn(new BigDecimal("0.91"));
-		lenient().when(currencyExchangeService.getExchangeRate(eq("EUR"), eq("USD"))).thenReturn(new BigDecimal("1.1"));
+		lenient().when(exchangeRateProvider.currentRates())
+			.thenReturn(ExchangeRates.of("USD", Map.of("EUR", EUR_RATE, "JPY", JPY_RATE), Instant.now()));
 	}
 
 	@Test
@@ -75,7 +92,7 @@ class ProductServiceTest {
 		when(productRepository.findAll(pageable)).thenReturn(productPage);
 
 		// Act
-		Page<ProductResponse> result = productService.getAllProducts(pageable);
+		Page<ProductResponse> result = productService.getAllProducts(pageable, null);
 
 		// Assert
 		assertThat(result).isNotNull();
@@ -83,10 +100,73 @@ class ProductServiceTest {
 		ProductResponse productResponse = result.getContent().get(0);
 		assertThat(productResponse.name()).isEqualTo(product.getName());
 		assertThat(productResponse.priceUSD()).isEqualTo(product.getPrice());
-		assertThat(productResponse.priceEUR()).isEqualTo(product.getPrice()
-			.divide(currencyExchangeService.getExchangeRate("USD", "EUR"), 2, RoundingMode.HALF_UP));
+		assertThat(productResponse.priceEUR()).isEqualTo(eurPriceOf(product));
 		verify(productRepository).findAll(pageable);
-		verify(currencyExchangeService, atLeastOnce()).getExchangeRate("USD", "EUR");
+		verify(exchangeRateProvider, atLeastOnce()).currentRates();
+	}
+
+	@Test
+	void getAllProducts_ShouldResolveExchangeRateOncePerPage() {
+		// Arrange
+		Pageable pageable = PageRequest.of(0, 10);
+		Product second = new Product("Second Product", "Second Description", Money.of(new BigDecimal("10.00")),
+				"Test Category", "https://example.com/second.jpg", true);
+		Product third = new Product("Third Product", "Third Description", Money.of(new BigDecimal("20.00")),
+				"Test Category", "https://example.com/third.jpg", true);
+		Page<Product> productPage = new PageImpl<>(List.of(product, second, third), pageable, 3);
+		when(productRepository.findAll(pageable)).thenReturn(productPage);
+
+		// Act
+		Page<ProductResponse> result = productService.getAllProducts(pageable, null);
+
+		// Assert
+		assertThat(result.getContent()).extracting(ProductResponse::priceEUR)
+			.containsExactly(Money.of(new BigDecimal("90.99")), Money.of(new BigDecimal("9.10")),
+					Money.of(new BigDecimal("18.20")));
+		verify(exchangeRateProvider, times(1)).currentRates();
+	}
+
+	@Test
+	void getProductById_WithRequestedCurrency_ShouldPriceInThatCurrency() {
+		// Arrange
+		Long id = 1L;
+		when(productRepository.findById(id)).thenReturn(Optional.of(product));
+
+		// Act
+		ProductResponse result = productService.getProductById(id, "JPY");
+
+		// Assert
+		assertThat(result.currency()).isEqualTo("JPY");
+		assertThat(result.price()).isEqualTo(Money.of(new BigDecimal("14724")));
+		assertThat(result.priceEUR()).isEqualTo(Money.of(new BigDecimal("90.99")));
+	}
+
+	@Test
+	void getProductById_WithCurrencyMissingFromSnapshot_ShouldThrowException() {
+		// Arrange
+		Long id = 1L;
+		when(productRepository.findById(id)).thenReturn(Optional.of(product));
+
+		// Act & Assert
+		assertThatThrownBy(() -> productService.getProductById(id, "CHF")).isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unsupported currency: CHF");
+	}
+
+	@Test
+	void getProductById_WhenNoRatesAvailable_ShouldOmitConvertedPriceAndPriceEurAtPar() {
+		// Arrange
+		Long id = 1L;
+		when(productRepository.findById(id)).thenReturn(Optional.of(product));
+		when(exchangeRateProvider.currentRates()).thenReturn(ExchangeRates.EMPTY);
+
+		// Act
+		ProductResponse result = productService.getProductById(id, "CHF");
+
+		// Assert
+		assertThat(result.currency()).isEqualTo("CHF");
+		assertThat(result.price()).isNull();
+		assertThat(result.priceUSD()).isEqualTo(product.getPrice());
+		assertThat(result.priceEUR()).isEqualTo(product.getPrice());
 	}
 
 	@Test
@@ -98,7 +178,7 @@ class ProductServiceTest {
 		when(productRepository.findByCategory(category, pageable)).thenReturn(productPage);
 
 		// Act
-		Page<ProductResponse> result = productService.getProductsByCategory(category, pageable);
+		Page<ProductResponse> result = productService.getProductsByCategory(category, pageable, null);
 
 		// Assert
 		assertThat(result).isNotNull();
@@ -106,10 +186,9 @@ class ProductServiceTest {
 		ProductResponse productResponse = result.getContent().get(0);
 		assertThat(productResponse.category()).isEqualTo(category);
 		assertThat(productResponse.priceUSD()).isEqualTo(product.getPrice());
-		assertThat(productResponse.priceEUR()).isEqualTo(product.getPrice()
-			.divide(currencyExchangeService.getExchangeRate("USD", "EUR"), 2, RoundingMode.HALF_UP));
+		assertThat(productResponse.priceEUR()).isEqualTo(eurPriceOf(product));
 		verify(productRepository).findByCategory(category, pageable);
-		verify(currencyExchangeService, atLeastOnce()).getExchangeRate("USD", "EUR");
+		verify(exchangeRateProvider, atLeastOnce()).currentRates();
 	}
 
 	@Test
@@ -121,7 +200,7 @@ class ProductServiceTest {
 		when(productRepository.findByNameContainingIgnoreCase(name, pageable)).thenReturn(productPage);
 
 		// Act
-		Page<ProductResponse> result = productService.getProductsByName(name, pageable);
+		Page<ProductResponse> result = productService.getProductsByName(name, pageable, null);
 
 		// Assert
 		assertThat(result).isNotNull();
@@ -129,10 +208,124 @@ class ProductServiceTest {
 		ProductResponse productResponse = result.getContent().get(0);
 		assertThat(productResponse.name()).contains(name);
 		assertThat(productResponse.priceUSD()).isEqualTo(product.getPrice());
-		assertThat(productResponse.priceEUR()).isEqualTo(product.getPrice()
-			.divide(currencyExchangeService.getExchangeRate("USD", "EUR"), 2, RoundingMode.HALF_UP));
+		assertThat(productResponse.priceEUR()).isEqualTo(eurPriceOf(product));
 		verify(productRepository).findByNameContainingIgnoreCase(name, pageable);
-		verify(currencyExchangeService, atLeastOnce()).getExchangeRate("USD", "EUR");
+		verify(exchangeRateProvider, atLeastOnce()).currentRates();
+	}
+
+	@Test
+	void getAllProducts_WithFieldsWithoutConvertedPrice_ShouldSkipConversion() {
+		// Arrange
+		Pageable pageable = PageRequest.of(0, 10);
+		Set<ProductField> fields = EnumSet.of(ProductField.ID, ProductField.NAME, ProductField.PRICE_USD);
+		Tuple row = mock(Tuple.class);
+		when(row.get("id", Long.class)).thenReturn(1L);
+		when(row.get("name", String.class)).thenReturn("Test Product");
+		when(row.get("price", Money.class)).thenReturn(product.getPrice());
+		when(productRepository.findFields(fields, ProductFilter.ALL, pageable))
+			.thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+
+		// Act
+		Page<ProductResponse> result = productService.getAllProducts(pageable, "JPY", fields);
+
+		// Assert
+		ProductResponse productResponse = result.getContent().get(0);
+		assertThat(productResponse.id()).isEqualTo(1L);
+		assertThat(productResponse.name()).isEqualTo("Test Product");
+		assertThat(productResponse.priceUSD()).isEqualTo(product.getPrice());
+		assertThat(productResponse.description()).isNull();
+		assertThat(productResponse.priceEUR()).isNull();
+		assertThat(productResponse.price()).isNull();
+		assertThat(productResponse.currency()).isNull();
+		assertThat(productResponse.available()).isNull();
+		assertThat(productResponse.version()).isEqualTo(ProductResponse.NO_VERSION);
+		verifyNoInteractions(exchangeRateProvider);
+	}
+
+	@Test
+	void getProductsByCategory_WithConvertedPriceField_ShouldConvertOnlyRequestedPrice() {
+		// Arrange
+		Pageable pageable = PageRequest.of(0, 10);
+		Set<ProductField> fields = EnumSet.of(ProductField.PRICE, ProductField.CURRENCY);
+		Tuple row = mock(Tuple.class);
+		when(row.get("price", Money.class)).thenReturn(product.getPrice());
+		when(productRepository.findFields(fields, ProductFilter.byCategory("Test Category"), pageable))
+			.thenReturn(new PageImpl<>(List.of(row), pageable, 1));
+
+		// Act
+		Page<ProductResponse> result = productService.getProductsByCategory("Test Category", pageable, "JPY",
+				fields);
+
+		// Assert
+		ProductResponse productResponse = result.getContent().get(0);
+		assertThat(productResponse.currency()).isEqualTo("JPY");
+		assertThat(productResponse.price()).isNotNull();
+		assertThat(productResponse.priceUSD()).isNull();
+		assertThat(productResponse.priceEUR()).isNull();
+		assertThat(productResponse.id()).isNull();
+		verify(exchangeRateProvider).currentRates();
+	}
+
+	@Test
+	void getProductById_WithFieldsWhenProductDoesNotExist_ShouldThrowException() {
+		// Arrange
+		Set<ProductField> fields = EnumSet.of(ProductField.NAME);
+		when(productRepository.findFieldsById(999L, fields)).thenReturn(Optional.empty());
+
+		// Act & Assert
+		assertThatThrownBy(() -> productService.getProductById(999L, null, fields))
+			.isInstanceOf(ProductNotFoundException.class)
+			.hasMessage("Product not found with ID: 999");
+	}
+
+	@Test
+	void streamAllProducts_ShouldWriteEachProductAndDetachIt() throws IOException {
+		// Arrange
+		Pageable pageable = PageRequest.of(0, 500);
+		when(productRepository.count()).thenReturn(1L);
+		when(productRepository.streamAllBy(pageable)).thenReturn(Stream.of(product));
+
+		// Act
+		productService.streamAllProducts(pageable, "JPY", sink);
+
+		// Assert
+		ArgumentCaptor<ProductResponse> written = ArgumentCaptor.forClass(ProductResponse.class);
+		var order = inOrder(sink, entityManager);
+		order.verify(sink).add(written.capture());
+		order.verify(entityManager).detach(product);
+		order.verify(sink).finish(pageable, 1L);
+		assertThat(written.getValue().id()).isEqualTo(1L);
+		assertThat(written.getValue().price()).isEqualTo(Money.of(new BigDecimal("14724")));
+	}
+
+	@Test
+	void streamProductsByCategory_ShouldWriteProductsOfCategory() throws IOException {
+		// Arrange
+		Pageable pageable = PageRequest.of(0, 500);
+		when(productRepository.countByCategory("Test Category")).thenReturn(1L);
+		when(productRepository.streamByCategory("Test Category", pageable)).thenReturn(Stream.of(product));
+
+		// Act
+		productService.streamProductsByCategory("Test Category", pageable, null, sink);
+
+		// Assert
+		verify(sink).add(any(ProductResponse.class));
+		verify(sink).finish(pageable, 1L);
+	}
+
+	@Test
+	void streamProductsByName_WhenNothingMatches_ShouldWriteEmptyPage() throws IOException {
+		// Arrange
+		Pageable pageable = PageRequest.of(0, 500);
+		when(productRepository.countByNameContainingIgnoreCase("none")).thenReturn(0L);
+		when(productRepository.streamByNameContainingIgnoreCase("none", pageable)).thenReturn(Stream.empty());
+
+		// Act
+		productService.streamProductsByName("none", pageable, null, sink);
+
+		// Assert
+		verify(sink, never()).add(any());
+		verify(sink).finish(pageable, 0L);
 	}
 
 	@Test
@@ -142,16 +335,15 @@ class ProductServiceTest {
 		when(productRepository.findById(id)).thenReturn(Optional.of(product));
 
 		// Act
-		ProductResponse result = productService.getProductById(id);
+		ProductResponse result = productService.getProductById(id, null);
 
 		// Assert
 		assertThat(result).isNotNull();
 		assertThat(result.id()).isEqualTo(id);
 		assertThat(result.priceUSD()).isEqualTo(product.getPrice());
-		assertThat(result.priceEUR()).isEqualTo(product.getPrice()
-			.divide(currencyExchangeService.getExchangeRate("USD", "EUR"), 2, RoundingMode.HALF_UP));
+		assertThat(result.priceEUR()).isEqualTo(eurPriceOf(product));
 		verify(productRepository).findById(id);
-		verify(currencyExchangeService, atLeastOnce()).getExchangeRate("USD", "EUR");
+		verify(exchangeRateProvider, atLeastOnce()).currentRates();
 	}
 
 	@Test
@@ -161,7 +353,7 @@ class ProductServiceTest {
 		when(productRepository.findById(id)).thenReturn(Optional.empty());
 
 		// Act & Assert
-		assertThatThrownBy(() -> productService.getProductById(id)).isInstanceOf(EntityNotFoundException.class)
+		assertThatThrownBy(() -> productService.getProductById(id, null)).isInstanceOf(ProductNotFoundException.class)
 			.hasMessageContaining("Product not found with ID: " + id);
 		verify(productRepository).findById(id);
 	}
@@ -173,17 +365,16 @@ class ProductServiceTest {
 		when(productRepository.save(any(Product.class))).thenReturn(product);
 
 		// Act
-		ProductResponse result = productService.createProduct(productRequest);
+		ProductResponse result = productService.createProduct(productRequest, null);
 
 		// Assert
 		assertThat(result).isNotNull();
 		assertThat(result.name()).isEqualTo(productRequest.name());
 		assertThat(result.priceUSD()).isEqualTo(product.getPrice());
-		assertThat(result.priceEUR()).isEqualTo(product.getPrice()
-			.divide(currencyExchangeService.getExchangeRate("USD", "EUR"), 2, RoundingMode.HALF_UP));
+		assertThat(result.priceEUR()).isEqualTo(eurPriceOf(product));
 		verify(productRepository).findByNameIgnoreCase(productRequest.name());
 		verify(productRepository).save(any(Product.class));
-		verify(currencyExchangeService, atLeastOnce()).getExchangeRate("USD", "EUR");
+		verify(exchangeRateProvider, atLeastOnce()).currentRates();
 	}
 
 	@Test
@@ -192,34 +383,42 @@ class ProductServiceTest {
 		when(productRepository.findByNameIgnoreCase(productRequest.name())).thenReturn(Optional.of(product));
 
 		// Act & Assert
-		assertThatThrownBy(() -> productService.createProduct(productRequest))
+		assertThatThrownBy(() -> productService.createProduct(productRequest, null))
 			.isInstanceOf(IllegalArgumentException.class)
 			.hasMessageContaining("Product with name '" + productRequest.name() + "' already exists");
 		verify(productRepository).findByNameIgnoreCase(productRequest.name());
 		verify(productRepository, never()).save(any(Product.class));
 	}
 
+	@Test
+	void createProduct_WithUnsupportedCurrency_ShouldThrowExceptionBeforeSaving() {
+		// Act & Assert
+		assertThatThrownBy(() -> productService.createProduct(productRequest, "CHF"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unsupported currency: CHF");
+		verifyNoInteractions(productRepository);
+	}
+
 	@Test
 	void updateProduct_WhenProductExistsAndNameIsUnique_ShouldUpdateProduct() {
 		// Arrange
 		Long id = 1L;
 		when(productRepository.findById(id)).thenReturn(Optional.of(product));
 		when(productRepository.findByNameIgnoreCase(productRequest.name())).thenReturn(Optional.empty());
-		when(productRepository.save(any(Product.class))).thenReturn(product);
+		when(productRepository.saveAndFlush(any(Product.class))).thenReturn(product);
 
 		// Act
-		ProductResponse result = productService.updateProduct(id, productRequest);
+		ProductResponse result = productService.updateProduct(id, productRequest, null);
 
 		// Assert
 		assertThat(result).isNotNull();
 		assertThat(result.id()).isEqualTo(id);
 		assertThat(result.priceUSD()).isEqualTo(product.getPrice());
-		assertThat(result.priceEUR()).isEqualTo(product.getPrice()
-			.divide(currencyExchangeService.getExchangeRate("USD", "EUR"), 2, RoundingMode.HALF_UP));
+		assertThat(result.priceEUR()).isEqualTo(eurPriceOf(product));
 		verify(productRepository).findById(id);
 		verify(productRepository).findByNameIgnoreCase(productRequest.name());
-		verify(productRepository).save(any(Product.class));
-		verify(currencyExchangeService, atLeastOnce()).getExchangeRate("USD", "EUR");
+		verify(productRepository).saveAndFlush(any(Product.class));
+		verify(exchangeRateProvider, atLeastOnce()).currentRates();
 	}
 
 	@Test
@@ -229,19 +428,19 @@ class ProductServiceTest {
 		when(productRepository.findById(id)).thenReturn(Optional.empty());
 
 		// Act & Assert
-		assertThatThrownBy(() -> productService.updateProduct(id, productRequest))
-			.isInstanceOf(EntityNotFoundException.class)
+		assertThatThrownBy(() -> productService.updateProduct(id, productRequest, null))
+			.isInstanceOf(ProductNotFoundException.class)
 			.hasMessageContaining("Product not found with ID: " + id);
 		verify(productRepository).findById(id);
-		verify(productRepository, never()).save(any(Product.class));
+		verify(productRepository, never()).saveAndFlush(any(Product.class));
 	}
 
 	@Test
 	void updateProduct_WhenNameExistsForDifferentProduct_ShouldThrowException() {
 		// Arrange
 		Long id = 1L;
-		Product existingProduct = new Product(productRequest.name(), "Another Description", new BigDecimal("199.99"),
-				"Another Category", "https://example.com/another.jpg", true);
+		Product existingProduct = new Product(productRequest.name(), "Another Description",
+				Money.of(new BigDecimal("199.99")), "Another Category", "https://example.com/another.jpg", true);
 		// Use reflection to set the ID field to a different ID
 		try {
 			var field = Product.class.getDeclaredField("id");
@@ -256,12 +455,21 @@ class ProductServiceTest {
 		when(productRepository.findByNameIgnoreCase(productRequest.name())).thenReturn(Optional.of(existingProduct));
 
 		// Act & Assert
-		assertThatThrownBy(() -> productService.updateProduct(id, productRequest))
+		assertThatThrownBy(() -> productService.updateProduct(id, productRequest, null))
 			.isInstanceOf(IllegalArgumentException.class)
 			.hasMessageContaining("Another product with name '" + productRequest.name() + "' already exists");
 		verify(productRepository).findById(id);
 		verify(productRepository).findByNameIgnoreCase(productRequest.name());
-		verify(productRepository, never()).save(any(Product.class));
+		verify(productRepository, never()).saveAndFlush(any(Product.class));
+	}
+
+	@Test
+	void updateProduct_WithUnsupportedCurrency_ShouldThrowExceptionBeforeSaving() {
+		// Act & Assert
+		assertThatThrownBy(() -> productService.updateProduct(1L, productRequest, "CHF"))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Unsupported currency: CHF");
+		verifyNoInteractions(productRepository);
 	}
 
 	@Test
@@ -286,10 +494,14 @@ class ProductServiceTest {
 		when(productRepository.existsById(id)).thenReturn(false);
 
 		// Act & Assert
-		assertThatThrownBy(() -> productService.deleteProduct(id)).isInstanceOf(EntityNotFoundException.class)
+		assertThatThrownBy(() -> productService.deleteProduct(id)).isInstanceOf(ProductNotFoundException.class)
 			.hasMessageContaining("Product not found with ID: " + id);
 		verify(productRepository).existsById(id);
 		verify(productRepository, never()).deleteById(any());
 	}
 
+	private static Money eurPriceOf(Product product) {
+		return Money.of(product.getPrice().toBigDecimal().multiply(EUR_RATE).setScale(2, RoundingMode.HALF_UP));
+	}
+
 }
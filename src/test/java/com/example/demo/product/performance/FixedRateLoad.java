@@ -0,0 +1,46 @@
+package com.example.demo.product.performance;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues requests on a fixed schedule and records their latencies in an HdrHistogram.
+ * Each latency is measured from the time the request was meant to start rather than when
+ * it actually started: when one request stalls, the requests queued behind it are
+ * charged the wait, as real clients arriving at that rate would be. Timing from the
+ * actual start would hide the stall (coordinated omission).
+ */
+final class FixedRateLoad {
+
+	private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+	private FixedRateLoad() {
+	}
+
+	/**
+	 * Runs the requests one after the other at the given rate.
+	 * @param requests the number of requests
+	 * @param interval the intended time between request starts
+	 * @param request issues one request
+	 * @return the latencies in microseconds
+	 */
+	static Histogram run(int requests, Duration interval, Runnable request) {
+		Histogram histogram = new Histogram(HIGHEST_MICROS, 3);
+		long intervalNanos = interval.toNanos();
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			long intendedStart = start + i * intervalNanos;
+			for (long wait = intendedStart - System.nanoTime(); wait > 0; wait = intendedStart - System.nanoTime()) {
+				LockSupport.parkNanos(wait);
+			}
+			request.run();
+			long micros = (System.nanoTime() - intendedStart) / 1000;
+			histogram.recordValue(Math.min(micros, HIGHEST_MICROS));
+		}
+		return histogram;
+	}
+
+}
@@ -4,17 +4,26 @@ import com.example.demo.config.MySQLTestContainer;
 import com.example.demo.product.api.PageResponse;
 import com.example.demo.product.api.ProductRequest;
 import com.example.demo.product.api.ProductResponse;
-import org.junit.jupiter.api.BeforeEach;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Histogram;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -26,6 +35,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 /**
  * Performance test for the Product API. This test can run in two modes: 1. Local mode: -
@@ -37,6 +47,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("performance-test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class ProductPerformanceTest extends MySQLTestContainer {
 
 	private static final int TOTAL_PRODUCTS = 1000;
@@ -45,21 +56,35 @@ class ProductPerformanceTest extends MySQLTestContainer {
 
 	private static final int TOTAL_PAGES = TOTAL_PRODUCTS / PAGE_SIZE;
 
+	private static final int FIXED_RATE_REQUESTS = 500;
+
+	private static final int CONCURRENT_REQUESTS = 1000;
+
 	@Value("${performance.test.max-execution-time-ms}")
 	private long maxExecutionTimeMs;
 
+	@Value("${performance.test.max-pinned-time-ms}")
+	private long maxPinnedTimeMs;
+
 	@Value("${performance.test.mode}")
 	private String testMode;
 
 	@Value("${performance.test.production-endpoint}")
 	private String productionEndpoint;
 
+	@Value("${performance.test.production-management-endpoint:}")
+	private String productionManagementEndpoint;
+
 	@Autowired
 	private TestRestTemplate restTemplate;
 
 	private String baseUrl;
 
-	@BeforeEach
+	/**
+	 * Seeds the products once for all tests. The names are unique, so products left by an
+	 * earlier run against the same database are counted instead of being created again.
+	 */
+	@BeforeAll
 	void setup() {
 		// Set the base URL based on the test mode
 		if ("production".equals(testMode)) {
@@ -70,6 +95,12 @@ class ProductPerformanceTest extends MySQLTestContainer {
 			baseUrl = ""; // Empty string for local mode (will use the random port)
 			System.out.println("Running in local mode");
 
+			long existing = countSeededProducts();
+			if (existing >= TOTAL_PRODUCTS) {
+				System.out.println("Found " + existing + " products from an earlier run");
+				return;
+			}
+
 			// Create 1000 products in parallel for better performance
 			System.out.println("Creating " + TOTAL_PRODUCTS + " products...");
 			Instant startCreation = Instant.now();
@@ -136,6 +167,94 @@ class ProductPerformanceTest extends MySQLTestContainer {
 		System.out.println("Total performance test completed in " + totalExecutionTimeMs + "ms");
 	}
 
+	@Test
+	void getProductByIdAtFixedRateLatencyTest() {
+		String url = baseUrl + "/api/v1/products?page=0&size={size}";
+		ResponseEntity<PageResponse<ProductResponse>> page = restTemplate.exchange(url, HttpMethod.GET, null,
+				new ParameterizedTypeReference<PageResponse<ProductResponse>>() {
+				}, PAGE_SIZE);
+		assertThat(page.getBody()).isNotNull();
+		List<Long> ids = page.getBody().content().stream().map(ProductResponse::id).toList();
+
+		// 50 requests per second; latencies include any time spent waiting behind a slow request
+		Histogram latencies = FixedRateLoad.run(FIXED_RATE_REQUESTS, Duration.ofMillis(20), new Runnable() {
+			private int next;
+
+			@Override
+			public void run() {
+				Long id = ids.get(next++ % ids.size());
+				ResponseEntity<ProductResponse> response = restTemplate
+					.getForEntity(baseUrl + "/api/v1/products/{id}", ProductResponse.class, id);
+				assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			}
+		});
+
+		System.out.println("Latency distribution (ms):");
+		latencies.outputPercentileDistribution(System.out, 5, 1000.0);
+		assertThat(latencies.getValueAtPercentile(99.0) / 1000).isLessThanOrEqualTo(maxExecutionTimeMs);
+	}
+
+	@Test
+	void concurrentRequestsPinningTest() throws Exception {
+		// In production Actuator listens on the management port, not on the API endpoint
+		String managementUrl = "production".equals(testMode) ? productionManagementEndpoint : baseUrl;
+		assumeFalse("production".equals(testMode) && managementUrl.isEmpty(),
+				"performance.test.production-management-endpoint is not set");
+		String pinningUrl = managementUrl + "/actuator/pinning";
+		restTemplate.delete(pinningUrl);
+
+		// Far more concurrent requests than carrier threads, so pinned carriers hold up others
+		try (CloseableHttpClient httpClient = concurrentHttpClient();
+				ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+			RestTemplate concurrentClient = new RestTemplateBuilder().rootUri(restTemplate.getRootUri())
+				.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+				.build();
+			List<CompletableFuture<Void>> futures = new ArrayList<>();
+			for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+				final int page = i % TOTAL_PAGES;
+				futures.add(CompletableFuture.runAsync(() -> {
+					ResponseEntity<String> response = concurrentClient
+						.getForEntity(baseUrl + "/api/v1/products?page={page}&size=20", String.class, page);
+					assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+				}, executorService));
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+		}
+
+		// JFR hands events to the pinning monitor about once a second
+		Thread.sleep(2000);
+		JsonNode report = restTemplate.getForObject(pinningUrl + "?limit=5", JsonNode.class);
+		assertThat(report).isNotNull();
+		Duration pinnedTime = Duration.parse(report.get("pinnedTime").asText());
+		System.out.println("Pinned " + report.get("pinnedCount").asLong() + " times for " + pinnedTime.toMillis()
+				+ "ms on " + report.get("carriers").asInt() + " carriers");
+		assertThat(pinnedTime.toMillis()).as("time pinned at %s", report.get("sites"))
+			.isLessThanOrEqualTo(maxPinnedTimeMs);
+	}
+
+	/**
+	 * Creates a client with a connection per concurrent request. The default client pools
+	 * 5 connections per host, which would queue the requests instead.
+	 */
+	private static CloseableHttpClient concurrentHttpClient() {
+		return HttpClients.custom()
+			.setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(CONCURRENT_REQUESTS)
+				.setMaxConnPerRoute(CONCURRENT_REQUESTS)
+				.build())
+			.build();
+	}
+
+	private long countSeededProducts() {
+		ResponseEntity<PageResponse<ProductResponse>> response = restTemplate.exchange(
+				"/api/v1/products/search?name={name}&size=1", HttpMethod.GET, null,
+				new ParameterizedTypeReference<PageResponse<ProductResponse>>() {
+				}, "Performance Test Product");
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isNotNull();
+		return response.getBody().totalElements();
+	}
+
 	private void createProduct(int index) {
 		ProductRequest request = new ProductRequest("Performance Test Product " + index,
 				"This is a product created for performance testing with index " + index,